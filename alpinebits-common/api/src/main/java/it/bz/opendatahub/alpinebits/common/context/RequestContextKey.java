@@ -34,6 +34,16 @@ public final class RequestContextKey {
             "request.username", String.class
     );
 
+    /**
+     * Context key for the username, whose credentials were verified. Only middlewares
+     * that check the credentials may set this key. Note, that the username added by
+     * middlewares that only extract the credentials, e.g. from the <code>Authorization</code>
+     * header, is stored with the {@link #REQUEST_USERNAME} key.
+     */
+    public static final Key<String> REQUEST_AUTHENTICATED_USERNAME = Key.key(
+            "request.authenticated.username", String.class
+    );
+
     /**
      * Context key for password. The {@link Supplier} type of this key represents
      * the intent to not store the password as String in the context, since this
@@ -66,6 +76,14 @@ public final class RequestContextKey {
             "request.content.stream", InputStream.class
     );
 
+    /**
+     * Context key, whose value is <code>true</code> for synthetic warm-up requests.
+     * Middlewares with side effects, e.g. persistence, should skip such requests.
+     */
+    public static final Key<Boolean> REQUEST_WARM_UP = Key.key(
+            "request.warmup", Boolean.class
+    );
+
     private RequestContextKey() {
         // Empty
     }
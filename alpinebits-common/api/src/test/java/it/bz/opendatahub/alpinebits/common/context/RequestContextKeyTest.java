@@ -52,4 +52,9 @@ public class RequestContextKeyTest {
         assertEquals(RequestContextKey.REQUEST_CONTENT_STREAM.getType(), InputStream.class);
     }
 
+    @Test
+    public void testContextKey_RequestWarmUp() {
+        assertEquals(RequestContextKey.REQUEST_WARM_UP.getType(), Boolean.class);
+    }
+
 }
\ No newline at end of file
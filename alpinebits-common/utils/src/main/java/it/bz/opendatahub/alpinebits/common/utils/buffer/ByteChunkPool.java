@@ -0,0 +1,196 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.buffer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of fixed-size byte chunks, that are reused across requests.
+ * <p>
+ * The pool retains at most <code>maxRetained</code> idle chunks. Chunks
+ * released beyond that are left to the garbage collector, chunks acquired
+ * from an empty pool are allocated.
+ * <p>
+ * The pool keeps occupancy metrics, i.e. the number of chunks in use, the number
+ * of idle chunks and the number of allocations. If leak detection is enabled,
+ * {@link ChunkedBuffer} instances that are garbage collected without being
+ * released are logged and counted, and their chunks are returned to the pool.
+ * <p>
+ * The chunks are heap arrays, small enough not to be allocated as humongous
+ * objects by G1 (whose regions are at least 1 MiB).
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class ByteChunkPool {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+    public static final int DEFAULT_MAX_RETAINED = 1024;
+
+    private final int chunkSize;
+    private final int maxRetained;
+    private final Queue<byte[]> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final LongAdder inUseCount = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final boolean leakDetection;
+
+    /**
+     * Create a pool that provides chunks of the given size, without leak detection.
+     *
+     * @param chunkSize   size of the chunks in bytes
+     * @param maxRetained maximum number of idle chunks kept by the pool
+     * @throws IllegalArgumentException if chunkSize is not positive or maxRetained is negative
+     */
+    public ByteChunkPool(int chunkSize, int maxRetained) {
+        this(chunkSize, maxRetained, false);
+    }
+
+    /**
+     * Create a pool that provides chunks of the given size.
+     *
+     * @param chunkSize     size of the chunks in bytes
+     * @param maxRetained   maximum number of idle chunks kept by the pool
+     * @param leakDetection if true, unreleased {@link ChunkedBuffer} instances are detected
+     *                      when they are garbage collected
+     * @throws IllegalArgumentException if chunkSize is not positive or maxRetained is negative
+     */
+    public ByteChunkPool(int chunkSize, int maxRetained, boolean leakDetection) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("The maximum number of retained chunks must not be negative");
+        }
+        this.chunkSize = chunkSize;
+        this.maxRetained = maxRetained;
+        this.leakDetection = leakDetection;
+    }
+
+    /**
+     * Create a pool with {@link #DEFAULT_CHUNK_SIZE} and {@link #DEFAULT_MAX_RETAINED}.
+     *
+     * @return the {@link ByteChunkPool}
+     */
+    public static ByteChunkPool withDefaults() {
+        return new ByteChunkPool(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_RETAINED);
+    }
+
+    /**
+     * Take an idle chunk from the pool, or allocate a new one if the pool is empty.
+     *
+     * @return a chunk of {@link #getChunkSize()} bytes, its content is undefined
+     */
+    public byte[] acquire() {
+        this.acquisitions.increment();
+        this.inUseCount.increment();
+        byte[] chunk = this.idle.poll();
+        if (chunk == null) {
+            this.allocations.increment();
+            return new byte[this.chunkSize];
+        }
+        this.idleCount.decrementAndGet();
+        return chunk;
+    }
+
+    /**
+     * Return a chunk to the pool. Chunks of a different size and chunks
+     * exceeding the retention limit are dropped.
+     *
+     * @param chunk the chunk to return, must not be used afterwards
+     */
+    public void release(byte[] chunk) {
+        if (chunk == null || chunk.length != this.chunkSize) {
+            return;
+        }
+        this.inUseCount.decrement();
+        if (this.idleCount.incrementAndGet() > this.maxRetained) {
+            this.idleCount.decrementAndGet();
+            return;
+        }
+        this.idle.offer(chunk);
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    public int getMaxRetained() {
+        return this.maxRetained;
+    }
+
+    /**
+     * Get the number of idle chunks currently kept by the pool.
+     *
+     * @return number of idle chunks
+     */
+    public int getIdleCount() {
+        return this.idleCount.get();
+    }
+
+    /**
+     * Get the number of chunks that were acquired and not yet released.
+     *
+     * @return number of chunks in use
+     */
+    public long getInUseCount() {
+        return this.inUseCount.sum();
+    }
+
+    /**
+     * Get the number of bytes held by chunks in use and idle chunks.
+     *
+     * @return number of occupied bytes
+     */
+    public long getOccupiedBytes() {
+        return (this.getInUseCount() + this.getIdleCount()) * this.chunkSize;
+    }
+
+    /**
+     * Get the total number of acquired chunks.
+     *
+     * @return number of acquisitions
+     */
+    public long getAcquisitionCount() {
+        return this.acquisitions.sum();
+    }
+
+    /**
+     * Get the number of acquisitions that allocated a new chunk, because the pool was empty.
+     *
+     * @return number of allocations
+     */
+    public long getAllocationCount() {
+        return this.allocations.sum();
+    }
+
+    /**
+     * Get the number of {@link ChunkedBuffer} instances that were garbage collected
+     * without being released. Leaks are only counted if leak detection is enabled.
+     *
+     * @return number of leaked buffers
+     */
+    public long getLeakCount() {
+        return this.leaks.sum();
+    }
+
+    public boolean isLeakDetection() {
+        return this.leakDetection;
+    }
+
+    void recordLeak() {
+        this.leaks.increment();
+    }
+}
@@ -0,0 +1,374 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable byte buffer made of chunks, taken from a {@link ByteChunkPool}.
+ * <p>
+ * Data is written through the {@link OutputStream} methods and can be read
+ * back with {@link #newInputStream()} or copied with {@link #writeTo(OutputStream)}.
+ * In contrast to a {@link java.io.ByteArrayOutputStream}, the buffer never copies
+ * data when it grows.
+ * <p>
+ * The chunks must be returned to the pool with {@link #release()}, when the
+ * buffer is no longer needed. {@link #close()} does not release the chunks,
+ * since writers often close the stream they wrote to. If the pool has leak
+ * detection enabled, buffers that are garbage collected without being released
+ * are reported and their chunks are returned to the pool.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public final class ChunkedBuffer extends OutputStream {
+
+    private final ByteChunkPool pool;
+    private final int chunkSize;
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private final LeakTracker leakTracker;
+
+    private long size;
+    private boolean released;
+
+    /**
+     * Create an empty buffer, that takes its chunks from the given pool.
+     *
+     * @param pool the {@link ByteChunkPool} providing the chunks
+     * @throws IllegalArgumentException if pool is null
+     */
+    public ChunkedBuffer(ByteChunkPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool must not be null");
+        }
+        this.pool = pool;
+        this.chunkSize = pool.getChunkSize();
+        this.leakTracker = pool.isLeakDetection() ? LeakTracker.register(this, pool) : null;
+    }
+
+    @Override
+    public void write(int b) {
+        int offset = this.writableOffset();
+        this.chunks.get(this.chunks.size() - 1)[offset] = (byte) b;
+        this.size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException("Invalid offset " + off + " or length " + len + " for array of size " + b.length);
+        }
+        int remaining = len;
+        int position = off;
+        while (remaining > 0) {
+            int offset = this.writableOffset();
+            int count = Math.min(remaining, this.chunkSize - offset);
+            System.arraycopy(b, position, this.chunks.get(this.chunks.size() - 1), offset, count);
+            this.size += count;
+            position += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Read the given {@link InputStream} into this buffer until its end is reached.
+     * The data is read in bulk, directly into the chunks.
+     *
+     * @param is the {@link InputStream} to read from
+     * @return number of bytes read
+     * @throws IOException if reading fails
+     */
+    public long readFrom(InputStream is) throws IOException {
+        long total = 0;
+        int read = this.readOnce(is);
+        while (read != -1) {
+            total += read;
+            read = this.readOnce(is);
+        }
+        return total;
+    }
+
+    /**
+     * Perform a single read from the given {@link InputStream} into this buffer.
+     * This method is meant for non-blocking reads, where the caller checks
+     * for available data before each read.
+     *
+     * @param is the {@link InputStream} to read from
+     * @return number of bytes read, or -1 if the end of the stream is reached
+     * @throws IOException if reading fails
+     */
+    public int readOnce(InputStream is) throws IOException {
+        int offset = this.writableOffset();
+        int read = is.read(this.chunks.get(this.chunks.size() - 1), offset, this.chunkSize - offset);
+        if (read > 0) {
+            this.size += read;
+        }
+        return read;
+    }
+
+    /**
+     * Copy the content of this buffer to the given {@link OutputStream}, one chunk per write.
+     *
+     * @param os the {@link OutputStream} to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        for (int i = 0; i < this.getChunkCount(); i++) {
+            os.write(this.chunks.get(i), 0, this.getChunkLength(i));
+        }
+    }
+
+    /**
+     * Create an {@link InputStream} that reads the current content of this buffer.
+     * The stream is valid until the buffer is released.
+     *
+     * @return the {@link InputStream}
+     */
+    public InputStream newInputStream() {
+        this.checkNotReleased();
+        return new ChunkedBufferInputStream();
+    }
+
+    /**
+     * Get the number of bytes written to this buffer.
+     *
+     * @return the number of bytes
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Get the number of chunks that contain data.
+     *
+     * @return the number of chunks
+     */
+    public int getChunkCount() {
+        return this.size == 0 ? 0 : (int) ((this.size - 1) / this.chunkSize) + 1;
+    }
+
+    /**
+     * Get the chunk with the given index. Only the first {@link #getChunkLength(int)}
+     * bytes of the chunk contain data.
+     *
+     * @param index index of the chunk
+     * @return the chunk
+     */
+    public byte[] getChunk(int index) {
+        this.checkNotReleased();
+        return this.chunks.get(index);
+    }
+
+    /**
+     * Get the number of bytes in the chunk with the given index.
+     *
+     * @param index index of the chunk
+     * @return the number of bytes
+     */
+    public int getChunkLength(int index) {
+        int count = this.getChunkCount();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Invalid chunk index " + index + ", chunk count is " + count);
+        }
+        return index < count - 1 ? this.chunkSize : (int) (this.size - (long) index * this.chunkSize);
+    }
+
+    /**
+     * Discard the content of this buffer and return its chunks to the pool.
+     * The buffer can be written again afterwards.
+     */
+    public void reset() {
+        this.checkNotReleased();
+        for (byte[] chunk : this.chunks) {
+            this.pool.release(chunk);
+        }
+        this.chunks.clear();
+        this.size = 0;
+        if (this.leakTracker != null) {
+            this.leakTracker.clear();
+        }
+    }
+
+    /**
+     * Return all chunks to the pool. The buffer must not be used afterwards.
+     * Calling this method more than once has no effect.
+     */
+    public void release() {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+        for (byte[] chunk : this.chunks) {
+            this.pool.release(chunk);
+        }
+        this.chunks.clear();
+        if (this.leakTracker != null) {
+            this.leakTracker.clean();
+        }
+    }
+
+    @Override
+    public void close() {
+        // Empty, see class documentation
+    }
+
+    private int writableOffset() {
+        this.checkNotReleased();
+        int offset = (int) (this.size % this.chunkSize);
+        if (offset == 0 && this.size == (long) this.chunks.size() * this.chunkSize) {
+            byte[] chunk = this.pool.acquire();
+            this.chunks.add(chunk);
+            if (this.leakTracker != null) {
+                this.leakTracker.add(chunk);
+            }
+        }
+        return offset;
+    }
+
+    private void checkNotReleased() {
+        if (this.released) {
+            throw new IllegalStateException("The buffer was already released");
+        }
+    }
+
+    /**
+     * Cleaning action that reports a buffer, that became unreachable without
+     * being released, and returns its chunks to the pool.
+     * <p>
+     * The action runs on the {@link Cleaner} thread. Therefore, it tracks
+     * the chunks of the buffer in its own list, guarded by the tracker,
+     * instead of reading the unsynchronized list of the buffer.
+     */
+    private static final class LeakTracker implements Runnable {
+
+        private static final Logger LOG = LoggerFactory.getLogger(ChunkedBuffer.class);
+
+        private final ByteChunkPool pool;
+        private final List<byte[]> chunks = new ArrayList<>();
+
+        private Cleaner.Cleanable cleanable;
+        private boolean released;
+
+        private LeakTracker(ByteChunkPool pool) {
+            this.pool = pool;
+        }
+
+        static LeakTracker register(ChunkedBuffer buffer, ByteChunkPool pool) {
+            LeakTracker tracker = new LeakTracker(pool);
+            tracker.cleanable = CleanerHolder.CLEANER.register(buffer, tracker);
+            return tracker;
+        }
+
+        synchronized void add(byte[] chunk) {
+            this.chunks.add(chunk);
+        }
+
+        synchronized void clear() {
+            this.chunks.clear();
+        }
+
+        void clean() {
+            synchronized (this) {
+                this.released = true;
+                this.chunks.clear();
+            }
+            this.cleanable.clean();
+        }
+
+        @Override
+        public void run() {
+            List<byte[]> leaked;
+            synchronized (this) {
+                if (this.released) {
+                    return;
+                }
+                leaked = new ArrayList<>(this.chunks);
+                this.chunks.clear();
+            }
+            this.pool.recordLeak();
+            LOG.warn("A ChunkedBuffer holding {} chunks was garbage collected without being released", leaked.size());
+            for (byte[] chunk : leaked) {
+                this.pool.release(chunk);
+            }
+        }
+    }
+
+    /**
+     * Holds the {@link Cleaner}, whose thread is only started if leak detection is used.
+     */
+    private static final class CleanerHolder {
+
+        static final Cleaner CLEANER = Cleaner.create();
+
+        private CleanerHolder() {
+            // Empty
+        }
+    }
+
+    /**
+     * {@link InputStream} that reads the chunks of the enclosing buffer.
+     */
+    private final class ChunkedBufferInputStream extends InputStream {
+
+        private long position;
+
+        @Override
+        public int read() {
+            if (this.position >= ChunkedBuffer.this.size) {
+                return -1;
+            }
+            byte[] chunk = ChunkedBuffer.this.getChunk((int) (this.position / ChunkedBuffer.this.chunkSize));
+            int b = chunk[(int) (this.position % ChunkedBuffer.this.chunkSize)] & 0xFF;
+            this.position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException("Invalid offset " + off + " or length " + len + " for array of size " + b.length);
+            }
+            if (len == 0) {
+                return 0;
+            }
+            long remaining = ChunkedBuffer.this.size - this.position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int offset = (int) (this.position % ChunkedBuffer.this.chunkSize);
+            byte[] chunk = ChunkedBuffer.this.getChunk((int) (this.position / ChunkedBuffer.this.chunkSize));
+            int count = (int) Math.min(Math.min(len, remaining), ChunkedBuffer.this.chunkSize - offset);
+            System.arraycopy(chunk, offset, b, off, count);
+            this.position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, ChunkedBuffer.this.size - this.position);
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, ChunkedBuffer.this.size - this.position));
+            this.position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads (JDK 21+), while the code base still targets Java 11.
+ * <p>
+ * The JDK methods are looked up once via reflection. On older JDKs,
+ * {@link #isSupported()} returns false and {@link #isVirtual(Thread)}
+ * always returns false.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR = findNewThreadPerTaskExecutor();
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private VirtualThreads() {
+        // Empty
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads.
+     *
+     * @return true if virtual threads are supported, false otherwise
+     */
+    public static boolean isSupported() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null && IS_VIRTUAL != null;
+    }
+
+    /**
+     * Check if the given thread is a virtual thread.
+     *
+     * @param thread the thread to check
+     * @return true if the thread is virtual, false otherwise (always false
+     * if virtual threads are not supported)
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public static boolean isVirtual(Thread thread) {
+        if (thread == null) {
+            throw new IllegalArgumentException("The thread must not be null");
+        }
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to check if thread is virtual", t);
+        }
+    }
+
+    /**
+     * Create an {@link ExecutorService} that starts a new virtual thread for each task.
+     *
+     * @return the {@link ExecutorService}
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by the running JDK "
+                    + System.getProperty("java.version") + ", JDK 21 or newer is required");
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to create virtual thread executor", t);
+        }
+    }
+
+    private static MethodHandle findNewThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -16,10 +16,9 @@ import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.Consumer;
 
 /**
  * Builder to compose a list of {@link Middleware} into one middleware.
@@ -53,7 +52,14 @@ public final class ComposingMiddlewareBuilder {
      * build.
      * <p>
      * This method can be applied to ordinary middlewares, to already composed
-     * middlewares and to a mix of them.
+     * middlewares and to a mix of them. Already composed middlewares are
+     * flattened into a single array of middlewares, such that an invocation
+     * of the resulting middleware allocates only one {@link MiddlewareChain},
+     * no matter how deeply the compositions are nested.
+     * <p>
+     * A middleware must call {@link MiddlewareChain#next()} on the invoking thread,
+     * before its {@link Middleware#handleContext(Context, MiddlewareChain)} returns.
+     * Calling it again, e.g. while handling the response, invokes the successor again.
      *
      * @param incomingMiddlewares list of {@link Middleware} objects to compose into
      *                            a single middleware
@@ -63,138 +69,109 @@ public final class ComposingMiddlewareBuilder {
      * @throws IllegalArgumentException if the list of middlewares is null or if
      *                                  one of the middlewares in the list is null
      */
-    @SuppressWarnings("checkstyle:illegalcatch")
     public static Middleware compose(List<Middleware> incomingMiddlewares) {
         if (incomingMiddlewares == null) {
             throw new IllegalArgumentException("The list of middlewares must not be null");
         }
 
+        // Make a flat copy of the middleware list, such that external changes to the list
+        // don't affect the composed middlewares. Already composed middlewares are replaced
+        // by their elements, which keeps the semantics of MiddlewareChain#next()
+        List<Middleware> middlewares = new ArrayList<>(incomingMiddlewares.size());
         for (Middleware middleware : incomingMiddlewares) {
             if (middleware == null) {
                 throw new IllegalArgumentException("The middleware must not be null");
             }
+            if (middleware instanceof ComposedMiddleware) {
+                middlewares.addAll(Arrays.asList(((ComposedMiddleware) middleware).middlewares));
+            } else {
+                middlewares.add(middleware);
+            }
         }
 
-        // Make a copy of the middleware list, such that external changes to the list
-        // don't affect the composed middlewares
-        List<Middleware> middlewares = new CopyOnWriteArrayList<>(incomingMiddlewares);
-
-        // Return a new middleware. When its handleContext method is called, it invokes the
-        // first middleware in the list. The next middleware is invoked, when the current
-        // one calls {@link MiddlewareChain#next()}
-        return new Middleware() {
-            @Override
-            public void handleContext(Context ctx, MiddlewareChain chain) {
-                LOG.debug("Composing middleware is invoked. It consists of {} middlewares", middlewares.size());
-
-                LOG.trace("The middlewares are: {}", middlewares);
+        return new ComposedMiddleware(middlewares.toArray(new Middleware[0]));
+    }
 
-                // Build a consumer that, when invoked (i.e. "accepted"), calls the chains
-                // next method, leading to the following middlware to be invoked
-                Consumer<Context> next = chain != null ? context -> chain.next() : context -> {
-                };
+    /**
+     * A {@link Middleware} that invokes a flat array of middlewares. Each
+     * invocation uses a single {@link Cursor} as {@link MiddlewareChain}
+     * for all of its middlewares.
+     */
+    private static final class ComposedMiddleware implements Middleware {
 
-                // Build a Consumer for the first middleware in the list. If there is no
-                // element in the list, {@link ComposingMiddlewareBuilder#dispatch} returns a Consumer
-                // that invokes {@code next} when itself gets invoked
-                Consumer<Context> first = ComposingMiddlewareBuilder.dispatch(middlewares, 0, next);
+        private final Middleware[] middlewares;
 
-                LOG.trace("First consumer is going to be accepted: {}", first);
+        private ComposedMiddleware(Middleware[] middlewares) {
+            this.middlewares = middlewares;
+        }
 
-                // Invoke the first Consumer. In this case it means, calling its
-                // {@link Consumer#accept(Object)} method
-                first.accept(ctx);
+        @Override
+        public void handleContext(Context ctx, MiddlewareChain chain) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Composing middleware is invoked. It consists of {} middlewares", this.middlewares.length);
             }
 
-            @Override
-            public String toString() {
-                return COMPOSING_MIDDLEWARE_NAME;
+            Cursor cursor = new Cursor(this.middlewares, ctx, chain);
+            try {
+                cursor.next();
+            } finally {
+                cursor.finished = true;
             }
-        };
+        }
+
+        @Override
+        public String toString() {
+            return COMPOSING_MIDDLEWARE_NAME;
+        }
     }
 
     /**
-     * Build a {@link Consumer}, that has two different outcomes when invoked through
-     * {@link Consumer#accept(Object)}:
+     * The {@link MiddlewareChain} passed to the middlewares of a
+     * {@link ComposedMiddleware}. The cursor carries the index of the
+     * middleware to invoke on {@link #next()}. If there is no such
+     * middleware, the outer chain is invoked.
      * <p>
-     * <ul>
-     * <li>
-     * if {@code middlewares} at {@code index} is a valid position,
-     * i.e. {@code index < middlewares.size()}, build a Consumer for the successive
-     * middleware and invoke the current middleware's handler, passing the Consumer
-     * as argument. This way, a chain of middlewares is established, that can be
-     * followed through by calling MiddlewareChain#next() in the middleware itself.
-     * </li>
-     * <li>
-     * if {@code middlewares} at {@code index} is not a valid position,
-     * i.e. {@code index >= middlewares.size()}, then the {@code next} Consumer
-     * is invoked. This mechanism allows to chain middlewares over the boundaries
-     * of middlewares known during the composition.
-     * </li>
-     * </ul>
-     *
-     * @param middlewares list of {@link Middleware} objects, where the current one,
-     *                    identified by {@code index}, is chained either with the next
-     *                    middleware in the list (if there is a next middleware), or
-     *                    chained with the {@code next} {@link Consumer}, allowing
-     *                    composed middlewares to invoke middlewares unknown at the time
-     *                    of composition.
-     * @param index       index of the current middleware
-     * @param next        next {@link Consumer} to invoke, if there is no current middleware
-     * @return a {@link Consumer} that can be used to chain middlewares unknown at the
-     * time the middlewares were composed.
+     * The index is restored after the invoked middleware returns. That
+     * way, a middleware that calls {@link #next()} again after the
+     * following middlewares returned (e.g. while handling the response)
+     * invokes its successor, as it would with a dedicated chain object.
+     * A middleware must call {@link #next()} on the invoking thread, before
+     * its own {@link Middleware#handleContext(Context, MiddlewareChain)}
+     * returns. Calls after the composed middleware returned are rejected.
      */
-    private static Consumer<Context> dispatch(List<Middleware> middlewares, int index, Consumer<Context> next) {
-        LOG.trace(
-                "Composing middlewares dispatch method called for middlewares {}, index {} of {}, and next {}",
-                middlewares,
-                index,
-                middlewares.size(),
-                next
-        );
-
-        Middleware currentMiddleware = index < middlewares.size() ? middlewares.get(index) : null;
-
-        return new Consumer<>() {
-            @Override
-            public void accept(Context ctx) {
-                if (currentMiddleware != null) {
-                    LOG.trace(
-                            "Consumer {} accepted. Current middleware {} found ({} of {}). Building next consumer",
-                            this,
-                            currentMiddleware,
-                            index,
-                            middlewares.size()
-                    );
-
-                    // A middleware was found. Build a consumer for the next middleware,
-                    // that can be invoked later on
-                    Consumer<Context> nextConsumer = ComposingMiddlewareBuilder.dispatch(middlewares, index + 1, next);
-
-                    LOG.trace(
-                            "Invoking current middleware's handler with next consumer {} as parameter to the chain",
-                            nextConsumer
-                    );
-
-                    // Pass the next consumer to the handler of the current middleware.
-                    // If the current middleware calls MiddlewareChain#next(), this consumer's
-                    // Consumer#accept(Object) method is is called
-                    currentMiddleware.handleContext(ctx, () -> nextConsumer.accept(ctx));
-                } else {
-                    LOG.trace(
-                            "Consumer {} accepted. No middleware found, since index ({}) >= middlewares.size() ({}). Invoking next consumer",
-                            this,
-                            index,
-                            middlewares.size()
-                    );
-                    // No more middleware found. Invoke the next consumer. Through this mechanism it
-                    // is possible to call a middleware, that is not part of the current middlewares.
-                    // This is important for the ComposingMiddlewareBuilder#compose(List<Middleware>) method
-                    // to compose middlewares (ordinary and composed), where the MiddlewareChain#next()
-                    // method keeps working.
-                    next.accept(ctx);
+    private static final class Cursor implements MiddlewareChain {
+
+        private final Middleware[] middlewares;
+        private final Context ctx;
+        private final MiddlewareChain chain;
+
+        private int index;
+        private boolean finished;
+
+        private Cursor(Middleware[] middlewares, Context ctx, MiddlewareChain chain) {
+            this.middlewares = middlewares;
+            this.ctx = ctx;
+            this.chain = chain;
+        }
+
+        @Override
+        public void next() {
+            if (this.finished) {
+                throw new IllegalStateException("The middleware chain must be invoked before the middleware returns");
+            }
+            int current = this.index;
+            if (current < this.middlewares.length) {
+                this.index = current + 1;
+                try {
+                    this.middlewares[current].handleContext(this.ctx, this);
+                } finally {
+                    this.index = current;
                 }
+            } else if (this.chain != null) {
+                // No more middleware found. Invoke the outer chain, such that
+                // middlewares that are not part of this composition are called
+                this.chain.next();
             }
-        };
+        }
     }
 }
@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.buffer;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Tests for {@link ByteChunkPool}.
+ */
+public class ByteChunkPoolTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ChunkSizeNotPositive() {
+        new ByteChunkPool(0, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_MaxRetainedNegative() {
+        new ByteChunkPool(1, -1);
+    }
+
+    @Test
+    public void testAcquire_ReusesReleasedChunk() {
+        ByteChunkPool pool = new ByteChunkPool(16, 1);
+        byte[] chunk = pool.acquire();
+        assertEquals(chunk.length, 16);
+
+        pool.release(chunk);
+        assertEquals(pool.getIdleCount(), 1);
+        assertSame(pool.acquire(), chunk);
+        assertEquals(pool.getIdleCount(), 0);
+    }
+
+    @Test
+    public void testRelease_RetentionLimit() {
+        ByteChunkPool pool = new ByteChunkPool(16, 1);
+        pool.release(new byte[16]);
+        pool.release(new byte[16]);
+        assertEquals(pool.getIdleCount(), 1);
+    }
+
+    @Test
+    public void testRelease_DropsForeignChunks() {
+        ByteChunkPool pool = new ByteChunkPool(16, 1);
+        byte[] foreign = new byte[8];
+        pool.release(foreign);
+        pool.release(null);
+        assertEquals(pool.getIdleCount(), 0);
+        assertNotSame(pool.acquire(), foreign);
+    }
+
+    @Test
+    public void testMetrics() {
+        ByteChunkPool pool = new ByteChunkPool(16, 4);
+        byte[] first = pool.acquire();
+        byte[] second = pool.acquire();
+        assertEquals(pool.getInUseCount(), 2);
+        assertEquals(pool.getAllocationCount(), 2);
+
+        pool.release(first);
+        pool.acquire();
+        pool.release(second);
+        assertEquals(pool.getInUseCount(), 1);
+        assertEquals(pool.getIdleCount(), 1);
+        assertEquals(pool.getAcquisitionCount(), 3);
+        assertEquals(pool.getAllocationCount(), 2);
+        assertEquals(pool.getOccupiedBytes(), 32);
+    }
+}
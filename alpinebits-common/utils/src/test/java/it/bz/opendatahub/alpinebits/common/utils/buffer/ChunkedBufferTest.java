@@ -0,0 +1,178 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.buffer;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ChunkedBuffer}.
+ */
+public class ChunkedBufferTest {
+
+    private static final int CHUNK_SIZE = 8;
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_PoolIsNull() {
+        new ChunkedBuffer(null);
+    }
+
+    @Test
+    public void testWrite_SpansChunks() throws IOException {
+        ChunkedBuffer buffer = new ChunkedBuffer(new ByteChunkPool(CHUNK_SIZE, 4));
+        byte[] data = data(21);
+        buffer.write(data[0]);
+        buffer.write(data, 1, data.length - 1);
+
+        assertEquals(buffer.size(), 21);
+        assertEquals(buffer.getChunkCount(), 3);
+        assertEquals(buffer.getChunkLength(0), CHUNK_SIZE);
+        assertEquals(buffer.getChunkLength(2), 5);
+        assertEquals(buffer.newInputStream().readAllBytes(), data);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        buffer.writeTo(os);
+        assertEquals(os.toByteArray(), data);
+    }
+
+    @Test
+    public void testWrite_ExactChunkBoundary() throws IOException {
+        ChunkedBuffer buffer = new ChunkedBuffer(new ByteChunkPool(CHUNK_SIZE, 4));
+        byte[] data = data(2 * CHUNK_SIZE);
+        buffer.write(data);
+
+        assertEquals(buffer.getChunkCount(), 2);
+        assertEquals(buffer.getChunkLength(1), CHUNK_SIZE);
+        assertEquals(buffer.newInputStream().readAllBytes(), data);
+    }
+
+    @Test
+    public void testReadFrom() throws IOException {
+        ChunkedBuffer buffer = new ChunkedBuffer(new ByteChunkPool(CHUNK_SIZE, 4));
+        byte[] data = data(30);
+
+        assertEquals(buffer.readFrom(new ByteArrayInputStream(data)), 30);
+        assertEquals(buffer.size(), 30);
+
+        InputStream is = buffer.newInputStream();
+        assertEquals(is.available(), 30);
+        assertEquals(is.skip(10), 10);
+        assertEquals(is.readAllBytes(), Arrays.copyOfRange(data, 10, 30));
+        assertEquals(is.read(), -1);
+    }
+
+    @Test
+    public void testRelease_ReturnsChunksToPool() {
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 4);
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        buffer.write(data(20), 0, 20);
+        buffer.close();
+        assertEquals(buffer.size(), 20);
+
+        buffer.release();
+        buffer.release();
+        assertEquals(pool.getIdleCount(), 3);
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 4);
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        buffer.write(data(20), 0, 20);
+
+        buffer.reset();
+        assertEquals(buffer.size(), 0);
+        assertEquals(buffer.getChunkCount(), 0);
+        assertEquals(pool.getIdleCount(), 3);
+
+        buffer.write(data(3), 0, 3);
+        assertEquals(buffer.newInputStream().readAllBytes(), data(3));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testWrite_AfterRelease() {
+        ChunkedBuffer buffer = new ChunkedBuffer(new ByteChunkPool(CHUNK_SIZE, 4));
+        buffer.release();
+        buffer.write(1);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testGetChunkLength_InvalidIndex() {
+        ChunkedBuffer buffer = new ChunkedBuffer(new ByteChunkPool(CHUNK_SIZE, 4));
+        buffer.getChunkLength(0);
+    }
+
+    @Test
+    public void testLeakDetection_ReturnsChunksOfUnreleasedBuffer() throws InterruptedException {
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 4, true);
+        writeAndForget(pool);
+
+        for (int i = 0; i < 100 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(pool.getLeakCount(), 1);
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 2);
+    }
+
+    @Test
+    public void testLeakDetection_ReturnsOnlyChunksHeldAfterReset() throws InterruptedException {
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 4, true);
+        resetWriteAndForget(pool);
+
+        for (int i = 0; i < 100 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(pool.getLeakCount(), 1);
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 2);
+    }
+
+    @Test
+    public void testLeakDetection_ReleasedBufferIsNoLeak() {
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 4, true);
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        buffer.write(data(CHUNK_SIZE + 1), 0, CHUNK_SIZE + 1);
+        buffer.release();
+
+        assertEquals(pool.getLeakCount(), 0);
+        assertEquals(pool.getInUseCount(), 0);
+    }
+
+    private static void writeAndForget(ByteChunkPool pool) {
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        buffer.write(data(CHUNK_SIZE + 1), 0, CHUNK_SIZE + 1);
+    }
+
+    private static void resetWriteAndForget(ByteChunkPool pool) {
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        buffer.write(data(CHUNK_SIZE + 1), 0, CHUNK_SIZE + 1);
+        buffer.reset();
+        buffer.write(data(1), 0, 1);
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,57 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.concurrent;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link VirtualThreads}.
+ */
+public class VirtualThreadsTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testIsVirtual_ThreadIsNull() {
+        VirtualThreads.isVirtual(null);
+    }
+
+    @Test
+    public void testIsVirtual_PlatformThread() {
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    @Test
+    public void testNewThreadPerTaskExecutor() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertUnsupported();
+            return;
+        }
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        try {
+            assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertUnsupported() {
+        try {
+            VirtualThreads.newThreadPerTaskExecutor();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        throw new AssertionError("Expected UnsupportedOperationException");
+    }
+}
@@ -0,0 +1,127 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.common.utils.middleware;
+
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * JMH benchmark for a chain of 10 middlewares, composed flat and nested
+ * (as done by ConfiguringMiddleware, RoutingMiddleware and the per-action
+ * middlewares).
+ * <p>
+ * The <code>NESTED_CONSUMERS</code> composition reproduces the previous
+ * implementation, that built the chain from Consumers on every invocation.
+ * Run with <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="-prof gc ComposingMiddlewareBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComposingMiddlewareBenchmark {
+
+    private static final int DEPTH = 10;
+
+    @Param({"NESTED_CONSUMERS", "COMPILED"})
+    private String composition;
+
+    private Middleware flat;
+    private Middleware nested;
+    private Context ctx;
+
+    @Setup
+    public void setup() {
+        List<Middleware> middlewares = new ArrayList<>();
+        for (int i = 0; i < DEPTH; i++) {
+            middlewares.add((ctx, chain) -> chain.next());
+        }
+
+        this.flat = this.compose(middlewares);
+
+        // Two levels of nesting, e.g. configuration -> routing -> action middlewares
+        Middleware action = this.compose(middlewares.subList(4, DEPTH));
+        Middleware routing = this.compose(List.of(middlewares.get(2), middlewares.get(3), action));
+        this.nested = this.compose(List.of(middlewares.get(0), middlewares.get(1), routing));
+
+        this.ctx = new SimpleContext();
+    }
+
+    @Benchmark
+    public Context flatChain() {
+        this.flat.handleContext(this.ctx, null);
+        return this.ctx;
+    }
+
+    @Benchmark
+    public Context nestedChain() {
+        this.nested.handleContext(this.ctx, null);
+        return this.ctx;
+    }
+
+    private Middleware compose(List<Middleware> middlewares) {
+        return "COMPILED".equals(this.composition)
+                ? ComposingMiddlewareBuilder.compose(middlewares)
+                : new NestedConsumersMiddleware(middlewares);
+    }
+
+    /**
+     * Composition as implemented before the middlewares were compiled
+     * into a flat array, with new Consumers and lambdas for every
+     * middleware on every invocation.
+     */
+    private static final class NestedConsumersMiddleware implements Middleware {
+
+        private final List<Middleware> middlewares;
+
+        private NestedConsumersMiddleware(List<Middleware> middlewares) {
+            this.middlewares = new ArrayList<>(middlewares);
+        }
+
+        @Override
+        public void handleContext(Context ctx, MiddlewareChain chain) {
+            Consumer<Context> next = chain != null ? context -> chain.next() : context -> {
+            };
+            dispatch(this.middlewares, 0, next).accept(ctx);
+        }
+
+        private static Consumer<Context> dispatch(List<Middleware> middlewares, int index, Consumer<Context> next) {
+            Middleware currentMiddleware = index < middlewares.size() ? middlewares.get(index) : null;
+            return ctx -> {
+                if (currentMiddleware != null) {
+                    Consumer<Context> nextConsumer = dispatch(middlewares, index + 1, next);
+                    currentMiddleware.handleContext(ctx, () -> nextConsumer.accept(ctx));
+                } else {
+                    next.accept(ctx);
+                }
+            };
+        }
+    }
+}
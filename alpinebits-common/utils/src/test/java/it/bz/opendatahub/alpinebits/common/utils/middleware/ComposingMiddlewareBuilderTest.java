@@ -15,6 +15,7 @@ import it.bz.opendatahub.alpinebits.common.utils.middleware.utils.MiddlewareBuil
 import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Key;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -289,4 +290,87 @@ public class ComposingMiddlewareBuilderTest {
         assertEquals(ctx.get(key1), Optional.of(VALUE_1));
         assertEquals(ctx.get(key4), expectedValue);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompose_ShouldInvokeSuccessorAgain_WhenNextIsCalledInResponsePhase() {
+        Context ctx = ContextBuilder.buildSimpleContext();
+
+        List<String> invocations = new ArrayList<>();
+
+        Middleware middleware1 = (c, chain) -> {
+            invocations.add("1");
+            chain.next();
+            invocations.add("1-response");
+            chain.next();
+        };
+        Middleware middleware2 = (c, chain) -> {
+            invocations.add("2");
+            chain.next();
+        };
+        Middleware middleware3 = (c, chain) -> invocations.add("3");
+
+        Middleware composedMiddleware = ComposingMiddlewareBuilder.compose(
+                middleware1,
+                ComposingMiddlewareBuilder.compose(middleware2, middleware3)
+        );
+        composedMiddleware.handleContext(ctx, null);
+
+        assertEquals(invocations, Arrays.asList("1", "2", "3", "1-response", "2", "3"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testCompose_ShouldThrow_WhenNextIsCalledAfterComposedMiddlewareReturned() {
+        Context ctx = ContextBuilder.buildSimpleContext();
+
+        List<String> invocations = new ArrayList<>();
+        List<MiddlewareChain> deferred = new ArrayList<>();
+        Middleware middleware1 = (c, chain) -> {
+            invocations.add("1");
+            deferred.add(chain);
+        };
+        Middleware middleware2 = (c, chain) -> {
+            invocations.add("2");
+            chain.next();
+        };
+        Middleware middleware3 = (c, chain) -> invocations.add("3");
+
+        Middleware composedMiddleware = ComposingMiddlewareBuilder.compose(middleware1, middleware2, middleware3);
+        composedMiddleware.handleContext(ctx, null);
+        assertEquals(invocations, Collections.singletonList("1"));
+
+        deferred.get(0).next();
+    }
+
+    @Test
+    public void testCompose_ShouldInvokeOuterChainOnce_WhenLastNestedMiddlewareCallsNext() {
+        Context ctx = ContextBuilder.buildSimpleContext();
+
+        Key<String> key1 = Key.key(KEY_1, String.class);
+        Key<String> key2 = Key.key(KEY_2, String.class);
+        Key<String> key3 = Key.key(KEY_3, String.class);
+
+        Middleware composedMiddleware = ComposingMiddlewareBuilder.compose(
+                ComposingMiddlewareBuilder.compose(
+                        MiddlewareBuilder.buildMiddleware(key1, VALUE_1, true),
+                        ComposingMiddlewareBuilder.compose(MiddlewareBuilder.buildMiddleware(key2, VALUE_2, true))
+                ),
+                MiddlewareBuilder.buildMiddleware(key3, VALUE_3, true)
+        );
+
+        int[] outerChainInvocations = new int[1];
+        composedMiddleware.handleContext(ctx, () -> outerChainInvocations[0]++);
+
+        assertEquals(ctx.get(key1), Optional.of(VALUE_1));
+        assertEquals(ctx.get(key2), Optional.of(VALUE_2));
+        assertEquals(ctx.get(key3), Optional.of(VALUE_3));
+        assertEquals(outerChainInvocations[0], 1);
+    }
+
+    @Test
+    public void testCompose_ShouldInvokeOuterChain_WhenNoMiddlewareIsComposed() {
+        int[] outerChainInvocations = new int[1];
+        ComposingMiddlewareBuilder.compose().handleContext(ContextBuilder.buildSimpleContext(), () -> outerChainInvocations[0]++);
+
+        assertEquals(outerChainInvocations[0], 1);
+    }
+}
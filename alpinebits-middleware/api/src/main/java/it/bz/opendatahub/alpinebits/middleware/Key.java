@@ -11,19 +11,50 @@
 package it.bz.opendatahub.alpinebits.middleware;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class implementats for {@link Context} keys.
+ * <p>
+ * Each key is assigned a dense slot number when it is created. Equal keys
+ * (same identifier and type) share the same slot, such that {@link Context}
+ * implementations may store their values in an array indexed by slot.
+ * <p>
+ * The slots are registered globally and never released, therefore keys
+ * should be constants. At most {@value #MAX_SLOTS} distinct keys get a
+ * slot, all further keys (e.g. built from request data) get {@link #NO_SLOT}.
  *
  * @param <T> type of the key
  */
 public final class Key<T> {
+
+    /**
+     * Maximum number of distinct keys that get a slot.
+     */
+    public static final int MAX_SLOTS = 4096;
+
+    /**
+     * Slot of keys created after {@link #MAX_SLOTS} distinct keys got a slot.
+     */
+    public static final int NO_SLOT = -1;
+
+    // Slots of all keys created so far, bound by MAX_SLOTS
+    private static final ConcurrentMap<Key<?>, Integer> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
     private final String identifier;
     private final Class<T> type;
+    private final int hash;
+    private final int slot;
 
     private Key(String identifier, Class<T> type) {
         this.identifier = identifier;
         this.type = type;
+        // Same value as Objects.hash(identifier, type), without the varargs array
+        this.hash = 31 * (31 + Objects.hashCode(identifier)) + Objects.hashCode(type);
+        this.slot = slotOf(SLOTS, NEXT_SLOT, MAX_SLOTS, this);
     }
 
     /**
@@ -55,6 +86,16 @@ public final class Key<T> {
         return type;
     }
 
+    /**
+     * Get the slot of the key. Equal keys have the same slot, the slots
+     * of all keys form a dense range starting at <code>0</code>.
+     *
+     * @return slot of the key, or {@link #NO_SLOT} if the key got no slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -64,13 +105,14 @@ public final class Key<T> {
             return false;
         }
         Key<?> key = (Key<?>) o;
-        return Objects.equals(identifier, key.identifier) &&
+        return hash == key.hash &&
+                Objects.equals(identifier, key.identifier) &&
                 Objects.equals(type, key.type);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(identifier, type);
+        return hash;
     }
 
     @Override
@@ -80,4 +122,13 @@ public final class Key<T> {
                 ", type=" + type +
                 '}';
     }
+
+    static int slotOf(ConcurrentMap<Key<?>, Integer> slots, AtomicInteger nextSlot, int maxSlots, Key<?> key) {
+        // Returning null from the mapping function leaves the key unregistered
+        Integer slot = slots.computeIfAbsent(key, k -> {
+            int next = nextSlot.getAndUpdate(n -> n < maxSlots ? n + 1 : n);
+            return next < maxSlots ? next : null;
+        });
+        return slot != null ? slot : NO_SLOT;
+    }
 }
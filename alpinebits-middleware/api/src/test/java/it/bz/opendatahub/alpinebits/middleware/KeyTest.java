@@ -12,6 +12,11 @@ package it.bz.opendatahub.alpinebits.middleware;
 
 import org.testng.annotations.Test;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.testng.Assert.*;
 
 /**
@@ -61,9 +66,47 @@ public class KeyTest {
         assertEquals(key1.hashCode(), key2.hashCode());
     }
 
+    @Test
+    public void testHashCode_SameAsObjectsHash() {
+        Key<String> key1 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
+        assertEquals(key1.hashCode(), Objects.hash(DEFAULT_IDENTIFIER, DEFAULT_TYPE));
+    }
+
+    @Test
+    public void testGetSlot_SameOnEqualKeys() {
+        Key<String> key1 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
+        Key<String> key2 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
+        assertEquals(key1.getSlot(), key2.getSlot());
+    }
+
+    @Test
+    public void testGetSlot_DifferentOnDifferentKeys() {
+        Key<String> key1 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
+        Key<String> key2 = Key.key(DEFAULT_IDENTIFIER + "2", DEFAULT_TYPE);
+        Key<Object> key3 = Key.key(DEFAULT_IDENTIFIER, Object.class);
+        assertNotEquals(key1.getSlot(), key2.getSlot());
+        assertNotEquals(key1.getSlot(), key3.getSlot());
+        assertNotEquals(key2.getSlot(), key3.getSlot());
+    }
+
     @Test
     public void testToString() {
         Key<String> key1 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
         assertTrue(key1.toString().contains(DEFAULT_IDENTIFIER) && key1.toString().contains(DEFAULT_TYPE.toString()));
     }
+    @Test
+    public void testSlotOf_NoSlotWhenMaxSlotsReached() {
+        ConcurrentMap<Key<?>, Integer> slots = new ConcurrentHashMap<>();
+        AtomicInteger nextSlot = new AtomicInteger();
+        Key<String> key1 = Key.key(DEFAULT_IDENTIFIER, DEFAULT_TYPE);
+        Key<String> key2 = Key.key(DEFAULT_IDENTIFIER + "2", DEFAULT_TYPE);
+        Key<String> key3 = Key.key(DEFAULT_IDENTIFIER + "3", DEFAULT_TYPE);
+
+        assertEquals(Key.slotOf(slots, nextSlot, 2, key1), 0);
+        assertEquals(Key.slotOf(slots, nextSlot, 2, key2), 1);
+        assertEquals(Key.slotOf(slots, nextSlot, 2, key3), Key.NO_SLOT);
+        assertEquals(Key.slotOf(slots, nextSlot, 2, key1), 0);
+        assertEquals(slots.size(), 2);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.middleware.impl;
+
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Key;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link Context} implementation, that stores the context values
+ * in an array indexed by {@link Key#getSlot()}.
+ * <p>
+ * Lookups are plain array accesses, without hashing. This class is
+ * <b>not</b> thread-safe. It is meant for contexts that are accessed
+ * by one thread at a time, e.g. the context of a single request. Use
+ * {@link SimpleContext} if the context is accessed concurrently.
+ * <p>
+ * Values of keys without slot ({@link Key#NO_SLOT}) are kept in a map.
+ * <p>
+ * As {@link SimpleContext}, this class does not accept <code>null</code>
+ * values.
+ */
+public class SlotContext implements Context {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    // Values of keys without slot, created on first use
+    private Map<Key<?>, Object> unslottedValues;
+
+    @Override
+    public <T> Optional<T> get(Key<T> key) {
+        return Optional.ofNullable(this.getValue(key));
+    }
+
+    @Override
+    public <T> T getOrThrow(Key<T> key) {
+        T value = this.getValue(key);
+
+        if (value != null) {
+            return value;
+        }
+
+        throw new RequiredContextKeyMissingException(
+                "The required key " + key + " is missing in the context"
+        );
+    }
+
+    @Override
+    public <T> T put(Key<T> key, T value) {
+        if (value == null) {
+            throw new NullPointerException("The value must not be null");
+        }
+        int slot = key.getSlot();
+        if (slot == Key.NO_SLOT) {
+            if (this.unslottedValues == null) {
+                this.unslottedValues = new HashMap<>();
+            }
+            return key.getType().cast(this.unslottedValues.put(key, value));
+        }
+        if (slot >= this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(slot + 1, this.values.length * 2));
+        }
+        Object previousValue = this.values[slot];
+        this.values[slot] = value;
+        return key.getType().cast(previousValue);
+    }
+
+    @Override
+    public <T> T remove(Key<T> key) {
+        int slot = key.getSlot();
+        if (slot == Key.NO_SLOT) {
+            return this.unslottedValues != null ? key.getType().cast(this.unslottedValues.remove(key)) : null;
+        }
+        if (slot >= this.values.length) {
+            return null;
+        }
+        Object removedValue = this.values[slot];
+        this.values[slot] = null;
+        return key.getType().cast(removedValue);
+    }
+
+    @Override
+    public <T> boolean contains(Key<T> key) {
+        return this.getValue(key) != null;
+    }
+
+    @Override
+    // Suppress warning "Generic exceptions should never be thrown", since in this place
+    // a generic runtime exception should be thrown
+    @SuppressWarnings("squid:S00112")
+    public void handleException(Exception e) {
+        throw new RuntimeException(e);
+    }
+
+    private <T> T getValue(Key<T> key) {
+        int slot = key.getSlot();
+        if (slot == Key.NO_SLOT) {
+            return this.unslottedValues != null ? key.getType().cast(this.unslottedValues.get(key)) : null;
+        }
+        return slot < this.values.length ? key.getType().cast(this.values[slot]) : null;
+    }
+}
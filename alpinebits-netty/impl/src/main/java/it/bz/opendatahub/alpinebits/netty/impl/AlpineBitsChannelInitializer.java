@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerExpectContinueHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
+
+/**
+ * Sets up the HTTP pipeline of a new connection: the HTTP codec and the
+ * aggregator run on the event loop, the {@link AlpineBitsRequestHandler}
+ * runs on the worker group. The connection is tracked in the given
+ * {@link ChannelGroup}, such that it can be closed on shutdown.
+ */
+final class AlpineBitsChannelInitializer extends ChannelInitializer<SocketChannel> {
+
+    private final ChannelGroup channels;
+    private final int maxContentLength;
+    private final EventExecutorGroup workerGroup;
+    private final AlpineBitsRequestHandler requestHandler;
+
+    AlpineBitsChannelInitializer(ChannelGroup channels, int maxContentLength, EventExecutorGroup workerGroup,
+                                 AlpineBitsRequestHandler requestHandler) {
+        this.channels = channels;
+        this.maxContentLength = maxContentLength;
+        this.workerGroup = workerGroup;
+        this.requestHandler = requestHandler;
+    }
+
+    @Override
+    protected void initChannel(SocketChannel ch) {
+        this.channels.add(ch);
+        ch.pipeline()
+                .addLast(new HttpServerCodec())
+                .addLast(new HttpServerExpectContinueHandler())
+                .addLast(new HttpObjectAggregator(this.maxContentLength))
+                .addLast(this.workerGroup, this.requestHandler);
+    }
+}
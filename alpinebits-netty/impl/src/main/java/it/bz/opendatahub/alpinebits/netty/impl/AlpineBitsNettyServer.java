@@ -0,0 +1,413 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.Future;
+import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.impl.DefaultContextBuilder;
+import it.bz.opendatahub.alpinebits.servlet.impl.DefaultRequestExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is an embedded HTTP server for AlpineBits, based on Netty. It is an
+ * alternative to the deployment of {@link it.bz.opendatahub.alpinebits.servlet.impl.AlpineBitsServlet}
+ * in a servlet container.
+ * <p>
+ * Socket I/O is done by the Netty event loops. Request bodies are aggregated into pooled
+ * buffers (up to {@link Builder#maxContentLength(int)} bytes), and the middleware is invoked
+ * on a separate group of worker threads, such that blocking middlewares do not stall the
+ * event loops. The requests and responses are adapted to the servlet API, which means that
+ * the existing middlewares (e.g. the <code>ConfiguringMiddleware</code> of the examples)
+ * can be used unchanged.
+ * <p>
+ * Only POST requests are accepted, all other methods are answered with 405.
+ * <p>
+ * On {@link #close()}, the server stops accepting connections and waits up to
+ * {@link Builder#shutdownGracePeriod(long)} milliseconds for the requests in
+ * progress to be answered, before it closes the remaining connections.
+ */
+public final class AlpineBitsNettyServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_CONTENT_LENGTH = 64 * 1024 * 1024;
+    public static final long DEFAULT_SHUTDOWN_GRACE_PERIOD = 10_000;
+
+    private static final long SHUTDOWN_QUIET_PERIOD = 100;
+    private static final long SHUTDOWN_TIMEOUT = 2000;
+    private static final long DRAIN_POLL_INTERVAL = 10;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AlpineBitsNettyServer.class);
+
+    private final String host;
+    private final int port;
+    private final int maxContentLength;
+    private final int ioThreads;
+    private final int workerThreads;
+    private final long shutdownGracePeriod;
+    private final AlpineBitsRequestHandler requestHandler;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup ioGroup;
+    private EventExecutorGroup workerGroup;
+    private Channel serverChannel;
+    private ChannelGroup channels;
+
+    private AlpineBitsNettyServer(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.maxContentLength = builder.maxContentLength;
+        this.ioThreads = builder.ioThreads;
+        this.workerThreads = builder.workerThreads;
+        this.shutdownGracePeriod = builder.shutdownGracePeriod;
+
+        // Wrap middleware with a composing middleware. The composed middleware can be called with null
+        // as chain, which simplifies its invocation
+        Middleware middleware = ComposingMiddlewareBuilder.compose(Collections.singletonList(builder.middleware));
+        this.requestHandler = new AlpineBitsRequestHandler(middleware, builder.contextBuilder, builder.requestExceptionHandler, builder.path);
+    }
+
+    /**
+     * Start an {@link AlpineBitsNettyServer} from the command line.
+     * <p>
+     * Usage: <code>AlpineBitsNettyServer &lt;middleware classname&gt; [port] [path]</code>, where the
+     * middleware class must provide a public no-arg constructor (like the
+     * <code>MIDDLEWARE_CLASSNAME</code> of the servlet).
+     *
+     * @param args command line arguments
+     * @throws Exception if the middleware could not be instantiated or the server could not be started
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: AlpineBitsNettyServer <middleware classname> [port] [path]");
+        }
+        Middleware middleware = (Middleware) Class.forName(args[0]).getDeclaredConstructor().newInstance();
+        AlpineBitsNettyServer server = new Builder()
+                .middleware(middleware)
+                .port(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT)
+                .path(args.length > 2 ? args[2] : null)
+                .build();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        server.awaitClose();
+    }
+
+    /**
+     * Bind the server and start accepting requests.
+     *
+     * @return the port the server is bound to, useful if the server was configured with port 0
+     * @throws InterruptedException if the thread was interrupted while binding
+     * @throws IllegalStateException if the server was already started
+     */
+    public synchronized int start() throws InterruptedException {
+        if (this.serverChannel != null) {
+            throw new IllegalStateException("The server was already started");
+        }
+        long start = System.nanoTime();
+
+        this.bossGroup = new NioEventLoopGroup(1);
+        this.ioGroup = new NioEventLoopGroup(this.ioThreads);
+        this.workerGroup = new DefaultEventExecutorGroup(this.workerThreads);
+        this.channels = new DefaultChannelGroup(this.bossGroup.next());
+        this.requestHandler.setDraining(false);
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(this.bossGroup, this.ioGroup)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new AlpineBitsChannelInitializer(this.channels, this.maxContentLength, this.workerGroup, this.requestHandler));
+
+        InetSocketAddress address = this.host == null ? new InetSocketAddress(this.port) : new InetSocketAddress(this.host, this.port);
+        boolean bound = false;
+        try {
+            this.serverChannel = bootstrap.bind(address).sync().channel();
+            bound = true;
+        } finally {
+            if (!bound) {
+                this.close();
+            }
+        }
+
+        int boundPort = this.getPort();
+        LOG.info("AlpineBits Netty server listening on port {}, started in {} ms",
+                boundPort, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return boundPort;
+    }
+
+    /**
+     * Get the port the server is bound to.
+     *
+     * @return the bound port
+     * @throws IllegalStateException if the server is not started
+     */
+    public synchronized int getPort() {
+        if (this.serverChannel == null) {
+            throw new IllegalStateException("The server is not started");
+        }
+        return ((InetSocketAddress) this.serverChannel.localAddress()).getPort();
+    }
+
+    /**
+     * Block until the server is closed.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void awaitClose() throws InterruptedException {
+        Channel channel;
+        synchronized (this) {
+            channel = this.serverChannel;
+        }
+        if (channel != null) {
+            channel.closeFuture().sync();
+        }
+    }
+
+    /**
+     * Stop accepting connections, wait up to the configured grace period for
+     * the requests in progress to be answered, then close all connections and
+     * shut down all threads.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.serverChannel != null) {
+            this.serverChannel.close().syncUninterruptibly();
+            this.serverChannel = null;
+        }
+        if (this.bossGroup != null) {
+            this.drain();
+            this.channels.close().awaitUninterruptibly();
+            // Shut down all groups together: closing connections passes tasks between the I/O and
+            // worker threads, which are accepted as long as the groups are in their quiet period
+            Future<?> boss = this.bossGroup.shutdownGracefully(SHUTDOWN_QUIET_PERIOD, SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            Future<?> io = this.ioGroup.shutdownGracefully(SHUTDOWN_QUIET_PERIOD, SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            Future<?> worker = this.workerGroup.shutdownGracefully(SHUTDOWN_QUIET_PERIOD, SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            boss.syncUninterruptibly();
+            io.syncUninterruptibly();
+            worker.syncUninterruptibly();
+            this.bossGroup = null;
+        }
+    }
+
+    private void drain() {
+        this.requestHandler.setDraining(true);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.shutdownGracePeriod);
+        try {
+            while (this.requestHandler.getActiveRequestCount() > 0 && System.nanoTime() - deadline < 0) {
+                Thread.sleep(DRAIN_POLL_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int active = this.requestHandler.getActiveRequestCount();
+        if (active > 0) {
+            LOG.warn("Closing the connections of {} requests in progress", active);
+        }
+    }
+
+    /**
+     * Builder to create instances of {@link AlpineBitsNettyServer}.
+     */
+    public static class Builder {
+
+        private Middleware middleware;
+        private ContextBuilder contextBuilder = new DefaultContextBuilder();
+        private RequestExceptionHandler requestExceptionHandler = new DefaultRequestExceptionHandler();
+        private String host;
+        private int port = DEFAULT_PORT;
+        private String path;
+        private int maxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
+        private int ioThreads;
+        private int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
+        private long shutdownGracePeriod = DEFAULT_SHUTDOWN_GRACE_PERIOD;
+
+        /**
+         * Set the {@link Middleware} that handles the requests.
+         *
+         * @param middleware the {@link Middleware}
+         * @return the current Builder
+         * @throws IllegalArgumentException if middleware is null
+         */
+        public Builder middleware(Middleware middleware) {
+            if (middleware == null) {
+                throw new IllegalArgumentException("The middleware must not be null");
+            }
+            this.middleware = middleware;
+            return this;
+        }
+
+        /**
+         * Set the {@link ContextBuilder} (default: {@link DefaultContextBuilder}).
+         *
+         * @param contextBuilder the {@link ContextBuilder}
+         * @return the current Builder
+         * @throws IllegalArgumentException if contextBuilder is null
+         */
+        public Builder contextBuilder(ContextBuilder contextBuilder) {
+            if (contextBuilder == null) {
+                throw new IllegalArgumentException("The context builder must not be null");
+            }
+            this.contextBuilder = contextBuilder;
+            return this;
+        }
+
+        /**
+         * Set the {@link RequestExceptionHandler} (default: {@link DefaultRequestExceptionHandler}).
+         *
+         * @param requestExceptionHandler the {@link RequestExceptionHandler}
+         * @return the current Builder
+         * @throws IllegalArgumentException if requestExceptionHandler is null
+         */
+        public Builder requestExceptionHandler(RequestExceptionHandler requestExceptionHandler) {
+            if (requestExceptionHandler == null) {
+                throw new IllegalArgumentException("The request exception handler must not be null");
+            }
+            this.requestExceptionHandler = requestExceptionHandler;
+            return this;
+        }
+
+        /**
+         * Set the host to bind to (default: null, i.e. all interfaces).
+         *
+         * @param host the host name or address
+         * @return the current Builder
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Set the port to bind to (default: {@value #DEFAULT_PORT}). Use 0
+         * to bind to an ephemeral port, see {@link AlpineBitsNettyServer#start()}.
+         *
+         * @param port the port
+         * @return the current Builder
+         * @throws IllegalArgumentException if port is not in the range 0 - 65535
+         */
+        public Builder port(int port) {
+            if (port < 0 || port > 0xFFFF) {
+                throw new IllegalArgumentException("The port must be in the range 0 - 65535, but was " + port);
+            }
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Set the request path, e.g. <code>/AlpineBits</code>. Requests to other paths
+         * are answered with 404. If the path is null (default), all paths are accepted.
+         *
+         * @param path the request path
+         * @return the current Builder
+         */
+        public Builder path(String path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of a request body in bytes (default: {@value #DEFAULT_MAX_CONTENT_LENGTH}).
+         * Larger requests are answered with 413.
+         *
+         * @param maxContentLength the maximum request body size
+         * @return the current Builder
+         * @throws IllegalArgumentException if maxContentLength is negative
+         */
+        public Builder maxContentLength(int maxContentLength) {
+            if (maxContentLength < 0) {
+                throw new IllegalArgumentException("The max content length must not be negative");
+            }
+            this.maxContentLength = maxContentLength;
+            return this;
+        }
+
+        /**
+         * Set the number of event loop threads doing the socket I/O
+         * (default: 0, i.e. the Netty default of twice the number of cores).
+         *
+         * @param ioThreads the number of I/O threads
+         * @return the current Builder
+         * @throws IllegalArgumentException if ioThreads is negative
+         */
+        public Builder ioThreads(int ioThreads) {
+            if (ioThreads < 0) {
+                throw new IllegalArgumentException("The number of I/O threads must not be negative");
+            }
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Set the number of threads invoking the middleware (default:
+         * twice the number of cores).
+         *
+         * @param workerThreads the number of worker threads
+         * @return the current Builder
+         * @throws IllegalArgumentException if workerThreads is not positive
+         */
+        public Builder workerThreads(int workerThreads) {
+            if (workerThreads <= 0) {
+                throw new IllegalArgumentException("The number of worker threads must be positive");
+            }
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * Set the maximum time in milliseconds, that {@link AlpineBitsNettyServer#close()}
+         * waits for requests in progress (default: {@value #DEFAULT_SHUTDOWN_GRACE_PERIOD}).
+         *
+         * @param shutdownGracePeriod the grace period in milliseconds, may be zero
+         * @return the current Builder
+         * @throws IllegalArgumentException if shutdownGracePeriod is negative
+         */
+        public Builder shutdownGracePeriod(long shutdownGracePeriod) {
+            if (shutdownGracePeriod < 0) {
+                throw new IllegalArgumentException("The shutdown grace period must not be negative");
+            }
+            this.shutdownGracePeriod = shutdownGracePeriod;
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link AlpineBitsNettyServer} with
+         * the current configuration.
+         *
+         * @return instance of {@link AlpineBitsNettyServer}
+         * @throws IllegalArgumentException if no middleware was set
+         */
+        public AlpineBitsNettyServer build() {
+            if (this.middleware == null) {
+                throw new IllegalArgumentException("The middleware must not be null");
+            }
+            return new AlpineBitsNettyServer(this);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.impl.AlpineBitsServlet;
+import it.bz.opendatahub.alpinebits.servlet.impl.DefaultContextBuilder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This Netty handler is the counterpart of {@link AlpineBitsServlet}: it adapts
+ * each aggregated request to the servlet API, builds the middleware {@link Context}
+ * and invokes the middleware.
+ * <p>
+ * The handler is registered on a separate executor group, such that the (blocking)
+ * middlewares never run on the event loop.
+ */
+@ChannelHandler.Sharable
+final class AlpineBitsRequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AlpineBitsRequestHandler.class);
+
+    private final Middleware middleware;
+    private final ContextBuilder contextBuilder;
+    private final RequestExceptionHandler requestExceptionHandler;
+    private final String path;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    private volatile boolean draining;
+
+    AlpineBitsRequestHandler(Middleware middleware, ContextBuilder contextBuilder,
+                             RequestExceptionHandler requestExceptionHandler, String path) {
+        this.middleware = middleware;
+        this.contextBuilder = contextBuilder;
+        this.requestExceptionHandler = requestExceptionHandler;
+        this.path = path;
+    }
+
+    /**
+     * Get the number of requests, that are processed or whose response is not written yet.
+     *
+     * @return number of requests in progress
+     */
+    int getActiveRequestCount() {
+        return this.activeRequests.get();
+    }
+
+    /**
+     * Set if the server is shutting down. While draining, the connections
+     * are closed after each response instead of being kept alive.
+     *
+     * @param draining true if the server is shutting down, false otherwise
+     */
+    void setDraining(boolean draining) {
+        this.draining = draining;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        this.activeRequests.incrementAndGet();
+        boolean written = false;
+        try {
+            FullHttpResponse response = this.buildResponse(ctx, request);
+
+            boolean keepAlive = HttpUtil.isKeepAlive(request) && !this.draining;
+            HttpUtil.setKeepAlive(response, keepAlive);
+            ChannelFuture future = ctx.writeAndFlush(response);
+            written = true;
+            future.addListener(f -> this.activeRequests.decrementAndGet());
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+        } finally {
+            if (!written) {
+                this.activeRequests.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        LOG.error("Uncaught error in Netty pipeline, closing connection", cause);
+        ctx.close();
+    }
+
+    private FullHttpResponse buildResponse(ChannelHandlerContext ctx, FullHttpRequest request) {
+        if (!request.decoderResult().isSuccess()) {
+            return this.emptyResponse(request, HttpResponseStatus.BAD_REQUEST);
+        }
+        if (this.path != null && !this.path.equals(new QueryStringDecoder(request.uri()).path())) {
+            return this.emptyResponse(request, HttpResponseStatus.NOT_FOUND);
+        }
+        if (!HttpMethod.POST.equals(request.method())) {
+            FullHttpResponse response = this.emptyResponse(request, HttpResponseStatus.METHOD_NOT_ALLOWED);
+            response.headers().set(HttpHeaderNames.ALLOW, HttpMethod.POST.name());
+            return response;
+        }
+        return this.processRequest(ctx, request);
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private FullHttpResponse processRequest(ChannelHandlerContext ctx, FullHttpRequest request) {
+        String requestId = UUID.randomUUID().toString();
+        NettyHttpServletRequest servletRequest = new NettyHttpServletRequest(request,
+                (InetSocketAddress) ctx.channel().localAddress(), (InetSocketAddress) ctx.channel().remoteAddress(), requestId);
+        NettyHttpServletResponse servletResponse = new NettyHttpServletResponse(ctx.alloc().buffer());
+        Context context = null;
+        try {
+            servletRequest.setAttribute(AlpineBitsServlet.REQUEST_ID, requestId);
+            MDC.put(AlpineBitsServlet.REQUEST_ID, requestId);
+
+            LOG.debug("Handle incoming request");
+
+            context = this.contextBuilder.fromRequest(servletRequest, servletResponse, requestId);
+            this.middleware.handleContext(context, null);
+            DefaultContextBuilder.finishResponse(context);
+        } catch (Exception e) {
+            DefaultContextBuilder.discardResponse(context);
+            this.handleRequestException(servletRequest, servletResponse, e);
+        } finally {
+            MDC.clear();
+        }
+        return servletResponse.toFullHttpResponse(request.protocolVersion());
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private void handleRequestException(NettyHttpServletRequest request, NettyHttpServletResponse response, Exception e) {
+        try {
+            this.requestExceptionHandler.handleRequestException(request, response, e);
+        } catch (Exception handlerException) {
+            LOG.error("Uncaught error while handling request", handlerException);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private FullHttpResponse emptyResponse(FullHttpRequest request, HttpResponseStatus status) {
+        FullHttpResponse response = new DefaultFullHttpResponse(request.protocolVersion(), status);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+        return response;
+    }
+}
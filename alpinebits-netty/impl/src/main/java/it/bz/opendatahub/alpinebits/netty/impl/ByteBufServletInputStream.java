@@ -0,0 +1,77 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.buffer.ByteBuf;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+/**
+ * This {@link ServletInputStream} reads the body of an aggregated
+ * Netty request directly from its {@link ByteBuf}, without copying it.
+ * <p>
+ * The buffer is owned (and released) by the caller.
+ */
+final class ByteBufServletInputStream extends ServletInputStream {
+
+    private final ByteBuf content;
+
+    ByteBufServletInputStream(ByteBuf content) {
+        this.content = content;
+    }
+
+    @Override
+    public int read() {
+        return this.content.isReadable() ? this.content.readByte() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int readable = this.content.readableBytes();
+        if (readable == 0) {
+            return -1;
+        }
+        int count = Math.min(readable, len);
+        this.content.readBytes(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return this.content.readableBytes();
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.min(this.content.readableBytes(), Math.max(n, 0));
+        this.content.skipBytes(count);
+        return count;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !this.content.isReadable();
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        throw new IllegalStateException("Non-blocking reads are not supported, the request body is already available");
+    }
+}
@@ -0,0 +1,51 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.buffer.ByteBuf;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * This {@link ServletOutputStream} writes the response body into
+ * a (pooled) Netty {@link ByteBuf}.
+ * <p>
+ * The buffer is owned (and released) by the caller.
+ */
+final class ByteBufServletOutputStream extends ServletOutputStream {
+
+    private final ByteBuf content;
+
+    ByteBufServletOutputStream(ByteBuf content) {
+        this.content = content;
+    }
+
+    @Override
+    public void write(int b) {
+        this.content.writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.content.writeBytes(b, off, len);
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        throw new IllegalStateException("Non-blocking writes are not supported, the response body is buffered");
+    }
+}
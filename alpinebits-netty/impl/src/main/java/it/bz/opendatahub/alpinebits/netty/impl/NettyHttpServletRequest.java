@@ -0,0 +1,508 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This {@link HttpServletRequest} adapts an aggregated Netty {@link FullHttpRequest},
+ * such that the existing servlet middlewares can be used unchanged.
+ * <p>
+ * The request body is read directly from the (pooled) content buffer of the Netty
+ * request, which stays owned by the Netty pipeline. Servlet container features, like
+ * sessions, authentication, request dispatching and asynchronous processing, are not
+ * supported.
+ */
+public class NettyHttpServletRequest implements HttpServletRequest {
+
+    private static final String SCHEME = "http";
+    private static final String SESSIONS = "Session tracking";
+    private static final String AUTHENTICATION = "Container authentication";
+    private static final String MULTIPART = "Container multipart parsing";
+
+    private final FullHttpRequest request;
+    private final InetSocketAddress localAddress;
+    private final InetSocketAddress remoteAddress;
+    private final String requestId;
+    private final QueryStringDecoder queryStringDecoder;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private String characterEncoding;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    /**
+     * Create a {@link NettyHttpServletRequest}.
+     *
+     * @param request       the aggregated Netty request
+     * @param localAddress  the local address of the connection
+     * @param remoteAddress the remote address of the connection
+     * @param requestId     the id of the request
+     * @throws IllegalArgumentException if request is null
+     */
+    public NettyHttpServletRequest(FullHttpRequest request, InetSocketAddress localAddress,
+                                   InetSocketAddress remoteAddress, String requestId) {
+        if (request == null) {
+            throw new IllegalArgumentException("The request must not be null");
+        }
+        this.request = request;
+        this.localAddress = localAddress;
+        this.remoteAddress = remoteAddress;
+        this.requestId = requestId;
+        this.queryStringDecoder = new QueryStringDecoder(request.uri());
+        CharSequence charset = HttpUtil.getCharsetAsSequence(request);
+        this.characterEncoding = charset == null ? null : charset.toString();
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = this.getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        Date date = DateFormatter.parseHttpDate(value);
+        if (date == null) {
+            throw new IllegalArgumentException("The header " + name + " can not be converted to a date");
+        }
+        return date.getTime();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return this.request.headers().get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(this.request.headers().getAll(name));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(this.request.headers().names());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = this.getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public String getMethod() {
+        return this.request.method().name();
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    public String getQueryString() {
+        String rawQuery = this.queryStringDecoder.rawQuery();
+        return rawQuery.isEmpty() ? null : rawQuery;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return this.queryStringDecoder.rawPath();
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(SCHEME)
+                .append("://")
+                .append(this.getServerName())
+                .append(':')
+                .append(this.getServerPort())
+                .append(this.getRequestURI());
+    }
+
+    @Override
+    public String getServletPath() {
+        return this.queryStringDecoder.path();
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw unsupported(SESSIONS);
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return this.getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("There is no session associated with this request");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        throw unsupported(AUTHENTICATION);
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw unsupported(AUTHENTICATION);
+    }
+
+    @Override
+    public void logout() {
+        throw unsupported(AUTHENTICATION);
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        throw unsupported(MULTIPART);
+    }
+
+    @Override
+    public Part getPart(String name) {
+        throw unsupported(MULTIPART);
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw unsupported("Protocol upgrade");
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(this.attributes.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+        if (this.reader != null) {
+            return;
+        }
+        try {
+            Charset.forName(env);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(env);
+        }
+        this.characterEncoding = env;
+    }
+
+    @Override
+    public int getContentLength() {
+        return this.request.content().readableBytes();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return this.getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return this.getHeader(HttpHeaderNames.CONTENT_TYPE.toString());
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (this.reader != null) {
+            throw new IllegalStateException("getReader() has already been called for this request");
+        }
+        if (this.inputStream == null) {
+            this.inputStream = new ByteBufServletInputStream(this.request.content());
+        }
+        return this.inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (this.reader == null) {
+            if (this.inputStream != null) {
+                throw new IllegalStateException("getInputStream() has already been called for this request");
+            }
+            Charset charset = this.characterEncoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(this.characterEncoding);
+            this.reader = new BufferedReader(new InputStreamReader(new ByteBufServletInputStream(this.request.content()), charset));
+        }
+        return this.reader;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        List<String> values = this.queryStringDecoder.parameters().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(this.queryStringDecoder.parameters().keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        List<String> values = this.queryStringDecoder.parameters().get(name);
+        return values == null ? null : values.toArray(new String[0]);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        Map<String, String[]> parameters = new HashMap<>();
+        this.queryStringDecoder.parameters().forEach((name, values) -> parameters.put(name, values.toArray(new String[0])));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public String getProtocol() {
+        return this.request.protocolVersion().text();
+    }
+
+    @Override
+    public String getScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public String getServerName() {
+        String host = this.getHeader(HttpHeaderNames.HOST.toString());
+        if (host == null || host.isEmpty()) {
+            return this.getLocalName();
+        }
+        // Strip the port, taking care of IPv6 literals like [::1]:8080
+        int portSeparator = host.lastIndexOf(':');
+        return portSeparator > host.lastIndexOf(']') ? host.substring(0, portSeparator) : host;
+    }
+
+    @Override
+    public int getServerPort() {
+        return this.getLocalPort();
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return this.remoteAddress == null ? null : this.remoteAddress.getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return this.getRemoteAddr();
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            this.removeAttribute(name);
+        } else {
+            this.attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        this.attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(this.getLocale()));
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return null;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return this.remoteAddress == null ? -1 : this.remoteAddress.getPort();
+    }
+
+    @Override
+    public String getLocalName() {
+        return this.localAddress == null ? null : this.localAddress.getHostString();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return this.localAddress == null ? null : this.localAddress.getAddress().getHostAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return this.localAddress == null ? -1 : this.localAddress.getPort();
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Asynchronous processing is not supported by the Netty transport");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        return this.startAsync();
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("The request has not been put into asynchronous mode");
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public String getRequestId() {
+        return this.requestId;
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        throw unsupported("Servlet connection");
+    }
+
+    private static UnsupportedOperationException unsupported(String feature) {
+        return new UnsupportedOperationException(feature + " is not supported by the Netty transport");
+    }
+}
@@ -0,0 +1,316 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+
+/**
+ * This {@link HttpServletResponse} collects status, headers and body of a response,
+ * such that the existing servlet middlewares can be used unchanged.
+ * <p>
+ * The body is written into a (pooled) {@link ByteBuf}, that is handed over to Netty by
+ * {@link #toFullHttpResponse(HttpVersion)}. Since the whole body is buffered, the response
+ * is never committed while the middlewares are running and its <code>Content-Length</code>
+ * is always known. Call {@link #release()} if the response is never converted.
+ */
+public class NettyHttpServletResponse implements HttpServletResponse {
+
+    private static final String CONTENT_TYPE = HttpHeaderNames.CONTENT_TYPE.toString();
+    private static final String CHARSET_PARAMETER = "; charset=";
+
+    private final ByteBuf content;
+    private final ServletOutputStream outputStream;
+    private final HttpHeaders headers = new DefaultHttpHeaders();
+
+    private int status = SC_OK;
+    private String characterEncoding;
+    private Locale locale = Locale.getDefault();
+    private PrintWriter writer;
+
+    /**
+     * Create a {@link NettyHttpServletResponse} that writes its body into the given buffer.
+     *
+     * @param content buffer for the response body, its ownership is transferred to this response
+     * @throws IllegalArgumentException if content is null
+     */
+    public NettyHttpServletResponse(ByteBuf content) {
+        if (content == null) {
+            throw new IllegalArgumentException("The content buffer must not be null");
+        }
+        this.content = content;
+        this.outputStream = new ByteBufServletOutputStream(content);
+    }
+
+    /**
+     * Convert this response into a Netty {@link FullHttpResponse}. The ownership of the
+     * body buffer is transferred to the returned response.
+     *
+     * @param version the HTTP version of the response
+     * @return the {@link FullHttpResponse}, with its <code>Content-Length</code> header set
+     */
+    public FullHttpResponse toFullHttpResponse(HttpVersion version) {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        FullHttpResponse response = new DefaultFullHttpResponse(version, HttpResponseStatus.valueOf(this.status),
+                this.content, this.headers, EmptyHttpHeaders.INSTANCE);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, this.content.readableBytes());
+        return response;
+    }
+
+    /**
+     * Release the body buffer. Use this method only if the response is
+     * not converted by {@link #toFullHttpResponse(HttpVersion)}.
+     */
+    public void release() {
+        this.content.release();
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        throw new UnsupportedOperationException("Cookies are not supported by the Netty transport");
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return this.headers.contains(name);
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.reset();
+        this.status = sc;
+        if (msg != null) {
+            this.setContentType("text/plain");
+            this.content.writeCharSequence(msg, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) {
+        this.sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location, int sc, boolean clearBuffer) {
+        if (clearBuffer) {
+            this.resetBuffer();
+        }
+        this.status = sc;
+        this.headers.set(HttpHeaderNames.LOCATION, location);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        this.headers.set(name, DateFormatter.format(new Date(date)));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        this.headers.add(name, DateFormatter.format(new Date(date)));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (value == null) {
+            this.headers.remove(name);
+        } else {
+            this.headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (value != null) {
+            this.headers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        this.headers.setInt(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        this.headers.addInt(name, value);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return this.status;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return this.headers.get(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return new ArrayList<>(this.headers.getAll(name));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new LinkedHashSet<>(this.headers.names());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding == null ? StandardCharsets.ISO_8859_1.name() : this.characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.headers.get(CONTENT_TYPE);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (this.writer == null) {
+            Charset charset = Charset.forName(this.getCharacterEncoding());
+            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, charset));
+        }
+        return this.writer;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (this.writer != null) {
+            return;
+        }
+        this.characterEncoding = charset;
+        String contentType = this.getContentType();
+        if (contentType != null) {
+            this.setContentType(contentType);
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // The Content-Length is always set from the buffered body
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // The Content-Length is always set from the buffered body
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (type == null) {
+            this.headers.remove(CONTENT_TYPE);
+            return;
+        }
+        CharSequence charset = HttpUtil.getCharsetAsSequence(type);
+        if (charset != null && this.writer == null) {
+            this.characterEncoding = charset.toString();
+        }
+        CharSequence mimeType = HttpUtil.getMimeType(type);
+        if (mimeType == null || this.characterEncoding == null) {
+            this.headers.set(CONTENT_TYPE, type);
+        } else {
+            this.headers.set(CONTENT_TYPE, mimeType + CHARSET_PARAMETER + this.characterEncoding);
+        }
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // The whole body is buffered
+    }
+
+    @Override
+    public int getBufferSize() {
+        return this.content.capacity();
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        this.content.clear();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        this.resetBuffer();
+        this.headers.clear();
+        this.status = SC_OK;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        this.locale = loc;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return this.locale;
+    }
+}
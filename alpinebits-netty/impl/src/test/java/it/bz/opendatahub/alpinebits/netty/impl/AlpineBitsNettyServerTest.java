@@ -0,0 +1,314 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.context.ResponseContextKeys;
+import it.bz.opendatahub.alpinebits.common.exception.AlpineBitsException;
+import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import it.bz.opendatahub.alpinebits.servlet.middleware.AlpineBitsClientProtocolMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.middleware.MultipartFormDataParserMiddleware;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link AlpineBitsNettyServer} class.
+ */
+public class AlpineBitsNettyServerTest {
+
+    private static final String PATH = "/AlpineBits";
+    private static final String BOUNDARY = "alpinebits-boundary";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private AlpineBitsNettyServer server;
+
+    @AfterMethod
+    public void afterMethod() {
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuild_ShouldThrow_IfMiddlewareIsMissing() {
+        new AlpineBitsNettyServer.Builder().build();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPort_ShouldThrow_IfPortIsInvalid() {
+        new AlpineBitsNettyServer.Builder().port(65536);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testStart_ShouldThrow_IfAlreadyStarted() throws Exception {
+        int port = this.start((ctx, chain) -> {
+        });
+        assertTrue(port > 0);
+        this.server.start();
+    }
+
+    @Test
+    public void testPost_ShouldInvokeMiddleware() throws Exception {
+        int port = this.start((ctx, chain) -> {
+            HttpServletRequest request = ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST);
+            HttpServletResponse response = ctx.getOrThrow(ServletContextKey.SERVLET_RESPONSE);
+            try (InputStream is = request.getInputStream()) {
+                String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+                response.setHeader("X-Test", request.getHeader("X-Test"));
+                response.setStatus(HttpServletResponse.SC_ACCEPTED);
+                ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM).write(body.toUpperCase().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        HttpResponse<String> response = this.send(port, PATH, HttpRequest.newBuilder()
+                .header("X-Test", "some value")
+                .POST(HttpRequest.BodyPublishers.ofString("hello netty")));
+
+        assertEquals(response.statusCode(), HttpServletResponse.SC_ACCEPTED);
+        assertEquals(response.body(), "HELLO NETTY");
+        assertEquals(response.headers().firstValue("X-Test").orElse(null), "some value");
+        assertEquals(response.headers().firstValue("Content-Length").orElse(null), "11");
+    }
+
+    @Test
+    public void testPost_ShouldHandleMultipartRequestsWithServletMiddlewares() throws Exception {
+        Middleware middleware = ComposingMiddlewareBuilder.compose(Arrays.asList(
+                new AlpineBitsClientProtocolMiddleware(),
+                new MultipartFormDataParserMiddleware(),
+                this.requestSummaryMiddleware()
+        ));
+        int port = this.start(middleware);
+
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"action\"\r\n\r\n"
+                + "OTA_Ping:Handshaking\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"request\"\r\n\r\n"
+                + "<xml/>\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+
+        HttpResponse<String> response = this.send(port, PATH, HttpRequest.newBuilder()
+                .header(AlpineBitsClientProtocolMiddleware.CLIENT_PROTOCOL_VERSION_HEADER, "2024-10")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+
+        assertEquals(response.statusCode(), HttpServletResponse.SC_OK);
+        assertEquals(response.body(), "2024-10|OTA_Ping:Handshaking|<xml/>");
+    }
+
+    @Test
+    public void testPost_ShouldUseRequestExceptionHandler_IfMiddlewareThrows() throws Exception {
+        int port = this.start((ctx, chain) -> {
+            throw new AlpineBitsException("some error", HttpServletResponse.SC_BAD_REQUEST, "some response message");
+        });
+
+        HttpResponse<String> response = this.send(port, PATH, HttpRequest.newBuilder()
+                .POST(HttpRequest.BodyPublishers.noBody()));
+
+        assertEquals(response.statusCode(), HttpServletResponse.SC_BAD_REQUEST);
+        assertTrue(response.body().startsWith("ERROR:some response message [rid="));
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+    }
+
+    @Test
+    public void testGet_ShouldReturn405() throws Exception {
+        int port = this.start((ctx, chain) -> {
+            throw new IllegalStateException("The middleware must not be invoked");
+        });
+
+        HttpResponse<String> response = this.send(port, PATH, HttpRequest.newBuilder().GET());
+
+        assertEquals(response.statusCode(), HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        assertEquals(response.headers().firstValue("Allow").orElse(null), "POST");
+    }
+
+    @Test
+    public void testPost_ShouldReturn404_IfPathDoesNotMatch() throws Exception {
+        int port = this.start((ctx, chain) -> {
+            throw new IllegalStateException("The middleware must not be invoked");
+        });
+
+        HttpResponse<String> response = this.send(port, "/other", HttpRequest.newBuilder()
+                .POST(HttpRequest.BodyPublishers.noBody()));
+
+        assertEquals(response.statusCode(), HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testPost_ShouldReturn413_IfRequestIsTooLarge() throws Exception {
+        this.server = new AlpineBitsNettyServer.Builder()
+                .middleware((ctx, chain) -> {
+                })
+                .port(0)
+                .maxContentLength(16)
+                .build();
+        int port = this.server.start();
+
+        HttpResponse<String> response = this.send(port, PATH, HttpRequest.newBuilder()
+                .POST(HttpRequest.BodyPublishers.ofString("this body is longer than 16 bytes")));
+
+        assertEquals(response.statusCode(), 413);
+    }
+
+    @Test
+    public void testClose_ShouldStopServer() throws Exception {
+        int port = this.start((ctx, chain) -> {
+        });
+        this.server.close();
+        this.server = null;
+
+        boolean failed = false;
+        try {
+            this.send(port, PATH, HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody()));
+        } catch (IOException e) {
+            failed = true;
+        }
+        assertTrue(failed);
+    }
+
+    @Test
+    public void testClose_ShouldAnswerRequestsInProgress() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int port = this.start((ctx, chain) -> {
+            processing.countDown();
+            try {
+                release.await();
+                ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM).write("done".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        CompletableFuture<HttpResponse<String>> response = this.client.sendAsync(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + PATH))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+
+        Thread closing = new Thread(this.server::close);
+        closing.start();
+        // The server waits for the request in progress
+        closing.join(200);
+        assertTrue(closing.isAlive());
+
+        release.countDown();
+        closing.join(10_000);
+        assertFalse(closing.isAlive());
+        assertEquals(response.get(5, TimeUnit.SECONDS).statusCode(), HttpServletResponse.SC_OK);
+        assertEquals(response.get().body(), "done");
+        this.server = null;
+    }
+
+    @Test
+    public void testClose_ShouldCloseConnections_WhenGracePeriodExpires() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        this.server = new AlpineBitsNettyServer.Builder()
+                .middleware((ctx, chain) -> {
+                    processing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .host("localhost")
+                .port(0)
+                .shutdownGracePeriod(100)
+                .build();
+        int port = this.server.start();
+        CompletableFuture<HttpResponse<String>> response = this.client.sendAsync(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + PATH))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+
+        // The worker threads are shut down once the blocked middleware returns
+        Thread closing = new Thread(this.server::close);
+        closing.start();
+        this.server = null;
+        try {
+            boolean failed = false;
+            try {
+                response.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failed = true;
+            }
+            assertTrue(failed);
+        } finally {
+            release.countDown();
+            closing.join(10_000);
+        }
+        assertFalse(closing.isAlive());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testShutdownGracePeriod_ShouldThrow_IfNegative() {
+        new AlpineBitsNettyServer.Builder().shutdownGracePeriod(-1);
+    }
+
+    private Middleware requestSummaryMiddleware() {
+        return (ctx, chain) -> {
+            try (InputStream is = ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM)) {
+                String result = ctx.getOrThrow(RequestContextKey.REQUEST_VERSION) + "|"
+                        + ctx.getOrThrow(RequestContextKey.REQUEST_ACTION) + "|"
+                        + new String(is.readAllBytes(), StandardCharsets.UTF_8);
+                ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM).write(result.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private int start(Middleware middleware) throws InterruptedException {
+        this.server = new AlpineBitsNettyServer.Builder()
+                .middleware(middleware)
+                .host("localhost")
+                .port(0)
+                .path(PATH)
+                .workerThreads(2)
+                .build();
+        return this.server.start();
+    }
+
+    private HttpResponse<String> send(int port, String path, HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpRequest request = builder.uri(URI.create("http://localhost:" + port + path)).build();
+        return this.client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
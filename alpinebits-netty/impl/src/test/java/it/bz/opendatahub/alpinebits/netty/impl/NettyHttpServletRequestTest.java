@@ -0,0 +1,109 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test cases for {@link NettyHttpServletRequest} class.
+ */
+public class NettyHttpServletRequestTest {
+
+    private static final String BODY = "äöü body";
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_IfRequestIsNull() {
+        new NettyHttpServletRequest(null, null, null, null);
+    }
+
+    @Test
+    public void testHeadersAndUri() {
+        NettyHttpServletRequest request = this.buildRequest("/AlpineBits?a=1&a=2&b=3");
+
+        assertEquals(request.getMethod(), "POST");
+        assertEquals(request.getRequestURI(), "/AlpineBits");
+        assertEquals(request.getQueryString(), "a=1&a=2&b=3");
+        assertEquals(request.getParameter("a"), "1");
+        assertEquals(request.getParameterValues("a"), new String[]{"1", "2"});
+        assertNull(request.getParameter("c"));
+        assertEquals(request.getHeader("x-multi"), "one");
+        assertEquals(Collections.list(request.getHeaders("X-Multi")), Arrays.asList("one", "two"));
+        assertEquals(request.getIntHeader("X-Int"), 42);
+        assertEquals(request.getIntHeader("X-Missing"), -1);
+        assertEquals(request.getDateHeader("X-Missing"), -1);
+        assertEquals(request.getServerName(), "example.com");
+        assertEquals(request.getServerPort(), 8080);
+        assertEquals(request.getRequestURL().toString(), "http://example.com:8080/AlpineBits");
+        assertEquals(request.getRemotePort(), 4711);
+        assertEquals(request.getRequestId(), "REQUEST-ID");
+    }
+
+    @Test
+    public void testBody() throws IOException {
+        NettyHttpServletRequest request = this.buildRequest("/");
+
+        assertEquals(request.getContentType(), "text/plain; charset=UTF-8");
+        assertEquals(request.getCharacterEncoding(), "UTF-8");
+        assertEquals(request.getContentLengthLong(), BODY.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(request.getReader().readLine(), BODY);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testGetInputStream_ShouldThrow_IfReaderWasUsed() {
+        NettyHttpServletRequest request = this.buildRequest("/");
+        request.getReader();
+        request.getInputStream();
+    }
+
+    @Test
+    public void testAttributes() {
+        NettyHttpServletRequest request = this.buildRequest("/");
+        request.setAttribute("key", "value");
+        assertEquals(request.getAttribute("key"), "value");
+        request.setAttribute("key", null);
+        assertNull(request.getAttribute("key"));
+        assertFalse(request.isAsyncSupported());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetSession_ShouldThrow() {
+        this.buildRequest("/").getSession();
+    }
+
+    private NettyHttpServletRequest buildRequest(String uri) {
+        FullHttpRequest nettyRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, uri,
+                Unpooled.copiedBuffer(BODY, StandardCharsets.UTF_8));
+        nettyRequest.headers()
+                .set("Host", "example.com:8080")
+                .set("Content-Type", "text/plain; charset=UTF-8")
+                .add("X-Multi", "one")
+                .add("X-Multi", "two")
+                .set("X-Int", "42");
+        return new NettyHttpServletRequest(nettyRequest, new InetSocketAddress("127.0.0.1", 8080),
+                new InetSocketAddress("127.0.0.1", 4711), "REQUEST-ID");
+    }
+}
@@ -0,0 +1,87 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.netty.impl;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpVersion;
+import org.testng.annotations.Test;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link NettyHttpServletResponse} class.
+ */
+public class NettyHttpServletResponseTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_IfContentIsNull() {
+        new NettyHttpServletResponse(null);
+    }
+
+    @Test
+    public void testToFullHttpResponse() throws Exception {
+        NettyHttpServletResponse response = new NettyHttpServletResponse(Unpooled.buffer());
+        response.setStatus(201);
+        response.setHeader("X-Test", "value");
+        response.addHeader("X-Test", "other");
+        response.getOutputStream().print("stream,");
+        PrintWriter writer = response.getWriter();
+        writer.print("writer");
+
+        FullHttpResponse nettyResponse = response.toFullHttpResponse(HttpVersion.HTTP_1_1);
+        try {
+            assertEquals(nettyResponse.status().code(), 201);
+            assertEquals(nettyResponse.headers().getAll("X-Test").size(), 2);
+            assertEquals(nettyResponse.headers().get("Content-Length"), "13");
+            assertEquals(nettyResponse.content().toString(StandardCharsets.UTF_8), "stream,writer");
+        } finally {
+            nettyResponse.release();
+        }
+    }
+
+    @Test
+    public void testSetContentType_ShouldTrackCharacterEncoding() {
+        NettyHttpServletResponse response = new NettyHttpServletResponse(Unpooled.buffer());
+        assertEquals(response.getCharacterEncoding(), "ISO-8859-1");
+
+        response.setContentType("application/xml;charset=UTF-8");
+        assertEquals(response.getCharacterEncoding(), "UTF-8");
+        assertEquals(response.getContentType(), "application/xml; charset=UTF-8");
+
+        response.setHeader("Content-Type", null);
+        assertFalse(response.containsHeader("Content-Type"));
+        response.release();
+    }
+
+    @Test
+    public void testReset_ShouldClearStatusHeadersAndBody() throws Exception {
+        NettyHttpServletResponse response = new NettyHttpServletResponse(Unpooled.buffer());
+        response.setStatus(500);
+        response.setHeader("X-Test", "value");
+        response.getOutputStream().print("body");
+
+        response.reset();
+
+        assertEquals(response.getStatus(), 200);
+        assertTrue(response.getHeaderNames().isEmpty());
+        assertFalse(response.isCommitted());
+        FullHttpResponse nettyResponse = response.toFullHttpResponse(HttpVersion.HTTP_1_1);
+        assertEquals(nettyResponse.content().readableBytes(), 0);
+        nettyResponse.release();
+    }
+}
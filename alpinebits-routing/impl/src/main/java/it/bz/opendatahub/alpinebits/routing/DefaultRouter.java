@@ -11,10 +11,10 @@
 package it.bz.opendatahub.alpinebits.routing;
 
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.routing.RouterIndex.VersionIndex;
 import it.bz.opendatahub.alpinebits.routing.constants.Action;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -28,18 +28,21 @@ import java.util.function.Supplier;
  * This class implements the {@link Router} interface.
  * <p>
  * In addition, it provides a {@link DefaultRouter.Builder} to build new RoutingConfiguration.
+ * <p>
+ * The routes are indexed when the router is built, such that lookups of
+ * versions, actions and capabilities don't iterate or allocate.
  */
 public final class DefaultRouter implements Router {
 
     private static final String VERSION_NULL_ERROR_MESSAGE = "The version must not be null";
     private static final String ACTION_NAME_NULL_ERROR_MESSAGE = "The action name must not be null";
 
-    private final Map<String, VersionConfiguration> routes;
+    private final RouterIndex index;
 
     private final String highestSupportedVersion;
 
     private DefaultRouter(Map<String, VersionConfiguration> routes, String highestSupportedVersion) {
-        this.routes = routes;
+        this.index = RouterIndex.of(routes);
         this.highestSupportedVersion = highestSupportedVersion;
     }
 
@@ -52,19 +55,18 @@ public final class DefaultRouter implements Router {
             throw new IllegalArgumentException("The action must not be null");
         }
 
-        VersionConfiguration versionConfiguration = this.routes.get(version);
+        VersionIndex versionIndex = this.index.getVersion(version);
 
-        if (versionConfiguration == null) {
+        if (versionIndex == null) {
             return Optional.empty();
         }
 
-        return Optional.ofNullable(versionConfiguration.findMiddleware(actionRequestParam));
+        return Optional.ofNullable(versionIndex.getConfiguration().findMiddleware(actionRequestParam));
     }
 
     @Override
     public String getVersion(String version) {
-        Collection<String> versions = this.getVersions();
-        if (versions.contains(version)) {
+        if (this.index.getVersion(version) != null) {
             return version;
         }
         return this.highestSupportedVersion;
@@ -72,7 +74,7 @@ public final class DefaultRouter implements Router {
 
     @Override
     public Set<String> getVersions() {
-        return this.routes.keySet();
+        return this.index.getVersions();
     }
 
     @Override
@@ -81,13 +83,13 @@ public final class DefaultRouter implements Router {
             throw new IllegalArgumentException(VERSION_NULL_ERROR_MESSAGE);
         }
 
-        VersionConfiguration versionConfiguration = this.routes.get(version);
+        VersionIndex versionIndex = this.index.getVersion(version);
 
-        if (versionConfiguration == null) {
+        if (versionIndex == null) {
             return Optional.empty();
         }
 
-        return Optional.of(versionConfiguration.getActions().keySet());
+        return Optional.of(versionIndex.getActions());
     }
 
     @Override
@@ -96,13 +98,13 @@ public final class DefaultRouter implements Router {
             throw new IllegalArgumentException(VERSION_NULL_ERROR_MESSAGE);
         }
 
-        VersionConfiguration versionConfiguration = this.routes.get(version);
+        VersionIndex versionIndex = this.index.getVersion(version);
 
-        if (versionConfiguration == null) {
+        if (versionIndex == null) {
             return Optional.empty();
         }
 
-        return Optional.of(versionConfiguration.getCapabilities());
+        return Optional.of(versionIndex.getCapabilities());
     }
 
     @Override
@@ -114,25 +116,12 @@ public final class DefaultRouter implements Router {
             throw new IllegalArgumentException(ACTION_NAME_NULL_ERROR_MESSAGE);
         }
 
-        VersionConfiguration versionConfiguration = this.routes.get(version);
-        if (versionConfiguration == null) {
+        VersionIndex versionIndex = this.index.getVersion(version);
+        if (versionIndex == null) {
             return Optional.empty();
         }
 
-        Map<Action, ActionConfiguration> actionConfigurations = versionConfiguration.getActions();
-        if (actionConfigurations == null) {
-            return Optional.empty();
-        }
-
-        for (Map.Entry<Action, ActionConfiguration> entry : actionConfigurations.entrySet()) {
-            Action action = entry.getKey();
-            if (action.getName() != null && action.getName().equals(actionName)) {
-                ActionConfiguration actionConfiguration = entry.getValue();
-                return Optional.ofNullable(actionConfiguration.getCapabilitites());
-            }
-        }
-
-        return Optional.empty();
+        return Optional.ofNullable(versionIndex.getCapabilitiesForActionName(actionName));
     }
 
     @Override
@@ -140,13 +129,15 @@ public final class DefaultRouter implements Router {
         if (version == null) {
             throw new IllegalArgumentException(VERSION_NULL_ERROR_MESSAGE);
         }
-        return this.routes.containsKey(version);
+        return this.index.getVersion(version) != null;
     }
 
     @Override
     public boolean isCapabilityDefined(String version, String capability) {
-        Set<String> capabilities = this.getCapabilitiesForVersion(version).orElse(Collections.emptySet());
-        return capabilities.contains(capability);
+        if (version == null) {
+            throw new IllegalArgumentException(VERSION_NULL_ERROR_MESSAGE);
+        }
+        return this.index.isCapabilityDefined(version, capability);
     }
 
     /**
@@ -0,0 +1,141 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.routing;
+
+import it.bz.opendatahub.alpinebits.routing.constants.Action;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable lookup structure for the routes of a {@link DefaultRouter},
+ * built once when the router is built.
+ * <p>
+ * All capabilities of all versions are mapped to a dense id space, such
+ * that the capabilities of a version can be checked with a {@link BitSet}
+ * lookup. The capability sets per version and per action name are
+ * precomputed, no lookup allocates.
+ */
+final class RouterIndex {
+
+    private final Map<String, Integer> capabilityIds;
+    private final Map<String, VersionIndex> versions;
+
+    private RouterIndex(Map<String, Integer> capabilityIds, Map<String, VersionIndex> versions) {
+        this.capabilityIds = capabilityIds;
+        this.versions = versions;
+    }
+
+    static RouterIndex of(Map<String, VersionConfiguration> routes) {
+        Map<String, Integer> capabilityIds = new HashMap<>();
+        Map<String, VersionIndex> versions = new HashMap<>();
+        for (Map.Entry<String, VersionConfiguration> entry : routes.entrySet()) {
+            versions.put(entry.getKey(), VersionIndex.of(entry.getValue(), capabilityIds));
+        }
+        return new RouterIndex(Collections.unmodifiableMap(capabilityIds), Collections.unmodifiableMap(versions));
+    }
+
+    Set<String> getVersions() {
+        return this.versions.keySet();
+    }
+
+    VersionIndex getVersion(String version) {
+        return this.versions.get(version);
+    }
+
+    boolean isCapabilityDefined(String version, String capability) {
+        VersionIndex versionIndex = this.versions.get(version);
+        if (versionIndex == null) {
+            return false;
+        }
+        Integer id = this.capabilityIds.get(capability);
+        return id != null && versionIndex.capabilityBits.get(id);
+    }
+
+    /**
+     * Precomputed information of a single version.
+     */
+    static final class VersionIndex {
+
+        private final VersionConfiguration configuration;
+        private final Set<Action> actions;
+        private final Set<String> capabilities;
+        private final Map<String, Set<String>> capabilitiesByActionName;
+        private final BitSet capabilityBits;
+
+        private VersionIndex(
+                VersionConfiguration configuration,
+                Set<String> capabilities,
+                Map<String, Set<String>> capabilitiesByActionName,
+                BitSet capabilityBits
+        ) {
+            this.configuration = configuration;
+            this.actions = Collections.unmodifiableSet(configuration.getActions().keySet());
+            this.capabilities = capabilities;
+            this.capabilitiesByActionName = capabilitiesByActionName;
+            this.capabilityBits = capabilityBits;
+        }
+
+        private static VersionIndex of(VersionConfiguration configuration, Map<String, Integer> capabilityIds) {
+            // Collect into a HashSet, such that the iteration order remains the same as before
+            Set<String> capabilities = new HashSet<>();
+            Map<String, Set<String>> capabilitiesByActionName = new HashMap<>();
+            BitSet capabilityBits = new BitSet();
+
+            for (Map.Entry<Action, ActionConfiguration> entry : configuration.getActions().entrySet()) {
+                Set<String> actionCapabilities = entry.getValue().getCapabilitites();
+                Set<String> actionCapabilitiesView = actionCapabilities == null
+                        ? null
+                        : Collections.unmodifiableSet(actionCapabilities);
+
+                // Keep the first action with a given name, as the previous linear search did
+                String actionName = entry.getKey().getName();
+                if (actionName != null && !capabilitiesByActionName.containsKey(actionName)) {
+                    capabilitiesByActionName.put(actionName, actionCapabilitiesView);
+                }
+
+                if (actionCapabilitiesView != null) {
+                    for (String capability : actionCapabilitiesView) {
+                        capabilities.add(capability);
+                        capabilityBits.set(capabilityIds.computeIfAbsent(capability, c -> capabilityIds.size()));
+                    }
+                }
+            }
+
+            return new VersionIndex(
+                    configuration,
+                    Collections.unmodifiableSet(capabilities),
+                    capabilitiesByActionName,
+                    capabilityBits
+            );
+        }
+
+        VersionConfiguration getConfiguration() {
+            return this.configuration;
+        }
+
+        Set<Action> getActions() {
+            return this.actions;
+        }
+
+        Set<String> getCapabilities() {
+            return this.capabilities;
+        }
+
+        Set<String> getCapabilitiesForActionName(String actionName) {
+            return this.capabilitiesByActionName.get(actionName);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.routing;
+
+import it.bz.opendatahub.alpinebits.routing.constants.Action;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+
+/**
+ * This class builds warm-up requests for all routes of a {@link Router}, see
+ * {@link it.bz.opendatahub.alpinebits.servlet.WarmUpProvider}.
+ */
+public final class RouterWarmUpRequests {
+
+    private RouterWarmUpRequests() {
+        // Empty
+    }
+
+    /**
+     * Build a warm-up request without request XML for each version and action
+     * request parameter of the given {@link Router}.
+     *
+     * @param router the {@link Router}
+     * @return the warm-up requests, ordered by version and action
+     * @throws IllegalArgumentException if router is null
+     */
+    public static List<WarmUpRequest> fromRouter(Router router) {
+        return fromRouter(router, (version, action) -> null);
+    }
+
+    /**
+     * Build a warm-up request for each version and action request parameter of
+     * the given {@link Router}. Actions sharing the same request parameter (e.g.
+     * different capabilities of the same action) result in a single request.
+     *
+     * @param router          the {@link Router}
+     * @param requestProvider returns the request XML for a version and action request parameter
+     *                        (e.g. 2017-10 and OTA_Read:GuestRequests), or null if the request
+     *                        has no XML
+     * @return the warm-up requests, ordered by version and action
+     * @throws IllegalArgumentException if router or requestProvider is null
+     */
+    public static List<WarmUpRequest> fromRouter(Router router, BiFunction<String, String, String> requestProvider) {
+        if (router == null) {
+            throw new IllegalArgumentException("The router must not be null");
+        }
+        if (requestProvider == null) {
+            throw new IllegalArgumentException("The request provider must not be null");
+        }
+        List<WarmUpRequest> requests = new ArrayList<>();
+        for (String version : new TreeSet<>(router.getVersions())) {
+            Set<String> actions = new TreeSet<>();
+            for (Action action : router.getActionsForVersion(version).orElseGet(TreeSet::new)) {
+                actions.add(action.getRequestParameter());
+            }
+            for (String action : actions) {
+                requests.add(new WarmUpRequest.Builder(version, action)
+                        .request(requestProvider.apply(version, action))
+                        .build());
+            }
+        }
+        return requests;
+    }
+}
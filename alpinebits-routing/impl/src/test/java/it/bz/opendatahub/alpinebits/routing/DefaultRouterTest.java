@@ -318,6 +318,46 @@ public class DefaultRouterTest {
         assertFalse(isDefined);
     }
 
+    @Test
+    public void testIsCapabilityDefined_falseIfOnlyDefinedForOtherVersion() {
+        Router router = new DefaultRouter.Builder()
+                .version(DEFAULT_VERSION)
+                .supportsAction(DEFAULT_ACTION)
+                .withCapabilities(DEFAULT_CAPABILITY)
+                .using((ctx, chain) -> {
+                })
+                .versionComplete()
+                .and()
+                .version(AlpineBitsVersion.V_2018_10)
+                .supportsAction(DEFAULT_ACTION)
+                .withCapabilities(UNKNOWN_CAPABILITY)
+                .using((ctx, chain) -> {
+                })
+                .versionComplete()
+                .buildRouter();
+
+        assertTrue(router.isCapabilityDefined(DEFAULT_VERSION, DEFAULT_CAPABILITY));
+        assertFalse(router.isCapabilityDefined(DEFAULT_VERSION, UNKNOWN_CAPABILITY));
+        assertTrue(router.isCapabilityDefined(AlpineBitsVersion.V_2018_10, UNKNOWN_CAPABILITY));
+        assertFalse(router.isCapabilityDefined(AlpineBitsVersion.V_2018_10, DEFAULT_CAPABILITY));
+    }
+
+    @Test
+    public void testIsCapabilityDefined_falseOnNullCapability() {
+        boolean isDefined = this.getDefaultRouter().isCapabilityDefined(DEFAULT_VERSION, null);
+        assertFalse(isDefined);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testIsCapabilityDefined_throwsOnNullVersion() {
+        this.getDefaultRouter().isCapabilityDefined(null, DEFAULT_CAPABILITY);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetCapabilitiesForVersion_resultIsUnmodifiable() {
+        this.getDefaultRouter().getCapabilitiesForVersion(DEFAULT_VERSION).get().add(UNKNOWN_CAPABILITY);
+    }
+
     private Router getDefaultRouter() {
         return this.getRouter(DEFAULT_VERSION, DEFAULT_ACTION);
     }
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.routing;
+
+import it.bz.opendatahub.alpinebits.common.constants.AlpineBitsCapability;
+import it.bz.opendatahub.alpinebits.common.constants.AlpineBitsVersion;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.routing.constants.Action;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test cases for {@link RouterWarmUpRequests} class.
+ */
+public class RouterWarmUpRequestsTest {
+
+    private static final Middleware MIDDLEWARE = (ctx, chain) -> {
+    };
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFromRouter_ShouldThrow_WhenRouterIsNull() {
+        RouterWarmUpRequests.fromRouter(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFromRouter_ShouldThrow_WhenRequestProviderIsNull() {
+        RouterWarmUpRequests.fromRouter(this.buildRouter(), null);
+    }
+
+    @Test
+    public void testFromRouter_ShouldReturnRequestPerVersionAndAction() {
+        List<WarmUpRequest> requests = RouterWarmUpRequests.fromRouter(this.buildRouter(), (version, action) -> version + action);
+
+        assertEquals(requests.size(), 3);
+        this.assertRequest(requests.get(0), AlpineBitsVersion.V_2017_10, Action.FREE_ROOMS_HOTEL_AVAIL_NOTIF_FREE_ROOMS.getRequestParameter());
+        this.assertRequest(requests.get(1), AlpineBitsVersion.V_2017_10, Action.GET_VERSION.getRequestParameter());
+        this.assertRequest(requests.get(2), AlpineBitsVersion.V_2018_10, Action.HANDSHAKING.getRequestParameter());
+    }
+
+    @Test
+    public void testFromRouter_ShouldReturnRequestsWithoutXml() {
+        List<WarmUpRequest> requests = RouterWarmUpRequests.fromRouter(this.buildRouter());
+
+        assertEquals(requests.size(), 3);
+        assertNull(requests.get(0).getRequest());
+    }
+
+    private void assertRequest(WarmUpRequest request, String version, String action) {
+        assertEquals(request.getVersion(), version);
+        assertEquals(request.getAction(), action);
+        assertEquals(request.getRequest(), version + action);
+    }
+
+    private Router buildRouter() {
+        return new DefaultRouter.Builder()
+                .version(AlpineBitsVersion.V_2018_10)
+                .supportsAction(Action.HANDSHAKING)
+                .withCapabilities(AlpineBitsCapability.HANDSHAKING)
+                .using(MIDDLEWARE)
+                .versionComplete()
+                .and()
+                .version(AlpineBitsVersion.V_2017_10)
+                .supportsAction(Action.GET_VERSION)
+                .withCapabilities(AlpineBitsCapability.GET_VERSION)
+                .using(MIDDLEWARE)
+                .and()
+                .supportsAction(Action.FREE_ROOMS_HOTEL_AVAIL_NOTIF_FREE_ROOMS)
+                .withCapabilities(AlpineBitsCapability.FREE_ROOMS_HOTEL_AVAIL_NOTIF)
+                .using(MIDDLEWARE)
+                .and()
+                .supportsAction(Action.FREE_ROOMS_HOTEL_AVAIL_NOTIF_ACCEPT_ROOMS)
+                .withCapabilities(AlpineBitsCapability.FREE_ROOMS_HOTEL_AVAIL_NOTIF_ACCEPT_ROOMS)
+                .using(MIDDLEWARE)
+                .versionComplete()
+                .buildRouter();
+    }
+}
@@ -0,0 +1,43 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet;
+
+import it.bz.opendatahub.alpinebits.common.exception.AlpineBitsException;
+
+/**
+ * This exception is thrown if an asynchronously processed request
+ * did not complete within the configured timeout.
+ */
+public class RequestTimeoutException extends AlpineBitsException {
+
+    public static final int STATUS = 503;
+
+    /**
+     * Constructs a {@code RequestTimeoutException} with the specified message and no
+     * root cause.
+     *
+     * @param msg the detail message
+     */
+    public RequestTimeoutException(String msg) {
+        super(msg, STATUS);
+    }
+
+    /**
+     * Constructs a {@code RequestTimeoutException} with the specified message and root cause.
+     *
+     * @param msg the detail message
+     * @param t   the root cause
+     */
+    public RequestTimeoutException(String msg, Throwable t) {
+        super(msg, STATUS, t);
+    }
+
+}
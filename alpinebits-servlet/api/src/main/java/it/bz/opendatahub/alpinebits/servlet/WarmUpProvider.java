@@ -0,0 +1,47 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides the work done in the warm-up phase, before a server is ready to serve traffic.
+ * <p>
+ * The warm-up phase first runs all preload tasks in parallel, e.g. to initialize
+ * JAXB contexts and to compile validation schemas. Afterwards, the warm-up requests
+ * are sent repeatedly through the middleware, to exercise (and JIT compile) the whole
+ * request processing. The context of a warm-up request contains the value <code>true</code>
+ * for the key <code>RequestContextKey.REQUEST_WARM_UP</code>, middlewares with side
+ * effects should skip such requests.
+ */
+public interface WarmUpProvider {
+
+    /**
+     * Get the tasks that initialize expensive, shared resources. The tasks are
+     * run in parallel.
+     *
+     * @return the preload tasks
+     */
+    default List<Runnable> getPreloadTasks() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Get the synthetic requests sent through the middleware.
+     *
+     * @return the warm-up requests
+     */
+    default List<WarmUpRequest> getWarmUpRequests() {
+        return Collections.emptyList();
+    }
+}
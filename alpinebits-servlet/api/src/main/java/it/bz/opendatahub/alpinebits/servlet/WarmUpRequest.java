@@ -0,0 +1,142 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A synthetic AlpineBits request, that is sent through the middleware
+ * during the warm-up phase, see {@link WarmUpProvider}.
+ * <p>
+ * The request is a multipart/form-data POST with an <code>action</code>
+ * part and an optional <code>request</code> part containing the XML.
+ */
+public final class WarmUpRequest {
+
+    private final String version;
+    private final String action;
+    private final String request;
+    private final Map<String, String> headers;
+
+    private WarmUpRequest(Builder builder) {
+        this.version = builder.version;
+        this.action = builder.action;
+        this.request = builder.request;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+    }
+
+    /**
+     * Get the AlpineBits version, sent as client protocol version header.
+     *
+     * @return the AlpineBits version, e.g. 2017-10
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Get the value of the <code>action</code> part.
+     *
+     * @return the action, e.g. OTA_Ping:Handshaking
+     */
+    public String getAction() {
+        return this.action;
+    }
+
+    /**
+     * Get the value of the <code>request</code> part.
+     *
+     * @return the request XML, or null if the request has no such part
+     */
+    public String getRequest() {
+        return this.request;
+    }
+
+    /**
+     * Get additional HTTP headers of the request.
+     *
+     * @return unmodifiable map from header name to value
+     */
+    public Map<String, String> getHeaders() {
+        return this.headers;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpRequest{" +
+                "version='" + this.version + '\'' +
+                ", action='" + this.action + '\'' +
+                '}';
+    }
+
+    /**
+     * Builder for {@link WarmUpRequest}.
+     */
+    public static class Builder {
+
+        private final String version;
+        private final String action;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private String request;
+
+        /**
+         * Create a builder for a request with the given version and action.
+         *
+         * @param version the AlpineBits version, e.g. 2017-10
+         * @param action  the value of the <code>action</code> part, e.g. OTA_Ping:Handshaking
+         * @throws IllegalArgumentException if version or action is null
+         */
+        public Builder(String version, String action) {
+            if (version == null) {
+                throw new IllegalArgumentException("The version must not be null");
+            }
+            if (action == null) {
+                throw new IllegalArgumentException("The action must not be null");
+            }
+            this.version = version;
+            this.action = action;
+        }
+
+        /**
+         * Set the value of the <code>request</code> part.
+         *
+         * @param request the request XML, if null, the request has no such part
+         * @return the Builder
+         */
+        public Builder request(String request) {
+            this.request = request;
+            return this;
+        }
+
+        /**
+         * Add an HTTP header to the request, e.g. to provide credentials.
+         *
+         * @param name  the header name
+         * @param value the header value
+         * @return the Builder
+         * @throws IllegalArgumentException if name or value is null
+         */
+        public Builder header(String name, String value) {
+            if (name == null || value == null) {
+                throw new IllegalArgumentException("The header name and value must not be null");
+            }
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public WarmUpRequest build() {
+            return new WarmUpRequest(this);
+        }
+    }
+}
@@ -10,12 +10,16 @@
 
 package it.bz.opendatahub.alpinebits.servlet.impl;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
 import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
 import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.RequestRejectedException;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,16 +30,63 @@ import org.slf4j.MDC;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This servlet is the entry point for an AlpineBits request.
+ * <p>
+ * By default, the middleware is invoked on the container thread. If the init
+ * parameter ASYNC_ENABLED is <code>true</code> (and the servlet is declared with
+ * <code>async-supported</code>), the middleware is invoked on a bounded worker pool
+ * instead, see {@link ServletConfigParser#getAsyncExecutor(ServletConfig)}. That way,
+ * the container threads and the processing threads can be sized independently.
+ * The pool may also be replaced by virtual threads (JDK 21+).
+ * <p>
+ * In asynchronous mode, the init parameter NON_BLOCKING_IO enables non-blocking
+ * servlet I/O, see {@link NonBlockingExchange}: the request body is read into pooled
+ * buffers before the middleware is invoked, and the response body is buffered and
+ * written afterwards. MAX_REQUEST_SIZE limits the size of the buffered request body.
+ * <p>
+ * If the init parameter RESPONSE_BUFFERING is <code>true</code>, the response body is
+ * collected in pooled buffers and written with an exact <code>Content-Length</code>
+ * after the middleware returned, see {@link BufferedResponseOutputStream}. Bodies larger
+ * than RESPONSE_STREAMING_THRESHOLD bytes are streamed instead.
+ * <p>
+ * If the init parameter WARM_UP_ENABLED is <code>true</code>, a {@link WarmUp} is run
+ * in the background after initialization, see {@link ServletConfigParser#getWarmUp}.
+ * The servlet is ready ({@link #isReady()}, servlet context attribute {@value #READY_ATTRIBUTE})
+ * when the warm-up completed successfully. If a preload task or warm-up request
+ * failed, the servlet stays not ready. Requests received before are processed
+ * nevertheless, the readiness is meant for health checks and can be probed with
+ * the {@link ReadinessServlet}.
  */
 public class AlpineBitsServlet extends HttpServlet {
 
     public static final String MIDDLEWARE_CLASSNAME = "MIDDLEWARE_CLASSNAME";
     public static final String REQUEST_EXCEPTION_HANDLER_CLASSNAME = "REQUEST_EXCEPTION_HANDLER_CLASSNAME";
     public static final String CONTEXT_BUILDER_CLASSNAME = "CONTEXT_BUILDER_CLASSNAME";
+    public static final String SLOT_CONTEXT = "SLOT_CONTEXT";
+    public static final String ASYNC_ENABLED = "ASYNC_ENABLED";
+    public static final String ASYNC_EXECUTOR = "ASYNC_EXECUTOR";
+    public static final String ASYNC_THREADS = "ASYNC_THREADS";
+    public static final String ASYNC_QUEUE_SIZE = "ASYNC_QUEUE_SIZE";
+    public static final String ASYNC_TIMEOUT = "ASYNC_TIMEOUT";
+    public static final String NON_BLOCKING_IO = "NON_BLOCKING_IO";
+    public static final String MAX_REQUEST_SIZE = "MAX_REQUEST_SIZE";
+    public static final String RESPONSE_BUFFERING = "RESPONSE_BUFFERING";
+    public static final String RESPONSE_STREAMING_THRESHOLD = "RESPONSE_STREAMING_THRESHOLD";
+    public static final String WARM_UP_ENABLED = "WARM_UP_ENABLED";
+    public static final String WARM_UP_PROVIDER_CLASSNAME = "WARM_UP_PROVIDER_CLASSNAME";
+    public static final String WARM_UP_ITERATIONS = "WARM_UP_ITERATIONS";
+    public static final String WARM_UP_THREADS = "WARM_UP_THREADS";
+
+    // The servlet context attribute, whose value is Boolean.TRUE
+    // when the servlet is ready to serve traffic
+    public static final String READY_ATTRIBUTE = "it.bz.opendatahub.alpinebits.ready";
 
     // A unique requestId is set as attribute for
     // each request using this name
@@ -48,6 +99,13 @@ public class AlpineBitsServlet extends HttpServlet {
     private static Middleware middleware;
     private static RequestExceptionHandler requestExceptionHandler;
     private static ContextBuilder contextBuilder;
+    private static ExecutorService asyncExecutor;
+    private static long asyncTimeout;
+    private static boolean nonBlockingIo;
+    private static long maxRequestSize;
+    private static ByteChunkPool bufferPool;
+    private static Thread warmUpThread;
+    private static volatile boolean ready;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
@@ -55,11 +113,32 @@ public class AlpineBitsServlet extends HttpServlet {
         AlpineBitsServlet.handleInit(config);
     }
 
+    @Override
+    public void destroy() {
+        AlpineBitsServlet.stopWarmUp();
+        AlpineBitsServlet.shutdownAsyncExecutor();
+        super.destroy();
+    }
+
+    /**
+     * Check if the servlet is ready to serve traffic, i.e. it is initialized
+     * and the warm-up (if enabled) is completed.
+     *
+     * @return true if the servlet is ready, false otherwise
+     */
+    public static boolean isReady() {
+        return AlpineBitsServlet.ready;
+    }
+
     @Override
     @SuppressWarnings("checkstyle:illegalcatch")
     protected void doPost(HttpServletRequest request, HttpServletResponse response) {
         try {
-            this.handleRequest(request, response);
+            if (AlpineBitsServlet.asyncExecutor != null && request.isAsyncSupported()) {
+                this.dispatchRequest(request, response);
+            } else {
+                this.handleRequest(request, response);
+            }
         } catch (Exception e) {
             LOG.error("Uncaught error while handling request", e);
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -69,7 +148,10 @@ public class AlpineBitsServlet extends HttpServlet {
     @SuppressWarnings("checkstyle:illegalcatch")
     private static void handleInit(ServletConfig config) throws ServletException {
         ServletConfigParser servletConfigParser = new ServletConfigParser();
+        AlpineBitsServlet.stopWarmUp();
+        AlpineBitsServlet.setReady(config.getServletContext(), false);
 
+        WarmUp warmUp;
         try {
             Middleware configuredMiddleware = servletConfigParser.getMiddleware(config);
 
@@ -77,33 +159,198 @@ public class AlpineBitsServlet extends HttpServlet {
             // as chain, which simplifies its invocation
             AlpineBitsServlet.middleware = ComposingMiddlewareBuilder.compose(Collections.singletonList(configuredMiddleware));
             AlpineBitsServlet.requestExceptionHandler = servletConfigParser.getRequestExceptionHandler(config);
-            AlpineBitsServlet.contextBuilder = servletConfigParser.getContextBuilder(config);
+            AlpineBitsServlet.bufferPool = ByteChunkPool.withDefaults();
+            AlpineBitsServlet.contextBuilder = servletConfigParser.getContextBuilder(config, AlpineBitsServlet.bufferPool);
+            AlpineBitsServlet.shutdownAsyncExecutor();
+            AlpineBitsServlet.asyncExecutor = servletConfigParser.getAsyncExecutor(config);
+            AlpineBitsServlet.asyncTimeout = servletConfigParser.getAsyncTimeout(config);
+            AlpineBitsServlet.nonBlockingIo = servletConfigParser.isNonBlockingIo(config);
+            AlpineBitsServlet.maxRequestSize = servletConfigParser.getMaxRequestSize(config);
+            warmUp = servletConfigParser.getWarmUp(config, configuredMiddleware, AlpineBitsServlet.contextBuilder,
+                    AlpineBitsServlet.requestExceptionHandler);
         } catch (Exception e) {
             throw new ServletException(e);
         }
+
+        if (warmUp == null) {
+            AlpineBitsServlet.setReady(config.getServletContext(), true);
+        } else {
+            AlpineBitsServlet.startWarmUp(config.getServletContext(), warmUp);
+        }
+    }
+
+    private static void startWarmUp(ServletContext servletContext, WarmUp warmUp) {
+        Thread thread = new Thread(() -> {
+            WarmUp.Result result = warmUp.run();
+            // An interrupted warm-up means, that the servlet is destroyed
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (result.isSuccessful()) {
+                AlpineBitsServlet.setReady(servletContext, true);
+            } else {
+                LOG.error("Warm-up failed, the AlpineBits servlet is not ready: {}", result);
+            }
+        }, "alpinebits-warm-up");
+        thread.setUncaughtExceptionHandler((t, e) -> LOG.error("Warm-up failed, the AlpineBits servlet is not ready", e));
+        thread.setDaemon(true);
+        AlpineBitsServlet.warmUpThread = thread;
+        thread.start();
+    }
+
+    private static void stopWarmUp() {
+        if (AlpineBitsServlet.warmUpThread != null) {
+            AlpineBitsServlet.warmUpThread.interrupt();
+            AlpineBitsServlet.warmUpThread = null;
+        }
     }
 
+    private static void setReady(ServletContext servletContext, boolean ready) {
+        AlpineBitsServlet.ready = ready;
+        if (servletContext != null) {
+            servletContext.setAttribute(READY_ATTRIBUTE, ready);
+        }
+        if (ready) {
+            LOG.info("AlpineBits servlet is ready");
+        }
+    }
+
+    private static void shutdownAsyncExecutor() {
+        if (AlpineBitsServlet.asyncExecutor != null) {
+            AlpineBitsServlet.asyncExecutor.shutdownNow();
+            AlpineBitsServlet.asyncExecutor = null;
+        }
+    }
+
+    private void dispatchRequest(HttpServletRequest request, HttpServletResponse response) {
+        String requestId = this.buildRequestId();
+        request.setAttribute(REQUEST_ID, requestId);
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(AlpineBitsServlet.asyncTimeout);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, AlpineBitsServlet.requestExceptionHandler, requestId);
+        asyncContext.addListener(completion);
+
+        // Carry the MDC of the container thread (e.g. set by filters) over to the worker
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        if (!AlpineBitsServlet.nonBlockingIo) {
+            this.submit(completion, requestId, mdc, () -> {
+                try {
+                    this.processRequest(request, new CompletionGuardedResponse(response, completion), requestId, completion);
+                } finally {
+                    completion.complete();
+                }
+            });
+            return;
+        }
+
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, AlpineBitsServlet.bufferPool,
+                AlpineBitsServlet.maxRequestSize, ex -> {
+            if (!this.submit(completion, requestId, mdc, () -> this.processExchange(ex, completion, requestId))) {
+                ex.release();
+            }
+        });
+        asyncContext.addListener(exchange);
+        try {
+            exchange.start();
+        } catch (IOException e) {
+            exchange.release();
+            completion.fail(e);
+        }
+    }
+
+    private boolean submit(AsyncRequestCompletion completion, String requestId, Map<String, String> mdc, Runnable task) {
+        try {
+            Future<?> worker = AlpineBitsServlet.asyncExecutor.submit(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                task.run();
+            });
+            completion.setWorker(worker);
+            return true;
+        } catch (RejectedExecutionException e) {
+            MDC.put(REQUEST_ID, requestId);
+            try {
+                completion.fail(new RequestRejectedException("The request was rejected, all workers are busy", e));
+            } finally {
+                MDC.remove(REQUEST_ID);
+            }
+            return false;
+        }
+    }
+
+    private void processExchange(NonBlockingExchange exchange, AsyncRequestCompletion completion, String requestId) {
+        if (!exchange.startProcessing()) {
+            LOG.debug("Request was finished while it was queued, it is dropped");
+            return;
+        }
+        this.processRequest(exchange.getRequest(), new CompletionGuardedResponse(exchange.getResponse(), completion), requestId, completion);
+        try {
+            exchange.writeResponse();
+        } catch (IOException e) {
+            exchange.release();
+            completion.fail(e);
+        }
+    }
+
+    private void handleRequest(HttpServletRequest request, HttpServletResponse response) {
+        this.processRequest(request, response, this.buildRequestId(), null);
+    }
+
+    /**
+     * Process the request. If a completion is given, the request is processed
+     * asynchronously. In that case, neither the response body nor an error is
+     * written if the request was finished in the meantime (e.g. on timeout),
+     * since the completion already wrote the response.
+     */
     @SuppressWarnings("checkstyle:illegalcatch")
-    private void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    private void processRequest(HttpServletRequest request, HttpServletResponse response, String requestId, AsyncRequestCompletion completion) {
+        Context ctx = null;
         try {
-            String requestId = this.buildRequestId();
             request.setAttribute(REQUEST_ID, requestId);
             MDC.put(REQUEST_ID, requestId);
 
             LOG.debug("Handle incoming request");
 
             // Build context for middleware invocation
-            Context ctx = AlpineBitsServlet.contextBuilder.fromRequest(request, response, requestId);
+            ctx = AlpineBitsServlet.contextBuilder.fromRequest(request, response, requestId);
 
             // Invoke middleware. Since the middleware
             AlpineBitsServlet.middleware.handleContext(ctx, null);
+
+            if (completion != null && completion.isFinished()) {
+                LOG.debug("Request was finished before its processing completed, the response is dropped");
+                DefaultContextBuilder.discardResponse(ctx);
+                return;
+            }
+
+            // Write the response body, if it was buffered
+            DefaultContextBuilder.finishResponse(ctx);
         } catch (Exception e) {
-            AlpineBitsServlet.requestExceptionHandler.handleRequestException(request, response, e);
+            // Drop a partially buffered response body in favour of the error response
+            DefaultContextBuilder.discardResponse(ctx);
+            if (completion != null && completion.isFinished()) {
+                LOG.debug("Request was finished before its processing failed, the error is dropped", e);
+                return;
+            }
+            this.handleRequestException(request, response, e);
         } finally {
             MDC.clear();
         }
     }
 
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private void handleRequestException(HttpServletRequest request, HttpServletResponse response, Exception e) {
+        try {
+            AlpineBitsServlet.requestExceptionHandler.handleRequestException(request, response, e);
+        } catch (Exception handlerException) {
+            LOG.error("Uncaught error while handling request", handlerException);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
     private String buildRequestId() {
         return UUID.randomUUID().toString();
     }
@@ -0,0 +1,153 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.RequestTimeoutException;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This {@link AsyncListener} finishes an asynchronously processed request exactly
+ * once: either when its processing completes, or when it fails before (e.g. on
+ * timeout). Failures are reported to the {@link RequestExceptionHandler}.
+ * <p>
+ * On timeout, the worker that processes the request is interrupted. Writes of
+ * the worker after the request was finished are dropped, see
+ * {@link CompletionGuardedResponse}.
+ */
+public class AsyncRequestCompletion implements AsyncListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncRequestCompletion.class);
+
+    private final AsyncContext asyncContext;
+    private final RequestExceptionHandler requestExceptionHandler;
+    private final String requestId;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile Future<?> worker;
+
+    public AsyncRequestCompletion(AsyncContext asyncContext, RequestExceptionHandler requestExceptionHandler, String requestId) {
+        if (asyncContext == null) {
+            throw new IllegalArgumentException("The async context must not be null");
+        }
+        if (requestExceptionHandler == null) {
+            throw new IllegalArgumentException("The request exception handler must not be null");
+        }
+        this.asyncContext = asyncContext;
+        this.requestExceptionHandler = requestExceptionHandler;
+        this.requestId = requestId;
+    }
+
+    /**
+     * Set the {@link Future} of the worker that processes the request. It
+     * is cancelled if the request times out.
+     *
+     * @param worker the {@link Future} of the worker
+     */
+    public void setWorker(Future<?> worker) {
+        this.worker = worker;
+    }
+
+    /**
+     * Check if the request was already finished.
+     *
+     * @return true if the request was finished, false otherwise
+     */
+    public boolean isFinished() {
+        return this.finished.get();
+    }
+
+    /**
+     * Complete the {@link AsyncContext}, unless the request was already finished.
+     *
+     * @return true if this call completed the request, false otherwise
+     */
+    public boolean complete() {
+        if (!this.finished.compareAndSet(false, true)) {
+            return false;
+        }
+        this.asyncContext.complete();
+        return true;
+    }
+
+    /**
+     * Report the exception to the {@link RequestExceptionHandler} and complete
+     * the {@link AsyncContext}, unless the request was already finished.
+     *
+     * @param e the exception that caused the failure
+     * @return true if this call completed the request, false otherwise
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public boolean fail(Exception e) {
+        if (!this.finished.compareAndSet(false, true)) {
+            return false;
+        }
+        HttpServletRequest request = (HttpServletRequest) this.asyncContext.getRequest();
+        HttpServletResponse response = (HttpServletResponse) this.asyncContext.getResponse();
+        try {
+            this.requestExceptionHandler.handleRequestException(request, response, e);
+        } catch (Exception handlerException) {
+            LOG.error("Uncaught error while handling request", handlerException);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            this.asyncContext.complete();
+        }
+        return true;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        // Empty
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        MDC.put(AlpineBitsServlet.REQUEST_ID, this.requestId);
+        try {
+            long timeout = this.asyncContext.getTimeout();
+            if (this.fail(new RequestTimeoutException("The request could not be processed within " + timeout + " ms"))) {
+                this.cancelWorker();
+            }
+        } finally {
+            MDC.remove(AlpineBitsServlet.REQUEST_ID);
+        }
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        LOG.warn("Error during asynchronous request processing [rid={}]", this.requestId, event.getThrowable());
+        if (this.complete()) {
+            this.cancelWorker();
+        }
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Empty
+    }
+
+    private void cancelWorker() {
+        Future<?> currentWorker = this.worker;
+        if (currentWorker != null) {
+            currentWorker.cancel(true);
+        }
+    }
+}
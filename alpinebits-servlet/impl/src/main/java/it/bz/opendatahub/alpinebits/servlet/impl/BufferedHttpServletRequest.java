@@ -0,0 +1,141 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This {@link HttpServletRequestWrapper} serves the request body from a
+ * {@link ChunkedBuffer}, that was filled before the request is processed.
+ * Reading the body never blocks.
+ */
+public class BufferedHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final ChunkedBuffer body;
+
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    /**
+     * Wrap the given request.
+     *
+     * @param request the request to wrap
+     * @param body    contains the complete request body
+     * @throws IllegalArgumentException if request or body is null
+     */
+    public BufferedHttpServletRequest(HttpServletRequest request, ChunkedBuffer body) {
+        super(request);
+        if (body == null) {
+            throw new IllegalArgumentException("The body must not be null");
+        }
+        this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (this.reader != null) {
+            throw new IllegalStateException("getReader() has already been called for this request");
+        }
+        if (this.inputStream == null) {
+            this.inputStream = new BufferedServletInputStream(this.body.newInputStream());
+        }
+        return this.inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+        if (this.inputStream != null) {
+            throw new IllegalStateException("getInputStream() has already been called for this request");
+        }
+        if (this.reader == null) {
+            String encoding = this.getCharacterEncoding();
+            InputStream is = this.body.newInputStream();
+            this.reader = new BufferedReader(encoding == null
+                    ? new InputStreamReader(is, StandardCharsets.ISO_8859_1)
+                    : new InputStreamReader(is, encoding));
+        }
+        return this.reader;
+    }
+
+    @Override
+    public int getContentLength() {
+        long size = this.body.size();
+        return size > Integer.MAX_VALUE ? -1 : (int) size;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return this.body.size();
+    }
+
+    /**
+     * {@link ServletInputStream} that reads from the buffered body.
+     */
+    private static final class BufferedServletInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private boolean finished;
+
+        private BufferedServletInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = this.delegate.read();
+            this.finished = b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = this.delegate.read(b, off, len);
+            this.finished = read == -1;
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return this.delegate.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * This {@link HttpServletResponseWrapper} collects the response body in a
+ * {@link ChunkedBuffer}, so that it can be written to the client later
+ * (e.g. with non-blocking I/O) and with an exact Content-Length.
+ * <p>
+ * Writing the body never blocks. The buffered body is discarded on
+ * {@link #reset()} and {@link #resetBuffer()}.
+ */
+public class BufferedHttpServletResponse extends HttpServletResponseWrapper {
+
+    private final ChunkedBuffer body;
+    private final ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    /**
+     * Wrap the given response.
+     *
+     * @param response the response to wrap
+     * @param body     the response body is written to this buffer
+     * @throws IllegalArgumentException if response or body is null
+     */
+    public BufferedHttpServletResponse(HttpServletResponse response, ChunkedBuffer body) {
+        super(response);
+        if (body == null) {
+            throw new IllegalArgumentException("The body must not be null");
+        }
+        this.body = body;
+        this.outputStream = new BufferedServletOutputStream(body);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (this.writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (this.writer == null) {
+            this.writer = new PrintWriter(new OutputStreamWriter(this.body, Charset.forName(this.getCharacterEncoding())));
+        }
+        return this.writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // Ignored, the Content-Length is taken from the buffered body
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // Ignored, the Content-Length is taken from the buffered body
+    }
+
+    @Override
+    public void flushBuffer() {
+        this.flushWriter();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.resetBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        this.flushWriter();
+        this.body.reset();
+    }
+
+    /**
+     * Flush a pending {@link PrintWriter} and return the buffered body.
+     *
+     * @return the buffered body
+     */
+    public ChunkedBuffer getBody() {
+        this.flushWriter();
+        return this.body;
+    }
+
+    private void flushWriter() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+    }
+
+    /**
+     * {@link ServletOutputStream} that writes to the buffered body.
+     */
+    private static final class BufferedServletOutputStream extends ServletOutputStream {
+
+        private final ChunkedBuffer body;
+
+        private BufferedServletOutputStream(ChunkedBuffer body) {
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) {
+            this.body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    }
+}
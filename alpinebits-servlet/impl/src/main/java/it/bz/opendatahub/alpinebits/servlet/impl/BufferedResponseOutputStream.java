@@ -0,0 +1,190 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Response body stream, that collects the body in pooled chunks (see {@link ChunkedBuffer}).
+ * <p>
+ * When the response is finished with {@link #finish()}, the exact <code>Content-Length</code>
+ * is set and the body is written to the {@link HttpServletResponse} in one go. That way,
+ * the container does not need to fall back to chunked transfer encoding and the body is
+ * written with few, large writes.
+ * <p>
+ * If the body grows beyond the streaming threshold, the buffered bytes are written to the
+ * response and all further data is passed through. In that case, no <code>Content-Length</code>
+ * is set and the memory consumption is bound by the threshold.
+ * <p>
+ * {@link #close()} does not finish the response, since writers often close the stream
+ * they wrote to. Instances of this class are not thread-safe.
+ */
+public final class BufferedResponseOutputStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private final ChunkedBuffer buffer;
+    private final long streamingThreshold;
+
+    private OutputStream delegate;
+    private boolean finished;
+
+    /**
+     * Create a stream that buffers the body of the given response.
+     *
+     * @param response           the {@link HttpServletResponse} that receives the body
+     * @param pool               the {@link ByteChunkPool} providing the buffer chunks
+     * @param streamingThreshold number of buffered bytes, above which the body is streamed
+     * @throws IllegalArgumentException if response or pool is null, or if streamingThreshold is negative
+     */
+    public BufferedResponseOutputStream(HttpServletResponse response, ByteChunkPool pool, long streamingThreshold) {
+        if (response == null) {
+            throw new IllegalArgumentException("The response must not be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool must not be null");
+        }
+        if (streamingThreshold < 0) {
+            throw new IllegalArgumentException("The streaming threshold must not be negative, got " + streamingThreshold);
+        }
+        this.response = response;
+        this.buffer = new ChunkedBuffer(pool);
+        this.streamingThreshold = streamingThreshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+        if (this.delegate != null) {
+            this.delegate.write(b);
+            return;
+        }
+        this.buffer.write(b);
+        this.switchToStreamingIfNeeded();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.ensureOpen();
+        if (this.delegate != null) {
+            this.delegate.write(b, off, len);
+            return;
+        }
+        this.buffer.write(b, off, len);
+        this.switchToStreamingIfNeeded();
+    }
+
+    /**
+     * Flush the response, if the body is already streamed. Otherwise, this method
+     * does nothing, since flushing would commit the response without a
+     * <code>Content-Length</code>.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.delegate != null && !this.finished) {
+            this.delegate.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        // Empty, see finish()
+    }
+
+    /**
+     * Write the buffered body with the exact <code>Content-Length</code> to the response,
+     * or flush the response if the body is already streamed. The pooled chunks are
+     * released afterwards. Calling this method more than once has no effect.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+        try {
+            if (this.delegate != null) {
+                this.delegate.flush();
+                return;
+            }
+            if (this.response.isCommitted()) {
+                // Somebody wrote to the response directly, keep it consistent
+                this.buffer.writeTo(this.response.getOutputStream());
+                return;
+            }
+            this.response.setContentLengthLong(this.buffer.size());
+            if (this.buffer.size() > 0) {
+                this.buffer.writeTo(this.response.getOutputStream());
+            }
+        } finally {
+            this.buffer.release();
+        }
+    }
+
+    /**
+     * Drop the buffered body and release the pooled chunks, e.g. because an error
+     * response is written instead. Calling this method after {@link #finish()}
+     * has no effect.
+     *
+     * @return true if nothing was written to the response so far, false if
+     * the body was already (partially) streamed
+     */
+    public boolean discard() {
+        boolean untouched = this.delegate == null;
+        if (!this.finished) {
+            this.finished = true;
+            this.buffer.release();
+        }
+        return untouched;
+    }
+
+    /**
+     * Check if the body exceeded the streaming threshold and is passed through to the response.
+     *
+     * @return true if the body is streamed, false if it is buffered
+     */
+    public boolean isStreaming() {
+        return this.delegate != null;
+    }
+
+    /**
+     * Get the number of bytes currently buffered.
+     *
+     * @return the number of buffered bytes, 0 once the body is streamed or finished
+     */
+    public long getBufferedSize() {
+        return this.delegate == null && !this.finished ? this.buffer.size() : 0;
+    }
+
+    private void switchToStreamingIfNeeded() throws IOException {
+        if (this.buffer.size() <= this.streamingThreshold) {
+            return;
+        }
+        OutputStream os = this.response.getOutputStream();
+        this.buffer.writeTo(os);
+        this.buffer.release();
+        this.delegate = os;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.finished) {
+            throw new IOException("The response body is already finished");
+        }
+    }
+}
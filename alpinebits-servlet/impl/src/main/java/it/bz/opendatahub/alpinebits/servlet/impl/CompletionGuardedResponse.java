@@ -0,0 +1,284 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * This {@link HttpServletResponseWrapper} drops all writes (status, headers
+ * and body) once the asynchronously processed request was finished by its
+ * {@link AsyncRequestCompletion}, e.g. because of a timeout. That way, a worker
+ * that is still running can not corrupt the error response that was written
+ * in the meantime, nor touch a response that was recycled by the container.
+ */
+public class CompletionGuardedResponse extends HttpServletResponseWrapper {
+
+    private final AsyncRequestCompletion completion;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Wrap the given response.
+     *
+     * @param response   the response to wrap
+     * @param completion writes are dropped once this completion is finished
+     * @throws IllegalArgumentException if response or completion is null
+     */
+    public CompletionGuardedResponse(HttpServletResponse response, AsyncRequestCompletion completion) {
+        super(response);
+        if (completion == null) {
+            throw new IllegalArgumentException("The completion must not be null");
+        }
+        this.completion = completion;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (this.outputStream == null) {
+            this.outputStream = new GuardedServletOutputStream(super.getOutputStream(), this.completion);
+        }
+        return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (this.writer == null) {
+            this.writer = new PrintWriter(new GuardedWriter(super.getWriter(), this.completion));
+        }
+        return this.writer;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        if (this.isOpen()) {
+            super.setStatus(sc);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        if (this.isOpen()) {
+            super.sendError(sc);
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (this.isOpen()) {
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        if (this.isOpen()) {
+            super.sendRedirect(location);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (this.isOpen()) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (this.isOpen()) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (this.isOpen()) {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (this.isOpen()) {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        if (this.isOpen()) {
+            super.setDateHeader(name, date);
+        }
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        if (this.isOpen()) {
+            super.addDateHeader(name, date);
+        }
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        if (this.isOpen()) {
+            super.addCookie(cookie);
+        }
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (this.isOpen()) {
+            super.setContentType(type);
+        }
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (this.isOpen()) {
+            super.setCharacterEncoding(charset);
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (this.isOpen()) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (this.isOpen()) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (this.isOpen()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (this.isOpen()) {
+            super.reset();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (this.isOpen()) {
+            super.resetBuffer();
+        }
+    }
+
+    private boolean isOpen() {
+        return !this.completion.isFinished();
+    }
+
+    /**
+     * {@link ServletOutputStream} that drops writes once the request is finished.
+     */
+    private static final class GuardedServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final AsyncRequestCompletion completion;
+
+        private GuardedServletOutputStream(ServletOutputStream delegate, AsyncRequestCompletion completion) {
+            this.delegate = delegate;
+            this.completion = completion;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.delegate.setWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * {@link Writer} that drops writes once the request is finished.
+     */
+    private static final class GuardedWriter extends Writer {
+
+        private final Writer delegate;
+        private final AsyncRequestCompletion completion;
+
+        private GuardedWriter(Writer delegate, AsyncRequestCompletion completion) {
+            this.delegate = delegate;
+            this.completion = completion;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!this.completion.isFinished()) {
+                this.delegate.close();
+            }
+        }
+    }
+}
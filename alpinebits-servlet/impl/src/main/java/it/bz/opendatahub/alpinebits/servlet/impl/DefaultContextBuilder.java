@@ -12,8 +12,11 @@ package it.bz.opendatahub.alpinebits.servlet.impl;
 
 import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
 import it.bz.opendatahub.alpinebits.common.context.ResponseContextKeys;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Key;
 import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import it.bz.opendatahub.alpinebits.middleware.impl.SlotContext;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuildingException;
 import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
@@ -21,12 +24,119 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 /**
  * This is a default implementation for {@link ContextBuilder}.
+ * <p>
+ * By default, the contexts are thread-safe {@link SimpleContext} instances.
+ * Use {@link #slotContext()} for faster {@link SlotContext} instances, if no
+ * middleware accesses the context concurrently (e.g. because it forks work
+ * to other threads).
+ * <p>
+ * Use {@link #withResponseBuffer(ByteChunkPool, long)} to write the response body
+ * into pooled buffers, see {@link BufferedResponseOutputStream}. In that case, the
+ * response must be completed with {@link #finishResponse(Context)} after the
+ * middleware returned, or dropped with {@link #discardResponse(Context)} on error.
  */
 public class DefaultContextBuilder implements ContextBuilder {
 
+    /**
+     * Default number of buffered response bytes, above which the response body is streamed.
+     */
+    public static final long DEFAULT_STREAMING_THRESHOLD = 1024L * 1024;
+
+    /**
+     * Context key for the {@link BufferedResponseOutputStream}, if response buffering is enabled.
+     */
+    public static final Key<BufferedResponseOutputStream> RESPONSE_BUFFER = Key.key(
+            "servlet.response.buffer", BufferedResponseOutputStream.class
+    );
+
+    private final Supplier<Context> contextSupplier;
+    private final ByteChunkPool responseBufferPool;
+    private final long streamingThreshold;
+
+    /**
+     * Create a {@link DefaultContextBuilder} that builds {@link SimpleContext} instances.
+     */
+    public DefaultContextBuilder() {
+        this(SimpleContext::new);
+    }
+
+    /**
+     * Create a {@link DefaultContextBuilder} that builds the contexts
+     * with the given {@link Supplier}.
+     *
+     * @param contextSupplier supplies a new, empty {@link Context} for each request
+     * @throws IllegalArgumentException if contextSupplier is null
+     */
+    public DefaultContextBuilder(Supplier<Context> contextSupplier) {
+        this(contextSupplier, null, DEFAULT_STREAMING_THRESHOLD);
+    }
+
+    private DefaultContextBuilder(Supplier<Context> contextSupplier, ByteChunkPool responseBufferPool, long streamingThreshold) {
+        if (contextSupplier == null) {
+            throw new IllegalArgumentException("The context supplier must not be null");
+        }
+        this.contextSupplier = contextSupplier;
+        this.responseBufferPool = responseBufferPool;
+        this.streamingThreshold = streamingThreshold;
+    }
+
+    /**
+     * Create a {@link DefaultContextBuilder} that builds {@link SlotContext}
+     * instances. They are not thread-safe.
+     *
+     * @return the {@link DefaultContextBuilder}
+     */
+    public static DefaultContextBuilder slotContext() {
+        return new DefaultContextBuilder(SlotContext::new);
+    }
+
+    /**
+     * Create a {@link DefaultContextBuilder} with the same context supplier as this one,
+     * that buffers the response bodies in chunks taken from the given pool.
+     *
+     * @param pool               the {@link ByteChunkPool} providing the buffer chunks
+     * @param streamingThreshold number of buffered bytes, above which the response body is streamed
+     * @return the {@link DefaultContextBuilder}
+     * @throws IllegalArgumentException if pool is null or streamingThreshold is negative
+     */
+    public DefaultContextBuilder withResponseBuffer(ByteChunkPool pool, long streamingThreshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool must not be null");
+        }
+        if (streamingThreshold < 0) {
+            throw new IllegalArgumentException("The streaming threshold must not be negative, got " + streamingThreshold);
+        }
+        return new DefaultContextBuilder(this.contextSupplier, pool, streamingThreshold);
+    }
+
+    /**
+     * Write the buffered response body of the given context, if there is one.
+     *
+     * @param ctx the {@link Context} built by a {@link DefaultContextBuilder}
+     * @throws IOException if writing the response fails
+     */
+    public static void finishResponse(Context ctx) throws IOException {
+        BufferedResponseOutputStream buffer = ctx.get(RESPONSE_BUFFER).orElse(null);
+        if (buffer != null) {
+            buffer.finish();
+        }
+    }
+
+    /**
+     * Drop the buffered response body of the given context, if there is one.
+     *
+     * @param ctx the {@link Context} built by a {@link DefaultContextBuilder}, may be null
+     */
+    public static void discardResponse(Context ctx) {
+        if (ctx != null) {
+            ctx.get(RESPONSE_BUFFER).ifPresent(BufferedResponseOutputStream::discard);
+        }
+    }
+
     /**
      * Create a {@link Context} and store the given values inside of it.
      *
@@ -36,14 +146,21 @@ public class DefaultContextBuilder implements ContextBuilder {
      *                  the {@link ServletContextKey#SERVLET_RESPONSE} key
      * @param requestId the requestId is stored in the context using
      *                  the {@link RequestContextKey#REQUEST_ID} key
-     * @return Context
+     * @return Context, whose {@link ResponseContextKeys#RESPONSE_CONTENT_STREAM} is either the
+     * output stream of the response, or a {@link BufferedResponseOutputStream}
      */
     @Override
     public Context fromRequest(HttpServletRequest request, HttpServletResponse response, String requestId) {
-        Context ctx = new SimpleContext();
+        Context ctx = this.contextSupplier.get();
         ctx.put(ServletContextKey.SERVLET_REQUEST, request);
         ctx.put(ServletContextKey.SERVLET_RESPONSE, response);
         ctx.put(RequestContextKey.REQUEST_ID, requestId);
+        if (this.responseBufferPool != null) {
+            BufferedResponseOutputStream buffer = new BufferedResponseOutputStream(response, this.responseBufferPool, this.streamingThreshold);
+            ctx.put(RESPONSE_BUFFER, buffer);
+            ctx.put(ResponseContextKeys.RESPONSE_CONTENT_STREAM, buffer);
+            return ctx;
+        }
         try {
             ctx.put(ResponseContextKeys.RESPONSE_CONTENT_STREAM, response.getOutputStream());
         } catch (IOException e) {
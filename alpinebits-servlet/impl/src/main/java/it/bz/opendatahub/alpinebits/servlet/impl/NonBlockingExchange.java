@@ -0,0 +1,285 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import it.bz.opendatahub.alpinebits.servlet.RequestTooLargeException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * This class moves the body of an asynchronously processed request and its
+ * response between the network and pooled buffers, using non-blocking
+ * servlet I/O.
+ * <p>
+ * The request body is read with a {@link ReadListener} into a {@link ChunkedBuffer}.
+ * Once it is complete, the exchange is handed to the processor, that runs the
+ * middlewares with {@link #getRequest()} and {@link #getResponse()} and calls
+ * {@link #writeResponse()} afterwards. The buffered response body is then
+ * written with a {@link WriteListener} and an exact Content-Length, before
+ * the request is completed. No thread waits on the network in either direction.
+ * <p>
+ * The exchange must be registered as {@link AsyncListener} too. The buffers
+ * are returned to the pool exactly once: by the processor, once it started
+ * with {@link #startProcessing()}, otherwise by the I/O callbacks or, if the
+ * request times out or fails while the client is still sending or receiving
+ * a body, by the {@link AsyncListener} callbacks.
+ */
+public class NonBlockingExchange implements ReadListener, WriteListener, AsyncListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NonBlockingExchange.class);
+
+    // The owner of the buffers: the I/O callbacks while READING and WRITING,
+    // the executor while QUEUED, the processor while PROCESSING
+    private static final int READING = 0;
+    private static final int QUEUED = 1;
+    private static final int PROCESSING = 2;
+    private static final int WRITING = 3;
+    private static final int RELEASED = 4;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final AsyncRequestCompletion completion;
+    private final long maxRequestSize;
+    private final Consumer<NonBlockingExchange> processor;
+    private final ChunkedBuffer requestBody;
+    private final ChunkedBuffer responseBody;
+    private final BufferedHttpServletResponse bufferedResponse;
+    private final AtomicInteger state = new AtomicInteger(READING);
+
+    private ServletInputStream input;
+    private ServletOutputStream output;
+    private int chunkIndex;
+
+    /**
+     * Create an exchange for the given request and response.
+     *
+     * @param request        the original request, its body is read with non-blocking I/O
+     * @param response       the original response, its body is written with non-blocking I/O
+     * @param completion     completes the asynchronous request
+     * @param pool           provides the chunks for the request and response bodies
+     * @param maxRequestSize maximum size of the request body in bytes, a negative value disables the limit
+     * @param processor      invoked once the request body was read completely, it must
+     *                       call {@link #startProcessing()} before using the exchange
+     */
+    public NonBlockingExchange(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AsyncRequestCompletion completion,
+            ByteChunkPool pool,
+            long maxRequestSize,
+            Consumer<NonBlockingExchange> processor
+    ) {
+        if (completion == null) {
+            throw new IllegalArgumentException("The completion must not be null");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("The processor must not be null");
+        }
+        this.request = request;
+        this.response = response;
+        this.completion = completion;
+        this.maxRequestSize = maxRequestSize;
+        this.processor = processor;
+        this.requestBody = new ChunkedBuffer(pool);
+        this.responseBody = new ChunkedBuffer(pool);
+        this.bufferedResponse = new BufferedHttpServletResponse(response, this.responseBody);
+    }
+
+    /**
+     * Start reading the request body.
+     *
+     * @throws IOException if the request body can not be accessed
+     */
+    public void start() throws IOException {
+        this.input = this.request.getInputStream();
+        this.input.setReadListener(this);
+    }
+
+    /**
+     * Take over the buffers for processing. Afterwards, the processor must
+     * either call {@link #writeResponse()} or {@link #release()}.
+     *
+     * @return true if the exchange can be processed, false if the buffers were
+     * already released, e.g. because the request timed out while it was queued
+     */
+    public boolean startProcessing() {
+        return this.state.compareAndSet(QUEUED, PROCESSING);
+    }
+
+    /**
+     * Get the request to process, its body is served from the buffer.
+     *
+     * @return the buffered request
+     */
+    public HttpServletRequest getRequest() {
+        return new BufferedHttpServletRequest(this.request, this.requestBody);
+    }
+
+    /**
+     * Get the response to process, its body is collected in the buffer.
+     *
+     * @return the buffered response
+     */
+    public HttpServletResponse getResponse() {
+        return this.bufferedResponse;
+    }
+
+    /**
+     * Write the buffered response body to the client and complete the request
+     * afterwards. Nothing is written, if the request was already finished,
+     * e.g. because of a timeout.
+     *
+     * @throws IOException if the response body can not be accessed
+     */
+    public void writeResponse() throws IOException {
+        this.requestBody.release();
+        if (this.completion.isFinished()) {
+            this.release();
+            return;
+        }
+        ChunkedBuffer body = this.bufferedResponse.getBody();
+        this.response.setContentLengthLong(body.size());
+        this.output = this.response.getOutputStream();
+        this.state.set(WRITING);
+        // The request may have been finished before the state was set,
+        // in that case the AsyncListener callbacks did not release the buffers
+        if (this.completion.isFinished()) {
+            this.releaseIfIdle();
+            return;
+        }
+        this.output.setWriteListener(this);
+    }
+
+    /**
+     * Return the buffers to the pool, e.g. if the request could not be processed.
+     * The buffers must not be in use by the processor. Further calls have no effect.
+     */
+    public void release() {
+        if (this.state.getAndSet(RELEASED) != RELEASED) {
+            this.releaseBuffers();
+        }
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+        if (this.completion.isFinished() || this.state.get() != READING) {
+            // The request failed already (e.g. too large), ignore the remaining body
+            return;
+        }
+        while (this.input.isReady() && !this.input.isFinished()) {
+            if (this.requestBody.readOnce(this.input) == -1) {
+                return;
+            }
+            if (this.maxRequestSize >= 0 && this.requestBody.size() > this.maxRequestSize) {
+                this.release();
+                this.completion.fail(new RequestTooLargeException("The request body exceeds the maximum size of " + this.maxRequestSize + " bytes"));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onAllDataRead() {
+        if (this.completion.isFinished()) {
+            this.releaseIfIdle();
+            return;
+        }
+        if (!this.state.compareAndSet(READING, QUEUED)) {
+            return;
+        }
+        LOG.debug("Request body of {} bytes read", this.requestBody.size());
+        this.processor.accept(this);
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        if (this.state.get() != WRITING) {
+            return;
+        }
+        int chunkCount = this.responseBody.getChunkCount();
+        while (this.chunkIndex < chunkCount && this.output.isReady()) {
+            this.output.write(this.responseBody.getChunk(this.chunkIndex), 0, this.responseBody.getChunkLength(this.chunkIndex));
+            this.chunkIndex++;
+        }
+        // Complete once the last write has been accepted, otherwise
+        // the container calls this method again when it is done
+        if (this.chunkIndex == chunkCount && this.output.isReady()) {
+            this.release();
+            this.completion.complete();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        LOG.debug("Non-blocking I/O failed, the client probably aborted the request", t);
+        this.releaseIfIdle();
+        this.completion.complete();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        this.releaseIfIdle();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // The request is finished by the AsyncRequestCompletion, no
+        // further I/O callbacks follow for a slow client
+        if (this.completion.isFinished()) {
+            this.releaseIfIdle();
+        }
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        if (this.completion.isFinished()) {
+            this.releaseIfIdle();
+        }
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Empty
+    }
+
+    /**
+     * Release the buffers, unless they are in use by the processor.
+     */
+    private void releaseIfIdle() {
+        int current = this.state.get();
+        while (current != PROCESSING && current != RELEASED) {
+            if (this.state.compareAndSet(current, RELEASED)) {
+                this.releaseBuffers();
+                return;
+            }
+            current = this.state.get();
+        }
+    }
+
+    private void releaseBuffers() {
+        this.requestBody.release();
+        this.responseBody.release();
+    }
+}
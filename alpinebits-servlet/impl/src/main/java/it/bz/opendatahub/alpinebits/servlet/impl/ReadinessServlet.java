@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This servlet reports the readiness of the {@link AlpineBitsServlet} of the same
+ * servlet context, e.g. for the readiness probe of an orchestrator.
+ * <p>
+ * A GET request is answered with status 200, if the servlet context attribute
+ * {@value AlpineBitsServlet#READY_ATTRIBUTE} is <code>true</code>, and with
+ * status 503 otherwise, i.e. while the warm-up is running or after it failed.
+ */
+public class ReadinessServlet extends HttpServlet {
+
+    public static final String READY = "ready";
+    public static final String NOT_READY = "not ready";
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ready = Boolean.TRUE.equals(this.getServletContext().getAttribute(AlpineBitsServlet.READY_ATTRIBUTE));
+        response.setStatus(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentType("text/plain");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(ready ? READY : NOT_READY);
+    }
+}
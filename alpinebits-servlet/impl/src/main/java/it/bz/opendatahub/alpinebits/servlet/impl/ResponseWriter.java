@@ -14,6 +14,8 @@ import it.bz.opendatahub.alpinebits.common.constants.HttpContentTypeHeaderValues
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * The methods provided by this class can be used to write
@@ -28,7 +30,10 @@ public final class ResponseWriter {
     }
 
     public static void writeMessage(HttpServletResponse response, String message) throws IOException {
-        response.getOutputStream().print(message);
+        // Encode once and write with a single call, instead of printing char by char
+        String encoding = response.getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+        response.getOutputStream().write(message.getBytes(charset));
     }
 
     public static void writeError(HttpServletResponse response, int httpStatus, String requestId, String message) throws IOException {
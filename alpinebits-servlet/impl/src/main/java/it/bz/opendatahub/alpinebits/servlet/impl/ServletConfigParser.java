@@ -10,19 +10,35 @@
 
 package it.bz.opendatahub.alpinebits.servlet.impl;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.concurrent.VirtualThreads;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
 import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
 import jakarta.servlet.ServletConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class provides methods to parse a {@link ServletConfig} and return instances of {@link Middleware},
  * {@link RequestExceptionHandler} and {@link ContextBuilder}.
  */
 public class ServletConfigParser {
 
+    public static final String ASYNC_EXECUTOR_PLATFORM = "platform";
+    public static final String ASYNC_EXECUTOR_VIRTUAL = "virtual";
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 100;
+    public static final long DEFAULT_ASYNC_TIMEOUT = 30_000;
+    public static final long DEFAULT_MAX_REQUEST_SIZE = 64L * 1024 * 1024;
+
     private static final Logger LOG = LoggerFactory.getLogger(ServletConfigParser.class);
 
     /**
@@ -91,9 +107,13 @@ public class ServletConfigParser {
      * <p>
      * If the ServletConfig contains a parameter CONTEXT_BUILDER_CLASSNAME, an instance of that class
      * is build and returned. If no such parameter exists, an instance of
-     * {@link DefaultContextBuilder} is returned.
+     * {@link DefaultContextBuilder} is returned. That instance builds {@link it.bz.opendatahub.alpinebits.middleware.impl.SlotContext}
+     * instances, if the parameter SLOT_CONTEXT is <code>true</code>, and buffers the response
+     * bodies in chunks of a new {@link ByteChunkPool}, if the parameter RESPONSE_BUFFERING
+     * is <code>true</code>.
      *
-     * @param config {@link ServletConfig} that may contain a parameter CONTEXT_BUILDER_CLASSNAME
+     * @param config {@link ServletConfig} that may contain the parameters CONTEXT_BUILDER_CLASSNAME,
+     *               SLOT_CONTEXT, RESPONSE_BUFFERING and RESPONSE_STREAMING_THRESHOLD
      * @return an instance of the class given by CONTEXT_BUILDER_CLASSNAME, or
      * {@link DefaultContextBuilder} if that parameter is null.
      * @throws ClassNotFoundException if the class specified by CONTEXT_BUILDER_CLASSNAME could not be found
@@ -102,6 +122,28 @@ public class ServletConfigParser {
      */
     public ContextBuilder getContextBuilder(ServletConfig config)
             throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+        return this.getContextBuilder(config, ByteChunkPool.withDefaults());
+    }
+
+    /**
+     * Build a {@link ContextBuilder} from the given {@link ServletConfig}, see
+     * {@link #getContextBuilder(ServletConfig)}. If response buffering is enabled,
+     * the buffer chunks are taken from the given pool.
+     * <p>
+     * The parameter RESPONSE_STREAMING_THRESHOLD sets the number of buffered bytes, above
+     * which the response body is streamed (default: {@value DefaultContextBuilder#DEFAULT_STREAMING_THRESHOLD}).
+     *
+     * @param config     {@link ServletConfig} that may contain the parameters CONTEXT_BUILDER_CLASSNAME,
+     *                   SLOT_CONTEXT, RESPONSE_BUFFERING and RESPONSE_STREAMING_THRESHOLD
+     * @param bufferPool the {@link ByteChunkPool} used for response buffering
+     * @return an instance of the class given by CONTEXT_BUILDER_CLASSNAME, or
+     * {@link DefaultContextBuilder} if that parameter is null.
+     * @throws ClassNotFoundException if the class specified by CONTEXT_BUILDER_CLASSNAME could not be found
+     * @throws IllegalAccessException if access to the constructor of the specified class is not allowed
+     * @throws InstantiationException if the class could not be instantiated
+     */
+    public ContextBuilder getContextBuilder(ServletConfig config, ByteChunkPool bufferPool)
+            throws ClassNotFoundException, IllegalAccessException, InstantiationException {
         String contextBuilderClassname = config.getInitParameter(AlpineBitsServlet.CONTEXT_BUILDER_CLASSNAME);
 
         if (contextBuilderClassname == null) {
@@ -110,7 +152,12 @@ public class ServletConfigParser {
                             "to provide a classname for a class implementing the " +
                             "ContextBuilder interface",
                     DefaultRequestExceptionHandler.class);
-            return new DefaultContextBuilder();
+            DefaultContextBuilder builder = Boolean.parseBoolean(config.getInitParameter(AlpineBitsServlet.SLOT_CONTEXT))
+                    ? DefaultContextBuilder.slotContext()
+                    : new DefaultContextBuilder();
+            return Boolean.parseBoolean(config.getInitParameter(AlpineBitsServlet.RESPONSE_BUFFERING))
+                    ? builder.withResponseBuffer(bufferPool, this.getStreamingThreshold(config))
+                    : builder;
         }
 
         LOG.debug("Initializing configured context builder {}", contextBuilderClassname);
@@ -118,4 +165,172 @@ public class ServletConfigParser {
         Class<?> contextBuilderClass = Class.forName(contextBuilderClassname);
         return (ContextBuilder) contextBuilderClass.newInstance();
     }
+
+    /**
+     * Build the {@link ExecutorService} that processes requests asynchronously, if the
+     * parameter ASYNC_ENABLED in the {@link ServletConfig} is <code>true</code>.
+     * <p>
+     * The parameter ASYNC_EXECUTOR selects the kind of executor:
+     * <ul>
+     * <li>
+     * {@value #ASYNC_EXECUTOR_PLATFORM} (default): the executor is bounded, it uses
+     * ASYNC_THREADS platform threads (default: twice the number of available processors)
+     * and queues up to ASYNC_QUEUE_SIZE requests (default: {@value #DEFAULT_ASYNC_QUEUE_SIZE}).
+     * Further requests are rejected.
+     * </li>
+     * <li>
+     * {@value #ASYNC_EXECUTOR_VIRTUAL}: each request runs on a new virtual thread
+     * (JDK 21+), so blocking I/O (e.g. JDBC) does not occupy a platform thread. The
+     * number of concurrent requests is not limited by the executor, but e.g. by the
+     * connection pool of the database.
+     * </li>
+     * </ul>
+     *
+     * @param config {@link ServletConfig} that may contain the parameters ASYNC_ENABLED,
+     *               ASYNC_EXECUTOR, ASYNC_THREADS and ASYNC_QUEUE_SIZE
+     * @return the {@link ExecutorService} for asynchronous processing, or null if
+     * asynchronous processing is disabled
+     * @throws NumberFormatException         if ASYNC_THREADS or ASYNC_QUEUE_SIZE is not a number
+     * @throws IllegalArgumentException      if ASYNC_EXECUTOR is unknown
+     * @throws UnsupportedOperationException if virtual threads are requested, but not supported by the JDK
+     */
+    public ExecutorService getAsyncExecutor(ServletConfig config) {
+        if (!Boolean.parseBoolean(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED))) {
+            return null;
+        }
+
+        String executor = config.getInitParameter(AlpineBitsServlet.ASYNC_EXECUTOR);
+        if (ASYNC_EXECUTOR_VIRTUAL.equalsIgnoreCase(executor)) {
+            LOG.debug("Asynchronous request processing enabled with virtual threads");
+            return VirtualThreads.newThreadPerTaskExecutor();
+        }
+        if (executor != null && !ASYNC_EXECUTOR_PLATFORM.equalsIgnoreCase(executor)) {
+            throw new IllegalArgumentException("Unknown value for parameter " + AlpineBitsServlet.ASYNC_EXECUTOR + ": " + executor
+                    + ". Use " + ASYNC_EXECUTOR_PLATFORM + " or " + ASYNC_EXECUTOR_VIRTUAL);
+        }
+
+        int threads = this.getIntParameter(config, AlpineBitsServlet.ASYNC_THREADS, Runtime.getRuntime().availableProcessors() * 2);
+        int queueSize = this.getIntParameter(config, AlpineBitsServlet.ASYNC_QUEUE_SIZE, DEFAULT_ASYNC_QUEUE_SIZE);
+
+        LOG.debug("Asynchronous request processing enabled with {} threads and a queue size of {}", threads, queueSize);
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new WorkerThreadFactory());
+    }
+
+    /**
+     * Get the timeout in milliseconds for asynchronously processed requests from the
+     * parameter ASYNC_TIMEOUT in the {@link ServletConfig} (default: {@value #DEFAULT_ASYNC_TIMEOUT}).
+     *
+     * @param config {@link ServletConfig} that may contain the parameter ASYNC_TIMEOUT
+     * @return the timeout in milliseconds
+     * @throws NumberFormatException if ASYNC_TIMEOUT is not a number
+     */
+    public long getAsyncTimeout(ServletConfig config) {
+        String timeout = config.getInitParameter(AlpineBitsServlet.ASYNC_TIMEOUT);
+        return timeout == null ? DEFAULT_ASYNC_TIMEOUT : Long.parseLong(timeout.trim());
+    }
+
+    /**
+     * Check if the parameter NON_BLOCKING_IO in the {@link ServletConfig} is <code>true</code>.
+     * Non-blocking I/O is only used together with asynchronous processing.
+     *
+     * @param config {@link ServletConfig} that may contain the parameter NON_BLOCKING_IO
+     * @return true if non-blocking I/O is enabled, false otherwise
+     */
+    public boolean isNonBlockingIo(ServletConfig config) {
+        return Boolean.parseBoolean(config.getInitParameter(AlpineBitsServlet.NON_BLOCKING_IO));
+    }
+
+    /**
+     * Get the maximum size of buffered request bodies in bytes from the parameter MAX_REQUEST_SIZE
+     * in the {@link ServletConfig} (default: {@value #DEFAULT_MAX_REQUEST_SIZE}). A negative
+     * value disables the limit.
+     *
+     * @param config {@link ServletConfig} that may contain the parameter MAX_REQUEST_SIZE
+     * @return the maximum request size in bytes
+     * @throws NumberFormatException if MAX_REQUEST_SIZE is not a number
+     */
+    public long getMaxRequestSize(ServletConfig config) {
+        String maxRequestSize = config.getInitParameter(AlpineBitsServlet.MAX_REQUEST_SIZE);
+        return maxRequestSize == null ? DEFAULT_MAX_REQUEST_SIZE : Long.parseLong(maxRequestSize.trim());
+    }
+
+    /**
+     * Build the {@link WarmUp} for the given middleware, if the parameter WARM_UP_ENABLED
+     * in the {@link ServletConfig} is <code>true</code>.
+     * <p>
+     * The {@link WarmUpProvider} is an instance of the class given by the parameter
+     * WARM_UP_PROVIDER_CLASSNAME. If that parameter is missing, the middleware itself
+     * must implement {@link WarmUpProvider}. The parameter WARM_UP_ITERATIONS sets how
+     * often each warm-up request is sent (default: {@value WarmUp#DEFAULT_ITERATIONS}),
+     * WARM_UP_THREADS sets the number of warm-up threads (default: number of available processors).
+     *
+     * @param config                  {@link ServletConfig} that may contain the parameters WARM_UP_ENABLED,
+     *                                WARM_UP_PROVIDER_CLASSNAME, WARM_UP_ITERATIONS and WARM_UP_THREADS
+     * @param middleware              the configured middleware
+     * @param contextBuilder          the configured {@link ContextBuilder}
+     * @param requestExceptionHandler the configured {@link RequestExceptionHandler}
+     * @return the {@link WarmUp}, or null if the warm-up is disabled
+     * @throws IllegalArgumentException     if no {@link WarmUpProvider} is found, or a number is not positive
+     * @throws ReflectiveOperationException if the class specified by WARM_UP_PROVIDER_CLASSNAME could not be
+     *                                      found or instantiated with its constructor without arguments
+     */
+    public WarmUp getWarmUp(ServletConfig config, Middleware middleware, ContextBuilder contextBuilder,
+                            RequestExceptionHandler requestExceptionHandler) throws ReflectiveOperationException {
+        if (!Boolean.parseBoolean(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED))) {
+            return null;
+        }
+
+        WarmUpProvider provider;
+        String providerClassname = config.getInitParameter(AlpineBitsServlet.WARM_UP_PROVIDER_CLASSNAME);
+        if (providerClassname != null) {
+            LOG.debug("Initializing configured warm-up provider {}", providerClassname);
+            provider = (WarmUpProvider) Class.forName(providerClassname).getDeclaredConstructor().newInstance();
+        } else if (middleware instanceof WarmUpProvider) {
+            provider = (WarmUpProvider) middleware;
+        } else {
+            throw new IllegalArgumentException("The warm-up is enabled, but no warm-up provider is given. Use the "
+                    + AlpineBitsServlet.WARM_UP_PROVIDER_CLASSNAME + " parameter to provide a classname for a class "
+                    + "implementing the WarmUpProvider interface, or implement that interface in the middleware");
+        }
+
+        return new WarmUp.Builder(middleware, contextBuilder, provider)
+                .requestExceptionHandler(requestExceptionHandler)
+                .iterations(this.getIntParameter(config, AlpineBitsServlet.WARM_UP_ITERATIONS, WarmUp.DEFAULT_ITERATIONS))
+                .threads(this.getIntParameter(config, AlpineBitsServlet.WARM_UP_THREADS, Runtime.getRuntime().availableProcessors()))
+                .build();
+    }
+
+    private long getStreamingThreshold(ServletConfig config) {
+        String threshold = config.getInitParameter(AlpineBitsServlet.RESPONSE_STREAMING_THRESHOLD);
+        return threshold == null ? DefaultContextBuilder.DEFAULT_STREAMING_THRESHOLD : Long.parseLong(threshold.trim());
+    }
+
+    private int getIntParameter(ServletConfig config, String name, int defaultValue) {
+        String value = config.getInitParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int result = Integer.parseInt(value.trim());
+        if (result <= 0) {
+            throw new IllegalArgumentException("The parameter " + name + " must be positive, got " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates named daemon threads for asynchronous request processing.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "alpinebits-worker-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
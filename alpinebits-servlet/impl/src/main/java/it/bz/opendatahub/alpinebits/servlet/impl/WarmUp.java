@@ -0,0 +1,364 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+import it.bz.opendatahub.alpinebits.servlet.middleware.AlpineBitsClientProtocolMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.middleware.BasicAuthenticationMiddleware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the warm-up phase described by a {@link WarmUpProvider}.
+ * <p>
+ * First, all preload tasks are run in parallel. Afterwards, each warm-up request
+ * is sent {@link Builder#iterations(int)} times through the middleware, in-process
+ * and in parallel. The requests are synthetic multipart/form-data POST requests,
+ * their contexts are built by the configured {@link ContextBuilder} and contain
+ * the value <code>true</code> for the key {@link RequestContextKey#REQUEST_WARM_UP}.
+ * Errors are passed to the {@link RequestExceptionHandler}, to warm it up as well.
+ * The response bodies are discarded.
+ * <p>
+ * Unless given by the warm-up request, the headers for the client protocol version
+ * and basic authentication (user {@value #USERNAME}) are set.
+ */
+public final class WarmUp {
+
+    public static final int DEFAULT_ITERATIONS = 20;
+    public static final String USERNAME = "alpinebits-warm-up";
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUp.class);
+
+    private static final String BOUNDARY = "alpinebits-warm-up-boundary";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+    private static final String CRLF = "\r\n";
+
+    private final Middleware middleware;
+    private final ContextBuilder contextBuilder;
+    private final WarmUpProvider provider;
+    private final RequestExceptionHandler requestExceptionHandler;
+    private final int iterations;
+    private final int threads;
+
+    private WarmUp(Builder builder) {
+        this.middleware = ComposingMiddlewareBuilder.compose(Collections.singletonList(builder.middleware));
+        this.contextBuilder = builder.contextBuilder;
+        this.provider = builder.provider;
+        this.requestExceptionHandler = builder.requestExceptionHandler;
+        this.iterations = builder.iterations;
+        this.threads = builder.threads;
+    }
+
+    /**
+     * Run the warm-up phase. Failing preload tasks and requests are logged and counted,
+     * they do not stop the warm-up. If the current thread is interrupted, the warm-up
+     * is stopped and the thread stays interrupted.
+     *
+     * @return the {@link Result} of the warm-up
+     */
+    public Result run() {
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "alpinebits-warm-up-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> preloads = new ArrayList<>();
+            for (Runnable task : this.provider.getPreloadTasks()) {
+                preloads.add(executor.submit(task));
+            }
+            int failedPreloads = await(preloads);
+            long preloaded = System.nanoTime();
+
+            List<Future<Boolean>> requests = this.submitRequests(executor);
+            int failedRequests = await(requests);
+            long finished = System.nanoTime();
+
+            Result result = new Result(preloads.size(), failedPreloads, Duration.ofNanos(preloaded - start),
+                    requests.size(), failedRequests, Duration.ofNanos(finished - preloaded));
+            LOG.info("Warm-up finished: {}", result);
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Future<Boolean>> submitRequests(ExecutorService executor) {
+        List<Future<Boolean>> futures = new ArrayList<>();
+        if (Thread.currentThread().isInterrupted()) {
+            return futures;
+        }
+        List<WarmUpRequest> requests = this.provider.getWarmUpRequests();
+        List<byte[]> bodies = new ArrayList<>();
+        for (WarmUpRequest request : requests) {
+            bodies.add(buildBody(request));
+        }
+        for (int i = 0; i < this.iterations; i++) {
+            for (int r = 0; r < requests.size(); r++) {
+                WarmUpRequest request = requests.get(r);
+                byte[] body = bodies.get(r);
+                String requestId = "warm-up-" + i + "-" + r;
+                futures.add(executor.submit(() -> this.send(request, body, requestId)));
+            }
+        }
+        return futures;
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private boolean send(WarmUpRequest warmUpRequest, byte[] body, String requestId) {
+        WarmUpHttpServletRequest request = new WarmUpHttpServletRequest(buildHeaders(warmUpRequest), CONTENT_TYPE, body, requestId);
+        WarmUpHttpServletResponse response = new WarmUpHttpServletResponse();
+        request.setAttribute(AlpineBitsServlet.REQUEST_ID, requestId);
+        Context ctx = null;
+        try {
+            ctx = this.contextBuilder.fromRequest(request, response, requestId);
+            ctx.put(RequestContextKey.REQUEST_WARM_UP, Boolean.TRUE);
+            this.middleware.handleContext(ctx, null);
+            DefaultContextBuilder.finishResponse(ctx);
+            return response.getStatus() < 400;
+        } catch (Exception e) {
+            DefaultContextBuilder.discardResponse(ctx);
+            LOG.debug("Warm-up request {} failed", warmUpRequest, e);
+            try {
+                this.requestExceptionHandler.handleRequestException(request, response, e);
+            } catch (Exception handlerException) {
+                LOG.debug("Error while handling warm-up request exception", handlerException);
+            }
+            return false;
+        }
+    }
+
+    private static int await(List<? extends Future<?>> futures) {
+        int failures = 0;
+        for (Future<?> future : futures) {
+            try {
+                if (Boolean.FALSE.equals(future.get())) {
+                    failures++;
+                }
+            } catch (ExecutionException e) {
+                LOG.warn("Warm-up task failed", e.getCause());
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return failures;
+            }
+        }
+        return failures;
+    }
+
+    private static Map<String, String> buildHeaders(WarmUpRequest request) {
+        String credentials = USERNAME + ":" + USERNAME;
+        Map<String, String> headers = new HashMap<>();
+        headers.put(AlpineBitsClientProtocolMiddleware.CLIENT_PROTOCOL_VERSION_HEADER, request.getVersion());
+        headers.put(BasicAuthenticationMiddleware.BASIC_AUTHENTICATION_HEADER,
+                "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        headers.putAll(request.getHeaders());
+        return headers;
+    }
+
+    private static byte[] buildBody(WarmUpRequest request) {
+        StringBuilder sb = new StringBuilder();
+        appendPart(sb, "action", request.getAction());
+        if (request.getRequest() != null) {
+            appendPart(sb, "request", request.getRequest());
+        }
+        sb.append("--").append(BOUNDARY).append("--").append(CRLF);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendPart(StringBuilder sb, String name, String value) {
+        sb.append("--").append(BOUNDARY).append(CRLF)
+                .append("Content-Disposition: form-data; name=\"").append(name).append('"').append(CRLF)
+                .append(CRLF)
+                .append(value).append(CRLF);
+    }
+
+    /**
+     * Counts and durations of a warm-up run.
+     */
+    public static final class Result {
+
+        private final int preloadCount;
+        private final int failedPreloadCount;
+        private final Duration preloadDuration;
+        private final int requestCount;
+        private final int failedRequestCount;
+        private final Duration requestDuration;
+
+        private Result(int preloadCount, int failedPreloadCount, Duration preloadDuration,
+                       int requestCount, int failedRequestCount, Duration requestDuration) {
+            this.preloadCount = preloadCount;
+            this.failedPreloadCount = failedPreloadCount;
+            this.preloadDuration = preloadDuration;
+            this.requestCount = requestCount;
+            this.failedRequestCount = failedRequestCount;
+            this.requestDuration = requestDuration;
+        }
+
+        public int getPreloadCount() {
+            return this.preloadCount;
+        }
+
+        public int getFailedPreloadCount() {
+            return this.failedPreloadCount;
+        }
+
+        public Duration getPreloadDuration() {
+            return this.preloadDuration;
+        }
+
+        public int getRequestCount() {
+            return this.requestCount;
+        }
+
+        /**
+         * Get the number of requests, that threw an exception or whose response
+         * status is 400 or higher.
+         *
+         * @return number of failed requests
+         */
+        public int getFailedRequestCount() {
+            return this.failedRequestCount;
+        }
+
+        public Duration getRequestDuration() {
+            return this.requestDuration;
+        }
+
+        /**
+         * Check if all preload tasks and warm-up requests succeeded.
+         *
+         * @return true if nothing failed, false otherwise
+         */
+        public boolean isSuccessful() {
+            return this.failedPreloadCount == 0 && this.failedRequestCount == 0;
+        }
+
+        @Override
+        public String toString() {
+            return this.preloadCount + " preload tasks (" + this.failedPreloadCount + " failed) in "
+                    + this.preloadDuration.toMillis() + " ms, "
+                    + this.requestCount + " requests (" + this.failedRequestCount + " failed) in "
+                    + this.requestDuration.toMillis() + " ms";
+        }
+    }
+
+    /**
+     * Builder for {@link WarmUp}.
+     */
+    public static class Builder {
+
+        private final Middleware middleware;
+        private final ContextBuilder contextBuilder;
+        private final WarmUpProvider provider;
+        private RequestExceptionHandler requestExceptionHandler = new DefaultRequestExceptionHandler();
+        private int iterations = DEFAULT_ITERATIONS;
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Create a builder for a warm-up, that sends its requests through the given middleware.
+         *
+         * @param middleware     the middleware, that processes the warm-up requests
+         * @param contextBuilder builds the contexts of the warm-up requests
+         * @param provider       provides the preload tasks and warm-up requests
+         * @throws IllegalArgumentException if an argument is null
+         */
+        public Builder(Middleware middleware, ContextBuilder contextBuilder, WarmUpProvider provider) {
+            if (middleware == null) {
+                throw new IllegalArgumentException("The middleware must not be null");
+            }
+            if (contextBuilder == null) {
+                throw new IllegalArgumentException("The context builder must not be null");
+            }
+            if (provider == null) {
+                throw new IllegalArgumentException("The warm-up provider must not be null");
+            }
+            this.middleware = middleware;
+            this.contextBuilder = contextBuilder;
+            this.provider = provider;
+        }
+
+        /**
+         * Set the {@link RequestExceptionHandler}, that handles failing warm-up requests
+         * (default: {@link DefaultRequestExceptionHandler}).
+         *
+         * @param requestExceptionHandler the {@link RequestExceptionHandler}
+         * @return the Builder
+         * @throws IllegalArgumentException if requestExceptionHandler is null
+         */
+        public Builder requestExceptionHandler(RequestExceptionHandler requestExceptionHandler) {
+            if (requestExceptionHandler == null) {
+                throw new IllegalArgumentException("The request exception handler must not be null");
+            }
+            this.requestExceptionHandler = requestExceptionHandler;
+            return this;
+        }
+
+        /**
+         * Set how often each warm-up request is sent (default: {@value WarmUp#DEFAULT_ITERATIONS}).
+         *
+         * @param iterations number of iterations, may be zero
+         * @return the Builder
+         * @throws IllegalArgumentException if iterations is negative
+         */
+        public Builder iterations(int iterations) {
+            if (iterations < 0) {
+                throw new IllegalArgumentException("The iterations must not be negative, got " + iterations);
+            }
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * Set the number of threads running the preload tasks and warm-up requests
+         * (default: number of available processors).
+         *
+         * @param threads number of threads
+         * @return the Builder
+         * @throws IllegalArgumentException if threads is not positive
+         */
+        public Builder threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("The threads must be positive, got " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        public WarmUp build() {
+            return new WarmUp(this);
+        }
+    }
+}
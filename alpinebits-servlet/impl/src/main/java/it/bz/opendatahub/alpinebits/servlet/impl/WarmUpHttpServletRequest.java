@@ -0,0 +1,499 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This {@link HttpServletRequest} is a synthetic, in-memory POST request,
+ * used to send warm-up requests through the middleware, see {@link WarmUp}.
+ * <p>
+ * Only headers, attributes and the request body are supported. The request
+ * has no parameters, session, principal or connection.
+ */
+final class WarmUpHttpServletRequest implements HttpServletRequest {
+
+    private static final String METHOD = "POST";
+    private static final String PATH = "/AlpineBits";
+    private static final String HOST = "localhost";
+    private static final int PORT = 80;
+
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final byte[] body;
+    private final String contentType;
+    private final String requestId;
+
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    WarmUpHttpServletRequest(Map<String, String> headers, String contentType, byte[] body, String requestId) {
+        this.headers.putAll(headers);
+        this.headers.put("Content-Type", contentType);
+        this.contentType = contentType;
+        this.body = body;
+        this.requestId = requestId;
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return this.headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = this.headers.get(name);
+        return Collections.enumeration(value == null ? Collections.emptyList() : Collections.singletonList(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(this.headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = this.getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public String getMethod() {
+        return METHOD;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return PATH;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer("http://").append(HOST).append(PATH);
+    }
+
+    @Override
+    public String getServletPath() {
+        return PATH;
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw unsupported("Session tracking");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return this.getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("There is no session associated with this request");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        throw unsupported("Container authentication");
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw unsupported("Container authentication");
+    }
+
+    @Override
+    public void logout() {
+        throw unsupported("Container authentication");
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        throw unsupported("Container multipart parsing");
+    }
+
+    @Override
+    public Part getPart(String name) {
+        throw unsupported("Container multipart parsing");
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw unsupported("Protocol upgrade");
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(this.attributes.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) {
+        if (this.reader == null) {
+            this.characterEncoding = env;
+        }
+    }
+
+    @Override
+    public int getContentLength() {
+        return this.body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return this.body.length;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (this.reader != null) {
+            throw new IllegalStateException("getReader() has already been called for this request");
+        }
+        if (this.inputStream == null) {
+            this.inputStream = new ByteArrayServletInputStream(this.body);
+        }
+        return this.inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (this.reader == null) {
+            if (this.inputStream != null) {
+                throw new IllegalStateException("getInputStream() has already been called for this request");
+            }
+            this.reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(this.body), StandardCharsets.UTF_8));
+        }
+        return this.reader;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getServerName() {
+        return HOST;
+    }
+
+    @Override
+    public int getServerPort() {
+        return PORT;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            this.removeAttribute(name);
+        } else {
+            this.attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        this.attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(this.getLocale()));
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return null;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return -1;
+    }
+
+    @Override
+    public String getLocalName() {
+        return HOST;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return null;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return PORT;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Asynchronous processing is not supported for warm-up requests");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        return this.startAsync();
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("The request has not been put into asynchronous mode");
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public String getRequestId() {
+        return this.requestId;
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        throw unsupported("Servlet connection");
+    }
+
+    private static UnsupportedOperationException unsupported(String feature) {
+        return new UnsupportedOperationException(feature + " is not supported for warm-up requests");
+    }
+
+    /**
+     * {@link ServletInputStream} that reads the request body.
+     */
+    private static final class ByteArrayServletInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream delegate;
+
+        private ByteArrayServletInputStream(byte[] body) {
+            this.delegate = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return this.delegate.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return this.delegate.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return this.delegate.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.delegate.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This {@link HttpServletResponse} collects status and headers of a warm-up
+ * response, see {@link WarmUp}. The response body is discarded, only its
+ * size is counted.
+ */
+final class WarmUpHttpServletResponse implements HttpServletResponse {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final DiscardingServletOutputStream outputStream = new DiscardingServletOutputStream();
+
+    private int status = SC_OK;
+    private String characterEncoding;
+    private Locale locale = Locale.getDefault();
+    private PrintWriter writer;
+
+    /**
+     * Get the number of body bytes written to this response.
+     *
+     * @return the body size
+     */
+    long getBodySize() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        return this.outputStream.count;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Cookies are discarded
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return this.headers.containsKey(name);
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.reset();
+        this.status = sc;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        this.sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location, int sc, boolean clearBuffer) {
+        this.status = sc;
+        this.setHeader("Location", location);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        this.setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        this.addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (value == null) {
+            this.headers.remove(name);
+        } else {
+            List<String> values = new ArrayList<>();
+            values.add(value);
+            this.headers.put(name, values);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (value != null) {
+            this.headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        this.setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        this.addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return this.status;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = this.headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = this.headers.get(name);
+        return values == null ? Collections.emptyList() : new ArrayList<>(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new LinkedHashSet<>(this.headers.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return this.characterEncoding == null ? StandardCharsets.ISO_8859_1.name() : this.characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.getHeader(CONTENT_TYPE);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (this.writer == null) {
+            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, Charset.forName(this.getCharacterEncoding())));
+        }
+        return this.writer;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (this.writer == null) {
+            this.characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // The body is discarded
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // The body is discarded
+    }
+
+    @Override
+    public void setContentType(String type) {
+        this.setHeader(CONTENT_TYPE, type);
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // The body is discarded
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 0;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        // The body is discarded
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        this.headers.clear();
+        this.status = SC_OK;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        this.locale = loc;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return this.locale;
+    }
+
+    /**
+     * {@link ServletOutputStream} that discards and counts the written bytes.
+     */
+    private static final class DiscardingServletOutputStream extends ServletOutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    }
+}
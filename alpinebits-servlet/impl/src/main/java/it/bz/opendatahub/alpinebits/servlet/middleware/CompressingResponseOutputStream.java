@@ -0,0 +1,171 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This {@link OutputStream} buffers the first bytes of a response body. If the
+ * body grows beyond the buffer, the <code>Content-Encoding</code> header is set
+ * and the body is compressed while it is written. Otherwise, the buffered body
+ * is written uncompressed by {@link #finish()}.
+ */
+final class CompressingResponseOutputStream extends OutputStream {
+
+    private static final int DEFLATER_BUFFER_SIZE = 8192;
+
+    private final OutputStream delegate;
+    private final HttpServletResponse response;
+    private final String encoding;
+    private final int level;
+    private final byte[] buffer;
+
+    private int count;
+    private DeflaterOutputStream compressor;
+    private Deflater deflater;
+    private boolean finished;
+
+    CompressingResponseOutputStream(OutputStream delegate, HttpServletResponse response, String encoding, int level, int minSize) {
+        this.delegate = delegate;
+        this.response = response;
+        this.encoding = encoding;
+        this.level = level;
+        this.buffer = new byte[minSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (this.compressor == null && !this.finished && this.count < this.buffer.length) {
+            this.buffer[this.count++] = (byte) b;
+            return;
+        }
+        this.target().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (this.compressor == null && !this.finished && this.count + len <= this.buffer.length) {
+            System.arraycopy(b, off, this.buffer, this.count, len);
+            this.count += len;
+            return;
+        }
+        this.target().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // A flush while buffering is ignored, otherwise the decision to compress would be made too early
+        if (this.compressor != null && !this.finished) {
+            this.compressor.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.finish();
+    }
+
+    /**
+     * Complete the response body: either finish the compression, or write the
+     * buffered bytes uncompressed. The delegate stream is not closed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+        if (this.compressor != null) {
+            try {
+                this.compressor.finish();
+            } finally {
+                this.deflater.end();
+            }
+        } else if (this.count > 0) {
+            this.delegate.write(this.buffer, 0, this.count);
+        }
+        this.delegate.flush();
+    }
+
+    /**
+     * Discard the response body, e.g. because its creation failed. If the
+     * compression was already started and the response is not committed
+     * yet, the response is reset, such that an error can be written.
+     */
+    void abort() {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+        this.count = 0;
+        if (this.compressor != null) {
+            this.deflater.end();
+            if (!this.response.isCommitted()) {
+                this.response.reset();
+            }
+        }
+    }
+
+    boolean isCompressing() {
+        return this.compressor != null;
+    }
+
+    private OutputStream target() throws IOException {
+        if (this.compressor != null) {
+            if (this.finished) {
+                throw new IOException("The compressed response body is already finished");
+            }
+            return this.compressor;
+        }
+        if (this.finished) {
+            return this.delegate;
+        }
+        this.startCompression();
+        return this.compressor;
+    }
+
+    private void startCompression() throws IOException {
+        this.response.setHeader(ResponseCompressionMiddleware.CONTENT_ENCODING_HEADER, this.encoding);
+        if (ResponseCompressionMiddleware.GZIP.equals(this.encoding)) {
+            GzipStream gzipStream = new GzipStream(this.delegate, this.level);
+            this.deflater = gzipStream.deflater();
+            this.compressor = gzipStream;
+        } else {
+            this.deflater = new Deflater(this.level);
+            this.compressor = new DeflaterOutputStream(this.delegate, this.deflater, DEFLATER_BUFFER_SIZE);
+        }
+        this.compressor.write(this.buffer, 0, this.count);
+        this.count = 0;
+    }
+
+    /**
+     * {@link GZIPOutputStream} with a configurable compression level.
+     */
+    private static final class GzipStream extends GZIPOutputStream {
+
+        private GzipStream(OutputStream out, int level) throws IOException {
+            super(out, DEFLATER_BUFFER_SIZE);
+            this.def.setLevel(level);
+        }
+
+        private Deflater deflater() {
+            return this.def;
+        }
+    }
+}
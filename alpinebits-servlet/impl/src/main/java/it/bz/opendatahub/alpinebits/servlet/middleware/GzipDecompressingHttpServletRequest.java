@@ -0,0 +1,270 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.servlet.RequestTooLargeException;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This {@link HttpServletRequestWrapper} serves the body of a gzip compressed
+ * request decompressed, while it is read. The <code>Content-Encoding</code> and
+ * <code>Content-Length</code> headers of the wrapped request are hidden, since
+ * they describe the compressed body.
+ * <p>
+ * The size of the decompressed body and the compression ratio are checked while
+ * the body is read. If a limit is exceeded, a {@link RequestTooLargeException}
+ * is thrown.
+ */
+final class GzipDecompressingHttpServletRequest extends HttpServletRequestWrapper {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final long maxInflatedSize;
+    private final int maxRatio;
+    private final long ratioCheckThreshold;
+
+    private InflatingServletInputStream inputStream;
+    private BufferedReader reader;
+
+    GzipDecompressingHttpServletRequest(HttpServletRequest request, long maxInflatedSize, int maxRatio, long ratioCheckThreshold) {
+        super(request);
+        this.maxInflatedSize = maxInflatedSize;
+        this.maxRatio = maxRatio;
+        this.ratioCheckThreshold = ratioCheckThreshold;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (this.reader != null) {
+            throw new IllegalStateException("getReader() has already been called for this request");
+        }
+        return this.inflatingInputStream();
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (this.reader == null) {
+            if (this.inputStream != null) {
+                throw new IllegalStateException("getInputStream() has already been called for this request");
+            }
+            String encoding = this.getCharacterEncoding();
+            InputStream is = this.inflatingInputStream();
+            this.reader = new BufferedReader(encoding == null
+                    ? new InputStreamReader(is, StandardCharsets.ISO_8859_1)
+                    : new InputStreamReader(is, encoding));
+        }
+        return this.reader;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return isHiddenHeader(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return isHiddenHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        Enumeration<String> names = super.getHeaderNames();
+        if (names == null) {
+            return null;
+        }
+        return Collections.enumeration(Collections.list(names).stream()
+                .filter(name -> !isHiddenHeader(name))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        return isHiddenHeader(name) ? -1 : super.getIntHeader(name);
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) throws UnsupportedEncodingException {
+        if (this.reader == null) {
+            super.setCharacterEncoding(encoding);
+        }
+    }
+
+    long getCompressedBytes() {
+        return this.inputStream == null ? 0 : this.inputStream.counter.count;
+    }
+
+    long getInflatedBytes() {
+        return this.inputStream == null ? 0 : this.inputStream.inflated;
+    }
+
+    boolean isLimitExceeded() {
+        return this.inputStream != null && this.inputStream.limitExceeded;
+    }
+
+    private InflatingServletInputStream inflatingInputStream() throws IOException {
+        if (this.inputStream == null) {
+            this.inputStream = new InflatingServletInputStream(super.getInputStream());
+        }
+        return this.inputStream;
+    }
+
+    private static boolean isHiddenHeader(String name) {
+        return GzipDecompressionMiddleware.CONTENT_ENCODING_HEADER.equalsIgnoreCase(name)
+                || GzipDecompressionMiddleware.CONTENT_LENGTH_HEADER.equalsIgnoreCase(name);
+    }
+
+    /**
+     * {@link ServletInputStream} that inflates the compressed body of the
+     * wrapped request and enforces the limits.
+     */
+    private final class InflatingServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream source;
+        private final CountingInputStream counter;
+        private final byte[] singleByte = new byte[1];
+
+        private GZIPInputStream inflater;
+        private long inflated;
+        private boolean finished;
+        private boolean limitExceeded;
+
+        private InflatingServletInputStream(ServletInputStream source) {
+            this.source = source;
+            this.counter = new CountingInputStream(source);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = this.read(this.singleByte, 0, 1);
+            return read == -1 ? -1 : this.singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.finished) {
+                return -1;
+            }
+            if (this.inflater == null) {
+                // The gzip header is read on creation, so create the inflater lazily
+                this.inflater = new GZIPInputStream(this.counter, BUFFER_SIZE);
+            }
+            int read = this.inflater.read(b, off, len);
+            if (read == -1) {
+                this.finished = true;
+                return -1;
+            }
+            this.inflated += read;
+            this.checkLimits();
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.inflater != null) {
+                this.inflater.close();
+            } else {
+                this.source.close();
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.source.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException("Non-blocking reads are not supported for gzip compressed requests");
+        }
+
+        private void checkLimits() {
+            GzipDecompressingHttpServletRequest outer = GzipDecompressingHttpServletRequest.this;
+            if (outer.maxInflatedSize >= 0 && this.inflated > outer.maxInflatedSize) {
+                this.limitExceeded = true;
+                throw new RequestTooLargeException("The decompressed request exceeds the maximum size of "
+                        + outer.maxInflatedSize + " bytes");
+            }
+            if (outer.maxRatio > 0 && this.inflated > outer.ratioCheckThreshold && this.inflated > this.counter.count * outer.maxRatio) {
+                this.limitExceeded = true;
+                throw new RequestTooLargeException("The compression ratio of the request exceeds the maximum ratio of "
+                        + outer.maxRatio);
+            }
+        }
+    }
+
+    /**
+     * {@link FilterInputStream} that counts the bytes read.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                this.count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                this.count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+    }
+}
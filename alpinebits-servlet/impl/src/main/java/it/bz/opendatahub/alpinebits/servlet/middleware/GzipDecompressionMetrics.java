@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the requests decompressed by a {@link GzipDecompressionMiddleware}.
+ * <p>
+ * The byte counters contain the bytes that were actually read by the
+ * middlewares, i.e. a request body that is not read completely is only
+ * counted partially.
+ */
+public final class GzipDecompressionMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder inflatedBytes = new LongAdder();
+
+    /**
+     * Get the number of gzip compressed requests.
+     *
+     * @return number of gzip compressed requests
+     */
+    public long getRequests() {
+        return this.requests.sum();
+    }
+
+    /**
+     * Get the number of requests that were rejected, because they exceeded
+     * the decompressed size limit or the compression ratio limit.
+     *
+     * @return number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return this.rejectedRequests.sum();
+    }
+
+    /**
+     * Get the number of compressed bytes read from the requests.
+     *
+     * @return number of compressed bytes
+     */
+    public long getCompressedBytes() {
+        return this.compressedBytes.sum();
+    }
+
+    /**
+     * Get the number of bytes after decompression.
+     *
+     * @return number of inflated bytes
+     */
+    public long getInflatedBytes() {
+        return this.inflatedBytes.sum();
+    }
+
+    void recordRequest(long compressed, long inflated, boolean rejected) {
+        this.requests.increment();
+        this.compressedBytes.add(compressed);
+        this.inflatedBytes.add(inflated);
+        if (rejected) {
+            this.rejectedRequests.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GzipDecompressionMetrics{"
+                + "requests=" + this.getRequests()
+                + ", rejectedRequests=" + this.getRejectedRequests()
+                + ", compressedBytes=" + this.getCompressedBytes()
+                + ", inflatedBytes=" + this.getInflatedBytes()
+                + '}';
+    }
+}
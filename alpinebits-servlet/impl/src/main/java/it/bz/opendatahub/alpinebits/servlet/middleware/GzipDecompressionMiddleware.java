@@ -0,0 +1,185 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+import it.bz.opendatahub.alpinebits.servlet.RequestTooLargeException;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * This middleware accepts gzip compressed requests, as an alternative to the
+ * {@link GzipUnsupportedMiddleware}. If the HTTP requests <code>Content-Encoding</code>
+ * header is set to <code>gzip</code>, the HTTP request in the {@link Context} is replaced
+ * by a wrapper, that inflates the body while it is read. The body is never decompressed
+ * as a whole, which means that this middleware must be placed before the middlewares
+ * reading the body, e.g. the {@link MultipartFormDataParserMiddleware}.
+ * <p>
+ * To guard against zip bombs, the size of the decompressed body is limited (see
+ * {@link Builder#maxDecompressedSize(long)}), as well as the ratio between decompressed
+ * and compressed size (see {@link Builder#maxRatio(int)}). If a limit is exceeded, a
+ * {@link RequestTooLargeException} with HTTP status 413 is thrown while the body is read.
+ * <p>
+ * The number of compressed and decompressed bytes is counted, see {@link #getMetrics()}.
+ * <p>
+ * The HTTP request must be present in the {@link Context}. Otherwise, a
+ * {@link RequiredContextKeyMissingException} is thrown.
+ */
+public class GzipDecompressionMiddleware implements Middleware {
+
+    public static final String CONTENT_ENCODING_HEADER = GzipUnsupportedMiddleware.CONTENT_ENCODING_HEADER;
+    public static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    public static final String GZIP = GzipUnsupportedMiddleware.GZIP;
+    public static final String X_GZIP = "x-gzip";
+
+    public static final long UNLIMITED = -1;
+    public static final long DEFAULT_MAX_DECOMPRESSED_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_MAX_RATIO = 100;
+    public static final long DEFAULT_RATIO_CHECK_THRESHOLD = 1024L * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(GzipDecompressionMiddleware.class);
+
+    private final long maxDecompressedSize;
+    private final int maxRatio;
+    private final long ratioCheckThreshold;
+    private final GzipDecompressionMetrics metrics = new GzipDecompressionMetrics();
+
+    /**
+     * Create a {@link GzipDecompressionMiddleware} with the default limits.
+     */
+    public GzipDecompressionMiddleware() {
+        this(new Builder());
+    }
+
+    private GzipDecompressionMiddleware(Builder builder) {
+        this.maxDecompressedSize = builder.maxDecompressedSize;
+        this.maxRatio = builder.maxRatio;
+        this.ratioCheckThreshold = builder.ratioCheckThreshold;
+    }
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        HttpServletRequest request = ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST);
+
+        String contentEncoding = request.getHeader(CONTENT_ENCODING_HEADER);
+        if (!isGzip(contentEncoding)) {
+            chain.next();
+            return;
+        }
+
+        LOG.debug("Decompressing gzip request");
+
+        GzipDecompressingHttpServletRequest decompressingRequest = new GzipDecompressingHttpServletRequest(
+                request, this.maxDecompressedSize, this.maxRatio, this.ratioCheckThreshold);
+        ctx.put(ServletContextKey.SERVLET_REQUEST, decompressingRequest);
+        try {
+            chain.next();
+        } finally {
+            long compressed = decompressingRequest.getCompressedBytes();
+            long inflated = decompressingRequest.getInflatedBytes();
+            this.metrics.recordRequest(compressed, inflated, decompressingRequest.isLimitExceeded());
+            LOG.debug("Decompressed gzip request: {} compressed bytes, {} inflated bytes", compressed, inflated);
+        }
+    }
+
+    /**
+     * Get the metrics of this middleware.
+     *
+     * @return the {@link GzipDecompressionMetrics}
+     */
+    public GzipDecompressionMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    private static boolean isGzip(String contentEncoding) {
+        if (contentEncoding == null) {
+            return false;
+        }
+        String encoding = contentEncoding.trim();
+        return GZIP.equalsIgnoreCase(encoding) || X_GZIP.equalsIgnoreCase(encoding);
+    }
+
+    /**
+     * Builder to create instances of {@link GzipDecompressionMiddleware}.
+     */
+    public static class Builder {
+
+        private long maxDecompressedSize = DEFAULT_MAX_DECOMPRESSED_SIZE;
+        private int maxRatio = DEFAULT_MAX_RATIO;
+        private long ratioCheckThreshold = DEFAULT_RATIO_CHECK_THRESHOLD;
+
+        /**
+         * Set the maximum size of a decompressed request body in bytes (default:
+         * {@value #DEFAULT_MAX_DECOMPRESSED_SIZE}). Use {@link #UNLIMITED} to disable the limit.
+         *
+         * @param maxDecompressedSize the maximum decompressed size
+         * @return the current Builder
+         * @throws IllegalArgumentException if maxDecompressedSize is neither positive nor {@link #UNLIMITED}
+         */
+        public Builder maxDecompressedSize(long maxDecompressedSize) {
+            if (maxDecompressedSize <= 0 && maxDecompressedSize != UNLIMITED) {
+                throw new IllegalArgumentException("The max decompressed size must be positive or UNLIMITED");
+            }
+            this.maxDecompressedSize = maxDecompressedSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum ratio between decompressed and compressed size (default:
+         * {@value #DEFAULT_MAX_RATIO}). Use 0 to disable the check.
+         *
+         * @param maxRatio the maximum compression ratio
+         * @return the current Builder
+         * @throws IllegalArgumentException if maxRatio is negative
+         */
+        public Builder maxRatio(int maxRatio) {
+            if (maxRatio < 0) {
+                throw new IllegalArgumentException("The max ratio must not be negative");
+            }
+            this.maxRatio = maxRatio;
+            return this;
+        }
+
+        /**
+         * Set the number of decompressed bytes, after which the compression ratio is checked
+         * (default: {@value #DEFAULT_RATIO_CHECK_THRESHOLD}). Small bodies may have a high
+         * compression ratio without being harmful, e.g. if they are mostly whitespace.
+         *
+         * @param ratioCheckThreshold the threshold in bytes
+         * @return the current Builder
+         * @throws IllegalArgumentException if ratioCheckThreshold is negative
+         */
+        public Builder ratioCheckThreshold(long ratioCheckThreshold) {
+            if (ratioCheckThreshold < 0) {
+                throw new IllegalArgumentException("The ratio check threshold must not be negative");
+            }
+            this.ratioCheckThreshold = ratioCheckThreshold;
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link GzipDecompressionMiddleware} with
+         * the current configuration.
+         *
+         * @return instance of {@link GzipDecompressionMiddleware}
+         */
+        public GzipDecompressionMiddleware build() {
+            return new GzipDecompressionMiddleware(this);
+        }
+    }
+}
@@ -25,7 +25,8 @@ import org.slf4j.LoggerFactory;
  * This middleware checks if the HTTP requests <code>Content-Encoding</code> header is
  * set to <code>gzip</code>, in which case it throws a {@link GzipUnsupportedException}
  * with HTTP status code of 501, to indicate that the server doesn't support gzip
- * compressed requests.
+ * compressed requests. Use the {@link GzipDecompressionMiddleware} to accept gzip
+ * compressed requests instead.
  * <p>
  * The HTTP request must be present in the {@link Context}. Otherwise, a
  * {@link RequiredContextKeyMissingException} is thrown.
@@ -11,26 +11,35 @@
 package it.bz.opendatahub.alpinebits.servlet.middleware;
 
 import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
 import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
 import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
 import it.bz.opendatahub.alpinebits.servlet.InvalidRequestContentTypeException;
 import it.bz.opendatahub.alpinebits.servlet.MultipartFormDataParseException;
+import it.bz.opendatahub.alpinebits.servlet.MultipartFormDataSizeLimitException;
 import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
 import it.bz.opendatahub.alpinebits.servlet.UndefinedActionException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.fileupload2.core.DiskFileItem;
 import org.apache.commons.fileupload2.core.DiskFileItemFactory;
 import org.apache.commons.fileupload2.core.FileItem;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
 import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,6 +53,15 @@ import java.util.stream.Collectors;
  * The <code>request</code> part is added as {@link OutputStream} using the
  * {@link RequestContextKey#REQUEST_CONTENT_STREAM} key.
  * <p>
+ * By default, all parts are parsed into {@link DiskFileItem}s before the
+ * {@link Context} is populated. In streaming mode (see {@link Builder#streaming(boolean)}),
+ * the parts are read one at a time: if the <code>action</code> part precedes the
+ * <code>request</code> part, the latter is added as live stream on the HTTP request
+ * body, without temporary files or buffering. Otherwise, the <code>request</code>
+ * part is buffered in pooled chunks, up to {@link Builder#maxBufferedRequestSize(int)} bytes.
+ * The chunks are returned to the pool when the buffered part is fully read or closed,
+ * at the latest when the middleware returns.
+ * <p>
  * The HTTP request must be present in the {@link Context}. Otherwise, a
  * {@link RequiredContextKeyMissingException} is thrown.
  * <p>
@@ -52,24 +70,73 @@ import java.util.stream.Collectors;
  * <p>
  * If the multipart/form-data could not be parsed, a {@link MultipartFormDataParseException} is thrown.
  * <p>
+ * If the HTTP request or one of its parts exceeds the configured limits, a
+ * {@link MultipartFormDataSizeLimitException} is thrown.
+ * <p>
  * If non <code>action</code> part was found in the request, a {@link UndefinedActionException} is thrown.
  */
 public class MultipartFormDataParserMiddleware implements Middleware {
 
+    /**
+     * Value for the size limits that disables the limit.
+     */
+    public static final long UNLIMITED = -1;
+
     private static final Logger LOG = LoggerFactory.getLogger(MultipartFormDataParserMiddleware.class);
 
     private static final String FORM_PART_ACTION = "action";
     private static final String FORM_PART_REQUEST = "request";
 
+    private static final int DEFAULT_MAX_ACTION_SIZE = 1024;
+    private static final int DEFAULT_MAX_BUFFERED_REQUEST_SIZE = 16 * 1024 * 1024;
+
+    private final boolean streaming;
+    private final long maxSize;
+    private final long maxRequestSize;
+    private final int maxActionSize;
+    private final int maxBufferedRequestSize;
+    private final ByteChunkPool bufferPool;
+
+    /**
+     * Create a middleware that parses all parts into {@link DiskFileItem}s,
+     * without size limits.
+     */
+    public MultipartFormDataParserMiddleware() {
+        this(new Builder());
+    }
+
+    private MultipartFormDataParserMiddleware(Builder builder) {
+        this.streaming = builder.streaming;
+        this.maxSize = builder.maxSize;
+        this.maxRequestSize = builder.maxRequestSize;
+        this.maxActionSize = builder.maxActionSize;
+        this.maxBufferedRequestSize = builder.maxBufferedRequestSize;
+        this.bufferPool = builder.bufferPool;
+    }
+
     @Override
     public void handleContext(Context ctx, MiddlewareChain chain) {
         HttpServletRequest request = ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST);
 
         this.checkIsMultipartOrThrow(request);
 
-        this.parseRequestAndAddToContext(request, ctx);
+        if (!this.streaming) {
+            this.parseRequestAndAddToContext(request, ctx);
+            chain.next();
+            return;
+        }
 
-        chain.next();
+        // A buffered request part is released when its stream is fully read or closed,
+        // at the latest here, once the following middlewares returned or failed
+        StreamedParts parts = new StreamedParts();
+        try {
+            this.streamRequestAndAddToContext(request, ctx, parts);
+            chain.next();
+        } finally {
+            if (parts.buffer != null) {
+                parts.buffer.release();
+            }
+        }
     }
 
     private void checkIsMultipartOrThrow(HttpServletRequest request) {
@@ -84,7 +151,7 @@ public class MultipartFormDataParserMiddleware implements Middleware {
         LOG.debug("Parsing multipart/form-data");
 
         DiskFileItemFactory factory = DiskFileItemFactory.builder().get();
-        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>(factory);
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = this.newUpload(factory);
 
         String abAction = null;
         InputStream abRequest = null;
@@ -103,11 +170,7 @@ public class MultipartFormDataParserMiddleware implements Middleware {
             }
 
             if (abAction == null) {
-                List<String> partNames = items.stream().map(DiskFileItem::getName).collect(Collectors.toList());
-                String formPartsInfo = partNames.isEmpty()
-                        ? "No multipart/form-data parts found at all"
-                        : "The following multipart/form-data parts were found: " + String.join(", ");
-                throw new UndefinedActionException("No action part defined in the multipart/form-data request. " + formPartsInfo);
+                throw this.undefinedActionException(items.stream().map(DiskFileItem::getFieldName).collect(Collectors.toList()));
             }
 
             ctx.put(RequestContextKey.REQUEST_ACTION, abAction);
@@ -115,6 +178,8 @@ public class MultipartFormDataParserMiddleware implements Middleware {
             if (abRequest != null) {
                 ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, abRequest);
             }
+        } catch (FileUploadSizeException e) {
+            throw new MultipartFormDataSizeLimitException("The multipart/form-data request exceeds the size limit: " + e.getMessage(), e);
         } catch (IOException e) {
             throw new MultipartFormDataParseException("Error while parsing multipart/form-data", e);
         }
@@ -122,4 +187,257 @@ public class MultipartFormDataParserMiddleware implements Middleware {
         LOG.debug("AlpineBits action parameter: {}, AlpineBits request parameter is present: {}", abAction, abRequest != null);
     }
 
+    private void streamRequestAndAddToContext(HttpServletRequest request, Context ctx, StreamedParts parts) {
+        LOG.debug("Streaming multipart/form-data");
+
+        try {
+            this.streamParts(request, parts);
+        } catch (FileUploadSizeException e) {
+            throw new MultipartFormDataSizeLimitException("The multipart/form-data request exceeds the size limit: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new MultipartFormDataParseException("Error while parsing multipart/form-data", e);
+        }
+
+        if (parts.action == null) {
+            throw this.undefinedActionException(parts.names);
+        }
+
+        ctx.put(RequestContextKey.REQUEST_ACTION, parts.action);
+
+        if (parts.request != null) {
+            ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, parts.request);
+        }
+
+        LOG.debug("AlpineBits action parameter: {}, AlpineBits request parameter is present: {}", parts.action, parts.request != null);
+    }
+
+    private void streamParts(HttpServletRequest request, StreamedParts parts) throws IOException {
+        FileItemInputIterator iterator = this.newUpload(null).getItemIterator(request);
+
+        // Stop as soon as the request part can be handed out as live stream
+        boolean streamed = false;
+        while (!streamed && iterator.hasNext()) {
+            FileItemInput item = iterator.next();
+            String fieldName = item.getFieldName();
+            parts.names.add(fieldName);
+
+            if (FORM_PART_ACTION.equalsIgnoreCase(fieldName)) {
+                parts.action = this.readAction(item);
+            } else if (FORM_PART_REQUEST.equalsIgnoreCase(fieldName) && parts.action != null) {
+                parts.request = item.getInputStream();
+                streamed = true;
+            } else if (FORM_PART_REQUEST.equalsIgnoreCase(fieldName)) {
+                LOG.debug("The request part precedes the action part, buffering it in memory");
+                if (parts.buffer != null) {
+                    // Only the last request part is used
+                    parts.buffer.release();
+                }
+                parts.buffer = new ChunkedBuffer(this.bufferPool);
+                this.bufferRequest(item, parts.buffer);
+                parts.request = new ReleasingInputStream(parts.buffer);
+            }
+        }
+    }
+
+    private JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> newUpload(DiskFileItemFactory factory) {
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = factory == null
+                ? new JakartaServletFileUpload<>()
+                : new JakartaServletFileUpload<>(factory);
+        // Both limits are checked against the Content-Length header before
+        // any part is read, and enforced while the parts are read
+        upload.setSizeMax(this.maxSize);
+        upload.setFileSizeMax(this.maxRequestSize);
+        return upload;
+    }
+
+    private String readAction(FileItemInput item) throws IOException {
+        try (InputStream is = item.getInputStream()) {
+            byte[] bytes = is.readNBytes(this.maxActionSize + 1);
+            if (bytes.length > this.maxActionSize) {
+                throw new MultipartFormDataSizeLimitException("The action part exceeds its maximum size of " + this.maxActionSize + " bytes");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void bufferRequest(FileItemInput item, ChunkedBuffer buffer) throws IOException {
+        try (InputStream is = item.getInputStream()) {
+            // Read in bulk, directly into the pooled chunks
+            while (buffer.readOnce(is) != -1) {
+                if (buffer.size() > this.maxBufferedRequestSize) {
+                    throw new MultipartFormDataSizeLimitException("The request part precedes the action part and exceeds the maximum "
+                            + "buffer size of " + this.maxBufferedRequestSize + " bytes");
+                }
+            }
+        }
+    }
+
+    private UndefinedActionException undefinedActionException(List<String> partNames) {
+        String formPartsInfo = partNames.isEmpty()
+                ? "No multipart/form-data parts found at all"
+                : "The following multipart/form-data parts were found: " + String.join(", ", partNames);
+        return new UndefinedActionException("No action part defined in the multipart/form-data request. " + formPartsInfo);
+    }
+
+    /**
+     * Parts found while streaming the multipart/form-data request.
+     */
+    private static final class StreamedParts {
+        private final List<String> names = new ArrayList<>();
+        private String action;
+        private InputStream request;
+        private ChunkedBuffer buffer;
+    }
+
+    /**
+     * Reads a buffered request part and releases the buffer, when the end
+     * of the part is reached or the stream is closed.
+     */
+    private static final class ReleasingInputStream extends FilterInputStream {
+
+        private final ChunkedBuffer buffer;
+
+        private ReleasingInputStream(ChunkedBuffer buffer) {
+            super(buffer.newInputStream());
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return this.releaseOnEnd(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return this.releaseOnEnd(super.read(b, off, len));
+        }
+
+        @Override
+        public void close() {
+            this.buffer.release();
+        }
+
+        private int releaseOnEnd(int result) {
+            if (result == -1) {
+                this.buffer.release();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Builder to create instances of {@link MultipartFormDataParserMiddleware}.
+     */
+    public static class Builder {
+
+        private boolean streaming;
+        private long maxSize = UNLIMITED;
+        private long maxRequestSize = UNLIMITED;
+        private int maxActionSize = DEFAULT_MAX_ACTION_SIZE;
+        private int maxBufferedRequestSize = DEFAULT_MAX_BUFFERED_REQUEST_SIZE;
+        private ByteChunkPool bufferPool = ByteChunkPool.withDefaults();
+
+        /**
+         * If streaming is enabled (default: false), the <code>request</code> part is
+         * added to the {@link Context} as live stream, without temporary files and
+         * without buffering, as long as it follows the <code>action</code> part.
+         * <p>
+         * Note that the stream can only be consumed before the middleware returns.
+         *
+         * @param streaming true to enable streaming mode
+         * @return the current Builder
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of the whole HTTP request body in bytes
+         * (default: {@link #UNLIMITED}).
+         *
+         * @param maxSize the maximum size, or {@link #UNLIMITED}
+         * @return the current Builder
+         */
+        public Builder maxSize(long maxSize) {
+            this.maxSize = checkLimit(maxSize, "maximum size");
+            return this;
+        }
+
+        /**
+         * Set the maximum size of a single part, e.g. the <code>request</code> part,
+         * in bytes (default: {@link #UNLIMITED}).
+         *
+         * @param maxRequestSize the maximum part size, or {@link #UNLIMITED}
+         * @return the current Builder
+         */
+        public Builder maxRequestSize(long maxRequestSize) {
+            this.maxRequestSize = checkLimit(maxRequestSize, "maximum request size");
+            return this;
+        }
+
+        /**
+         * Set the maximum size of the <code>action</code> part in bytes, checked
+         * in streaming mode (default: 1024).
+         *
+         * @param maxActionSize the maximum action size
+         * @return the current Builder
+         */
+        public Builder maxActionSize(int maxActionSize) {
+            if (maxActionSize <= 0) {
+                throw new IllegalArgumentException("The maximum action size must be positive");
+            }
+            this.maxActionSize = maxActionSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes buffered in memory, if the <code>request</code>
+         * part precedes the <code>action</code> part in streaming mode (default: 16 MiB).
+         *
+         * @param maxBufferedRequestSize the maximum buffer size
+         * @return the current Builder
+         */
+        public Builder maxBufferedRequestSize(int maxBufferedRequestSize) {
+            if (maxBufferedRequestSize < 0) {
+                throw new IllegalArgumentException("The maximum buffered request size must not be negative");
+            }
+            this.maxBufferedRequestSize = maxBufferedRequestSize;
+            return this;
+        }
+
+        /**
+         * Set the {@link ByteChunkPool} that provides the chunks, in which the
+         * <code>request</code> part is buffered in streaming mode (default:
+         * a pool with {@link ByteChunkPool#withDefaults()}).
+         *
+         * @param bufferPool the {@link ByteChunkPool} to use
+         * @return the current Builder
+         */
+        public Builder bufferPool(ByteChunkPool bufferPool) {
+            if (bufferPool == null) {
+                throw new IllegalArgumentException("The buffer pool must not be null");
+            }
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link MultipartFormDataParserMiddleware} with
+         * the current configuration.
+         *
+         * @return instance of {@link MultipartFormDataParserMiddleware}
+         */
+        public MultipartFormDataParserMiddleware build() {
+            return new MultipartFormDataParserMiddleware(this);
+        }
+
+        private static long checkLimit(long limit, String name) {
+            if (limit < 0 && limit != UNLIMITED) {
+                throw new IllegalArgumentException("The " + name + " must not be negative, use UNLIMITED to disable the limit");
+            }
+            return limit;
+        }
+    }
+
 }
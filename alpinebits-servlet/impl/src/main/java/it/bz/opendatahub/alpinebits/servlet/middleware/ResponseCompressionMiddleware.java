@@ -0,0 +1,254 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.context.ResponseContextKeys;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+import it.bz.opendatahub.alpinebits.servlet.ResponseWritingException;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * <p>
+ * This middleware compresses the response body with gzip or deflate, depending
+ * on the <code>Accept-Encoding</code> header of the HTTP request.
+ * <p>
+ * The {@link ResponseContextKeys#RESPONSE_CONTENT_STREAM} is replaced by a stream
+ * that buffers the first bytes of the response body (see {@link Builder#minSize(int)}).
+ * Only if the body grows beyond that size, the <code>Content-Encoding</code> header is
+ * set and the body is compressed while it is written. Smaller bodies are written
+ * uncompressed, when the middlewares further down the chain return.
+ * <p>
+ * Compression may be restricted to a set of AlpineBits actions (see
+ * {@link Builder#actions(String...)}). In that case, this middleware must be placed after
+ * the {@link MultipartFormDataParserMiddleware}, such that the action is known. It must
+ * be placed before the middlewares writing the response body, e.g. the
+ * <code>XmlResponseMappingMiddleware</code>.
+ * <p>
+ * If a middleware further down the chain throws an exception, the buffered body is
+ * discarded. If the compression was already started, the response is reset, such that
+ * the error can be written uncompressed.
+ * <p>
+ * The HTTP request and response must be present in the {@link Context}. Otherwise, a
+ * {@link RequiredContextKeyMissingException} is thrown.
+ */
+public class ResponseCompressionMiddleware implements Middleware {
+
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    public static final String VARY_HEADER = "Vary";
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    public static final int DEFAULT_MIN_SIZE = 2048;
+    public static final int DEFAULT_LEVEL = 6;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCompressionMiddleware.class);
+    private static final String ANY_ENCODING = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+
+    private final int minSize;
+    private final int level;
+    private final Set<String> actions;
+
+    /**
+     * Create a {@link ResponseCompressionMiddleware} that compresses the
+     * responses of all actions with the default settings.
+     */
+    public ResponseCompressionMiddleware() {
+        this(new Builder());
+    }
+
+    private ResponseCompressionMiddleware(Builder builder) {
+        this.minSize = builder.minSize;
+        this.level = builder.level;
+        this.actions = builder.actions;
+    }
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        HttpServletRequest request = ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST);
+        HttpServletResponse response = ctx.getOrThrow(ServletContextKey.SERVLET_RESPONSE);
+
+        if (!this.isEnabledFor(ctx.get(RequestContextKey.REQUEST_ACTION).orElse(null))) {
+            chain.next();
+            return;
+        }
+
+        response.addHeader(VARY_HEADER, ACCEPT_ENCODING_HEADER);
+        String encoding = negotiateEncoding(request.getHeader(ACCEPT_ENCODING_HEADER));
+        if (encoding == null) {
+            chain.next();
+            return;
+        }
+
+        OutputStream os = ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM);
+        CompressingResponseOutputStream compressingStream = new CompressingResponseOutputStream(os, response, encoding, this.level, this.minSize);
+        ctx.put(ResponseContextKeys.RESPONSE_CONTENT_STREAM, compressingStream);
+
+        boolean completed = false;
+        try {
+            chain.next();
+            completed = true;
+        } finally {
+            if (!completed) {
+                compressingStream.abort();
+            }
+        }
+
+        try {
+            compressingStream.finish();
+        } catch (IOException e) {
+            throw new ResponseWritingException("Error while writing compressed response", e);
+        }
+        LOG.debug("Response written {}", compressingStream.isCompressing() ? "with " + encoding + " encoding" : "uncompressed");
+    }
+
+    /**
+     * Select the content encoding for the response, based on the given
+     * <code>Accept-Encoding</code> header value. If gzip and deflate are
+     * equally acceptable, gzip is preferred.
+     *
+     * @param acceptEncoding the <code>Accept-Encoding</code> header value, may be null
+     * @return {@link #GZIP}, {@link #DEFLATE} or null if none of them is acceptable
+     */
+    static String negotiateEncoding(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double any = quality(acceptEncoding, ANY_ENCODING);
+        double gzip = quality(acceptEncoding, GZIP, GzipDecompressionMiddleware.X_GZIP);
+        double deflate = quality(acceptEncoding, DEFLATE);
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    // Get the highest quality of the given codings in the Accept-Encoding header value, or -1 if none is listed
+    private static double quality(String acceptEncoding, String... codings) {
+        double quality = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            for (String candidate : codings) {
+                if (candidate.equalsIgnoreCase(coding)) {
+                    quality = Math.max(quality, parseQuality(parts));
+                }
+            }
+        }
+        return quality;
+    }
+
+    private static double parseQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith(QUALITY_PARAMETER)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PARAMETER.length()));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean isEnabledFor(String action) {
+        return this.actions.isEmpty() || this.actions.contains(action);
+    }
+
+    /**
+     * Builder to create instances of {@link ResponseCompressionMiddleware}.
+     */
+    public static class Builder {
+
+        private int minSize = DEFAULT_MIN_SIZE;
+        private int level = DEFAULT_LEVEL;
+        private Set<String> actions = Collections.emptySet();
+
+        /**
+         * Set the number of bytes that are buffered before the decision to compress
+         * is made (default: {@value #DEFAULT_MIN_SIZE}). Smaller responses are not compressed.
+         *
+         * @param minSize the minimum response size for compression
+         * @return the current Builder
+         * @throws IllegalArgumentException if minSize is negative
+         */
+        public Builder minSize(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("The min size must not be negative");
+            }
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Set the compression level, from {@link Deflater#BEST_SPEED} (1) to
+         * {@link Deflater#BEST_COMPRESSION} (9) (default: {@value #DEFAULT_LEVEL}).
+         *
+         * @param level the compression level
+         * @return the current Builder
+         * @throws IllegalArgumentException if level is not in the range 1 - 9
+         */
+        public Builder level(int level) {
+            if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("The compression level must be in the range 1 - 9, but was " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Restrict compression to the responses of the given AlpineBits actions
+         * (default: all actions), e.g. to large pull responses.
+         *
+         * @param actions the actions whose responses are compressed
+         * @return the current Builder
+         * @throws IllegalArgumentException if actions is null
+         */
+        public Builder actions(String... actions) {
+            if (actions == null) {
+                throw new IllegalArgumentException("The actions must not be null");
+            }
+            this.actions = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(actions)));
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link ResponseCompressionMiddleware} with
+         * the current configuration.
+         *
+         * @return instance of {@link ResponseCompressionMiddleware}
+         */
+        public ResponseCompressionMiddleware build() {
+            return new ResponseCompressionMiddleware(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+
+/**
+ * This middleware skips the wrapped middleware for warm-up requests, i.e. if the
+ * {@link Context} contains the value <code>true</code> for the key
+ * {@link RequestContextKey#REQUEST_WARM_UP}. In that case, the chain continues
+ * with the next middleware. Use it to wrap middlewares with side effects, e.g.
+ * persistence.
+ * <p>
+ * All other requests are handled by the wrapped middleware.
+ */
+public class WarmUpSkippingMiddleware implements Middleware {
+
+    private final Middleware middleware;
+
+    /**
+     * Wrap the given middleware.
+     *
+     * @param middleware the middleware, that is skipped for warm-up requests
+     * @throws IllegalArgumentException if middleware is null
+     */
+    public WarmUpSkippingMiddleware(Middleware middleware) {
+        if (middleware == null) {
+            throw new IllegalArgumentException("The middleware must not be null");
+        }
+        this.middleware = middleware;
+    }
+
+    /**
+     * Check if the given {@link Context} belongs to a warm-up request.
+     *
+     * @param ctx the {@link Context}
+     * @return true if the context belongs to a warm-up request, false otherwise
+     */
+    public static boolean isWarmUp(Context ctx) {
+        return ctx.get(RequestContextKey.REQUEST_WARM_UP).orElse(Boolean.FALSE);
+    }
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        if (isWarmUp(ctx)) {
+            chain.next();
+        } else {
+            this.middleware.handleContext(ctx, chain);
+        }
+    }
+
+}
@@ -10,22 +10,40 @@
 
 package it.bz.opendatahub.alpinebits.servlet.impl;
 
+import it.bz.opendatahub.alpinebits.servlet.RequestTimeoutException;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.FailingWarmUpMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.LateWritingMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.NonBlockingStreams;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.ResponseStatusSettingMiddleware;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.ServletOutputStreamBuilder;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.ThrowingMiddleware;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.ThrowingRequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.WarmUpProvidingMiddleware;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Test cases for {@link AlpineBitsServletTest} class.
@@ -42,6 +60,52 @@ public class AlpineBitsServletTest {
         servlet.init(config);
     }
 
+    @Test
+    public void testInit_ReadyWithoutWarmUp() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(ResponseStatusSettingMiddleware.class.getName());
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        assertTrue(AlpineBitsServlet.isReady());
+    }
+
+    @Test
+    public void testInit_ReadyAfterWarmUp() throws Exception {
+        ServletContext servletContext = mock(ServletContext.class);
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getServletContext()).thenReturn(servletContext);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(WarmUpProvidingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED)).thenReturn("true");
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        verify(servletContext).setAttribute(AlpineBitsServlet.READY_ATTRIBUTE, false);
+        verify(servletContext, timeout(5000)).setAttribute(AlpineBitsServlet.READY_ATTRIBUTE, true);
+        assertTrue(AlpineBitsServlet.isReady());
+    }
+
+    @Test
+    public void testInit_NotReadyAfterFailedWarmUp() throws Exception {
+        ServletContext servletContext = mock(ServletContext.class);
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getServletContext()).thenReturn(servletContext);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(FailingWarmUpMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED)).thenReturn("true");
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        verify(servletContext).setAttribute(AlpineBitsServlet.READY_ATTRIBUTE, false);
+        verify(servletContext, after(2000).never()).setAttribute(AlpineBitsServlet.READY_ATTRIBUTE, true);
+        assertFalse(AlpineBitsServlet.isReady());
+    }
+
     @Test
     public void testDoPost_MiddlewareThrowing() throws Exception {
         ServletConfig config = mock(ServletConfig.class);
@@ -108,4 +172,167 @@ public class AlpineBitsServletTest {
         // exception and sets the response using the HttpServletResponse#sendError(int, String) method.
         verify(response).setStatus(HttpServletResponse.SC_OK);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDoPost_AsyncMiddlewareOk() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(ResponseStatusSettingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_THREADS)).thenReturn("1");
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = this.mockAsyncContext(request, response);
+
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(null));
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        try {
+            servlet.doPost(request, response);
+
+            verify(asyncContext, timeout(5000)).complete();
+            verify(asyncContext).addListener(any(AsyncRequestCompletion.class));
+            verify(response).setStatus(HttpServletResponse.SC_OK);
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    @Test
+    public void testDoPost_AsyncMiddlewareThrowing() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(ThrowingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = this.mockAsyncContext(request, response);
+
+        StringWriter stringWriter = new StringWriter();
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(stringWriter));
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        try {
+            servlet.doPost(request, response);
+
+            verify(asyncContext, timeout(5000)).complete();
+            verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    @Test
+    public void testDoPost_AsyncNotSupported() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(ResponseStatusSettingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(null));
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        try {
+            servlet.doPost(request, response);
+
+            // The request is processed synchronously, if the container does not support async processing
+            verify(request, never()).startAsync(any(), any());
+            verify(response).setStatus(HttpServletResponse.SC_OK);
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    @Test
+    public void testDoPost_NonBlockingIoMiddlewareThrowing() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(ThrowingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.NON_BLOCKING_IO)).thenReturn("true");
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = this.mockAsyncContext(request, response);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(new byte[100], 10));
+        when(response.getOutputStream()).thenReturn(NonBlockingStreams.outputStream(os));
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        try {
+            servlet.doPost(request, response);
+
+            verify(asyncContext, timeout(5000)).complete();
+            verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            String body = os.toString(StandardCharsets.UTF_8);
+            assertTrue(body.startsWith(ThrowingMiddleware.EXPECTED_EXCEPTION_MESSAGE));
+            verify(response).setContentLengthLong(body.length());
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    @Test
+    public void testDoPost_AsyncTimeoutDropsLateWrites() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME))
+                .thenReturn(LateWritingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = this.mockAsyncContext(request, response);
+
+        StringWriter stringWriter = new StringWriter();
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(stringWriter));
+
+        AlpineBitsServlet servlet = new AlpineBitsServlet();
+        servlet.init(config);
+
+        try {
+            servlet.doPost(request, response);
+
+            ArgumentCaptor<AsyncRequestCompletion> completion = ArgumentCaptor.forClass(AsyncRequestCompletion.class);
+            verify(asyncContext).addListener(completion.capture());
+
+            // The timeout fires while the middleware is running
+            assertTrue(LateWritingMiddleware.STARTED.await(5, TimeUnit.SECONDS));
+            completion.getValue().onTimeout(null);
+            verify(response).setStatus(RequestTimeoutException.STATUS);
+            String errorBody = stringWriter.toString();
+
+            // The middleware writes afterwards
+            LateWritingMiddleware.RELEASED.countDown();
+            assertTrue(LateWritingMiddleware.WRITTEN.await(5, TimeUnit.SECONDS));
+
+            verify(response, never()).setStatus(HttpServletResponse.SC_OK);
+            assertEquals(stringWriter.toString(), errorBody);
+            verify(asyncContext, times(1)).complete();
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    private AsyncContext mockAsyncContext(HttpServletRequest request, HttpServletResponse response) {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync(request, response)).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(asyncContext.getResponse()).thenReturn(response);
+        return asyncContext;
+    }
+}
@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.ServletOutputStreamBuilder;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.SleepingMiddleware;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test that pushes {@link #CONNECTIONS} concurrent requests through an asynchronous
+ * {@link AlpineBitsServlet}, comparing a pool of platform threads (sized like the default
+ * Tomcat worker pool) with virtual threads. Each request blocks for
+ * {@link SleepingMiddleware#BLOCKING_MILLIS} ms, like a JDBC round trip.
+ * <p>
+ * The score is the time until all requests are completed. The <code>virtual</code>
+ * executor requires JDK 21+.
+ * <p>
+ * Run with <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="AsyncExecutorBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncExecutorBenchmark {
+
+    private static final int CONNECTIONS = 1000;
+    private static final String PLATFORM_THREADS = "200";
+
+    @Param({ServletConfigParser.ASYNC_EXECUTOR_PLATFORM, ServletConfigParser.ASYNC_EXECUTOR_VIRTUAL})
+    private String executor;
+
+    private AlpineBitsServlet servlet;
+    private HttpServletRequest[] requests;
+    private HttpServletResponse[] responses;
+    private CountDownLatch completed;
+
+    @Setup
+    public void setup() throws ServletException {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.MIDDLEWARE_CLASSNAME)).thenReturn(SleepingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_EXECUTOR)).thenReturn(this.executor);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_THREADS)).thenReturn(PLATFORM_THREADS);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_QUEUE_SIZE)).thenReturn(String.valueOf(CONNECTIONS));
+
+        this.servlet = new AlpineBitsServlet();
+        this.servlet.init(config);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupConnections() throws IOException {
+        this.completed = new CountDownLatch(CONNECTIONS);
+        this.requests = new HttpServletRequest[CONNECTIONS];
+        this.responses = new HttpServletResponse[CONNECTIONS];
+        for (int i = 0; i < CONNECTIONS; i++) {
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            AsyncContext asyncContext = mock(AsyncContext.class);
+            when(request.isAsyncSupported()).thenReturn(true);
+            when(request.startAsync(request, response)).thenReturn(asyncContext);
+            when(asyncContext.getRequest()).thenReturn(request);
+            when(asyncContext.getResponse()).thenReturn(response);
+            when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(null));
+            doAnswer(invocation -> {
+                this.completed.countDown();
+                return null;
+            }).when(asyncContext).complete();
+            this.requests[i] = request;
+            this.responses[i] = response;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.servlet.destroy();
+    }
+
+    @Benchmark
+    public long allConnectionsCompleted() throws InterruptedException {
+        for (int i = 0; i < CONNECTIONS; i++) {
+            this.servlet.doPost(this.requests[i], this.responses[i]);
+        }
+        this.completed.await();
+        return this.completed.getCount();
+    }
+}
@@ -0,0 +1,117 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.RequestTimeoutException;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link AsyncRequestCompletion} class.
+ */
+public class AsyncRequestCompletionTest {
+
+    private static final String REQUEST_ID = "REQUEST-ID";
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_AsyncContextIsNull() {
+        new AsyncRequestCompletion(null, mock(RequestExceptionHandler.class), REQUEST_ID);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_RequestExceptionHandlerIsNull() {
+        new AsyncRequestCompletion(mock(AsyncContext.class), null, REQUEST_ID);
+    }
+
+    @Test
+    public void testComplete_OnlyOnce() {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), REQUEST_ID);
+
+        assertTrue(completion.complete());
+        assertFalse(completion.complete());
+        assertFalse(completion.fail(new IllegalStateException()));
+
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testOnTimeout() throws Exception {
+        AsyncContext asyncContext = this.mockAsyncContext();
+        RequestExceptionHandler handler = mock(RequestExceptionHandler.class);
+        Future<?> worker = mock(Future.class);
+
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, handler, REQUEST_ID);
+        completion.setWorker(worker);
+        completion.onTimeout(mock(AsyncEvent.class));
+
+        verify(handler).handleRequestException(any(HttpServletRequest.class), any(HttpServletResponse.class), any(RequestTimeoutException.class));
+        verify(asyncContext, times(1)).complete();
+        verify(worker).cancel(true);
+
+        // The worker must not complete the request a second time
+        assertFalse(completion.complete());
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testOnTimeout_AfterComplete() throws Exception {
+        AsyncContext asyncContext = this.mockAsyncContext();
+        RequestExceptionHandler handler = mock(RequestExceptionHandler.class);
+        Future<?> worker = mock(Future.class);
+
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, handler, REQUEST_ID);
+        completion.setWorker(worker);
+        completion.complete();
+        completion.onTimeout(mock(AsyncEvent.class));
+
+        verify(handler, never()).handleRequestException(any(), any(), any());
+        verify(worker, never()).cancel(true);
+    }
+
+    @Test
+    public void testFail_RequestExceptionHandlerThrowing() throws Exception {
+        AsyncContext asyncContext = this.mockAsyncContext();
+        RequestExceptionHandler handler = mock(RequestExceptionHandler.class);
+        doThrow(new IllegalStateException()).when(handler).handleRequestException(any(), any(), any());
+
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, handler, REQUEST_ID);
+        assertTrue(completion.fail(new IllegalArgumentException()));
+
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        verify(response).setStatus(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        verify(asyncContext).complete();
+    }
+
+    private AsyncContext mockAsyncContext() {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(asyncContext.getRequest()).thenReturn(mock(HttpServletRequest.class));
+        when(asyncContext.getResponse()).thenReturn(mock(HttpServletResponse.class));
+        return asyncContext;
+    }
+}
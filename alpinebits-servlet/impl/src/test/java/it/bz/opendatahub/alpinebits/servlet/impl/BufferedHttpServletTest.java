@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link BufferedHttpServletRequest} and {@link BufferedHttpServletResponse} classes.
+ */
+public class BufferedHttpServletTest {
+
+    private static final String CONTENT = "äöü content spanning several chunks";
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRequest_BodyIsNull() {
+        new BufferedHttpServletRequest(mock(HttpServletRequest.class), null);
+    }
+
+    @Test
+    public void testRequest_ReadBody() throws IOException {
+        ChunkedBuffer body = buffer();
+        body.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        HttpServletRequest request = new BufferedHttpServletRequest(mock(HttpServletRequest.class), body);
+        assertEquals(request.getContentLengthLong(), body.size());
+        assertEquals(request.getContentLength(), (int) body.size());
+        assertFalse(request.getInputStream().isFinished());
+        assertEquals(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8), CONTENT);
+        assertTrue(request.getInputStream().isFinished());
+    }
+
+    @Test
+    public void testRequest_ReadBodyWithReader() throws IOException {
+        ChunkedBuffer body = buffer();
+        body.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        HttpServletRequest delegate = mock(HttpServletRequest.class);
+        when(delegate.getCharacterEncoding()).thenReturn("UTF-8");
+        HttpServletRequest request = new BufferedHttpServletRequest(delegate, body);
+        assertEquals(request.getReader().readLine(), CONTENT);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testResponse_BodyIsNull() {
+        new BufferedHttpServletResponse(mock(HttpServletResponse.class), null);
+    }
+
+    @Test
+    public void testResponse_WriteBody() throws IOException {
+        HttpServletResponse delegate = mock(HttpServletResponse.class);
+        BufferedHttpServletResponse response = new BufferedHttpServletResponse(delegate, buffer());
+        response.getOutputStream().print("ERROR");
+        response.setContentLength(1);
+        response.flushBuffer();
+
+        assertFalse(response.isCommitted());
+        assertEquals(new String(response.getBody().newInputStream().readAllBytes(), StandardCharsets.UTF_8), "ERROR");
+        verify(delegate, never()).setContentLength(1);
+        verify(delegate, never()).getOutputStream();
+    }
+
+    @Test
+    public void testResponse_WriteBodyWithWriter() throws IOException {
+        HttpServletResponse delegate = mock(HttpServletResponse.class);
+        when(delegate.getCharacterEncoding()).thenReturn("UTF-8");
+        BufferedHttpServletResponse response = new BufferedHttpServletResponse(delegate, buffer());
+        response.getWriter().print(CONTENT);
+
+        assertEquals(new String(response.getBody().newInputStream().readAllBytes(), StandardCharsets.UTF_8), CONTENT);
+    }
+
+    @Test
+    public void testResponse_ResetBuffer() throws IOException {
+        BufferedHttpServletResponse response = new BufferedHttpServletResponse(mock(HttpServletResponse.class), buffer());
+        response.getOutputStream().print("partial");
+        response.resetBuffer();
+        response.getOutputStream().print("ERROR");
+
+        assertEquals(new String(response.getBody().newInputStream().readAllBytes(), StandardCharsets.UTF_8), "ERROR");
+    }
+
+    private static ChunkedBuffer buffer() {
+        return new ChunkedBuffer(new ByteChunkPool(8, 10));
+    }
+}
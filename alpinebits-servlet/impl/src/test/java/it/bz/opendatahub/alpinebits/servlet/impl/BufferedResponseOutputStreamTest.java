@@ -0,0 +1,201 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link BufferedResponseOutputStream} class.
+ */
+public class BufferedResponseOutputStreamTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private ByteChunkPool pool;
+    private RecordingServletOutputStream servletOutputStream;
+    private HttpServletResponse response;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        this.pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        this.servletOutputStream = new RecordingServletOutputStream();
+        this.response = mock(HttpServletResponse.class);
+        when(this.response.getOutputStream()).thenReturn(this.servletOutputStream);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_WhenResponseIsNull() {
+        new BufferedResponseOutputStream(null, this.pool, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_WhenPoolIsNull() {
+        new BufferedResponseOutputStream(this.response, null, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_WhenThresholdIsNegative() {
+        new BufferedResponseOutputStream(this.response, this.pool, -1);
+    }
+
+    @Test
+    public void testFinish_ShouldWriteBodyWithContentLength() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 1024);
+        byte[] body = this.body(3 * CHUNK_SIZE + 5);
+        for (byte b : body) {
+            os.write(b);
+        }
+        os.flush();
+        os.close();
+        assertEquals(this.servletOutputStream.writes, 0);
+
+        os.finish();
+
+        verify(this.response).setContentLengthLong(body.length);
+        assertEquals(this.servletOutputStream.toByteArray(), body);
+        // One write per chunk
+        assertEquals(this.servletOutputStream.writes, 4);
+        assertEquals(this.pool.getIdleCount(), 4);
+    }
+
+    @Test
+    public void testFinish_EmptyBody() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 1024);
+
+        os.finish();
+
+        verify(this.response).setContentLengthLong(0);
+        assertEquals(this.servletOutputStream.writes, 0);
+    }
+
+    @Test
+    public void testWrite_ShouldStream_WhenThresholdIsExceeded() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 2 * CHUNK_SIZE);
+        byte[] body = this.body(10 * CHUNK_SIZE);
+
+        os.write(body, 0, CHUNK_SIZE);
+        assertFalse(os.isStreaming());
+        assertEquals(os.getBufferedSize(), CHUNK_SIZE);
+
+        os.write(body, CHUNK_SIZE, 2 * CHUNK_SIZE);
+        assertTrue(os.isStreaming());
+        assertEquals(os.getBufferedSize(), 0);
+        assertEquals(this.pool.getIdleCount(), 3);
+
+        os.write(body, 3 * CHUNK_SIZE, body.length - 3 * CHUNK_SIZE);
+        os.finish();
+
+        verify(this.response, never()).setContentLengthLong(body.length);
+        assertEquals(this.servletOutputStream.toByteArray(), body);
+        assertEquals(this.servletOutputStream.flushes, 1);
+    }
+
+    @Test
+    public void testDiscard_ShouldReleaseBuffer() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 1024);
+        os.write(this.body(2 * CHUNK_SIZE));
+
+        assertTrue(os.discard());
+        os.finish();
+
+        assertEquals(this.servletOutputStream.writes, 0);
+        assertEquals(this.pool.getIdleCount(), 2);
+    }
+
+    @Test
+    public void testDiscard_ShouldReturnFalse_WhenStreaming() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 0);
+        os.write(1);
+
+        assertFalse(os.discard());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testWrite_ShouldThrow_WhenFinished() throws IOException {
+        BufferedResponseOutputStream os = new BufferedResponseOutputStream(this.response, this.pool, 1024);
+        os.finish();
+        os.write(1);
+    }
+
+    private byte[] body(int length) {
+        byte[] body = new byte[length];
+        Arrays.fill(body, (byte) 'x');
+        for (int i = 0; i < length; i += 7) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        return body;
+    }
+
+    /**
+     * Records the data and the number of write and flush calls.
+     */
+    private static final class RecordingServletOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private int writes;
+        private int flushes;
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // Empty
+        }
+
+        @Override
+        public void write(int b) {
+            this.writes++;
+            this.data.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.writes++;
+            this.data.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            this.flushes++;
+        }
+
+        byte[] toByteArray() {
+            return this.data.toByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -11,7 +11,11 @@
 package it.bz.opendatahub.alpinebits.servlet.impl;
 
 import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.context.ResponseContextKeys;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import it.bz.opendatahub.alpinebits.middleware.impl.SlotContext;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuildingException;
 import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
@@ -21,10 +25,16 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Test cases for {@link DefaultContextBuilder} class.
@@ -65,4 +75,65 @@ public class DefaultContextBuilderTest {
         String requestIdValue = ctx.getOrThrow(RequestContextKey.REQUEST_ID);
         assertEquals(requestIdValue, requestId);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFromRequest_DefaultContextIsSimpleContext() throws Exception {
+        Context ctx = new DefaultContextBuilder().fromRequest(this.mockRequest(), this.mockResponse(), "REQUEST-ID");
+        assertTrue(ctx instanceof SimpleContext);
+    }
+
+    @Test
+    public void testFromRequest_SlotContextBuilderBuildsSlotContext() throws Exception {
+        Context ctx = DefaultContextBuilder.slotContext().fromRequest(this.mockRequest(), this.mockResponse(), "REQUEST-ID");
+        assertTrue(ctx instanceof SlotContext);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_WhenSupplierIsNull() {
+        new DefaultContextBuilder(null);
+    }
+
+    @Test
+    public void testFromRequest_ResponseBuffer() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter body = new StringWriter();
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(body));
+        DefaultContextBuilder builder = new DefaultContextBuilder().withResponseBuffer(ByteChunkPool.withDefaults(), 1024);
+
+        Context ctx = builder.fromRequest(this.mockRequest(), response, "REQUEST-ID");
+
+        BufferedResponseOutputStream buffer = ctx.getOrThrow(DefaultContextBuilder.RESPONSE_BUFFER);
+        assertSame(ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM), buffer);
+        buffer.write(new byte[10]);
+
+        DefaultContextBuilder.finishResponse(ctx);
+        verify(response).setContentLengthLong(10);
+        assertEquals(body.toString().length(), 10);
+    }
+
+    @Test
+    public void testFinishResponse_WithoutResponseBuffer() throws Exception {
+        HttpServletResponse response = this.mockResponse();
+        Context ctx = new DefaultContextBuilder().fromRequest(this.mockRequest(), response, "REQUEST-ID");
+
+        DefaultContextBuilder.finishResponse(ctx);
+        DefaultContextBuilder.discardResponse(ctx);
+        DefaultContextBuilder.discardResponse(null);
+        verify(response, never()).setContentLengthLong(anyLong());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWithResponseBuffer_ShouldThrow_WhenPoolIsNull() {
+        new DefaultContextBuilder().withResponseBuffer(null, 1024);
+    }
+
+    private HttpServletRequest mockRequest() {
+        return mock(HttpServletRequest.class);
+    }
+
+    private HttpServletResponse mockResponse() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(null));
+        return response;
+    }
+}
@@ -0,0 +1,249 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
+import it.bz.opendatahub.alpinebits.servlet.RequestTooLargeException;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.NonBlockingStreams;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link NonBlockingExchange} class.
+ */
+public class NonBlockingExchangeTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    @Test
+    public void testExchange() throws Exception {
+        byte[] requestBody = data(100);
+        byte[] responseBody = data(70);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(requestBody, 7));
+        when(response.getOutputStream()).thenReturn(NonBlockingStreams.outputStream(os));
+
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        AtomicReference<byte[]> receivedBody = new AtomicReference<>();
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, pool, -1, ex -> {
+            assertTrue(ex.startProcessing());
+            try {
+                HttpServletRequest bufferedRequest = ex.getRequest();
+                assertEquals(bufferedRequest.getContentLengthLong(), requestBody.length);
+                receivedBody.set(bufferedRequest.getInputStream().readAllBytes());
+                ex.getResponse().getOutputStream().write(responseBody);
+                ex.writeResponse();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        exchange.start();
+
+        assertEquals(receivedBody.get(), requestBody);
+        assertEquals(os.toByteArray(), responseBody);
+        verify(response).setContentLengthLong(responseBody.length);
+        verify(asyncContext).complete();
+        // All chunks of the request and response body were returned to the pool
+        assertEquals(pool.getIdleCount(), 7 + 5);
+    }
+
+    @Test
+    public void testMaxRequestSizeExceeded() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(100), 7));
+
+        RequestExceptionHandler handler = mock(RequestExceptionHandler.class);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, handler, "REQUEST-ID");
+        AtomicReference<NonBlockingExchange> processed = new AtomicReference<>();
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, new ByteChunkPool(CHUNK_SIZE, 100), 50, processed::set);
+        exchange.start();
+
+        verify(handler).handleRequestException(any(HttpServletRequest.class), any(HttpServletResponse.class), any(RequestTooLargeException.class));
+        verify(asyncContext).complete();
+        assertNull(processed.get());
+    }
+
+    @Test
+    public void testWriteResponse_AfterTimeout() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(10), 7));
+
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, new ByteChunkPool(CHUNK_SIZE, 100), -1, ex -> {
+            assertTrue(ex.startProcessing());
+            // The request times out while it is processed
+            completion.fail(new IllegalStateException("timeout"));
+            try {
+                ex.writeResponse();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        exchange.start();
+
+        verify(response, never()).getOutputStream();
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testTimeout_WhileReading_ReleasesBuffers() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        // The client stops sending after 40 of 100 bytes
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(100), 7, 40));
+
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        AtomicReference<NonBlockingExchange> processed = new AtomicReference<>();
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, pool, -1, processed::set);
+        exchange.start();
+        assertEquals(pool.getInUseCount(), 3);
+
+        timeout(completion, exchange);
+
+        assertNull(processed.get());
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 3);
+    }
+
+    @Test
+    public void testTimeout_WhileWriting_ReleasesBuffers() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(10), 7));
+        // The client stops reading after 20 of 70 bytes
+        when(response.getOutputStream()).thenReturn(NonBlockingStreams.outputStream(os, 20));
+
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, pool, -1, ex -> {
+            assertTrue(ex.startProcessing());
+            try {
+                ex.getResponse().getOutputStream().write(data(70));
+                ex.writeResponse();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        exchange.start();
+        assertEquals(os.size(), CHUNK_SIZE * 2);
+        assertEquals(pool.getInUseCount(), 5);
+
+        timeout(completion, exchange);
+
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 6);
+    }
+
+    @Test
+    public void testTimeout_WhileQueued_ReleasesBuffers() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(40), 7));
+
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        AtomicReference<NonBlockingExchange> queued = new AtomicReference<>();
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, pool, -1, queued::set);
+        exchange.start();
+
+        // The worker is cancelled before it started
+        timeout(completion, exchange);
+
+        assertFalse(queued.get().startProcessing());
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 3);
+    }
+
+    @Test
+    public void testTimeout_WhileProcessing_ProcessorReleasesBuffers() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mockAsyncContext(request, response);
+        when(request.getInputStream()).thenReturn(NonBlockingStreams.inputStream(data(40), 7));
+
+        ByteChunkPool pool = new ByteChunkPool(CHUNK_SIZE, 100);
+        AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, mock(RequestExceptionHandler.class), "REQUEST-ID");
+        NonBlockingExchange exchange = new NonBlockingExchange(request, response, completion, pool, -1, ex -> {
+            assertTrue(ex.startProcessing());
+            try {
+                ex.getResponse().getOutputStream().write(data(20));
+                // The buffers are still in use by the processor
+                timeout(completion, ex);
+                assertEquals(pool.getInUseCount(), 5);
+                ex.writeResponse();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        exchange.start();
+
+        assertEquals(pool.getInUseCount(), 0);
+        assertEquals(pool.getIdleCount(), 5);
+    }
+
+    private static void timeout(AsyncRequestCompletion completion, NonBlockingExchange exchange) {
+        // The container calls the listeners in order of registration, onComplete follows the
+        // completion of the request. Repeated callbacks must not release the buffers twice
+        AsyncEvent event = mock(AsyncEvent.class);
+        completion.onTimeout(event);
+        exchange.onTimeout(event);
+        exchange.onComplete(event);
+        exchange.onError(event);
+        exchange.onComplete(event);
+    }
+
+    private static AsyncContext mockAsyncContext(HttpServletRequest request, HttpServletResponse response) {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(asyncContext.getResponse()).thenReturn(response);
+        return asyncContext;
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
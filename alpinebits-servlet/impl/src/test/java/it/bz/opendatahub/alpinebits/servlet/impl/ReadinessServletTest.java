@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test cases for {@link ReadinessServlet} class.
+ */
+public class ReadinessServletTest {
+
+    @Test
+    public void testDoGet_Ready() throws Exception {
+        StringWriter body = new StringWriter();
+        HttpServletResponse response = this.doGet(Boolean.TRUE, body);
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        assertEquals(body.toString(), ReadinessServlet.READY);
+    }
+
+    @Test
+    public void testDoGet_NotReady() throws Exception {
+        StringWriter body = new StringWriter();
+        HttpServletResponse response = this.doGet(Boolean.FALSE, body);
+
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertEquals(body.toString(), ReadinessServlet.NOT_READY);
+    }
+
+    @Test
+    public void testDoGet_NotInitialized() throws Exception {
+        StringWriter body = new StringWriter();
+        HttpServletResponse response = this.doGet(null, body);
+
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertEquals(body.toString(), ReadinessServlet.NOT_READY);
+    }
+
+    private HttpServletResponse doGet(Boolean ready, StringWriter body) throws Exception {
+        ServletContext servletContext = mock(ServletContext.class);
+        when(servletContext.getAttribute(AlpineBitsServlet.READY_ATTRIBUTE)).thenReturn(ready);
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getServletContext()).thenReturn(servletContext);
+
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        ReadinessServlet servlet = new ReadinessServlet();
+        servlet.init(config);
+        servlet.doGet(mock(HttpServletRequest.class), response);
+        return response;
+    }
+}
@@ -10,17 +10,32 @@
 
 package it.bz.opendatahub.alpinebits.servlet.impl;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.concurrent.VirtualThreads;
+import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.impl.SlotContext;
 import it.bz.opendatahub.alpinebits.servlet.ContextBuilder;
 import it.bz.opendatahub.alpinebits.servlet.RequestExceptionHandler;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.EmptyMiddleware;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.EmptyRequestExceptionHandler;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.NullContextBuilder;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.ServletOutputStreamBuilder;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.WarmUpProvidingMiddleware;
 import jakarta.servlet.ServletConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.testng.annotations.Test;
 
+import java.io.StringWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -102,6 +117,43 @@ public class ServletConfigParserTest {
         assertTrue(builder instanceof DefaultContextBuilder);
     }
 
+    @Test
+    public void testGetContextBuilder_SlotContextDefaultContextBuilder() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.CONTEXT_BUILDER_CLASSNAME))
+                .thenReturn(null);
+        when(config.getInitParameter(AlpineBitsServlet.SLOT_CONTEXT))
+                .thenReturn("true");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        ContextBuilder builder = parser.getContextBuilder(config);
+        assertTrue(builder instanceof DefaultContextBuilder);
+
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(null));
+        Context ctx = builder.fromRequest(mock(HttpServletRequest.class), response, "REQUEST-ID");
+        assertTrue(ctx instanceof SlotContext);
+    }
+
+    @Test
+    public void testGetContextBuilder_ResponseBuffering() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.RESPONSE_BUFFERING))
+                .thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.RESPONSE_STREAMING_THRESHOLD))
+                .thenReturn("0");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        ContextBuilder builder = parser.getContextBuilder(config, ByteChunkPool.withDefaults());
+
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(ServletOutputStreamBuilder.getServletOutputStream(new StringWriter()));
+        Context ctx = builder.fromRequest(mock(HttpServletRequest.class), response, "REQUEST-ID");
+        BufferedResponseOutputStream buffer = ctx.getOrThrow(DefaultContextBuilder.RESPONSE_BUFFER);
+        buffer.write(1);
+        assertTrue(buffer.isStreaming());
+    }
+
     @Test(expectedExceptions = ClassNotFoundException.class)
     public void testGetContextBuilder_ClassNotFound() throws Exception {
         ServletConfig config = mock(ServletConfig.class);
@@ -122,4 +174,124 @@ public class ServletConfigParserTest {
         ContextBuilder builder = parser.getContextBuilder(config);
         assertTrue(builder instanceof NullContextBuilder);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAsyncExecutor_Disabled() {
+        ServletConfig config = mock(ServletConfig.class);
+
+        ServletConfigParser parser = new ServletConfigParser();
+        assertNull(parser.getAsyncExecutor(config));
+    }
+
+    @Test
+    public void testGetAsyncExecutor() {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_THREADS)).thenReturn("3");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_QUEUE_SIZE)).thenReturn("7");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        ExecutorService executor = parser.getAsyncExecutor(config);
+        try {
+            assertTrue(executor instanceof ThreadPoolExecutor);
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+            assertEquals(threadPoolExecutor.getMaximumPoolSize(), 3);
+            assertEquals(threadPoolExecutor.getQueue().remainingCapacity(), 7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetAsyncExecutor_InvalidThreads() {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_THREADS)).thenReturn("0");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        parser.getAsyncExecutor(config);
+    }
+
+    @Test
+    public void testGetAsyncTimeout() {
+        ServletConfig config = mock(ServletConfig.class);
+
+        ServletConfigParser parser = new ServletConfigParser();
+        assertEquals(parser.getAsyncTimeout(config), ServletConfigParser.DEFAULT_ASYNC_TIMEOUT);
+
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_TIMEOUT)).thenReturn("1500");
+        assertEquals(parser.getAsyncTimeout(config), 1500L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetAsyncExecutor_UnknownExecutor() {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_EXECUTOR)).thenReturn("unknown");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        parser.getAsyncExecutor(config);
+    }
+
+    @Test
+    public void testGetAsyncExecutor_Virtual() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.ASYNC_EXECUTOR)).thenReturn(ServletConfigParser.ASYNC_EXECUTOR_VIRTUAL);
+
+        ServletConfigParser parser = new ServletConfigParser();
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(UnsupportedOperationException.class, () -> parser.getAsyncExecutor(config));
+            return;
+        }
+        ExecutorService executor = parser.getAsyncExecutor(config);
+        try {
+            assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetWarmUp_Disabled() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+
+        ServletConfigParser parser = new ServletConfigParser();
+        assertNull(parser.getWarmUp(config, new WarmUpProvidingMiddleware(), new DefaultContextBuilder(), new EmptyRequestExceptionHandler()));
+    }
+
+    @Test
+    public void testGetWarmUp_MiddlewareIsProvider() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ITERATIONS)).thenReturn("2");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        WarmUp warmUp = parser.getWarmUp(config, new WarmUpProvidingMiddleware(), new DefaultContextBuilder(), new EmptyRequestExceptionHandler());
+        WarmUp.Result result = warmUp.run();
+        assertEquals(result.getRequestCount(), 2);
+        assertEquals(result.getFailedRequestCount(), 0);
+    }
+
+    @Test
+    public void testGetWarmUp_ProviderClassname() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED)).thenReturn("true");
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_PROVIDER_CLASSNAME)).thenReturn(WarmUpProvidingMiddleware.class.getName());
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ITERATIONS)).thenReturn("3");
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_THREADS)).thenReturn("1");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        WarmUp warmUp = parser.getWarmUp(config, new EmptyMiddleware(), new DefaultContextBuilder(), new EmptyRequestExceptionHandler());
+        assertEquals(warmUp.run().getRequestCount(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetWarmUp_NoProvider() throws Exception {
+        ServletConfig config = mock(ServletConfig.class);
+        when(config.getInitParameter(AlpineBitsServlet.WARM_UP_ENABLED)).thenReturn("true");
+
+        ServletConfigParser parser = new ServletConfigParser();
+        parser.getWarmUp(config, new EmptyMiddleware(), new DefaultContextBuilder(), new EmptyRequestExceptionHandler());
+    }
+}
@@ -0,0 +1,172 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.impl;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.EmptyMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.ThrowingMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.WarmUpFixtures;
+import it.bz.opendatahub.alpinebits.servlet.middleware.BasicAuthenticationMiddleware;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link WarmUp} class.
+ */
+public class WarmUpTest {
+
+    private static final String VERSION = "2017-10";
+    private static final String ACTION = "OTA_Read:GuestRequests";
+    private static final String REQUEST = "<OTA_ReadRQ>äöü</OTA_ReadRQ>";
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_WhenMiddlewareIsNull() {
+        new WarmUp.Builder(null, new DefaultContextBuilder(), WarmUpFixtures.emptyProvider());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_WhenProviderIsNull() {
+        new WarmUp.Builder(new EmptyMiddleware(), new DefaultContextBuilder(), null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_WhenThreadsIsNotPositive() {
+        new WarmUp.Builder(new EmptyMiddleware(), new DefaultContextBuilder(), WarmUpFixtures.emptyProvider()).threads(0);
+    }
+
+    @Test
+    public void testRun_ShouldSendRequestsThroughMiddleware() {
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        Middleware recording = (ctx, chain) -> {
+            received.add(ctx.getOrThrow(RequestContextKey.REQUEST_VERSION) + "|"
+                    + ctx.getOrThrow(RequestContextKey.REQUEST_USERNAME) + "|"
+                    + ctx.getOrThrow(RequestContextKey.REQUEST_ACTION) + "|"
+                    + readRequest(ctx) + "|"
+                    + ctx.getOrThrow(RequestContextKey.REQUEST_WARM_UP));
+            ctx.getOrThrow(ServletContextKey.SERVLET_RESPONSE).setStatus(HttpServletResponse.SC_OK);
+        };
+        Middleware middleware = WarmUpFixtures.withProtocolMiddlewares(recording);
+        WarmUpRequest request = new WarmUpRequest.Builder(VERSION, ACTION).request(REQUEST).build();
+        WarmUpProvider provider = WarmUpFixtures.provider(Collections.emptyList(), Collections.singletonList(request));
+
+        WarmUp.Result result = new WarmUp.Builder(middleware, new DefaultContextBuilder(), provider)
+                .iterations(3)
+                .threads(2)
+                .build()
+                .run();
+
+        assertEquals(result.getRequestCount(), 3);
+        assertEquals(result.getFailedRequestCount(), 0);
+        assertTrue(result.isSuccessful());
+        assertEquals(received.size(), 3);
+        for (String value : received) {
+            assertEquals(value, VERSION + "|" + WarmUp.USERNAME + "|" + ACTION + "|" + REQUEST + "|true");
+        }
+    }
+
+    @Test
+    public void testRun_ShouldRunPreloadTasks() {
+        AtomicInteger preloaded = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(preloaded::incrementAndGet);
+        }
+        tasks.add(() -> {
+            throw new IllegalStateException("expected");
+        });
+        WarmUpProvider provider = WarmUpFixtures.provider(tasks, Collections.emptyList());
+
+        WarmUp.Result result = new WarmUp.Builder(new EmptyMiddleware(), new DefaultContextBuilder(), provider).build().run();
+
+        assertEquals(preloaded.get(), 5);
+        assertEquals(result.getPreloadCount(), 6);
+        assertEquals(result.getFailedPreloadCount(), 1);
+        assertFalse(result.isSuccessful());
+        assertEquals(result.getRequestCount(), 0);
+    }
+
+    @Test
+    public void testRun_ShouldCountFailedRequests() {
+        AtomicInteger handled = new AtomicInteger();
+        WarmUpRequest request = new WarmUpRequest.Builder(VERSION, ACTION).build();
+        WarmUpProvider provider = WarmUpFixtures.provider(Collections.emptyList(), Collections.singletonList(request));
+
+        WarmUp.Result result = new WarmUp.Builder(new ThrowingMiddleware(), new DefaultContextBuilder(), provider)
+                .requestExceptionHandler((req, res, e) -> handled.incrementAndGet())
+                .iterations(4)
+                .build()
+                .run();
+
+        assertEquals(result.getRequestCount(), 4);
+        assertEquals(result.getFailedRequestCount(), 4);
+        assertFalse(result.isSuccessful());
+        assertEquals(handled.get(), 4);
+    }
+
+    @Test
+    public void testRun_ShouldUseHeadersOfRequest() {
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        Middleware recording = (ctx, chain) -> received.add(ctx.getOrThrow(RequestContextKey.REQUEST_USERNAME));
+        WarmUpRequest request = new WarmUpRequest.Builder(VERSION, ACTION)
+                .header(BasicAuthenticationMiddleware.BASIC_AUTHENTICATION_HEADER, "Basic dXNlcjpwYXNzd29yZA==")
+                .build();
+        WarmUpProvider provider = WarmUpFixtures.provider(Collections.emptyList(), Collections.singletonList(request));
+
+        new WarmUp.Builder(WarmUpFixtures.withBasicAuthentication(recording), new DefaultContextBuilder(), provider)
+                .iterations(1)
+                .build()
+                .run();
+
+        assertEquals(new ArrayList<>(received), Collections.singletonList("user"));
+    }
+
+    @Test
+    public void testRun_ShouldStop_WhenInterrupted() {
+        WarmUpRequest request = new WarmUpRequest.Builder(VERSION, ACTION).build();
+        WarmUpProvider provider = WarmUpFixtures.provider(Collections.emptyList(), Collections.singletonList(request));
+        Thread.currentThread().interrupt();
+        try {
+            WarmUp.Result result = new WarmUp.Builder(new EmptyMiddleware(), new DefaultContextBuilder(), provider).build().run();
+            assertEquals(result.getRequestCount(), 0);
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private static String readRequest(Context ctx) {
+        try (InputStream is = ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM)) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
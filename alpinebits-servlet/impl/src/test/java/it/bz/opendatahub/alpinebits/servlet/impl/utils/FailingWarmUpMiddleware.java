@@ -0,0 +1,31 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl.utils;
+
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link Middleware}, that provides a single warm-up request and fails
+ * on each request, used for testing.
+ */
+public class FailingWarmUpMiddleware extends ThrowingMiddleware implements WarmUpProvider {
+
+    @Override
+    public List<WarmUpRequest> getWarmUpRequests() {
+        return Collections.singletonList(new WarmUpRequest.Builder("2017-10", "OTA_Ping:Handshaking").build());
+    }
+
+}
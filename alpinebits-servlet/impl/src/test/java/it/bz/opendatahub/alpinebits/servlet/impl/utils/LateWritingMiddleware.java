@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl.utils;
+
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A {@link Middleware} that blocks until {@link #RELEASED} is counted down, ignoring
+ * interrupts, and writes the response afterwards. It simulates a middleware that
+ * keeps writing after its request timed out. Used for testing.
+ */
+public class LateWritingMiddleware implements Middleware {
+
+    public static final String LATE_BODY = "late";
+
+    public static final CountDownLatch STARTED = new CountDownLatch(1);
+    public static final CountDownLatch RELEASED = new CountDownLatch(1);
+    public static final CountDownLatch WRITTEN = new CountDownLatch(1);
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        STARTED.countDown();
+        this.awaitUninterruptibly();
+        try {
+            HttpServletResponse response = ctx.getOrThrow(ServletContextKey.SERVLET_RESPONSE);
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.getOutputStream().write(LATE_BODY.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            WRITTEN.countDown();
+        }
+    }
+
+    private void awaitUninterruptibly() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                RELEASED.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl.utils;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * This class provides {@link ServletInputStream} and {@link ServletOutputStream}
+ * implementations that simulate non-blocking I/O, used for testing.
+ * <p>
+ * The streams are not ready after each read or write. The registered listener
+ * is called again (synchronously), like a container would do once the network
+ * is ready again, as long as the listener makes progress.
+ */
+public final class NonBlockingStreams {
+
+    private NonBlockingStreams() {
+        // Empty
+    }
+
+    /**
+     * Build a {@link ServletInputStream} that returns at most <code>bytesPerRead</code>
+     * bytes of the given data per read.
+     *
+     * @param data         the data returned by the stream
+     * @param bytesPerRead maximum number of bytes returned per read
+     * @return a {@link ServletInputStream}
+     */
+    public static ServletInputStream inputStream(byte[] data, int bytesPerRead) {
+        return inputStream(data, bytesPerRead, data.length);
+    }
+
+    /**
+     * Build a {@link ServletInputStream} that returns at most <code>bytesPerRead</code>
+     * bytes of the given data per read. After <code>available</code> bytes, the
+     * stream stalls, like a slow client that stops sending: it is never ready
+     * again and the listener is not called anymore.
+     *
+     * @param data         the data returned by the stream
+     * @param bytesPerRead maximum number of bytes returned per read
+     * @param available    number of bytes returned before the stream stalls
+     * @return a {@link ServletInputStream}
+     */
+    public static ServletInputStream inputStream(byte[] data, int bytesPerRead, int available) {
+        return new ServletInputStream() {
+
+            private int position;
+            private boolean ready = true;
+
+            @Override
+            public boolean isFinished() {
+                return this.position == data.length;
+            }
+
+            @Override
+            public boolean isReady() {
+                return this.ready && this.position < available;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    boolean progress = true;
+                    while (!this.isFinished() && progress) {
+                        int position = this.position;
+                        this.ready = true;
+                        readListener.onDataAvailable();
+                        progress = this.position > position;
+                    }
+                    if (this.position == available && !this.isFinished()) {
+                        return;
+                    }
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                byte[] b = new byte[1];
+                return this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (this.isFinished()) {
+                    return -1;
+                }
+                int count = Math.min(Math.min(len, bytesPerRead), available - this.position);
+                System.arraycopy(data, this.position, b, off, count);
+                this.position += count;
+                this.ready = false;
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Build a {@link ServletOutputStream} that writes to the given {@link ByteArrayOutputStream}.
+     *
+     * @param os the data is written to this stream
+     * @return a {@link ServletOutputStream}
+     */
+    public static ServletOutputStream outputStream(ByteArrayOutputStream os) {
+        return outputStream(os, Long.MAX_VALUE);
+    }
+
+    /**
+     * Build a {@link ServletOutputStream} that writes to the given {@link ByteArrayOutputStream}.
+     * After <code>accepted</code> bytes, the stream stalls, like a slow client that
+     * stops reading: it is never ready again and the listener is not called anymore.
+     *
+     * @param os       the data is written to this stream
+     * @param accepted number of bytes written before the stream stalls
+     * @return a {@link ServletOutputStream}
+     */
+    public static ServletOutputStream outputStream(ByteArrayOutputStream os, long accepted) {
+        return new ServletOutputStream() {
+
+            private boolean ready = true;
+            private boolean written;
+            private long count;
+
+            @Override
+            public boolean isReady() {
+                return this.ready && this.count < accepted;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    do {
+                        this.ready = true;
+                        this.written = false;
+                        writeListener.onWritePossible();
+                    } while (this.written);
+                } catch (IOException e) {
+                    writeListener.onError(e);
+                }
+            }
+
+            @Override
+            public void write(int b) {
+                this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                os.write(b, off, len);
+                this.count += len;
+                this.ready = false;
+                this.written = true;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl.utils;
+
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A {@link Middleware} that blocks for {@link #BLOCKING_MILLIS}, e.g. to simulate
+ * a JDBC round trip, and sets the response status afterwards. Used for testing.
+ */
+public class SleepingMiddleware implements Middleware {
+
+    public static final long BLOCKING_MILLIS = 20;
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        try {
+            Thread.sleep(BLOCKING_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        HttpServletResponse response = ctx.getOrThrow(ServletContextKey.SERVLET_RESPONSE);
+        response.setStatus(HttpServletResponse.SC_OK);
+    }
+
+}
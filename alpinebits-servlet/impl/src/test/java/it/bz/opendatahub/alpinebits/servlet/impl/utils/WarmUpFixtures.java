@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.servlet.impl.utils;
+
+import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
+import it.bz.opendatahub.alpinebits.servlet.middleware.AlpineBitsClientProtocolMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.middleware.BasicAuthenticationMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.middleware.MultipartFormDataParserMiddleware;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class provides {@link WarmUpProvider} and {@link Middleware} fixtures
+ * for warm-up tests.
+ */
+public final class WarmUpFixtures {
+
+    private WarmUpFixtures() {
+        // Empty
+    }
+
+    /**
+     * Build a {@link WarmUpProvider} without preload tasks and requests.
+     *
+     * @return the {@link WarmUpProvider}
+     */
+    public static WarmUpProvider emptyProvider() {
+        return provider(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Build a {@link WarmUpProvider} with fixed preload tasks and requests.
+     *
+     * @param tasks    the preload tasks
+     * @param requests the warm-up requests
+     * @return the {@link WarmUpProvider}
+     */
+    public static WarmUpProvider provider(List<Runnable> tasks, List<WarmUpRequest> requests) {
+        return new FixedWarmUpProvider(tasks, requests);
+    }
+
+    /**
+     * Compose the AlpineBits protocol middlewares (client protocol version,
+     * basic authentication and multipart/form-data parsing) with the given middleware.
+     *
+     * @param middleware invoked after the protocol middlewares
+     * @return the composed {@link Middleware}
+     */
+    public static Middleware withProtocolMiddlewares(Middleware middleware) {
+        return compose(
+                new AlpineBitsClientProtocolMiddleware(),
+                new BasicAuthenticationMiddleware(),
+                new MultipartFormDataParserMiddleware(),
+                middleware
+        );
+    }
+
+    /**
+     * Compose the basic authentication middleware with the given middleware.
+     *
+     * @param middleware invoked after the basic authentication middleware
+     * @return the composed {@link Middleware}
+     */
+    public static Middleware withBasicAuthentication(Middleware middleware) {
+        return compose(new BasicAuthenticationMiddleware(), middleware);
+    }
+
+    private static Middleware compose(Middleware... middlewares) {
+        return ComposingMiddlewareBuilder.compose(Arrays.asList(middlewares));
+    }
+
+    /**
+     * {@link WarmUpProvider} with fixed tasks and requests.
+     */
+    private static final class FixedWarmUpProvider implements WarmUpProvider {
+
+        private final List<Runnable> tasks;
+        private final List<WarmUpRequest> requests;
+
+        private FixedWarmUpProvider(List<Runnable> tasks, List<WarmUpRequest> requests) {
+            this.tasks = tasks;
+            this.requests = requests;
+        }
+
+        @Override
+        public List<Runnable> getPreloadTasks() {
+            return this.tasks;
+        }
+
+        @Override
+        public List<WarmUpRequest> getWarmUpRequests() {
+            return this.requests;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import it.bz.opendatahub.alpinebits.servlet.RequestTooLargeException;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import it.bz.opendatahub.alpinebits.servlet.impl.utils.MultipartFormDataRequestBuilder;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests cases for {@link GzipDecompressionMiddleware} class.
+ */
+public class GzipDecompressionMiddlewareTest {
+
+    private static final String BODY = "<OTA_HotelInvCountNotifRQ>äöü</OTA_HotelInvCountNotifRQ>";
+
+    @Test(expectedExceptions = RequiredContextKeyMissingException.class)
+    public void testHandleContext_RequestIsNull() {
+        Middleware middleware = new GzipDecompressionMiddleware();
+
+        Context ctx = new SimpleContext();
+        middleware.handleContext(ctx, null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_IfMaxDecompressedSizeIsZero() {
+        new GzipDecompressionMiddleware.Builder().maxDecompressedSize(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_IfMaxDecompressedSizeIsBelowUnlimited() {
+        new GzipDecompressionMiddleware.Builder().maxDecompressedSize(GzipDecompressionMiddleware.UNLIMITED - 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_IfMaxRatioIsNegative() {
+        new GzipDecompressionMiddleware.Builder().maxRatio(-1);
+    }
+
+    @Test
+    public void testHandleContext_ContentEncodingIsNotGzip() throws IOException {
+        HttpServletRequest request = this.buildRequest(null, BODY.getBytes(StandardCharsets.UTF_8));
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+
+        GzipDecompressionMiddleware middleware = new GzipDecompressionMiddleware();
+        middleware.handleContext(ctx, () -> assertSame(ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST), request));
+
+        assertEquals(middleware.getMetrics().getRequests(), 0);
+    }
+
+    @Test
+    public void testHandleContext_ContentEncodingIsGzip() throws IOException {
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+        HttpServletRequest request = this.buildRequest("GZip", compressed);
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+
+        GzipDecompressionMiddleware middleware = new GzipDecompressionMiddleware();
+        middleware.handleContext(ctx, () -> {
+            HttpServletRequest decompressed = ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST);
+            assertNull(decompressed.getHeader(GzipDecompressionMiddleware.CONTENT_ENCODING_HEADER));
+            assertEquals(decompressed.getContentLengthLong(), -1);
+            assertEquals(readBody(decompressed), BODY);
+        });
+
+        GzipDecompressionMetrics metrics = middleware.getMetrics();
+        assertEquals(metrics.getRequests(), 1);
+        assertEquals(metrics.getRejectedRequests(), 0);
+        assertEquals(metrics.getCompressedBytes(), compressed.length);
+        assertEquals(metrics.getInflatedBytes(), BODY.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testHandleContext_ShouldThrow_IfDecompressedSizeExceedsLimit() throws IOException {
+        GzipDecompressionMiddleware middleware = new GzipDecompressionMiddleware.Builder()
+                .maxDecompressedSize(10)
+                .build();
+
+        this.assertRejected(middleware, gzip(BODY.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testHandleContext_ShouldThrow_IfRatioExceedsLimit() throws IOException {
+        GzipDecompressionMiddleware middleware = new GzipDecompressionMiddleware.Builder()
+                .maxDecompressedSize(GzipDecompressionMiddleware.UNLIMITED)
+                .build();
+
+        // Zeros compress about 1000:1
+        this.assertRejected(middleware, gzip(new byte[4 * 1024 * 1024]));
+    }
+
+    @Test
+    public void testHandleContext_ShouldAcceptHighRatio_BelowThreshold() throws IOException {
+        GzipDecompressionMiddleware middleware = new GzipDecompressionMiddleware();
+        byte[] body = new byte[64 * 1024];
+        HttpServletRequest request = this.buildRequest(GzipDecompressionMiddleware.GZIP, gzip(body));
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+
+        middleware.handleContext(ctx, () -> assertEquals(readBody(ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST)).length(), body.length));
+
+        assertEquals(middleware.getMetrics().getInflatedBytes(), body.length);
+    }
+
+    @Test
+    public void testHandleContext_ShouldDecompressBeforeMultipartParsing() throws IOException {
+        String multipart = MultipartFormDataRequestBuilder.buildMultiPartActionAndRequest();
+        HttpServletRequest request = this.buildRequest(GzipDecompressionMiddleware.GZIP, gzip(multipart.getBytes(StandardCharsets.UTF_8)));
+        when(request.getContentType()).thenReturn(MultipartFormDataRequestBuilder.CONTENT_TYPE);
+        when(request.getMethod()).thenReturn(MultipartFormDataRequestBuilder.REQUEST_TYPE);
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+
+        Middleware multipartParser = new MultipartFormDataParserMiddleware.Builder().streaming(true).build();
+        new GzipDecompressionMiddleware().handleContext(ctx, () -> multipartParser.handleContext(ctx, () -> {
+            assertEquals(ctx.getOrThrow(RequestContextKey.REQUEST_ACTION), MultipartFormDataRequestBuilder.ALPINEBITS_ACTION_PARAM);
+            try (InputStream is = ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM)) {
+                assertEquals(new String(is.readAllBytes(), StandardCharsets.UTF_8), MultipartFormDataRequestBuilder.ALPINEBITS_REQUEST_PARAM);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private void assertRejected(GzipDecompressionMiddleware middleware, byte[] compressed) throws IOException {
+        HttpServletRequest request = this.buildRequest(GzipDecompressionMiddleware.GZIP, compressed);
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+
+        try {
+            middleware.handleContext(ctx, () -> readBody(ctx.getOrThrow(ServletContextKey.SERVLET_REQUEST)));
+            fail("Expected RequestTooLargeException");
+        } catch (RequestTooLargeException e) {
+            assertEquals(e.getCode(), RequestTooLargeException.STATUS);
+        }
+
+        assertEquals(middleware.getMetrics().getRequests(), 1);
+        assertEquals(middleware.getMetrics().getRejectedRequests(), 1);
+        assertTrue(middleware.getMetrics().getCompressedBytes() <= compressed.length);
+    }
+
+    private HttpServletRequest buildRequest(String contentEncoding, byte[] body) throws IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(GzipDecompressionMiddleware.CONTENT_ENCODING_HEADER)).thenReturn(contentEncoding);
+        when(request.getInputStream()).thenReturn(toServletInputStream(body));
+        return request;
+    }
+
+    private static String readBody(HttpServletRequest request) {
+        try (InputStream is = request.getInputStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(os)) {
+            gzip.write(bytes);
+        }
+        return os.toByteArray();
+    }
+
+    private static ServletInputStream toServletInputStream(byte[] bytes) {
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return is.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return is.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return is.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
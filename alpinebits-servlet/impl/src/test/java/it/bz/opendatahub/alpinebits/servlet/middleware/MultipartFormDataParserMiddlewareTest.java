@@ -11,12 +11,14 @@
 package it.bz.opendatahub.alpinebits.servlet.middleware;
 
 import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
 import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
 import it.bz.opendatahub.alpinebits.servlet.InvalidRequestContentTypeException;
 import it.bz.opendatahub.alpinebits.servlet.MultipartFormDataParseException;
+import it.bz.opendatahub.alpinebits.servlet.MultipartFormDataSizeLimitException;
 import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
 import it.bz.opendatahub.alpinebits.servlet.UndefinedActionException;
 import it.bz.opendatahub.alpinebits.servlet.impl.utils.MultipartFormDataRequestBuilder;
@@ -25,12 +27,16 @@ import org.apache.commons.io.IOUtils;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Test cases for {@link MultipartFormDataParserMiddleware} class.
@@ -101,14 +107,192 @@ public class MultipartFormDataParserMiddlewareTest {
         assertEquals(alpineBitsRequest, MultipartFormDataRequestBuilder.ALPINEBITS_REQUEST_PARAM);
     }
 
+    @Test(expectedExceptions = UndefinedActionException.class)
+    public void testHandleContext_Streaming_NoActionParam() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartRequestOnly();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        this.executeMiddleware(request, streaming().build());
+    }
+
+    @Test(expectedExceptions = MultipartFormDataParseException.class)
+    public void testHandleContext_Streaming_MultipartFormDataParseError() throws Exception {
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest("");
+        when(request.getContentType()).thenReturn("multipart/form-data");
+
+        this.executeMiddleware(request, streaming().build());
+    }
+
+    @Test
+    public void testHandleContext_Streaming_ActionOnly() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartActionOnly();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        Context ctx = this.executeMiddleware(request, streaming().build());
+        assertEquals(ctx.getOrThrow(RequestContextKey.REQUEST_ACTION), MultipartFormDataRequestBuilder.ALPINEBITS_ACTION_PARAM);
+        assertFalse(ctx.contains(RequestContextKey.REQUEST_CONTENT_STREAM));
+    }
+
+    @Test
+    public void testHandleContext_Streaming_RequestIsReadableInChain() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartActionAndRequest();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+        String[] content = new String[1];
+        streaming().build().handleContext(ctx, () -> content[0] = this.readRequestContent(ctx));
+
+        assertEquals(ctx.getOrThrow(RequestContextKey.REQUEST_ACTION), MultipartFormDataRequestBuilder.ALPINEBITS_ACTION_PARAM);
+        assertEquals(content[0], MultipartFormDataRequestBuilder.ALPINEBITS_REQUEST_PARAM);
+    }
+
+    @Test
+    public void testHandleContext_Streaming_RequestBeforeAction() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildActionPart()
+                + MultipartFormDataRequestBuilder.BOUNDARY + "--";
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+        String[] content = new String[1];
+        streaming().build().handleContext(ctx, () -> content[0] = this.readRequestContent(ctx));
+
+        assertEquals(ctx.getOrThrow(RequestContextKey.REQUEST_ACTION), MultipartFormDataRequestBuilder.ALPINEBITS_ACTION_PARAM);
+        assertEquals(content[0], MultipartFormDataRequestBuilder.ALPINEBITS_REQUEST_PARAM);
+    }
+
+    @Test
+    public void testHandleContext_Streaming_RequestBeforeAction_ReleasesBufferWhenRead() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildActionPart()
+                + MultipartFormDataRequestBuilder.BOUNDARY + "--";
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+        ByteChunkPool bufferPool = new ByteChunkPool(8, 1024);
+
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+        long[] inUseBeforeRead = new long[1];
+        long[] inUseAfterRead = new long[1];
+        streaming().bufferPool(bufferPool).build().handleContext(ctx, () -> {
+            inUseBeforeRead[0] = bufferPool.getInUseCount();
+            this.readRequestContent(ctx);
+            inUseAfterRead[0] = bufferPool.getInUseCount();
+        });
+
+        assertTrue(inUseBeforeRead[0] > 0);
+        assertEquals(inUseAfterRead[0], 0);
+        assertEquals(bufferPool.getInUseCount(), 0);
+    }
+
+    @Test
+    public void testHandleContext_Streaming_RequestBeforeAction_ReleasesUnreadBuffer() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildActionPart()
+                + MultipartFormDataRequestBuilder.BOUNDARY + "--";
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+        ByteChunkPool bufferPool = new ByteChunkPool(8, 1024);
+
+        // The following middlewares never read the buffered request part
+        this.executeMiddleware(request, streaming().bufferPool(bufferPool).build());
+
+        assertEquals(bufferPool.getInUseCount(), 0);
+    }
+
+    @Test
+    public void testHandleContext_Streaming_RequestBeforeActionExceedsBuffer_ReleasesBuffer() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildActionPart()
+                + MultipartFormDataRequestBuilder.BOUNDARY + "--";
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+        ByteChunkPool bufferPool = new ByteChunkPool(4, 1024);
+        Middleware middleware = streaming().maxBufferedRequestSize(10).bufferPool(bufferPool).build();
+
+        assertThrows(MultipartFormDataSizeLimitException.class, () -> this.executeMiddleware(request, middleware));
+        assertEquals(bufferPool.getInUseCount(), 0);
+    }
+
+    @Test(expectedExceptions = MultipartFormDataSizeLimitException.class)
+    public void testHandleContext_Streaming_RequestBeforeActionExceedsBuffer() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildRequestPart()
+                + MultipartFormDataRequestBuilder.buildActionPart()
+                + MultipartFormDataRequestBuilder.BOUNDARY + "--";
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        this.executeMiddleware(request, streaming().maxBufferedRequestSize(10).build());
+    }
+
+    @Test(expectedExceptions = MultipartFormDataSizeLimitException.class)
+    public void testHandleContext_Streaming_ActionTooLarge() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartActionOnly();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        this.executeMiddleware(request, streaming().maxActionSize(5).build());
+    }
+
+    @Test(expectedExceptions = MultipartFormDataSizeLimitException.class)
+    public void testHandleContext_MaxSizeExceededByContentLength() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartActionAndRequest();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+        when(request.getContentLengthLong()).thenReturn((long) s.length());
+
+        this.executeMiddleware(request, new MultipartFormDataParserMiddleware.Builder().maxSize(10).build());
+    }
+
+    @Test
+    public void testHandleContext_Streaming_MaxRequestSizeExceededWhileReading() throws Exception {
+        String s = MultipartFormDataRequestBuilder.buildMultiPartActionAndRequest();
+        HttpServletRequest request = MultipartFormDataRequestBuilder.buildRequest(s);
+
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+        boolean[] failed = new boolean[1];
+        streaming().maxRequestSize(50).build().handleContext(ctx, () -> {
+            try {
+                IOUtils.toString(ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                failed[0] = true;
+            }
+        });
+
+        assertTrue(failed[0]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_NegativeMaxSize() {
+        new MultipartFormDataParserMiddleware.Builder().maxSize(-2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_NonPositiveMaxActionSize() {
+        new MultipartFormDataParserMiddleware.Builder().maxActionSize(0);
+    }
+
     private Context executeMiddleware(HttpServletRequest request) {
+        return this.executeMiddleware(request, new MultipartFormDataParserMiddleware());
+    }
+
+    private Context executeMiddleware(HttpServletRequest request, Middleware middleware) {
         Context ctx = new SimpleContext();
         ctx.put(ServletContextKey.SERVLET_REQUEST, request);
 
-        Middleware middleware = new MultipartFormDataParserMiddleware();
         middleware.handleContext(ctx, () -> {
         });
 
         return ctx;
     }
+
+    private String readRequestContent(Context ctx) {
+        try {
+            return IOUtils.toString(ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MultipartFormDataParserMiddleware.Builder streaming() {
+        return new MultipartFormDataParserMiddleware.Builder().streaming(true);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.common.context.ResponseContextKeys;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import it.bz.opendatahub.alpinebits.servlet.ServletContextKey;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests cases for {@link ResponseCompressionMiddleware} class.
+ */
+public class ResponseCompressionMiddlewareTest {
+
+    private static final String ACTION = "OTA_HotelDescriptiveInfo:Inventory";
+    private static final String SMALL_BODY = "<OTA_HotelDescriptiveInfoRS/>";
+    private static final String LARGE_BODY = "<OTA_HotelDescriptiveInfoRS>" + "<Room/>".repeat(1000) + "</OTA_HotelDescriptiveInfoRS>";
+
+    @DataProvider(name = "acceptEncoding")
+    public static Object[][] acceptEncoding() {
+        return new Object[][]{
+                {null, null},
+                {"", null},
+                {"identity", null},
+                {"gzip", ResponseCompressionMiddleware.GZIP},
+                {"GZIP, deflate", ResponseCompressionMiddleware.GZIP},
+                {"deflate", ResponseCompressionMiddleware.DEFLATE},
+                {"gzip;q=0.5, deflate", ResponseCompressionMiddleware.DEFLATE},
+                {"gzip;q=0, deflate;q=0", null},
+                {"*", ResponseCompressionMiddleware.GZIP},
+                {"*;q=0.5, gzip;q=0", ResponseCompressionMiddleware.DEFLATE},
+                {"br, x-gzip", ResponseCompressionMiddleware.GZIP},
+        };
+    }
+
+    @Test(expectedExceptions = RequiredContextKeyMissingException.class)
+    public void testHandleContext_RequestIsNull() {
+        new ResponseCompressionMiddleware().handleContext(new SimpleContext(), null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ShouldThrow_IfLevelIsInvalid() {
+        new ResponseCompressionMiddleware.Builder().level(10);
+    }
+
+    @Test(dataProvider = "acceptEncoding")
+    public void testNegotiateEncoding(String acceptEncoding, String expected) {
+        assertEquals(ResponseCompressionMiddleware.negotiateEncoding(acceptEncoding), expected);
+    }
+
+    @Test
+    public void testHandleContext_ShouldNotCompress_IfNotAccepted() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext(null, response, os);
+
+        new ResponseCompressionMiddleware().handleContext(ctx, () -> {
+            assertSame(ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM), os);
+            write(ctx, LARGE_BODY);
+        });
+
+        assertEquals(os.toString(StandardCharsets.UTF_8), LARGE_BODY);
+        verify(response).addHeader(ResponseCompressionMiddleware.VARY_HEADER, ResponseCompressionMiddleware.ACCEPT_ENCODING_HEADER);
+        verify(response, never()).setHeader(ResponseCompressionMiddleware.CONTENT_ENCODING_HEADER, ResponseCompressionMiddleware.GZIP);
+    }
+
+    @Test
+    public void testHandleContext_ShouldCompressWithGzip() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("gzip, deflate", response, os);
+
+        new ResponseCompressionMiddleware().handleContext(ctx, () -> write(ctx, LARGE_BODY));
+
+        verify(response).setHeader(ResponseCompressionMiddleware.CONTENT_ENCODING_HEADER, ResponseCompressionMiddleware.GZIP);
+        assertEquals(read(new GZIPInputStream(new ByteArrayInputStream(os.toByteArray()))), LARGE_BODY);
+    }
+
+    @Test
+    public void testHandleContext_ShouldCompressWithDeflate() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("deflate", response, os);
+
+        new ResponseCompressionMiddleware.Builder().level(9).build().handleContext(ctx, () -> write(ctx, LARGE_BODY));
+
+        verify(response).setHeader(ResponseCompressionMiddleware.CONTENT_ENCODING_HEADER, ResponseCompressionMiddleware.DEFLATE);
+        assertEquals(read(new InflaterInputStream(new ByteArrayInputStream(os.toByteArray()))), LARGE_BODY);
+    }
+
+    @Test
+    public void testHandleContext_ShouldNotCompress_IfBodyIsSmallerThanMinSize() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("gzip", response, os);
+
+        new ResponseCompressionMiddleware().handleContext(ctx, () -> write(ctx, SMALL_BODY));
+
+        assertEquals(os.toString(StandardCharsets.UTF_8), SMALL_BODY);
+        verify(response, never()).setHeader(ResponseCompressionMiddleware.CONTENT_ENCODING_HEADER, ResponseCompressionMiddleware.GZIP);
+    }
+
+    @Test
+    public void testHandleContext_ShouldNotCompress_IfActionIsNotEnabled() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("gzip", response, os);
+
+        new ResponseCompressionMiddleware.Builder()
+                .actions("OTA_ResRetrieve:GuestRequests")
+                .build()
+                .handleContext(ctx, () -> write(ctx, LARGE_BODY));
+
+        assertEquals(os.toString(StandardCharsets.UTF_8), LARGE_BODY);
+        verify(response, never()).addHeader(ResponseCompressionMiddleware.VARY_HEADER, ResponseCompressionMiddleware.ACCEPT_ENCODING_HEADER);
+    }
+
+    @Test
+    public void testHandleContext_ShouldResetResponse_IfChainThrowsWhileCompressing() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("gzip", response, os);
+
+        try {
+            new ResponseCompressionMiddleware().handleContext(ctx, () -> {
+                write(ctx, LARGE_BODY);
+                throw new IllegalStateException("Error while writing the response");
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            verify(response).reset();
+        }
+    }
+
+    @Test
+    public void testHandleContext_ShouldDiscardBufferedBody_IfChainThrows() {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Context ctx = this.buildContext("gzip", response, os);
+
+        try {
+            new ResponseCompressionMiddleware().handleContext(ctx, () -> {
+                write(ctx, SMALL_BODY);
+                throw new IllegalStateException("Error while writing the response");
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals(os.size(), 0);
+            verify(response, never()).reset();
+        }
+    }
+
+    private Context buildContext(String acceptEncoding, HttpServletResponse response, ByteArrayOutputStream os) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(ResponseCompressionMiddleware.ACCEPT_ENCODING_HEADER)).thenReturn(acceptEncoding);
+
+        Context ctx = new SimpleContext();
+        ctx.put(ServletContextKey.SERVLET_REQUEST, request);
+        ctx.put(ServletContextKey.SERVLET_RESPONSE, response);
+        ctx.put(ResponseContextKeys.RESPONSE_CONTENT_STREAM, os);
+        ctx.put(RequestContextKey.REQUEST_ACTION, ACTION);
+        return ctx;
+    }
+
+    private static void write(Context ctx, String body) {
+        try {
+            ctx.getOrThrow(ResponseContextKeys.RESPONSE_CONTENT_STREAM).write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String read(InputStream is) throws IOException {
+        try (InputStream in = is) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
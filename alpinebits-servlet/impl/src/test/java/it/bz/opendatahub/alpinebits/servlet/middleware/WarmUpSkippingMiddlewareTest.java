@@ -0,0 +1,62 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.servlet.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests cases for {@link WarmUpSkippingMiddleware} class.
+ */
+public class WarmUpSkippingMiddlewareTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrow_WhenMiddlewareIsNull() {
+        new WarmUpSkippingMiddleware(null);
+    }
+
+    @Test
+    public void testHandleContext_ShouldSkipMiddleware_ForWarmUpRequest() {
+        AtomicBoolean invoked = new AtomicBoolean();
+        AtomicBoolean next = new AtomicBoolean();
+        Middleware middleware = new WarmUpSkippingMiddleware((ctx, chain) -> invoked.set(true));
+
+        Context ctx = new SimpleContext();
+        ctx.put(RequestContextKey.REQUEST_WARM_UP, true);
+        middleware.handleContext(ctx, () -> next.set(true));
+
+        assertFalse(invoked.get());
+        assertTrue(next.get());
+        assertTrue(WarmUpSkippingMiddleware.isWarmUp(ctx));
+    }
+
+    @Test
+    public void testHandleContext_ShouldInvokeMiddleware_ForOtherRequest() {
+        AtomicBoolean invoked = new AtomicBoolean();
+        Middleware middleware = new WarmUpSkippingMiddleware((ctx, chain) -> invoked.set(true));
+
+        Context ctx = new SimpleContext();
+        middleware.handleContext(ctx, null);
+
+        assertTrue(invoked.get());
+        assertFalse(WarmUpSkippingMiddleware.isWarmUp(ctx));
+    }
+
+}
@@ -0,0 +1,71 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.validation;
+
+/**
+ * An IncrementalValidator validates an object whose repeated child
+ * elements are provided one at a time, e.g. while they are read from
+ * a stream.
+ * <p>
+ * A validation is started with {@link #begin(Object, Object, ValidationPath)},
+ * that validates the header (the object without its repeated elements) and
+ * returns a {@link Session}. The elements are then passed to
+ * {@link Session#onElement(Object)} in document order, followed by a call
+ * to {@link Session#end()}.
+ * <p>
+ * The validation is expected to throw the same {@link ValidationException}
+ * (message and {@link ValidationPath}) as the corresponding fail-fast
+ * {@link Validator} on the complete object would.
+ *
+ * @param <H> the type of the header object
+ * @param <E> the type of the repeated elements
+ * @param <C> the type of the validation context
+ */
+public interface IncrementalValidator<H, E, C> {
+
+    /**
+     * Validate the given header and start the validation of its elements.
+     *
+     * @param header      The header to validate
+     * @param ctx         The context provides additional data needed
+     *                    for the validation
+     * @param currentPath The {@link ValidationPath} contains the
+     *                    path to the current validation
+     * @return the {@link Session} that receives the elements
+     * @throws ValidationException if the validation failed
+     */
+    Session<E> begin(H header, C ctx, ValidationPath currentPath);
+
+    /**
+     * A single incremental validation. Instances hold the validation
+     * state and must not be shared between threads.
+     *
+     * @param <E> the type of the repeated elements
+     */
+    interface Session<E> {
+
+        /**
+         * Validate the next element.
+         *
+         * @param element The element to validate
+         * @throws ValidationException if the validation failed
+         */
+        void onElement(E element);
+
+        /**
+         * Finish the validation, after all elements were passed to
+         * {@link #onElement(Object)}.
+         *
+         * @throws ValidationException if the validation failed
+         */
+        void end();
+    }
+}
@@ -20,6 +20,11 @@ import java.util.Objects;
  * It is encouraged that exceptions include the path
  * information to simplify the determination of the
  * exception cause.
+ * <p>
+ * Each instance is an immutable node that references
+ * its parent path. The string representation is only
+ * built when {@link #toString()} is called, which usually
+ * happens only if a validation fails.
  */
 public final class SimpleValidationPath implements ValidationPath {
 
@@ -29,38 +34,40 @@ public final class SimpleValidationPath implements ValidationPath {
     public static final Character OPEN_ATTRIBUTE_CHAR = '{';
     public static final Character CLOSE_ATTRIBUTE_CHAR = '}';
 
-    private final StringBuilder validationPath;
+    private static final int NO_INDEX = -1;
 
-    private SimpleValidationPath(String validationPath) {
-        if (validationPath == null) {
-            throw new IllegalArgumentException("Initial validation path required");
-        }
-        this.validationPath = new StringBuilder(validationPath);
+    private final SimpleValidationPath parent;
+    private final Segment segment;
+    private final String name;
+    private final int index;
+
+    // Rendered path, computed on first call to toString()
+    private String rendered;
+
+    private SimpleValidationPath(SimpleValidationPath parent, Segment segment, String name, int index) {
+        this.parent = parent;
+        this.segment = segment;
+        this.name = name;
+        this.index = index;
     }
 
     public static SimpleValidationPath fromPath(String begin) {
-        return new SimpleValidationPath(begin);
+        if (begin == null) {
+            throw new IllegalArgumentException("Initial validation path required");
+        }
+        return new SimpleValidationPath(null, Segment.ROOT, begin, NO_INDEX);
     }
 
     public SimpleValidationPath withElement(String path) {
-        String newPath = this.validationPath + DELIMITER + path;
-        return new SimpleValidationPath(newPath);
+        return new SimpleValidationPath(this, Segment.ELEMENT, path, NO_INDEX);
     }
 
     public SimpleValidationPath withAttribute(String path) {
-        String newPath = String.valueOf(this.validationPath) +
-                OPEN_ATTRIBUTE_CHAR +
-                path +
-                CLOSE_ATTRIBUTE_CHAR;
-        return new SimpleValidationPath(newPath);
+        return new SimpleValidationPath(this, Segment.ATTRIBUTE, path, NO_INDEX);
     }
 
     public SimpleValidationPath withIndex(int index) {
-        String newPath = String.valueOf(this.validationPath) +
-                OPEN_INDEX_CHAR +
-                index +
-                CLOSE_INDEX_CHAR;
-        return new SimpleValidationPath(newPath);
+        return new SimpleValidationPath(this, Segment.INDEX, null, index);
     }
 
     @Override
@@ -72,16 +79,52 @@ public final class SimpleValidationPath implements ValidationPath {
             return false;
         }
         SimpleValidationPath that = (SimpleValidationPath) o;
-        return Objects.equals(validationPath.toString(), that.validationPath.toString());
+        return Objects.equals(this.toString(), that.toString());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(validationPath.toString());
+        return Objects.hash(this.toString());
     }
 
     @Override
     public String toString() {
-        return this.validationPath.toString();
+        String result = this.rendered;
+        if (result == null) {
+            StringBuilder sb = new StringBuilder();
+            this.appendTo(sb);
+            result = sb.toString();
+            this.rendered = result;
+        }
+        return result;
+    }
+
+    private void appendTo(StringBuilder sb) {
+        if (this.parent != null) {
+            this.parent.appendTo(sb);
+        }
+        switch (this.segment) {
+            case ELEMENT:
+                sb.append(DELIMITER).append(this.name);
+                break;
+            case ATTRIBUTE:
+                sb.append(OPEN_ATTRIBUTE_CHAR).append(this.name).append(CLOSE_ATTRIBUTE_CHAR);
+                break;
+            case INDEX:
+                sb.append(OPEN_INDEX_CHAR).append(this.index).append(CLOSE_INDEX_CHAR);
+                break;
+            default:
+                sb.append(this.name);
+        }
+    }
+
+    /**
+     * Kind of a single path segment.
+     */
+    private enum Segment {
+        ROOT,
+        ELEMENT,
+        ATTRIBUTE,
+        INDEX
     }
 }
@@ -16,6 +16,7 @@ import it.bz.opendatahub.alpinebits.validation.ValidationHelper;
 import it.bz.opendatahub.alpinebits.validation.ValidationPath;
 import it.bz.opendatahub.alpinebits.validation.Validator;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.xmladapter.XmlDateParser;
 
 import java.time.LocalDate;
 import java.util.Comparator;
@@ -77,8 +78,8 @@ public class ClosingSeasonsOverlapValidator implements Validator<List<BaseInvCou
         private final LocalDate end;
 
         Period(String start, String end) {
-            this.start = LocalDate.parse(start);
-            this.end = LocalDate.parse(end);
+            this.start = XmlDateParser.parseDate(start);
+            this.end = XmlDateParser.parseDate(end);
         }
 
         public LocalDate getStart() {
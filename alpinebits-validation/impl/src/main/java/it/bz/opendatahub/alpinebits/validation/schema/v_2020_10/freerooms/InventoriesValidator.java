@@ -11,6 +11,7 @@
 package it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms;
 
 import it.bz.opendatahub.alpinebits.validation.ErrorMessage;
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator;
 import it.bz.opendatahub.alpinebits.validation.Names;
 import it.bz.opendatahub.alpinebits.validation.ValidationHelper;
 import it.bz.opendatahub.alpinebits.validation.ValidationPath;
@@ -23,15 +24,22 @@ import it.bz.opendatahub.alpinebits.xml.schema.ota.InvCountType;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.StatusApplicationControlType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Use this validator to validate the Inventories in AlpineBits 2020
  * FreeRooms documents.
+ * <p>
+ * The Inventory elements can be validated one at a time with
+ * {@link #begin(InvCountType, InventoriesContext, ValidationPath)}, e.g.
+ * while they are read from a stream. Apart from the closing-season
+ * elements, no Inventory elements are retained.
  *
  * @see InvCountType
  */
-public class InventoriesValidator implements Validator<InvCountType, InventoriesContext> {
+public class InventoriesValidator implements Validator<InvCountType, InventoriesContext>,
+        IncrementalValidator<InvCountType, BaseInvCountType, InventoriesContext> {
 
     public static final String ELEMENT_NAME = Names.INVENTORIES;
 
@@ -44,6 +52,15 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
 
     @Override
     public void validate(InvCountType inventories, InventoriesContext ctx, ValidationPath path) {
+        Session<BaseInvCountType> session = this.begin(inventories, ctx, path);
+        for (BaseInvCountType inventory : inventories.getInventories()) {
+            session.onElement(inventory);
+        }
+        session.end();
+    }
+
+    @Override
+    public Session<BaseInvCountType> begin(InvCountType inventories, InventoriesContext ctx, ValidationPath path) {
         VALIDATOR.expectNotNull(inventories, ErrorMessage.EXPECT_INVENTORIES_TO_BE_NOT_NULL, path);
         VALIDATOR.expectNotNull(ctx, ErrorMessage.EXPECT_CONTEXT_TO_BE_NOT_NULL, path);
 
@@ -54,33 +71,10 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
                 path.withAttribute(String.format("%s/%s", Names.HOTEL_CODE, Names.HOTEL_NAME))
         );
 
-        VALIDATOR.expectNonEmptyCollection(
-                inventories.getInventories(),
-                ErrorMessage.EXPECT_INVENTORIES_LIST_TO_BE_NOT_EMPTY,
-                path.withElement(Names.INVENTORIES_LIST)
-        );
-
-        List<BaseInvCountType> inventoryList = inventories.getInventories();
-
-        if (this.isRoomReset(ctx.getInstance(), inventoryList)) {
-            // Room reset means, that there exists only one Inventory
-            // element without any attributes and elements. This has to be validated.
-
-            this.validateRoomReset(inventoryList.get(0), path.withElement(Names.INVENTORY).withIndex(0));
-        } else {
-            // Ordinary FreeRooms update
-
-            this.validateInventories(inventoryList, ctx, path);
-        }
+        return new InventoriesSession(ctx, path);
     }
 
-    private boolean isRoomReset(String instance, List<BaseInvCountType> inventoryList) {
-        // A criteria for FreeRooms reset is, that
-        // there is only one Inventory message
-        if (inventoryList.size() != 1) {
-            return false;
-        }
-
+    private boolean isRoomResetCandidate(String instance, BaseInvCountType inventory) {
         // A criteria for FreeRooms reset is, that
         // the instance is "CompleteSet"
         if (!OTAHotelInvCountNotifRQValidator.COMPLETE_SET.equals(instance)) {
@@ -89,7 +83,6 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
 
         // A criteria for FreeRooms reset is, that
         // the single Inventory has no child element and attributes
-        BaseInvCountType inventory = inventoryList.get(0);
         return inventory.getInvCounts() == null
                 && inventory.getStatusApplicationControl() == null;
     }
@@ -107,77 +100,6 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
         );
     }
 
-    private void validateInventories(
-            List<BaseInvCountType> inventoryList,
-            InventoriesContext ctx,
-            ValidationPath path
-    ) {
-        // Helper for closing season validation
-        boolean nonClosingSeasonElementFound = false;
-
-        // Helpers to check if room / category updates are mixed (not allowed)
-        boolean hasRoom = false;
-        boolean hasCategory = false;
-
-        // Keep a list of closing-season-elements to check for overlapping time periods
-        List<BaseInvCountType> closingSeasonElements = new ArrayList<>();
-
-        for (int i = 0; i < inventoryList.size(); i++) {
-            ValidationPath indexedPath = path.withElement(Names.INVENTORY).withIndex(i);
-
-            BaseInvCountType inventory = inventoryList.get(i);
-
-            // Distinguish between closing-seasons and ordinary Inventory elements
-
-            if (this.isClosingSeasonElement(inventory, ctx)) {
-                // Validate closing-seasons element
-
-                validateClosingSeasonsElement(inventory, nonClosingSeasonElementFound, ctx, indexedPath);
-
-                // Add inventory to list of closing-season-elements that is checked later on for overlapping time periods
-                closingSeasonElements.add(inventory);
-            } else {
-                // Validate non closing-seasons element
-
-                nonClosingSeasonElementFound = true;
-
-                // Validate StatusApplicationControl
-                StatusApplicationControlType statusApplicationControl = inventory.getStatusApplicationControl();
-                this.statusApplicationControlValidator.validate(
-                        statusApplicationControl,
-                        null,
-                        indexedPath.withElement(StatusApplicationControlValidator.ELEMENT_NAME)
-                );
-
-                // Validate for room category / distinct room
-                if (this.isForRoomCategory(statusApplicationControl)) {
-                    // Validate room category availability info
-                    this.validateCategorySupport(ctx, indexedPath);
-                    hasRoom = true;
-                } else {
-                    // Validate distinct room availability info
-                    this.validateRoomsSupport(ctx, indexedPath);
-                    hasCategory = true;
-                }
-
-                // Validate inventory counts
-                this.validateInvCounts(inventory.getInvCounts(), ctx, indexedPath.withElement(Names.INV_COUNTS));
-
-                // Check that room category information and distinct room
-                // information is not mixed
-                if (hasRoom && hasCategory) {
-                    VALIDATOR.throwValidationException(
-                            ErrorMessage.EXPECT_ROOM_CATEGORY_AND_DISTINCT_ROOM_TO_NOT_BE_MIXED,
-                            path
-                    );
-                }
-            }
-        }
-
-        // Check that closing season don't overlap
-        this.closingSeasonsOverlapValidator.validate(closingSeasonElements, null, path);
-    }
-
     private boolean isClosingSeasonElement(BaseInvCountType inventory, InventoriesContext ctx) {
         return OTAHotelInvCountNotifRQValidator.COMPLETE_SET.equals(ctx.getInstance())
                 && inventory.getStatusApplicationControl() != null
@@ -306,4 +228,124 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
             VALIDATOR.throwValidationException(message, path.withAttribute(Names.COUNT_TYPE));
         }
     }
+
+    /**
+     * Validation state of a single Inventories element.
+     */
+    private final class InventoriesSession implements Session<BaseInvCountType> {
+
+        private final InventoriesContext ctx;
+        private final ValidationPath path;
+
+        // Keep a list of closing-season-elements to check for overlapping time periods
+        private final List<BaseInvCountType> closingSeasonElements = new ArrayList<>();
+
+        private int index;
+
+        // A possible room reset can only be recognized after the last element
+        private BaseInvCountType roomResetCandidate;
+
+        // Helper for closing season validation
+        private boolean nonClosingSeasonElementFound;
+
+        // Helpers to check if room / category updates are mixed (not allowed)
+        private boolean hasRoom;
+        private boolean hasCategory;
+
+        private InventoriesSession(InventoriesContext ctx, ValidationPath path) {
+            this.ctx = ctx;
+            this.path = path;
+        }
+
+        @Override
+        public void onElement(BaseInvCountType inventory) {
+            if (this.index == 0 && isRoomResetCandidate(this.ctx.getInstance(), inventory)) {
+                this.roomResetCandidate = inventory;
+                this.index++;
+                return;
+            }
+
+            // More than one Inventory element means, that this is no room reset
+            if (this.roomResetCandidate != null) {
+                this.validateInventory(this.roomResetCandidate, 0);
+                this.roomResetCandidate = null;
+            }
+
+            this.validateInventory(inventory, this.index);
+            this.index++;
+        }
+
+        @Override
+        public void end() {
+            if (this.index == 0) {
+                VALIDATOR.expectNonEmptyCollection(
+                        Collections.emptyList(),
+                        ErrorMessage.EXPECT_INVENTORIES_LIST_TO_BE_NOT_EMPTY,
+                        this.path.withElement(Names.INVENTORIES_LIST)
+                );
+            }
+
+            if (this.roomResetCandidate != null) {
+                // Room reset means, that there exists only one Inventory
+                // element without any attributes and elements. This has to be validated.
+
+                validateRoomReset(this.roomResetCandidate, this.path.withElement(Names.INVENTORY).withIndex(0));
+                return;
+            }
+
+            // Check that closing season don't overlap
+            closingSeasonsOverlapValidator.validate(this.closingSeasonElements, null, this.path);
+        }
+
+        private void validateInventory(BaseInvCountType inventory, int i) {
+            ValidationPath indexedPath = this.path.withElement(Names.INVENTORY).withIndex(i);
+
+            // Distinguish between closing-seasons and ordinary Inventory elements
+
+            if (isClosingSeasonElement(inventory, this.ctx)) {
+                // Validate closing-seasons element
+
+                validateClosingSeasonsElement(inventory, this.nonClosingSeasonElementFound, this.ctx, indexedPath);
+
+                // Add inventory to list of closing-season-elements that is checked later on for overlapping time periods
+                this.closingSeasonElements.add(inventory);
+                return;
+            }
+
+            // Validate non closing-seasons element
+
+            this.nonClosingSeasonElementFound = true;
+
+            // Validate StatusApplicationControl
+            StatusApplicationControlType statusApplicationControl = inventory.getStatusApplicationControl();
+            statusApplicationControlValidator.validate(
+                    statusApplicationControl,
+                    null,
+                    indexedPath.withElement(StatusApplicationControlValidator.ELEMENT_NAME)
+            );
+
+            // Validate for room category / distinct room
+            if (isForRoomCategory(statusApplicationControl)) {
+                // Validate room category availability info
+                validateCategorySupport(this.ctx, indexedPath);
+                this.hasRoom = true;
+            } else {
+                // Validate distinct room availability info
+                validateRoomsSupport(this.ctx, indexedPath);
+                this.hasCategory = true;
+            }
+
+            // Validate inventory counts
+            validateInvCounts(inventory.getInvCounts(), this.ctx, indexedPath.withElement(Names.INV_COUNTS));
+
+            // Check that room category information and distinct room
+            // information is not mixed
+            if (this.hasRoom && this.hasCategory) {
+                VALIDATOR.throwValidationException(
+                        ErrorMessage.EXPECT_ROOM_CATEGORY_AND_DISTINCT_ROOM_TO_NOT_BE_MIXED,
+                        this.path
+                );
+            }
+        }
+    }
 }
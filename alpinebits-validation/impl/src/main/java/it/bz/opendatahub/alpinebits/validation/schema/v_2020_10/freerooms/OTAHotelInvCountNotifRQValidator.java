@@ -11,6 +11,7 @@
 package it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms;
 
 import it.bz.opendatahub.alpinebits.validation.ErrorMessage;
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator;
 import it.bz.opendatahub.alpinebits.validation.Names;
 import it.bz.opendatahub.alpinebits.validation.SimpleValidationPath;
 import it.bz.opendatahub.alpinebits.validation.ValidationHelper;
@@ -18,15 +19,20 @@ import it.bz.opendatahub.alpinebits.validation.ValidationPath;
 import it.bz.opendatahub.alpinebits.validation.Validator;
 import it.bz.opendatahub.alpinebits.validation.context.freerooms.HotelInvCountNotifContext;
 import it.bz.opendatahub.alpinebits.validation.context.freerooms.InventoriesContext;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
 
 /**
  * Use this validator to validate the OTAHotelInvCountNotifRQ in AlpineBits 2020
  * FreeRooms documents.
+ * <p>
+ * The incremental variant validates the envelope in {@code begin} and
+ * expects the Inventory elements to be passed to the returned session.
  *
  * @see OTAHotelInvCountNotifRQ
  */
-public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCountNotifRQ, HotelInvCountNotifContext> {
+public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCountNotifRQ, HotelInvCountNotifContext>,
+        IncrementalValidator<OTAHotelInvCountNotifRQ, BaseInvCountType, HotelInvCountNotifContext> {
 
     public static final String ELEMENT_NAME = Names.OTA_HOTEL_INV_COUNT_NOTIF_RQ;
     public static final String COMPLETE_SET = "CompleteSet";
@@ -38,6 +44,19 @@ public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCo
 
     @Override
     public void validate(OTAHotelInvCountNotifRQ hotelInvCountNotifRQ, HotelInvCountNotifContext ctx, ValidationPath unused) {
+        Session<BaseInvCountType> session = this.begin(hotelInvCountNotifRQ, ctx, unused);
+        for (BaseInvCountType inventory : hotelInvCountNotifRQ.getInventories().getInventories()) {
+            session.onElement(inventory);
+        }
+        session.end();
+    }
+
+    @Override
+    public Session<BaseInvCountType> begin(
+            OTAHotelInvCountNotifRQ hotelInvCountNotifRQ,
+            HotelInvCountNotifContext ctx,
+            ValidationPath unused
+    ) {
         // Initialize validation path
         ValidationPath path = SimpleValidationPath.fromPath(ELEMENT_NAME);
 
@@ -55,7 +74,7 @@ public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCo
         );
 
         InventoriesContext inventoriesContext = this.buildInventoryContext(hotelInvCountNotifRQ, ctx);
-        this.inventoriesValidator.validate(
+        return this.inventoriesValidator.begin(
                 hotelInvCountNotifRQ.getInventories(),
                 inventoriesContext,
                 path.withElement(InventoriesValidator.ELEMENT_NAME)
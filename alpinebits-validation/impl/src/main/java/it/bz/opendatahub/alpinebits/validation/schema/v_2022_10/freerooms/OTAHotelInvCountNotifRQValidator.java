@@ -10,10 +10,12 @@
 
 package it.bz.opendatahub.alpinebits.validation.schema.v_2022_10.freerooms;
 
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator;
 import it.bz.opendatahub.alpinebits.validation.Names;
 import it.bz.opendatahub.alpinebits.validation.ValidationPath;
 import it.bz.opendatahub.alpinebits.validation.Validator;
 import it.bz.opendatahub.alpinebits.validation.context.freerooms.HotelInvCountNotifContext;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
 
 /**
@@ -22,12 +24,13 @@ import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
  *
  * @see OTAHotelInvCountNotifRQ
  */
-public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCountNotifRQ, HotelInvCountNotifContext> {
+public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCountNotifRQ, HotelInvCountNotifContext>,
+        IncrementalValidator<OTAHotelInvCountNotifRQ, BaseInvCountType, HotelInvCountNotifContext> {
 
     public static final String ELEMENT_NAME = Names.OTA_HOTEL_INV_COUNT_NOTIF_RQ;
     public static final String COMPLETE_SET = "CompleteSet";
 
-    private static final Validator<OTAHotelInvCountNotifRQ, HotelInvCountNotifContext> VALIDATION_DELEGATE =
+    private static final it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.OTAHotelInvCountNotifRQValidator VALIDATION_DELEGATE =
             new it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.OTAHotelInvCountNotifRQValidator();
 
     @Override
@@ -38,4 +41,12 @@ public class OTAHotelInvCountNotifRQValidator implements Validator<OTAHotelInvCo
         VALIDATION_DELEGATE.validate(hotelInvCountNotifRQ, ctx, unused);
     }
 
+    @Override
+    public Session<BaseInvCountType> begin(OTAHotelInvCountNotifRQ hotelInvCountNotifRQ, HotelInvCountNotifContext ctx, ValidationPath unused) {
+        // Delegate validation to AlpineBits 2020 implementation,
+        // since the validation remains the same
+
+        return VALIDATION_DELEGATE.begin(hotelInvCountNotifRQ, ctx, unused);
+    }
+
 }
@@ -10,10 +10,12 @@
 
 package it.bz.opendatahub.alpinebits.validation.schema.v_2024_10.freerooms;
 
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator;
 import it.bz.opendatahub.alpinebits.validation.Names;
 import it.bz.opendatahub.alpinebits.validation.ValidationPath;
 import it.bz.opendatahub.alpinebits.validation.Validator;
 import it.bz.opendatahub.alpinebits.validation.context.freerooms.InventoriesContext;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.InvCountType;
 
 /**
@@ -22,11 +24,12 @@ import it.bz.opendatahub.alpinebits.xml.schema.ota.InvCountType;
  *
  * @see InvCountType
  */
-public class InventoriesValidator implements Validator<InvCountType, InventoriesContext> {
+public class InventoriesValidator implements Validator<InvCountType, InventoriesContext>,
+        IncrementalValidator<InvCountType, BaseInvCountType, InventoriesContext> {
 
     public static final String ELEMENT_NAME = Names.INVENTORIES;
 
-    private static final Validator<InvCountType, InventoriesContext> VALIDATION_DELEGATE =
+    private static final it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.InventoriesValidator VALIDATION_DELEGATE =
             new it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.InventoriesValidator();
 
     @Override
@@ -37,4 +40,12 @@ public class InventoriesValidator implements Validator<InvCountType, Inventories
         VALIDATION_DELEGATE.validate(inventories, ctx, path);
     }
 
+    @Override
+    public Session<BaseInvCountType> begin(InvCountType inventories, InventoriesContext ctx, ValidationPath path) {
+        // Delegate validation to AlpineBits 2020 implementation,
+        // since the validation remains the same
+
+        return VALIDATION_DELEGATE.begin(inventories, ctx, path);
+    }
+
 }
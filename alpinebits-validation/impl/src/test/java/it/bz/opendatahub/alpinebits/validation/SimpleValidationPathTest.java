@@ -62,6 +62,28 @@ public class SimpleValidationPathTest {
         assertEquals(validationPath2.toString(), expectedPath);
     }
 
+    @Test
+    public void testToString_WithNestedSegments() {
+        ValidationPath validationPath = SimpleValidationPath.fromPath(PATH_1)
+                .withElement(PATH_2)
+                .withIndex(3)
+                .withAttribute(PATH_1);
+
+        String expectedPath = PATH_1 + SimpleValidationPath.DELIMITER + PATH_2
+                + SimpleValidationPath.OPEN_INDEX_CHAR + 3 + SimpleValidationPath.CLOSE_INDEX_CHAR
+                + SimpleValidationPath.OPEN_ATTRIBUTE_CHAR + PATH_1 + SimpleValidationPath.CLOSE_ATTRIBUTE_CHAR;
+        assertEquals(validationPath.toString(), expectedPath);
+        assertEquals(validationPath.toString(), expectedPath);
+    }
+
+    @Test
+    public void testWithElement_ShouldNotModifyParent() {
+        SimpleValidationPath parent = SimpleValidationPath.fromPath(PATH_1);
+        parent.withElement(PATH_2).withIndex(0);
+
+        assertEquals(parent.toString(), PATH_1);
+    }
+
     @Test
     public void testEquals_ShouldReturnTrue_WhenSameObject() {
         SimpleValidationPath path = SimpleValidationPath.fromPath(PATH_1);
@@ -75,6 +97,21 @@ public class SimpleValidationPathTest {
         assertEquals(path1, path2);
     }
 
+    @Test
+    public void testEquals_ShouldReturnTrue_WhenSameRenderedPath() {
+        SimpleValidationPath path1 = SimpleValidationPath.fromPath(PATH_1).withElement(PATH_2).withIndex(0);
+        SimpleValidationPath path2 = SimpleValidationPath.fromPath(PATH_1).withElement(PATH_2).withIndex(0);
+        assertEquals(path1, path2);
+        assertEquals(path1.hashCode(), path2.hashCode());
+    }
+
+    @Test
+    public void testEquals_ShouldReturnFalse_WhenDifferentPath() {
+        SimpleValidationPath path1 = SimpleValidationPath.fromPath(PATH_1).withIndex(0);
+        SimpleValidationPath path2 = SimpleValidationPath.fromPath(PATH_1).withIndex(1);
+        assertNotEquals(path1, path2);
+    }
+
     @Test
     public void testEquals_ShouldReturnFalse_WhenComparedWithNull() {
         SimpleValidationPath path = SimpleValidationPath.fromPath(PATH_1);
@@ -0,0 +1,150 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.validation;
+
+import it.bz.opendatahub.alpinebits.validation.context.freerooms.HotelInvCountNotifContext;
+import it.bz.opendatahub.alpinebits.validation.context.freerooms.InventoriesContext;
+import it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.InventoriesValidator;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType.InvCounts;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType.InvCounts.InvCount;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.InvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.StatusApplicationControlType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark that measures the cost per validated Inventory element
+ * of a FreeRooms validation with different {@link ValidationPath}
+ * implementations.
+ * <p>
+ * The <code>CONCATENATING</code> path builds a new String for every path
+ * segment, as {@link SimpleValidationPath} did before it was changed to
+ * render lazily. Use the GC profiler to see the allocation per element
+ * (<code>gc.alloc.rate.norm</code>), e.g. run with
+ * <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="-prof gc ValidationPathBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationPathBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    @Param({"CONCATENATING", "SIMPLE"})
+    private String pathType;
+
+    private final InventoriesValidator validator = new InventoriesValidator();
+
+    private InvCountType inventories;
+    private InventoriesContext ctx;
+    private ValidationPath path;
+
+    @Setup
+    public void setup() {
+        this.inventories = new InvCountType();
+        this.inventories.setHotelCode("123");
+        for (int i = 0; i < ELEMENTS; i++) {
+            this.inventories.getInventories().add(buildInventory(i));
+        }
+
+        this.ctx = new InventoriesContext(
+                null,
+                new HotelInvCountNotifContext.Builder().withRoomsSupport().withOutOfOrderSupport().build()
+        );
+
+        this.path = "SIMPLE".equals(this.pathType)
+                ? SimpleValidationPath.fromPath(Names.INVENTORIES)
+                : new ConcatenatingValidationPath(Names.INVENTORIES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void validateInventories() {
+        this.validator.validate(this.inventories, this.ctx, this.path);
+    }
+
+    private static BaseInvCountType buildInventory(int i) {
+        StatusApplicationControlType statusApplicationControl = new StatusApplicationControlType();
+        statusApplicationControl.setStart("2022-08-01");
+        statusApplicationControl.setEnd("2022-08-10");
+        statusApplicationControl.setInvTypeCode("DZ");
+        statusApplicationControl.setInvCode("R" + i);
+
+        InvCounts invCounts = new InvCounts();
+        invCounts.getInvCounts().add(buildInvCount("2"));
+        invCounts.getInvCounts().add(buildInvCount("6"));
+
+        BaseInvCountType inventory = new BaseInvCountType();
+        inventory.setStatusApplicationControl(statusApplicationControl);
+        inventory.setInvCounts(invCounts);
+        return inventory;
+    }
+
+    private static InvCount buildInvCount(String countType) {
+        InvCount invCount = new InvCount();
+        invCount.setCountType(countType);
+        invCount.setCount(BigInteger.ONE);
+        return invCount;
+    }
+
+    /**
+     * {@link ValidationPath} that eagerly concatenates the path String for
+     * every segment. This was the behaviour of {@link SimpleValidationPath}
+     * before it was changed to render lazily.
+     */
+    private static final class ConcatenatingValidationPath implements ValidationPath {
+
+        private final String validationPath;
+
+        private ConcatenatingValidationPath(String validationPath) {
+            this.validationPath = validationPath;
+        }
+
+        @Override
+        public ValidationPath withElement(String path) {
+            return new ConcatenatingValidationPath(this.validationPath + SimpleValidationPath.DELIMITER + path);
+        }
+
+        @Override
+        public ValidationPath withAttribute(String path) {
+            return new ConcatenatingValidationPath(this.validationPath + SimpleValidationPath.OPEN_ATTRIBUTE_CHAR
+                    + path + SimpleValidationPath.CLOSE_ATTRIBUTE_CHAR);
+        }
+
+        @Override
+        public ValidationPath withIndex(int index) {
+            return new ConcatenatingValidationPath(this.validationPath + SimpleValidationPath.OPEN_INDEX_CHAR
+                    + index + SimpleValidationPath.CLOSE_INDEX_CHAR);
+        }
+
+        @Override
+        public String toString() {
+            return this.validationPath;
+        }
+    }
+}
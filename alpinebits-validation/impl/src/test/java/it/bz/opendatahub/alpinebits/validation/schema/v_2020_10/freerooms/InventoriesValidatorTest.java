@@ -12,6 +12,7 @@ package it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms;
 
 import it.bz.opendatahub.alpinebits.validation.EmptyCollectionValidationException;
 import it.bz.opendatahub.alpinebits.validation.ErrorMessage;
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator.Session;
 import it.bz.opendatahub.alpinebits.validation.Names;
 import it.bz.opendatahub.alpinebits.validation.NullValidationException;
 import it.bz.opendatahub.alpinebits.validation.SimpleValidationPath;
@@ -29,6 +30,8 @@ import org.testng.annotations.Test;
 import java.util.Arrays;
 
 import static it.bz.opendatahub.alpinebits.validation.schema.common.ValidationUtil.validateAndAssert;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
 
 /**
  * Tests for {@link InventoriesValidator}.
@@ -322,6 +325,75 @@ public class InventoriesValidatorTest {
         );
     }
 
+    @Test
+    public void testBegin_ShouldAcceptRoomReset() {
+        InventoriesContext ctx = new InventoriesContext(
+                OTAHotelInvCountNotifRQValidator.COMPLETE_SET,
+                new HotelInvCountNotifContext.Builder().build()
+        );
+
+        Session<BaseInvCountType> session = VALIDATOR.begin(this.buildValidInventories(), ctx, VALIDATION_PATH);
+        session.onElement(new BaseInvCountType());
+        session.end();
+    }
+
+    @Test
+    public void testBegin_ShouldThrow_WhenRoomResetCandidateIsFollowedByOtherElements() {
+        InvCountType inventories = this.buildValidInventories(new BaseInvCountType(), this.buildValidInventoryForRooms());
+
+        InventoriesContext ctx = new InventoriesContext(
+                OTAHotelInvCountNotifRQValidator.COMPLETE_SET,
+                new HotelInvCountNotifContext.Builder().withRoomsSupport().build()
+        );
+
+        Exception expected = expectThrows(ValidationException.class, () -> VALIDATOR.validate(inventories, ctx, VALIDATION_PATH));
+        Exception actual = expectThrows(ValidationException.class, () -> this.validateIncremental(inventories, ctx));
+
+        assertEquals(actual.getMessage(), expected.getMessage());
+    }
+
+    @Test
+    public void testBegin_ShouldThrow_WhenInventoryListIsEmpty() {
+        InvCountType inventories = this.buildValidInventories();
+
+        InventoriesContext ctx = new InventoriesContext(null, null);
+
+        Exception expected = expectThrows(
+                EmptyCollectionValidationException.class, () -> VALIDATOR.validate(inventories, ctx, VALIDATION_PATH)
+        );
+        Exception actual = expectThrows(
+                EmptyCollectionValidationException.class, () -> this.validateIncremental(inventories, ctx)
+        );
+
+        assertEquals(actual.getMessage(), expected.getMessage());
+    }
+
+    @Test
+    public void testBegin_ShouldThrow_WhenCategoriesAndRoomsAreMixed() {
+        InvCountType inventories = this.buildValidInventories(
+                this.buildValidInventoryForCategories(),
+                this.buildValidInventoryForRooms()
+        );
+
+        InventoriesContext ctx = new InventoriesContext(
+                null,
+                new HotelInvCountNotifContext.Builder().withCategoriesSupport().withRoomsSupport().build()
+        );
+
+        Exception expected = expectThrows(ValidationException.class, () -> VALIDATOR.validate(inventories, ctx, VALIDATION_PATH));
+        Exception actual = expectThrows(ValidationException.class, () -> this.validateIncremental(inventories, ctx));
+
+        assertEquals(actual.getMessage(), expected.getMessage());
+    }
+
+    private void validateIncremental(InvCountType inventories, InventoriesContext ctx) {
+        Session<BaseInvCountType> session = VALIDATOR.begin(inventories, ctx, VALIDATION_PATH);
+        for (BaseInvCountType inventory : inventories.getInventories()) {
+            session.onElement(inventory);
+        }
+        session.end();
+    }
+
     private void throwOnDuplicateCountType(String countType) {
         InvCounts invCounts = new InvCounts();
         for (int i = 0; i < 2; i++) {
@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.fromxml;
+
+import it.bz.opendatahub.alpinebits.validation.IncrementalValidator.Session;
+import it.bz.opendatahub.alpinebits.validation.ValidationException;
+import it.bz.opendatahub.alpinebits.validation.XmlSchemaType;
+import it.bz.opendatahub.alpinebits.validation.context.freerooms.HotelInvCountNotifContext;
+import it.bz.opendatahub.alpinebits.validation.schema.v_2020_10.freerooms.OTAHotelInvCountNotifRQValidator;
+import it.bz.opendatahub.alpinebits.xml.JAXBXmlToObjectConverter;
+import it.bz.opendatahub.alpinebits.xml.XmlConversionException;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStream;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStreamConverter;
+import it.bz.opendatahub.alpinebits.xml.XmlValidationSchemaProvider;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.io.InputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests that the incremental validation of streamed OTAHotelInvCountNotifRQ
+ * XML documents yields the same results as the validation of the complete
+ * documents.
+ */
+public class FreeRoomsStreamingFromXmlTest {
+
+    private final Schema xsdSchema = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2020-10");
+    private final Schema rngSchema = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2020-10");
+
+    private final OTAHotelInvCountNotifRQValidator validator = new OTAHotelInvCountNotifRQValidator();
+
+    @Test(dataProvider = "xml", dataProviderClass = XmlDataProvider.class)
+    public void testXml(String xmlFile, HotelInvCountNotifContext ctx, XmlSchemaType xmlSchemaType, Class<Exception> exceptionClass) {
+        Schema schema = XmlSchemaType.XSD_SCHEMA.equals(xmlSchemaType) ? this.xsdSchema : this.rngSchema;
+
+        Exception expected = this.validateComplete(xmlFile, schema, ctx);
+        Exception actual = this.validateStreamed(xmlFile, schema, ctx);
+
+        if (expected == null) {
+            assertNull(actual);
+        } else if (expected instanceof ValidationException) {
+            // Schema valid documents must produce the same validation error
+            assertNotNull(actual);
+            assertEquals(actual.getClass(), expected.getClass());
+            assertEquals(actual.getMessage(), expected.getMessage());
+        } else {
+            // Schema errors may be detected after a validation error on an
+            // earlier element, since the document is validated while it is read
+            assertNotNull(actual);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private Exception validateComplete(String xmlFile, Schema schema, HotelInvCountNotifContext ctx) {
+        try {
+            OTAHotelInvCountNotifRQ rq = new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class)
+                    .schema(schema)
+                    .build()
+                    .toObject(this.open(xmlFile));
+            this.validator.validate(rq, ctx, null);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private Exception validateStreamed(String xmlFile, Schema schema, HotelInvCountNotifContext ctx) {
+        XmlElementStreamConverter<OTAHotelInvCountNotifRQ, BaseInvCountType> converter = XmlElementStreamConverter.inventories()
+                .schema(schema)
+                .build();
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = converter.open(this.open(xmlFile))) {
+            Session<BaseInvCountType> session = this.validator.begin(stream.getEnvelope(), ctx, null);
+            while (stream.hasNext()) {
+                session.onElement(stream.next());
+            }
+            session.end();
+            return null;
+        } catch (ValidationException | XmlConversionException e) {
+            return e;
+        }
+    }
+
+    private InputStream open(String xmlFile) {
+        return this.getClass().getClassLoader().getResourceAsStream("examples/v_2020_10/freerooms/" + xmlFile);
+    }
+
+}
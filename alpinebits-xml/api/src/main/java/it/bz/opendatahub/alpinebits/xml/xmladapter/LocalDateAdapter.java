@@ -20,7 +20,7 @@ import java.time.LocalDate;
 public class LocalDateAdapter extends XmlAdapter<String, LocalDate> {
     @Override
     public LocalDate unmarshal(String v) {
-        return LocalDate.parse(v);
+        return XmlDateParser.parseDate(v);
     }
 
     @Override
@@ -0,0 +1,65 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.xmladapter;
+
+import java.time.LocalDate;
+
+/**
+ * Bounded cache of parsed dates, keyed by their text.
+ * <p>
+ * The cache is direct-mapped: each text has exactly one slot, determined by
+ * its hash code, and a new entry replaces the previous one in that slot.
+ * Entries are immutable, such that the cache can be shared by all threads
+ * without locking. A lost update only costs an additional parse.
+ */
+final class LocalDateCache {
+
+    static final int DEFAULT_SIZE = 1024;
+
+    private final Entry[] entries;
+    private final int mask;
+
+    LocalDateCache(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("The cache size must be a positive power of two");
+        }
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    LocalDate get(String text) {
+        Entry entry = this.entries[this.slot(text)];
+        return entry != null && entry.text.equals(text) ? entry.date : null;
+    }
+
+    void put(String text, LocalDate date) {
+        this.entries[this.slot(text)] = new Entry(text, date);
+    }
+
+    private int slot(String text) {
+        int hash = text.hashCode();
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    /**
+     * Immutable cache entry, safely published through its final fields.
+     */
+    private static final class Entry {
+
+        private final String text;
+        private final LocalDate date;
+
+        private Entry(String text, LocalDate date) {
+            this.text = text;
+            this.date = date;
+        }
+    }
+}
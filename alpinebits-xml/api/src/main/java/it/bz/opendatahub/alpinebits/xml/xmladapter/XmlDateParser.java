@@ -0,0 +1,267 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.xmladapter;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Parsers for the <code>xs:date</code> and <code>xs:dateTime</code> values
+ * found in AlpineBits documents.
+ * <p>
+ * The common forms (<code>2024-10-01</code>, <code>2024-10-01T12:00:00</code>
+ * with optional fraction and offset) are parsed by hand, without the
+ * intermediate objects created by {@link DateTimeFormatter}. All other values
+ * are parsed by the JDK parsers, such that results and exceptions are the same
+ * as those of {@link LocalDate#parse(CharSequence)} and
+ * {@link ZonedDateTimeAdapter#unmarshal(String)}.
+ * <p>
+ * Dates are interned in a small cache, since documents like FreeRooms
+ * repeat the same dates many times.
+ */
+public final class XmlDateParser {
+
+    private static final LocalDateCache DATE_CACHE = new LocalDateCache(LocalDateCache.DEFAULT_SIZE);
+
+    private static final int DATE_LENGTH = 10;
+    private static final int MIN_DATE_TIME_LENGTH = 16;
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private XmlDateParser() {
+        // Empty
+    }
+
+    /**
+     * Parse an <code>xs:date</code> value of the form <code>yyyy-MM-dd</code>.
+     *
+     * @param text the text to parse
+     * @return the {@link LocalDate}
+     * @throws java.time.format.DateTimeParseException if the text cannot be parsed
+     * @throws NullPointerException                    if text is null
+     */
+    public static LocalDate parseDate(String text) {
+        LocalDate cached = DATE_CACHE.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        LocalDate date = parseDateUncached(text);
+        DATE_CACHE.put(text, date);
+        return date;
+    }
+
+    /**
+     * Parse an <code>xs:date</code> value of the form <code>yyyy-MM-dd</code>,
+     * without using the cache.
+     *
+     * @param text the text to parse
+     * @return the {@link LocalDate}
+     * @throws java.time.format.DateTimeParseException if the text cannot be parsed
+     * @throws NullPointerException                    if text is null
+     */
+    public static LocalDate parseDateUncached(String text) {
+        if (text.length() == DATE_LENGTH) {
+            LocalDate date = fastDate(text);
+            if (date != null) {
+                return date;
+            }
+        }
+        return LocalDate.parse(text);
+    }
+
+    /**
+     * Parse an <code>xs:dateTime</code> value. Values with offset keep that
+     * offset, values without offset are interpreted in the system timezone.
+     *
+     * @param text the text to parse
+     * @return the {@link ZonedDateTime}
+     * @throws java.time.format.DateTimeParseException if the text cannot be parsed
+     * @throws NullPointerException                    if text is null
+     */
+    public static ZonedDateTime parseDateTime(String text) {
+        ZonedDateTime dateTime = text.length() >= MIN_DATE_TIME_LENGTH ? fastDateTime(text) : null;
+        if (dateTime != null) {
+            return dateTime;
+        }
+        return slowDateTime(text);
+    }
+
+    /**
+     * Parse the text with the JDK parsers.
+     */
+    static ZonedDateTime slowDateTime(String text) {
+        if (isParsableAsZonedDateTime(text)) {
+            // If the String contains a parsable timezone, it is parsed with that timezone
+            return ZonedDateTime.parse(text, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        }
+        // If the String contains no parsable timezone, it is parsed with the system timezone
+        return LocalDateTime.parse(text).atZone(ZoneId.systemDefault());
+    }
+
+    /**
+     * Check if the text can be parsed with {@link DateTimeFormatter#ISO_ZONED_DATE_TIME}.
+     */
+    static boolean isParsableAsZonedDateTime(CharSequence text) {
+        ParsePosition pos = new ParsePosition(0);
+        TemporalAccessor temporalAccessor = DateTimeFormatter.ISO_ZONED_DATE_TIME.parseUnresolved(text, pos);
+        return temporalAccessor != null && pos.getErrorIndex() < 0 && pos.getIndex() >= text.length();
+    }
+
+    /**
+     * Parse <code>yyyy-MM-dd</code> at the start of the text, returns null
+     * if the text has a different form or an invalid value.
+     */
+    private static LocalDate fastDate(String text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            // Let the JDK parser report the error
+            return null;
+        }
+    }
+
+    /**
+     * Parse <code>yyyy-MM-ddTHH:mm[:ss[.SSSSSSSSS]][Z|+HH:mm|-HH:mm]</code>, returns
+     * null if the text has a different form or an invalid value.
+     */
+    private static ZonedDateTime fastDateTime(String text) {
+        LocalDate date = fastDate(text);
+        if (date == null || text.charAt(DATE_LENGTH) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = 0;
+        int nano = 0;
+        int pos = 16;
+        if (hasChar(text, pos, ':')) {
+            second = digits(text, pos + 1, pos + 3);
+            pos += 3;
+            if (hasChar(text, pos, '.')) {
+                int end = fractionEnd(text, pos + 1);
+                nano = nanos(text, pos + 1, end);
+                pos = end;
+            }
+        }
+        ZoneId zone = zone(text, pos);
+        // A negative value marks a component, that could not be parsed
+        if ((hour | minute | second | nano) < 0 || zone == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), hour, minute, second, nano, zone);
+        } catch (DateTimeException e) {
+            // Let the JDK parser report the error
+            return null;
+        }
+    }
+
+    /**
+     * Parse the offset starting at the given position, returns the system timezone
+     * if there is no offset and null if the offset has a different form.
+     */
+    private static ZoneId zone(String text, int pos) {
+        int remaining = text.length() - pos;
+        if (remaining == 0) {
+            return ZoneId.systemDefault();
+        }
+        if (remaining == 1 && text.charAt(pos) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+        if (remaining != 6 || text.charAt(pos + 3) != ':') {
+            return null;
+        }
+        return offset(text.charAt(pos), digits(text, pos + 1, pos + 3), digits(text, pos + 4, pos + 6));
+    }
+
+    private static ZoneOffset offset(char sign, int hours, int minutes) {
+        if ((hours | minutes) < 0) {
+            return null;
+        }
+        try {
+            if (sign == '+') {
+                return ZoneOffset.ofHoursMinutes(hours, minutes);
+            }
+            if (sign == '-') {
+                return ZoneOffset.ofHoursMinutes(-hours, -minutes);
+            }
+            return null;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Find the end of the fraction digits starting at the given position. At most
+     * one digit more than supported is consumed, such that too long fractions are detected.
+     */
+    private static int fractionEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && end - start <= MAX_FRACTION_DIGITS && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Convert the fraction digits to nanoseconds, returns -1 if the number of digits is not supported.
+     */
+    private static int nanos(String text, int start, int end) {
+        int fractionDigits = end - start;
+        if (fractionDigits == 0 || fractionDigits > MAX_FRACTION_DIGITS) {
+            return -1;
+        }
+        return digits(text, start, end) * POWERS_OF_TEN[MAX_FRACTION_DIGITS - fractionDigits];
+    }
+
+    private static boolean hasChar(String text, int pos, char c) {
+        return pos < text.length() && text.charAt(pos) == c;
+    }
+
+    /**
+     * Parse the digits between start (inclusive) and end (exclusive), returns -1
+     * if the range exceeds the text or contains a character that is not a digit.
+     */
+    private static int digits(String text, int start, int end) {
+        if (end > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -12,12 +12,8 @@ package it.bz.opendatahub.alpinebits.xml.xmladapter;
 
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
-import java.text.ParsePosition;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
 
 /**
  * XML adapter to convert xs:dateTime values to {@link ZonedDateTime}.
@@ -25,14 +21,8 @@ import java.time.temporal.TemporalAccessor;
 public class ZonedDateTimeAdapter extends XmlAdapter<String, ZonedDateTime> {
     @Override
     public ZonedDateTime unmarshal(String v) {
-
-        if (this.isParsableAsZonedDateTime(v)) {
-            // If the String contains a parsable timezone, it is parsed with that timezone
-            return ZonedDateTime.parse(v, DateTimeFormatter.ISO_ZONED_DATE_TIME);
-        } else {
-            // If the String contains no parsable timezone, it is parsed with the system timezone
-            return LocalDateTime.parse(v).atZone(ZoneId.systemDefault());
-        }
+        // Values with timezone keep that timezone, values without are parsed with the system timezone
+        return XmlDateParser.parseDateTime(v);
     }
 
     @Override
@@ -41,8 +31,6 @@ public class ZonedDateTimeAdapter extends XmlAdapter<String, ZonedDateTime> {
     }
 
     public boolean isParsableAsZonedDateTime(final CharSequence text) {
-        ParsePosition pos = new ParsePosition(0);
-        TemporalAccessor temporalAccessor = DateTimeFormatter.ISO_ZONED_DATE_TIME.parseUnresolved(text, pos);
-        return temporalAccessor != null && pos.getErrorIndex() < 0 && pos.getIndex() >= text.length();
+        return XmlDateParser.isParsableAsZonedDateTime(text);
     }
 }
@@ -0,0 +1,137 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.xmladapter;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Test cases for {@link XmlDateParser} class.
+ */
+public class XmlDateParserTest {
+
+    @DataProvider(name = "validDates")
+    public static Object[][] validDates() {
+        return new Object[][]{
+                {"2024-10-01"},
+                {"2024-02-29"},
+                {"0001-01-01"},
+                {"9999-12-31"},
+                {"+10000-01-01"},
+        };
+    }
+
+    @DataProvider(name = "invalidDates")
+    public static Object[][] invalidDates() {
+        return new Object[][]{
+                {""},
+                {"2024-1-01"},
+                {"2023-02-29"},
+                {"2024-13-01"},
+                {"2024-10-32"},
+                {"2024/10/01"},
+                {"2024-10-0a"},
+                {"2024-10-01Z"},
+                {" 2024-10-01"},
+        };
+    }
+
+    @DataProvider(name = "validDateTimes")
+    public static Object[][] validDateTimes() {
+        return new Object[][]{
+                {"2024-10-01T12:30:15"},
+                {"2024-10-01T12:30"},
+                {"2024-10-01T12:30:15Z"},
+                {"2024-10-01T12:30Z"},
+                {"2024-10-01T12:30:15+01:00"},
+                {"2024-10-01T12:30:15-05:30"},
+                {"2024-10-01T12:30:15-00:00"},
+                {"2024-10-01T12:30:15.1+02:00"},
+                {"2024-10-01T12:30:15.123456789Z"},
+                {"2024-10-01T00:00:00.000"},
+                {"2024-10-01T12:30:15+01"},
+                {"2024-10-01T12:30:15+01:00:30"},
+                {"2024-10-01T12:30:15+01:00[Europe/Rome]"},
+                {"2024-10-01t12:30:15"},
+        };
+    }
+
+    @DataProvider(name = "invalidDateTimes")
+    public static Object[][] invalidDateTimes() {
+        return new Object[][]{
+                {"2024-10-01"},
+                {"2024-10-01T"},
+                {"2024-10-01T24:00:00"},
+                {"2024-10-01T12:60:00"},
+                {"2024-10-01T12:30:15.1234567890Z"},
+                {"2024-10-01T12:30:15+19:00"},
+                {"2024-10-01T12:30:15 "},
+                {"2024-02-30T12:30:15"},
+        };
+    }
+
+    @Test(dataProvider = "validDates")
+    public void testParseDate_ShouldBeEqualToJdk(String text) {
+        assertEquals(XmlDateParser.parseDate(text), LocalDate.parse(text));
+        assertEquals(XmlDateParser.parseDateUncached(text), LocalDate.parse(text));
+    }
+
+    @Test(dataProvider = "invalidDates")
+    public void testParseDate_ShouldThrow_WhenDateIsInvalid(String text) {
+        assertThrows(DateTimeParseException.class, () -> LocalDate.parse(text));
+        assertThrows(DateTimeParseException.class, () -> XmlDateParser.parseDate(text));
+    }
+
+    @Test(dataProvider = "validDateTimes")
+    public void testParseDateTime_ShouldBeEqualToJdk(String text) {
+        ZonedDateTime expected = XmlDateParser.slowDateTime(text);
+        ZonedDateTime actual = XmlDateParser.parseDateTime(text);
+        assertEquals(actual, expected);
+        assertEquals(actual.getZone(), expected.getZone());
+    }
+
+    @Test(dataProvider = "invalidDateTimes")
+    public void testParseDateTime_ShouldThrow_WhenDateTimeIsInvalid(String text) {
+        assertThrows(DateTimeParseException.class, () -> XmlDateParser.slowDateTime(text));
+        assertThrows(DateTimeParseException.class, () -> XmlDateParser.parseDateTime(text));
+    }
+
+    @Test
+    public void testParseDate_ShouldReturnCachedDate() {
+        LocalDate date = XmlDateParser.parseDate(new String("2024-10-02"));
+        assertSame(XmlDateParser.parseDate(new String("2024-10-02")), date);
+    }
+
+    @Test
+    public void testLocalDateCache_ShouldReplaceEntryInSameSlot() {
+        LocalDateCache cache = new LocalDateCache(1);
+        LocalDate first = LocalDate.of(2024, 10, 1);
+        cache.put("2024-10-01", first);
+        assertSame(cache.get("2024-10-01"), first);
+
+        cache.put("2024-10-02", LocalDate.of(2024, 10, 2));
+        assertNull(cache.get("2024-10-01"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLocalDateCache_ShouldThrow_WhenSizeIsNoPowerOfTwo() {
+        new LocalDateCache(3);
+    }
+}
@@ -0,0 +1,106 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.ls.DOMImplementationLS;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the includes and imports of a schema, that was loaded from the
+ * classpath, against the classpath.
+ * <p>
+ * A relative <code>schemaLocation</code> is resolved against the resource name
+ * of the including schema, and the result is loaded with the {@link ClassLoader}.
+ * That way, a schema can include schemas packaged in a different JAR file.
+ * Locations that can not be resolved this way are left to the default handling.
+ * <p>
+ * An instance must only be used for a single schema compilation.
+ */
+final class ClasspathResourceResolver implements LSResourceResolver {
+
+    private static final String BASE_SCHEME = "classpath:/";
+
+    private final ClassLoader classLoader;
+    private final DOMImplementationLS domImplementation;
+
+    // Maps the system IDs of loaded schemas to their resource names
+    private final Map<String, String> resourceNames = new ConcurrentHashMap<>();
+
+    ClasspathResourceResolver(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        this.domImplementation = newDomImplementation();
+    }
+
+    /**
+     * Register a schema loaded from the classpath, such that its includes
+     * can be resolved against its resource name.
+     *
+     * @param resourceName the resource name of the schema
+     * @return the URL of the schema, or null if it could not be found
+     */
+    URL register(String resourceName) {
+        URL url = this.classLoader.getResource(resourceName);
+        if (url != null) {
+            this.resourceNames.put(url.toString(), resourceName);
+        }
+        return url;
+    }
+
+    @Override
+    public LSInput resolveResource(String type, String namespaceURI, String publicId, String systemId, String baseURI) {
+        String baseName = baseURI == null ? null : this.resourceNames.get(baseURI);
+        if (baseName == null || systemId == null) {
+            return null;
+        }
+        URI resolved = URI.create(BASE_SCHEME + baseName).resolve(systemId).normalize();
+        if (!resolved.toString().startsWith(BASE_SCHEME)) {
+            // Absolute location
+            return null;
+        }
+        String resourceName = resolved.getPath().substring(1);
+        URL url = this.register(resourceName);
+        if (url == null) {
+            return null;
+        }
+
+        LSInput input = this.domImplementation.createLSInput();
+        input.setPublicId(publicId);
+        input.setSystemId(url.toString());
+        input.setBaseURI(baseURI);
+        try {
+            input.setByteStream(url.openStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading schema " + resourceName, e);
+        }
+        return input;
+    }
+
+    private static DOMImplementationLS newDomImplementation() {
+        try {
+            DOMImplementation implementation = DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+            return (DOMImplementationLS) implementation;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("No DOM implementation available", e);
+        }
+    }
+}
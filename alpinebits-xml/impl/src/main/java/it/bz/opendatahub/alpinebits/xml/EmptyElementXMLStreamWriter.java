@@ -0,0 +1,253 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link XMLStreamWriter} that writes elements without content as
+ * empty elements (e.g. <code>&lt;Inventory/&gt;</code>), the same way
+ * as JAXB does.
+ * <p>
+ * A start element is held back, together with its attributes and
+ * namespace declarations, until it is known if the element has content.
+ */
+final class EmptyElementXMLStreamWriter extends DelegatingXMLStreamWriter {
+
+    private final List<Operation> pendingOperations = new ArrayList<>();
+
+    private String pendingPrefix;
+    private String pendingLocalName;
+    private String pendingNamespaceURI;
+    private boolean pending;
+
+    EmptyElementXMLStreamWriter(XMLStreamWriter delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        this.writeStartElement(null, localName, null);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.flushPending(false);
+        this.writeStartElement(super.getPrefix(namespaceURI), localName, namespaceURI);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.flushPending(false);
+        this.pendingPrefix = prefix;
+        this.pendingLocalName = localName;
+        this.pendingNamespaceURI = namespaceURI;
+        this.pending = true;
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        if (this.pending) {
+            this.flushPending(true);
+            return;
+        }
+        super.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        this.flushPending(false);
+        super.writeEndDocument();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        this.flushPending(false);
+        super.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        this.flushPending(false);
+        super.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.writeAttribute(localName, value));
+            return;
+        }
+        super.writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.writeAttribute(prefix, namespaceURI, localName, value));
+            return;
+        }
+        super.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.writeAttribute(namespaceURI, localName, value));
+            return;
+        }
+        super.writeAttribute(namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.writeNamespace(prefix, namespaceURI));
+            return;
+        }
+        super.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.writeDefaultNamespace(namespaceURI));
+            return;
+        }
+        super.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.setPrefix(prefix, uri));
+            return;
+        }
+        super.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        if (this.pending) {
+            this.pendingOperations.add(w -> w.setDefaultNamespace(uri));
+            return;
+        }
+        super.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeCData(data);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        this.flushPending(false);
+        super.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        // The namespace bindings of the held back element must be visible
+        this.flushPending(false);
+        return super.getPrefix(uri);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        try {
+            this.flushPending(false);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+        return super.getNamespaceContext();
+    }
+
+    private void flushPending(boolean empty) throws XMLStreamException {
+        if (!this.pending) {
+            return;
+        }
+        this.pending = false;
+        XMLStreamWriter delegate = this.getDelegate();
+        String prefix = this.pendingPrefix == null ? "" : this.pendingPrefix;
+        String namespaceURI = this.pendingNamespaceURI == null ? "" : this.pendingNamespaceURI;
+        if (empty) {
+            delegate.writeEmptyElement(prefix, this.pendingLocalName, namespaceURI);
+        } else {
+            delegate.writeStartElement(prefix, this.pendingLocalName, namespaceURI);
+        }
+        for (Operation operation : this.pendingOperations) {
+            operation.apply(delegate);
+        }
+        this.pendingOperations.clear();
+    }
+
+    /**
+     * Held back write operation.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        void apply(XMLStreamWriter writer) throws XMLStreamException;
+    }
+}
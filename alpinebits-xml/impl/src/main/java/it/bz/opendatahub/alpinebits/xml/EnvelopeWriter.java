@@ -0,0 +1,117 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.stax.StaxSupport;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Copies parts of an XML document read from a {@link XMLStreamReader}
+ * into a small in-memory document, e.g. the envelope of the elements
+ * streamed by an {@link XmlElementStream}.
+ */
+final class EnvelopeWriter {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newDefaultFactory();
+
+    private final StringWriter buffer = new StringWriter();
+    private final XMLStreamWriter writer;
+
+    EnvelopeWriter() throws XMLStreamException {
+        this.writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(this.buffer);
+        this.writer.writeStartDocument();
+    }
+
+    /**
+     * Copy the start tag the reader is positioned on, including its
+     * namespace declarations and attributes. The reader is not moved.
+     *
+     * @param reader {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @throws XMLStreamException if the XML could not be copied
+     */
+    void copyStartElement(XMLStreamReader reader) throws XMLStreamException {
+        this.writer.writeStartElement(nonNull(reader.getPrefix()), reader.getLocalName(), nonNull(reader.getNamespaceURI()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            if (prefix == null || prefix.isEmpty()) {
+                this.writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                this.writer.writeNamespace(prefix, reader.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if (namespace == null || namespace.isEmpty()) {
+                this.writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                this.writer.writeAttribute(nonNull(reader.getAttributePrefix(i)), namespace,
+                        reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * Copy the element the reader is positioned on, including all its
+     * descendants. After this method returns, the reader is positioned
+     * on the event following the END_ELEMENT event.
+     *
+     * @param reader {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @throws XMLStreamException if the XML could not be copied
+     */
+    void copyElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        int event = reader.getEventType();
+        do {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                this.copyStartElement(reader);
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                this.writer.writeEndElement();
+                depth--;
+            } else if (StaxSupport.isText(event)) {
+                this.writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            event = reader.next();
+        } while (depth > 0);
+    }
+
+    /**
+     * Write an end tag for the innermost open element.
+     *
+     * @throws XMLStreamException if the XML could not be written
+     */
+    void writeEndElement() throws XMLStreamException {
+        this.writer.writeEndElement();
+    }
+
+    /**
+     * Close all open elements and return a reader for the copied document.
+     *
+     * @return {@link XMLStreamReader} for the copied document
+     * @throws XMLStreamException if the XML could not be written
+     */
+    XMLStreamReader toReader() throws XMLStreamException {
+        this.writer.writeEndDocument();
+        this.writer.close();
+        return StaxXmlToObjectConverter.XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(this.buffer.toString()));
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,123 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * {@link XMLStreamWriter} that indents nested elements by four spaces,
+ * producing the same layout as JAXB's formatted output.
+ * <p>
+ * Elements with text content are never indented inside, such that
+ * the text remains unchanged.
+ */
+final class IndentingXMLStreamWriter extends DelegatingXMLStreamWriter {
+
+    private static final String INDENT = "    ";
+
+    private final Deque<Boolean> hasChildElements = new ArrayDeque<>();
+    private boolean hasText;
+
+    IndentingXMLStreamWriter(XMLStreamWriter delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeStartElement(localName);
+        this.afterStartElement();
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeStartElement(namespaceURI, localName);
+        this.afterStartElement();
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeStartElement(prefix, localName, namespaceURI);
+        this.afterStartElement();
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        this.beforeStartElement();
+        super.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        boolean indent = Boolean.TRUE.equals(this.hasChildElements.pollFirst()) && !this.hasText;
+        if (indent) {
+            this.newLine(this.hasChildElements.size());
+        }
+        this.hasText = false;
+        super.writeEndElement();
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        this.hasText = true;
+        super.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        this.hasText = true;
+        super.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        this.hasText = true;
+        super.writeCData(data);
+    }
+
+    private void beforeStartElement() throws XMLStreamException {
+        if (!this.hasChildElements.isEmpty()) {
+            this.hasChildElements.pollFirst();
+            this.hasChildElements.push(Boolean.TRUE);
+            this.newLine(this.hasChildElements.size());
+        }
+        this.hasText = false;
+    }
+
+    private void afterStartElement() {
+        this.hasChildElements.push(Boolean.FALSE);
+    }
+
+    private void newLine(int depth) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder(1 + depth * INDENT.length()).append('\n');
+        for (int i = 0; i < depth; i++) {
+            sb.append(INDENT);
+        }
+        super.writeCharacters(sb.toString());
+    }
+}
@@ -10,20 +10,21 @@
 
 package it.bz.opendatahub.alpinebits.xml;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import it.bz.opendatahub.alpinebits.xml.pool.PoolKey;
+import it.bz.opendatahub.alpinebits.xml.pool.PooledObject;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.ObjectFactory;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import org.xml.sax.SAXException;
 
-import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 
 /**
  * This class provides methods to convert OTA-2015A objects to XML.
@@ -35,40 +36,62 @@ public final class JAXBObjectToXmlConverter implements ObjectToXmlConverter {
 
     private final Schema schema;
     private final boolean doPrettyPrintXml;
-    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final PoolKey otaValidatorKey;
+    private final ByteChunkPool bufferPool;
+    private final ValidationPolicy validationPolicy;
+    private final ValidationMetrics validationMetrics;
 
-    private JAXBObjectToXmlConverter(Schema schema, boolean doPrettyPrintXml) {
+    private JAXBObjectToXmlConverter(Schema schema, boolean doPrettyPrintXml, XmlObjectPool pool, ByteChunkPool bufferPool,
+                                     ValidationPolicy validationPolicy, ValidationMetrics validationMetrics) {
         this.schema = schema;
         this.doPrettyPrintXml = doPrettyPrintXml;
-        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+        this.bufferPool = bufferPool;
+        this.validationPolicy = validationPolicy;
+        this.validationMetrics = validationMetrics;
+        this.otaValidatorKey = PoolKey.of(OtaSchemaSingleton.getInstance(), false, null);
     }
 
     @Override
     public void toXml(Object objectToConvert, OutputStream os) {
-        try {
-            Marshaller marshaller = JAXBContextSingleton.getInstance().createMarshaller();
-            marshaller.setSchema(this.schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, this.doPrettyPrintXml);
-
-            // Write XML to temporary string such that it can be reused for OTA 2015a XSD validation
-            ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
-            marshaller.marshal(objectToConvert, tmpStream);
-            String xml = tmpStream.toString();
+        if (objectToConvert == null) {
+            throw new IllegalArgumentException("The object to convert must not be null");
+        }
+        boolean validate = this.validationPolicy.shouldValidate();
+        long start = System.nanoTime();
+        // Without validation, the marshaller is taken from the pool of marshallers without schema
+        PoolKey marshallerKey = PoolKey.of(validate ? this.schema : null, this.doPrettyPrintXml, objectToConvert.getClass());
+        ChunkedBuffer xml = new ChunkedBuffer(this.bufferPool);
+        try (PooledObject<Marshaller> marshaller = this.pool.marshaller(marshallerKey)) {
+            // Write XML to pooled chunks such that it can be reused for OTA 2015a XSD validation
+            marshaller.get().marshal(objectToConvert, xml);
 
-            // Validate against OTA 2015a XSD
-            Validator validator = this.otaSchema.newValidator();
-            validator.validate(toSource(xml));
+            if (validate) {
+                this.validateOta(xml);
+            }
 
             // Write XML to output stream
-            os.write(xml.getBytes(StandardCharsets.UTF_8));
+            xml.writeTo(os);
+            this.validationMetrics.record(validate, System.nanoTime() - start);
         } catch (JAXBException | SAXException | IOException e) {
-            String message = "Object-to-XML conversion error: " + (e.getMessage() == null ? e.toString() : e.getMessage());
+            this.validationMetrics.recordFailure();
+            String message = buildErrorMessage(e);
             throw new XmlConversionException(message, e);
+        } finally {
+            xml.release();
+        }
+    }
+
+    private void validateOta(ChunkedBuffer xml) throws SAXException, IOException {
+        // Validate against OTA 2015a XSD
+        try (PooledObject<Validator> validator = this.pool.validator(this.otaValidatorKey)) {
+            validator.get().validate(new StreamSource(xml.newInputStream()));
         }
     }
 
-    private Source toSource(String xml) {
-        return new StreamSource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    static String buildErrorMessage(Exception e) {
+        return "Object-to-XML conversion error: " + (e.getMessage() == null ? e.toString() : e.getMessage());
     }
 
     /**
@@ -76,8 +99,17 @@ public final class JAXBObjectToXmlConverter implements ObjectToXmlConverter {
      */
     public static class Builder {
 
+        private static final int DEFAULT_SPOOL_THRESHOLD = 64 * 1024;
+
         private Schema schema;
         private boolean doPrettyPrintXml;
+        private boolean streaming;
+        private int spoolThreshold = DEFAULT_SPOOL_THRESHOLD;
+        private XmlObjectPool pool = XmlObjectPool.unpooled();
+        private XmlEngine engine = XmlEngine.configured();
+        private ByteChunkPool bufferPool = StreamConverter.defaultBufferPool();
+        private ValidationPolicy validationPolicy = ValidationPolicy.configured();
+        private ValidationMetrics validationMetrics = new ValidationMetrics();
 
         /**
          * The {@link Schema} is used for XML validation.
@@ -106,6 +138,121 @@ public final class JAXBObjectToXmlConverter implements ObjectToXmlConverter {
             return this;
         }
 
+        /**
+         * If streaming is enabled (default: false), the object is marshalled,
+         * validated and serialized in a single pass, without keeping
+         * intermediate copies of the XML as String.
+         *
+         * @param streaming true to enable single-pass streaming conversion
+         * @return the current Builder
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Configure the number of bytes that are kept in memory by the
+         * streaming conversion (default: 64 KiB). Larger results are
+         * spooled to a temporary file until validation has completed.
+         * <p>
+         * This setting is only used if streaming is enabled.
+         *
+         * @param spoolThreshold max number of bytes kept in memory
+         * @return the current Builder
+         */
+        public Builder spoolThreshold(int spoolThreshold) {
+            if (spoolThreshold < 0) {
+                throw new IllegalArgumentException("The spool threshold must not be negative");
+            }
+            this.spoolThreshold = spoolThreshold;
+            return this;
+        }
+
+        /**
+         * Set the {@link XmlObjectPool} that provides the marshallers
+         * and validators (default: {@link XmlObjectPool#unpooled()}).
+         *
+         * @param pool the {@link XmlObjectPool} to use
+         * @return the current Builder
+         */
+        public Builder pool(XmlObjectPool pool) {
+            if (pool == null) {
+                throw new IllegalArgumentException("The pool must not be null");
+            }
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Set the {@link ByteChunkPool} that provides the chunks, in which the
+         * XML is buffered until it is validated (default:
+         * {@link StreamConverter#defaultBufferPool()}).
+         *
+         * @param bufferPool the {@link ByteChunkPool} to use
+         * @return the current Builder
+         */
+        public Builder bufferPool(ByteChunkPool bufferPool) {
+            if (bufferPool == null) {
+                throw new IllegalArgumentException("The buffer pool must not be null");
+            }
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Set the {@link XmlEngine} used for the conversion (default:
+         * {@link XmlEngine#configured()}).
+         * <p>
+         * If the {@link XmlEngine#STAX} engine is selected, objects without
+         * generated StAX writer are converted with JAXB.
+         *
+         * @param engine the {@link XmlEngine} to use
+         * @return the current Builder
+         */
+        public Builder engine(XmlEngine engine) {
+            if (engine == null) {
+                throw new IllegalArgumentException("The engine must not be null");
+            }
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Set the {@link ValidationPolicy}, that decides which documents are
+         * validated against the AlpineBits and OTA 2015a schemas (default:
+         * {@link ValidationPolicy#configured()}).
+         * <p>
+         * Documents that are not validated reach the target stream even if
+         * they are invalid.
+         *
+         * @param validationPolicy the {@link ValidationPolicy} to use
+         * @return the current Builder
+         */
+        public Builder validationPolicy(ValidationPolicy validationPolicy) {
+            if (validationPolicy == null) {
+                throw new IllegalArgumentException("The validation policy must not be null");
+            }
+            this.validationPolicy = validationPolicy;
+            return this;
+        }
+
+        /**
+         * Set the {@link ValidationMetrics}, that count the validated and
+         * skipped documents (default: a new instance per converter). A shared
+         * instance can be used to observe several converters.
+         *
+         * @param validationMetrics the {@link ValidationMetrics} to update
+         * @return the current Builder
+         */
+        public Builder validationMetrics(ValidationMetrics validationMetrics) {
+            if (validationMetrics == null) {
+                throw new IllegalArgumentException("The validation metrics must not be null");
+            }
+            this.validationMetrics = validationMetrics;
+            return this;
+        }
+
         /**
          * Build an instance of {@link JAXBObjectToXmlConverter} with
          * the current configuration.
@@ -113,7 +260,16 @@ public final class JAXBObjectToXmlConverter implements ObjectToXmlConverter {
          * @return instance of {@link JAXBObjectToXmlConverter}
          */
         public ObjectToXmlConverter build() {
-            return new JAXBObjectToXmlConverter(this.schema, this.doPrettyPrintXml);
+            ObjectToXmlConverter converter = this.streaming
+                    ? new StreamingJAXBObjectToXmlConverter(this.schema, this.doPrettyPrintXml, this.spoolThreshold, this.bufferPool, this.pool,
+                            this.validationPolicy, this.validationMetrics)
+                    : new JAXBObjectToXmlConverter(this.schema, this.doPrettyPrintXml, this.pool, this.bufferPool,
+                            this.validationPolicy, this.validationMetrics);
+            if (this.engine == XmlEngine.STAX) {
+                return new StaxObjectToXmlConverter(this.schema, this.doPrettyPrintXml, this.spoolThreshold, this.bufferPool, this.pool,
+                        this.validationPolicy, this.validationMetrics, converter);
+            }
+            return converter;
         }
     }
 }
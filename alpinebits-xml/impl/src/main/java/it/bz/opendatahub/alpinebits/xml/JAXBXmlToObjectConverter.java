@@ -10,19 +10,22 @@
 
 package it.bz.opendatahub.alpinebits.xml;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import it.bz.opendatahub.alpinebits.xml.pool.PoolKey;
+import it.bz.opendatahub.alpinebits.xml.pool.PooledObject;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxReader;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
-import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 
 /**
  * This class provides methods to convert XML to Java objects.
@@ -31,45 +34,63 @@ import java.nio.charset.StandardCharsets;
  */
 public final class JAXBXmlToObjectConverter<T> implements XmlToObjectConverter<T> {
 
-    private final Schema schema;
     private final Class<T> classToBeBound;
-    private final Schema otaSchema;
-
-    private JAXBXmlToObjectConverter(Schema schema, Class<T> classToBeBound) {
-        this.schema = schema;
+    private final XmlObjectPool pool;
+    private final PoolKey otaValidatorKey;
+    private final PoolKey unmarshallerKey;
+    private final ByteChunkPool bufferPool;
+    private final boolean validateOta;
+
+    private JAXBXmlToObjectConverter(Schema schema, Class<T> classToBeBound, XmlObjectPool pool, ByteChunkPool bufferPool,
+                                     ValidationTier validationTier) {
         this.classToBeBound = classToBeBound;
-        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+        this.bufferPool = bufferPool;
+        this.validateOta = validationTier.isOta();
+        this.otaValidatorKey = PoolKey.of(OtaSchemaSingleton.getInstance(), false, null);
+        this.unmarshallerKey = PoolKey.of(validationTier.isAlpineBits() ? schema : null, false, classToBeBound);
     }
 
     @Override
     public T toObject(InputStream is) {
-        try {
-            // Write InputStream into string such that it can be reused for
+        if (!this.validateOta) {
+            // Without OTA validation, the XML is read only once and needs no buffer
+            return this.unmarshal(new StreamSource(is));
+        }
+        ChunkedBuffer xml = null;
+        try (PooledObject<Validator> validator = this.pool.validator(this.otaValidatorKey)) {
+            // Read InputStream into pooled chunks such that it can be reused for
             // OTA 2015a XSD validation, AlpineBits XSD validation and XML-to-object unmarshalling.
-            String xml = StreamConverter.readToString(is);
+            xml = StreamConverter.readToBuffer(is, this.bufferPool);
 
             // Validate against OTA 2015a XSD
-            Validator validator = this.otaSchema.newValidator();
-            validator.validate(toSource(xml));
-
-            // Build unmarshaller, that also validates against given AlpineBits schema
-            Unmarshaller unmarshaller = JAXBContextSingleton.getInstance().createUnmarshaller();
-            unmarshaller.setSchema(this.schema);
-            return this.classToBeBound.cast(unmarshaller.unmarshal(toSource(xml)));
-        } catch (JAXBException | SAXException e) {
+            validator.get().validate(new StreamSource(xml.newInputStream()));
+
+            return this.unmarshal(new StreamSource(xml.newInputStream()));
+        } catch (SAXException e) {
             String message = buildErrorMessage(e);
             throw new XmlConversionException(message, 400, e);
         } catch (IOException e) {
             String message = buildErrorMessage(e);
             throw new XmlConversionException(message, e);
+        } finally {
+            if (xml != null) {
+                xml.release();
+            }
         }
     }
 
-    private Source toSource(String xml) {
-        return new StreamSource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    private T unmarshal(StreamSource source) {
+        // Use unmarshaller, that also validates against given AlpineBits schema
+        try (PooledObject<Unmarshaller> unmarshaller = this.pool.unmarshaller(this.unmarshallerKey)) {
+            return this.classToBeBound.cast(unmarshaller.get().unmarshal(source));
+        } catch (JAXBException e) {
+            String message = buildErrorMessage(e);
+            throw new XmlConversionException(message, 400, e);
+        }
     }
 
-    private String buildErrorMessage(Exception e) {
+    static String buildErrorMessage(Exception e) {
         String message = "XML validation error";
 
         if (e.getCause() instanceof SAXParseException) {
@@ -93,6 +114,11 @@ public final class JAXBXmlToObjectConverter<T> implements XmlToObjectConverter<T
         private final Class<T> classToBeBound;
 
         private Schema schema;
+        private boolean streaming;
+        private XmlObjectPool pool = XmlObjectPool.unpooled();
+        private XmlEngine engine = XmlEngine.configured();
+        private ByteChunkPool bufferPool = StreamConverter.defaultBufferPool();
+        private ValidationTier validationTier = ValidationTier.OTA_AND_ALPINEBITS;
 
         public Builder(Class<T> classToBeBound) {
             this.classToBeBound = classToBeBound;
@@ -112,6 +138,83 @@ public final class JAXBXmlToObjectConverter<T> implements XmlToObjectConverter<T
             return this;
         }
 
+        /**
+         * If streaming is enabled (default: false), the XML is parsed
+         * only once and validated against the OTA and AlpineBits schemas
+         * while it is unmarshalled, without buffering it as String.
+         *
+         * @param streaming true to enable single-pass streaming conversion
+         * @return the current Builder
+         */
+        public Builder<T> streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Set the {@link XmlObjectPool} that provides the unmarshallers
+         * and validators (default: {@link XmlObjectPool#unpooled()}).
+         *
+         * @param pool the {@link XmlObjectPool} to use
+         * @return the current Builder
+         */
+        public Builder<T> pool(XmlObjectPool pool) {
+            if (pool == null) {
+                throw new IllegalArgumentException("The pool must not be null");
+            }
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Set the {@link ByteChunkPool} that provides the chunks, in which the XML
+         * is buffered by the non-streaming conversion (default:
+         * {@link StreamConverter#defaultBufferPool()}).
+         *
+         * @param bufferPool the {@link ByteChunkPool} to use
+         * @return the current Builder
+         */
+        public Builder<T> bufferPool(ByteChunkPool bufferPool) {
+            if (bufferPool == null) {
+                throw new IllegalArgumentException("The buffer pool must not be null");
+            }
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Set the {@link XmlEngine} used for the conversion (default:
+         * {@link XmlEngine#configured()}).
+         * <p>
+         * If the {@link XmlEngine#STAX} engine is selected, but there is
+         * no generated StAX reader for the bound class, JAXB is used.
+         *
+         * @param engine the {@link XmlEngine} to use
+         * @return the current Builder
+         */
+        public Builder<T> engine(XmlEngine engine) {
+            if (engine == null) {
+                throw new IllegalArgumentException("The engine must not be null");
+            }
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Set the {@link ValidationTier}, i.e. the schemas used to validate
+         * the XML (default: {@link ValidationTier#OTA_AND_ALPINEBITS}).
+         *
+         * @param validationTier the {@link ValidationTier} to use
+         * @return the current Builder
+         */
+        public Builder<T> validationTier(ValidationTier validationTier) {
+            if (validationTier == null) {
+                throw new IllegalArgumentException("The validation tier must not be null");
+            }
+            this.validationTier = validationTier;
+            return this;
+        }
+
         /**
          * Build an instance of {@link JAXBObjectToXmlConverter} with
          * the current configuration.
@@ -119,7 +222,14 @@ public final class JAXBXmlToObjectConverter<T> implements XmlToObjectConverter<T
          * @return instance of {@link JAXBObjectToXmlConverter}
          */
         public XmlToObjectConverter<T> build() {
-            return new JAXBXmlToObjectConverter<>(this.schema, this.classToBeBound);
+            StaxReader<T> staxReader = this.engine == XmlEngine.STAX ? StaxBindings.reader(this.classToBeBound) : null;
+            if (staxReader != null) {
+                return new StaxXmlToObjectConverter<>(this.schema, staxReader, this.pool, this.validationTier);
+            }
+            if (this.streaming) {
+                return new StreamingJAXBXmlToObjectConverter<>(this.schema, this.classToBeBound, this.pool, this.validationTier);
+            }
+            return new JAXBXmlToObjectConverter<>(this.schema, this.classToBeBound, this.pool, this.bufferPool, this.validationTier);
         }
     }
 
@@ -0,0 +1,60 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * {@link ErrorHandler} that treats every error as fatal and remembers
+ * the exception it has thrown, such that the failing stage of a
+ * streaming conversion can be determined.
+ */
+final class RecordingErrorHandler implements ErrorHandler {
+
+    private SAXParseException thrown;
+
+    @Override
+    public void warning(SAXParseException exception) {
+        // Warnings are ignored, same as the default validator behaviour
+    }
+
+    @Override
+    public void error(SAXParseException exception) throws SAXException {
+        this.thrown = exception;
+        throw exception;
+    }
+
+    @Override
+    public void fatalError(SAXParseException exception) throws SAXException {
+        this.thrown = exception;
+        throw exception;
+    }
+
+    /**
+     * Check if this handler has thrown an exception.
+     *
+     * @return true if an exception was thrown, false otherwise
+     */
+    boolean hasThrown() {
+        return this.thrown != null;
+    }
+
+    /**
+     * Get the exception thrown by this handler.
+     *
+     * @return the thrown exception, or null if no exception was thrown
+     */
+    SAXParseException getThrown() {
+        return this.thrown;
+    }
+}
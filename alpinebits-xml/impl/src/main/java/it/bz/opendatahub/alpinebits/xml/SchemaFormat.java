@@ -0,0 +1,59 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import javax.xml.validation.Schema;
+
+/**
+ * The formats of the AlpineBits validation schemas.
+ */
+public enum SchemaFormat {
+
+    /**
+     * RELAX NG schema, file <code>alpinebits-VERSION.rng</code>.
+     */
+    RNG("rng"),
+
+    /**
+     * XML schema, file <code>alpinebits-VERSION.xsd</code>.
+     */
+    XSD("xsd");
+
+    private final String extension;
+
+    SchemaFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Get the classpath resource name of the schema for the given AlpineBits version.
+     *
+     * @param version AlpineBits version, e.g. 2017-10
+     * @return the resource name, e.g. alpinebits-2017-10.rng
+     */
+    public String filename(String version) {
+        return "alpinebits-" + version + "." + this.extension;
+    }
+
+    /**
+     * Compile the schema for the given AlpineBits version, see {@link XmlValidationSchemaProvider}.
+     *
+     * @param version AlpineBits version, e.g. 2017-10
+     * @return the compiled {@link Schema}
+     * @throws InvalidSchemaException if the schema could not be found or compiled
+     */
+    Schema compile(String version) {
+        return this == RNG
+                ? XmlValidationSchemaProvider.buildRngSchema(this.filename(version))
+                : XmlValidationSchemaProvider.buildXsdSchema(this.filename(version));
+    }
+}
@@ -0,0 +1,171 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An {@link OutputStream} that keeps its content in memory up to a
+ * threshold and spools it to a temporary file if the threshold is exceeded.
+ * The in-memory content is held in pooled chunks, see {@link ChunkedBuffer}.
+ * <p>
+ * The content is written to a target stream only by an explicit call
+ * to {@link #writeTo(OutputStream)}, which allows to drop the content
+ * (e.g. on validation errors) without it ever leaving the application.
+ * Call {@link #discard()} or {@link #discardQuietly()} when the content is no
+ * longer needed. The temporary file holds the converted data, it is not removed
+ * by the JVM or the OS otherwise.
+ */
+final class SpoolingOutputStream extends OutputStream {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpoolingOutputStream.class);
+
+    private final int threshold;
+
+    private ChunkedBuffer memory;
+    private Path file;
+    private OutputStream fileStream;
+
+    SpoolingOutputStream(int threshold) {
+        this(threshold, StreamConverter.defaultBufferPool());
+    }
+
+    SpoolingOutputStream(int threshold, ByteChunkPool bufferPool) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The threshold must not be negative");
+        }
+        this.threshold = threshold;
+        this.memory = new ChunkedBuffer(bufferPool);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.target(1).write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.target(len).write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.fileStream != null) {
+            this.fileStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.fileStream != null) {
+            this.fileStream.close();
+        }
+    }
+
+    /**
+     * Check if the content is held in memory, i.e. the threshold
+     * has not been exceeded.
+     *
+     * @return true if the content is held in memory, false otherwise
+     */
+    boolean isInMemory() {
+        return this.memory != null;
+    }
+
+    /**
+     * Write the whole spooled content to the given {@link OutputStream}.
+     *
+     * @param os the content is written to this stream
+     * @throws IOException if the content could not be written
+     */
+    void writeTo(OutputStream os) throws IOException {
+        if (this.memory != null) {
+            this.memory.writeTo(os);
+        } else {
+            this.fileStream.flush();
+            Files.copy(this.file, os);
+        }
+    }
+
+    /**
+     * Drop the spooled content and delete the temporary file, if any.
+     *
+     * @throws IOException if the temporary file could not be deleted
+     */
+    void discard() throws IOException {
+        if (this.memory != null) {
+            this.memory.release();
+            this.memory = null;
+        }
+        try {
+            this.close();
+        } finally {
+            this.fileStream = null;
+            if (this.file != null) {
+                Files.deleteIfExists(this.file);
+                this.file = null;
+            }
+        }
+    }
+
+    /**
+     * Drop the spooled content like {@link #discard()}, without throwing. If the
+     * temporary file could not be deleted, a warning is logged and the file is
+     * deleted when the JVM exits.
+     */
+    void discardQuietly() {
+        Path spooled = this.file;
+        try {
+            this.discard();
+        } catch (IOException e) {
+            if (spooled != null && Files.exists(spooled)) {
+                LOG.warn("Could not delete the temporary file {}, it is deleted on exit", spooled, e);
+                spooled.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Get the temporary file, the content is spooled to.
+     *
+     * @return the temporary file, or null if the content is held in memory or was discarded
+     */
+    Path getFile() {
+        return this.file;
+    }
+
+    private OutputStream target(int len) throws IOException {
+        if (this.memory == null) {
+            if (this.fileStream == null) {
+                throw new IOException("The spooled content has already been discarded");
+            }
+            return this.fileStream;
+        }
+        if (this.memory.size() + len > this.threshold) {
+            this.file = Files.createTempFile("alpinebits-", ".xml");
+            this.fileStream = new BufferedOutputStream(Files.newOutputStream(this.file));
+            this.memory.writeTo(this.fileStream);
+            this.memory.release();
+            this.memory = null;
+            return this.fileStream;
+        }
+        return this.memory;
+    }
+}
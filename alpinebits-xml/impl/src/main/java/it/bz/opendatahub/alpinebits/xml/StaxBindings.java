@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.stax.StaxReader;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxWriter;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lookup of the generated {@link StaxReader} and {@link StaxWriter}
+ * implementations.
+ * <p>
+ * The generated classes are found by naming convention, e.g.
+ * <code>OTAHotelAvailNotifRQStaxReader</code> for <code>OTAHotelAvailNotifRQ</code>.
+ * Lookup results are cached per class.
+ */
+final class StaxBindings {
+
+    private static final String READER_SUFFIX = "StaxReader";
+    private static final String WRITER_SUFFIX = "StaxWriter";
+
+    private static final ConcurrentMap<Class<?>, Optional<Object>> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Optional<Object>> WRITERS = new ConcurrentHashMap<>();
+
+    private StaxBindings() {
+        // Empty
+    }
+
+    /**
+     * Find the generated {@link StaxReader} for the given type.
+     *
+     * @param type the type to read
+     * @param <T>  the type to read
+     * @return the {@link StaxReader}, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <T> StaxReader<T> reader(Class<T> type) {
+        return (StaxReader<T>) READERS.computeIfAbsent(type, t -> lookup(t, READER_SUFFIX, StaxReader.class)).orElse(null);
+    }
+
+    /**
+     * Find the generated {@link StaxWriter} for the given type.
+     *
+     * @param type the type to write
+     * @param <T>  the type to write
+     * @return the {@link StaxWriter}, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <T> StaxWriter<T> writer(Class<T> type) {
+        return (StaxWriter<T>) WRITERS.computeIfAbsent(type, t -> lookup(t, WRITER_SUFFIX, StaxWriter.class)).orElse(null);
+    }
+
+    private static Optional<Object> lookup(Class<?> type, String suffix, Class<?> bindingType) {
+        if (type.getEnclosingClass() != null || type.getClassLoader() == null) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> bindingClass = Class.forName(type.getName() + suffix, true, type.getClassLoader());
+            if (!bindingType.isAssignableFrom(bindingClass)) {
+                return Optional.empty();
+            }
+            return Optional.of(bindingClass.getConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to instantiate " + type.getName() + suffix, e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxSupport;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxWriter;
+import jakarta.xml.bind.JAXBException;
+import org.xml.sax.ContentHandler;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class converts OTA-2015A objects to XML with a generated {@link StaxWriter}.
+ * <p>
+ * The written XML is validated against the OTA 2015a schema and the
+ * (optional) AlpineBits schema while it is written. It is spooled the same
+ * way as done by the streaming JAXB converter and written to the target
+ * stream only if the conversion succeeded. If the {@link ValidationPolicy}
+ * skips the validation of a document, it is written without validation.
+ * <p>
+ * Objects without generated {@link StaxWriter} are converted by the
+ * given fallback converter.
+ */
+final class StaxObjectToXmlConverter implements ObjectToXmlConverter {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newDefaultFactory();
+    private static final byte[] XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Schema schema;
+    private final boolean doPrettyPrintXml;
+    private final int spoolThreshold;
+    private final ByteChunkPool bufferPool;
+    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final ValidationPolicy validationPolicy;
+    private final ValidationMetrics validationMetrics;
+    private final ObjectToXmlConverter fallback;
+
+    StaxObjectToXmlConverter(Schema schema, boolean doPrettyPrintXml, int spoolThreshold, ByteChunkPool bufferPool, XmlObjectPool pool,
+                             ValidationPolicy validationPolicy, ValidationMetrics validationMetrics, ObjectToXmlConverter fallback) {
+        this.schema = schema;
+        this.doPrettyPrintXml = doPrettyPrintXml;
+        this.spoolThreshold = spoolThreshold;
+        this.bufferPool = bufferPool;
+        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+        this.validationPolicy = validationPolicy;
+        this.validationMetrics = validationMetrics;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void toXml(Object objectToConvert, OutputStream os) {
+        if (objectToConvert == null) {
+            throw new IllegalArgumentException("The object to convert must not be null");
+        }
+        StaxWriter<?> staxWriter = StaxBindings.writer(objectToConvert.getClass());
+        if (staxWriter == null) {
+            this.fallback.toXml(objectToConvert, os);
+            return;
+        }
+        this.toXml(staxWriter, objectToConvert, os);
+    }
+
+    private <T> void toXml(StaxWriter<T> staxWriter, Object objectToConvert, OutputStream os) {
+        boolean validate = this.validationPolicy.shouldValidate();
+        long start = System.nanoTime();
+        RecordingErrorHandler otaErrorHandler = new RecordingErrorHandler();
+        RecordingErrorHandler alpineBitsErrorHandler = new RecordingErrorHandler();
+        SpoolingOutputStream spool = new SpoolingOutputStream(this.spoolThreshold, this.bufferPool);
+        try (StaxSupport support = new StaxSupport(this.pool)) {
+            // The XML declaration is written manually, since StAX has no support for the standalone flag
+            spool.write(XML_DECLARATION);
+            if (this.doPrettyPrintXml) {
+                spool.write('\n');
+            }
+
+            XMLStreamWriter target = new EmptyElementXMLStreamWriter(
+                    XML_OUTPUT_FACTORY.createXMLStreamWriter(spool, StandardCharsets.UTF_8.name())
+            );
+            if (this.doPrettyPrintXml) {
+                target = new IndentingXMLStreamWriter(target);
+            }
+            XMLStreamWriter writer = validate
+                    ? new ValidatingXMLStreamWriter(target, this.newValidatorHandler(otaErrorHandler, alpineBitsErrorHandler))
+                    : target;
+
+            staxWriter.write(writer, staxWriter.getType().cast(objectToConvert), support);
+            writer.writeEndDocument();
+            writer.close();
+            if (this.doPrettyPrintXml) {
+                spool.write('\n');
+            }
+            spool.close();
+
+            // Write XML to output stream
+            spool.writeTo(os);
+            this.validationMetrics.record(validate, System.nanoTime() - start);
+        } catch (XMLStreamException | JAXBException | IllegalArgumentException e) {
+            this.validationMetrics.recordFailure();
+            // Report validation errors the same way as JAXBObjectToXmlConverter does
+            Exception reported = otaErrorHandler.hasThrown()
+                    ? otaErrorHandler.getThrown()
+                    : alpineBitsErrorHandler.hasThrown() ? alpineBitsErrorHandler.getThrown() : e;
+            throw new XmlConversionException(JAXBObjectToXmlConverter.buildErrorMessage(reported), e);
+        } catch (IOException e) {
+            this.validationMetrics.recordFailure();
+            throw new XmlConversionException(JAXBObjectToXmlConverter.buildErrorMessage(e), e);
+        } finally {
+            spool.discardQuietly();
+        }
+    }
+
+    private ContentHandler newValidatorHandler(RecordingErrorHandler otaErrorHandler, RecordingErrorHandler alpineBitsErrorHandler) {
+        // Validate against OTA 2015a XSD
+        ValidatorHandler otaValidatorHandler = this.otaSchema.newValidatorHandler();
+        otaValidatorHandler.setErrorHandler(otaErrorHandler);
+        if (this.schema == null) {
+            return otaValidatorHandler;
+        }
+
+        // Validate against given AlpineBits schema
+        ValidatorHandler alpineBitsValidatorHandler = this.schema.newValidatorHandler();
+        alpineBitsValidatorHandler.setErrorHandler(alpineBitsErrorHandler);
+        return new TeeContentHandler(otaValidatorHandler, alpineBitsValidatorHandler);
+    }
+}
@@ -0,0 +1,160 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxReader;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxSupport;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.io.InputStream;
+
+/**
+ * This class converts XML to Java objects with a generated {@link StaxReader}.
+ * <p>
+ * The XML is parsed once. While it is read, the events are validated against
+ * the OTA 2015a schema and the (optional) AlpineBits schema. Subtrees, that
+ * are not covered by the generated code, are unmarshalled with JAXB from the
+ * same stream.
+ * <p>
+ * Validation errors are reported with the same messages as the ones produced
+ * by {@link JAXBXmlToObjectConverter}.
+ *
+ * @param <T> converted object type
+ */
+final class StaxXmlToObjectConverter<T> implements XmlToObjectConverter<T> {
+
+    static final XMLInputFactory XML_INPUT_FACTORY = buildXmlInputFactory();
+    private static final String PARSE_ERROR_MESSAGE_MARKER = "Message: ";
+
+    private final Schema schema;
+    private final StaxReader<T> staxReader;
+    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final ValidationTier validationTier;
+
+    StaxXmlToObjectConverter(Schema schema, StaxReader<T> staxReader, XmlObjectPool pool, ValidationTier validationTier) {
+        this.schema = schema;
+        this.validationTier = validationTier;
+        this.staxReader = staxReader;
+        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+    }
+
+    @Override
+    public T toObject(InputStream is) {
+        RecordingErrorHandler otaErrorHandler = new RecordingErrorHandler();
+        RecordingErrorHandler alpineBitsErrorHandler = new RecordingErrorHandler();
+        XMLStreamReader reader = null;
+        try (StaxSupport support = new StaxSupport(this.pool)) {
+            reader = buildReader(is, this.otaSchema, this.schema, this.validationTier, otaErrorHandler, alpineBitsErrorHandler);
+            reader.nextTag();
+            if (!this.staxReader.getRootElement().equals(reader.getName())) {
+                throw new XMLStreamException("Expected root element " + this.staxReader.getRootElement()
+                        + " but found " + reader.getName(), reader.getLocation());
+            }
+
+            T result = this.staxReader.read(reader, support);
+
+            // Read until the end, such that validation is completed
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            return result;
+        } catch (XMLStreamException | JAXBException | IllegalArgumentException e) {
+            String message = buildErrorMessage(e, otaErrorHandler, alpineBitsErrorHandler);
+            throw new XmlConversionException(message, 400, e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Build an {@link XMLStreamReader} that validates against the OTA schema and the (optional)
+     * AlpineBits schema as selected by the {@link ValidationTier}, reporting errors to the
+     * given error handlers.
+     */
+    static XMLStreamReader buildReader(
+            InputStream is,
+            Schema otaSchema,
+            Schema schema,
+            ValidationTier validationTier,
+            RecordingErrorHandler otaErrorHandler,
+            RecordingErrorHandler alpineBitsErrorHandler
+    ) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+        ValidatorHandler otaValidatorHandler = null;
+        if (validationTier.isOta()) {
+            // Validate against OTA 2015a XSD
+            otaValidatorHandler = otaSchema.newValidatorHandler();
+            otaValidatorHandler.setErrorHandler(otaErrorHandler);
+        }
+        ValidatorHandler alpineBitsValidatorHandler = null;
+        if (validationTier.isAlpineBits() && schema != null) {
+            // Validate against given AlpineBits schema
+            alpineBitsValidatorHandler = schema.newValidatorHandler();
+            alpineBitsValidatorHandler.setErrorHandler(alpineBitsErrorHandler);
+        }
+
+        if (otaValidatorHandler != null && alpineBitsValidatorHandler != null) {
+            return new ValidatingXMLStreamReader(reader, new TeeContentHandler(otaValidatorHandler, alpineBitsValidatorHandler));
+        }
+        if (otaValidatorHandler != null) {
+            return new ValidatingXMLStreamReader(reader, otaValidatorHandler);
+        }
+        return alpineBitsValidatorHandler != null ? new ValidatingXMLStreamReader(reader, alpineBitsValidatorHandler) : reader;
+    }
+
+    /**
+     * Build the error message for the given exception, preferring validation errors.
+     */
+    static String buildErrorMessage(Exception e, RecordingErrorHandler otaErrorHandler, RecordingErrorHandler alpineBitsErrorHandler) {
+        // OTA validation errors are reported as-is, AlpineBits validation errors
+        // are reported as if thrown by the unmarshaller (see JAXBXmlToObjectConverter)
+        if (otaErrorHandler.hasThrown()) {
+            return JAXBXmlToObjectConverter.buildErrorMessage(otaErrorHandler.getThrown());
+        }
+        if (alpineBitsErrorHandler.hasThrown()) {
+            return JAXBXmlToObjectConverter.buildErrorMessage(new UnmarshalException(alpineBitsErrorHandler.getThrown()));
+        }
+        if (e instanceof XMLStreamException && e.getMessage() != null && e.getMessage().contains(PARSE_ERROR_MESSAGE_MARKER)) {
+            // The StAX parser prefixes the message with the location, that is not part of the SAX parser message
+            String message = e.getMessage();
+            return "XML validation error: " + message.substring(message.indexOf(PARSE_ERROR_MESSAGE_MARKER) + PARSE_ERROR_MESSAGE_MARKER.length());
+        }
+        return JAXBXmlToObjectConverter.buildErrorMessage(e);
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // Nothing to do, the underlying stream is closed by the caller
+        }
+    }
+
+    private static XMLInputFactory buildXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+}
@@ -10,8 +10,9 @@
 
 package it.bz.opendatahub.alpinebits.xml;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -21,6 +22,9 @@ import java.nio.charset.StandardCharsets;
  */
 public final class StreamConverter {
 
+    // Shared by the converters, unless they are configured with their own pool
+    private static final ByteChunkPool DEFAULT_BUFFER_POOL = ByteChunkPool.withDefaults();
+
     private StreamConverter() {
         // Empty
     }
@@ -33,11 +37,40 @@ public final class StreamConverter {
      * @throws IOException If the conversion fails.
      */
     public static String readToString(InputStream is) throws IOException {
-        BufferedInputStream bis = new BufferedInputStream(is);
-        ByteArrayOutputStream buf = new ByteArrayOutputStream();
-        for (int result = bis.read(); result != -1; result = bis.read()) {
-            buf.write((byte) result);
+        return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the given {@link InputStream} into a {@link ChunkedBuffer} with chunks
+     * from the given pool. The data is read in bulk and is not converted to a String.
+     * The caller must release the returned buffer.
+     *
+     * @param is   The InputStream to read.
+     * @param pool The {@link ByteChunkPool} providing the chunks.
+     * @return The buffer holding the content of the InputStream.
+     * @throws IOException If reading fails, the buffer is released in that case.
+     */
+    public static ChunkedBuffer readToBuffer(InputStream is, ByteChunkPool pool) throws IOException {
+        ChunkedBuffer buffer = new ChunkedBuffer(pool);
+        boolean read = false;
+        try {
+            buffer.readFrom(is);
+            read = true;
+            return buffer;
+        } finally {
+            if (!read) {
+                buffer.release();
+            }
         }
-        return buf.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the {@link ByteChunkPool} used by the XML converters by default,
+     * e.g. to expose its occupancy metrics.
+     *
+     * @return the default {@link ByteChunkPool}
+     */
+    public static ByteChunkPool defaultBufferPool() {
+        return DEFAULT_BUFFER_POOL;
     }
 }
@@ -0,0 +1,143 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.xml.pool.PoolKey;
+import it.bz.opendatahub.alpinebits.xml.pool.PooledObject;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.xml.sax.ContentHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class converts OTA-2015A objects to XML in a single pass.
+ * <p>
+ * The object is marshalled to a SAX event stream, that is validated against
+ * the OTA 2015a schema and serialized at the same time. The serialized XML
+ * is spooled to a bounded in-memory buffer (and to a temporary file, if the
+ * buffer is too small). It is written to the target stream only if the
+ * conversion succeeded, such that invalid XML never reaches the target stream.
+ * <p>
+ * If the {@link ValidationPolicy} skips the validation of a document, the
+ * events are only serialized.
+ */
+final class StreamingJAXBObjectToXmlConverter implements ObjectToXmlConverter {
+
+    private static final String INDENT_AMOUNT = "{http://xml.apache.org/xslt}indent-amount";
+
+    // Looking up the factory is expensive, only the handlers are created per document
+    private static final SAXTransformerFactory TRANSFORMER_FACTORY = buildTransformerFactory();
+
+    private final Schema schema;
+    private final boolean doPrettyPrintXml;
+    private final int spoolThreshold;
+    private final ByteChunkPool bufferPool;
+    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final ValidationPolicy validationPolicy;
+    private final ValidationMetrics validationMetrics;
+
+    StreamingJAXBObjectToXmlConverter(Schema schema, boolean doPrettyPrintXml, int spoolThreshold, ByteChunkPool bufferPool, XmlObjectPool pool,
+                                      ValidationPolicy validationPolicy, ValidationMetrics validationMetrics) {
+        this.schema = schema;
+        this.doPrettyPrintXml = doPrettyPrintXml;
+        this.spoolThreshold = spoolThreshold;
+        this.bufferPool = bufferPool;
+        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+        this.validationPolicy = validationPolicy;
+        this.validationMetrics = validationMetrics;
+    }
+
+    @Override
+    public void toXml(Object objectToConvert, OutputStream os) {
+        if (objectToConvert == null) {
+            throw new IllegalArgumentException("The object to convert must not be null");
+        }
+        boolean validate = this.validationPolicy.shouldValidate();
+        long start = System.nanoTime();
+        RecordingErrorHandler otaErrorHandler = new RecordingErrorHandler();
+        SpoolingOutputStream spool = new SpoolingOutputStream(this.spoolThreshold, this.bufferPool);
+        // Pretty printing is done by the serializer, the marshaller
+        // only needs to validate against given AlpineBits schema
+        PoolKey marshallerKey = PoolKey.of(validate ? this.schema : null, false, objectToConvert.getClass());
+        try (PooledObject<Marshaller> marshaller = this.pool.marshaller(marshallerKey)) {
+
+            // Serialize XML to spool
+            TransformerHandler serializer = this.newSerializer();
+            serializer.setResult(new StreamResult(spool));
+
+            ContentHandler contentHandler = serializer;
+            if (validate) {
+                // Validate against OTA 2015a XSD
+                ValidatorHandler otaValidatorHandler = this.otaSchema.newValidatorHandler();
+                otaValidatorHandler.setErrorHandler(otaErrorHandler);
+                contentHandler = new TeeContentHandler(otaValidatorHandler, serializer);
+            }
+
+            marshaller.get().marshal(objectToConvert, contentHandler);
+            spool.close();
+
+            // Write XML to output stream
+            spool.writeTo(os);
+            this.validationMetrics.record(validate, System.nanoTime() - start);
+        } catch (JAXBException e) {
+            this.validationMetrics.recordFailure();
+            // Report OTA validation errors the same way as JAXBObjectToXmlConverter does
+            Exception reported = otaErrorHandler.hasThrown() ? otaErrorHandler.getThrown() : e;
+            throw new XmlConversionException(JAXBObjectToXmlConverter.buildErrorMessage(reported), e);
+        } catch (TransformerConfigurationException | IOException e) {
+            this.validationMetrics.recordFailure();
+            throw new XmlConversionException(JAXBObjectToXmlConverter.buildErrorMessage(e), e);
+        } finally {
+            spool.discardQuietly();
+        }
+    }
+
+    private TransformerHandler newSerializer() throws TransformerConfigurationException {
+        TransformerHandler handler = TRANSFORMER_FACTORY.newTransformerHandler();
+        Transformer transformer = handler.getTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+        transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
+        if (this.doPrettyPrintXml) {
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(INDENT_AMOUNT, "4");
+        }
+        return handler;
+    }
+
+    private static SAXTransformerFactory buildTransformerFactory() {
+        try {
+            SAXTransformerFactory factory = (SAXTransformerFactory) TransformerFactory.newDefaultInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+            return factory;
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Unable to configure transformer factory", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.pool.PoolKey;
+import it.bz.opendatahub.alpinebits.xml.pool.PooledObject;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.UnmarshallerHandler;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class converts XML to Java objects in a single pass over the input.
+ * <p>
+ * The XML is parsed once and the resulting SAX events are forwarded to
+ * the OTA 2015a schema validator, the (optional) AlpineBits schema validator
+ * and the JAXB unmarshaller at the same time. In contrast to
+ * {@link JAXBXmlToObjectConverter}, the input is never materialized as String.
+ * <p>
+ * The error messages are the same as the ones produced by
+ * {@link JAXBXmlToObjectConverter}. Since all checks run side by side,
+ * the first error found in document order is reported, even if it is
+ * an AlpineBits schema error and an OTA schema error would follow later on.
+ *
+ * @param <T> converted object type
+ */
+final class StreamingJAXBXmlToObjectConverter<T> implements XmlToObjectConverter<T> {
+
+    private static final SAXParserFactory SAX_PARSER_FACTORY = buildSaxParserFactory();
+
+    private final Schema schema;
+    private final Class<T> classToBeBound;
+    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final PoolKey unmarshallerKey;
+    private final ValidationTier validationTier;
+
+    StreamingJAXBXmlToObjectConverter(Schema schema, Class<T> classToBeBound, XmlObjectPool pool, ValidationTier validationTier) {
+        this.schema = schema;
+        this.validationTier = validationTier;
+        this.classToBeBound = classToBeBound;
+        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = pool;
+        // Validation is done by the ValidatorHandlers, the unmarshaller needs no schema
+        this.unmarshallerKey = PoolKey.of(null, false, classToBeBound);
+    }
+
+    @Override
+    public T toObject(InputStream is) {
+        RecordingErrorHandler parserErrorHandler = new RecordingErrorHandler();
+        RecordingErrorHandler otaErrorHandler = new RecordingErrorHandler();
+        try (PooledObject<Unmarshaller> unmarshaller = this.pool.unmarshaller(this.unmarshallerKey)) {
+            // Unmarshal XML to object
+            UnmarshallerHandler unmarshallerHandler = unmarshaller.get().getUnmarshallerHandler();
+            ContentHandler contentHandler = this.buildContentHandler(otaErrorHandler, unmarshallerHandler);
+
+            XMLReader xmlReader = SAX_PARSER_FACTORY.newSAXParser().getXMLReader();
+            xmlReader.setErrorHandler(parserErrorHandler);
+            xmlReader.setContentHandler(contentHandler);
+            xmlReader.parse(new InputSource(is));
+
+            return this.classToBeBound.cast(unmarshallerHandler.getResult());
+        } catch (SAXException e) {
+            // Parser and OTA validation errors are reported as-is, all other errors
+            // are reported as if thrown by the unmarshaller (see JAXBXmlToObjectConverter)
+            Exception reported = parserErrorHandler.hasThrown() || otaErrorHandler.hasThrown()
+                    ? e
+                    : new UnmarshalException(e);
+            String message = JAXBXmlToObjectConverter.buildErrorMessage(reported);
+            throw new XmlConversionException(message, 400, e);
+        } catch (JAXBException e) {
+            String message = JAXBXmlToObjectConverter.buildErrorMessage(e);
+            throw new XmlConversionException(message, 400, e);
+        } catch (IOException | ParserConfigurationException e) {
+            String message = JAXBXmlToObjectConverter.buildErrorMessage(e);
+            throw new XmlConversionException(message, e);
+        }
+    }
+
+    private ContentHandler buildContentHandler(RecordingErrorHandler otaErrorHandler, UnmarshallerHandler unmarshallerHandler) {
+        List<ContentHandler> handlers = new ArrayList<>(3);
+        if (this.validationTier.isOta()) {
+            // Validate against OTA 2015a XSD
+            ValidatorHandler otaValidatorHandler = this.otaSchema.newValidatorHandler();
+            otaValidatorHandler.setErrorHandler(otaErrorHandler);
+            handlers.add(otaValidatorHandler);
+        }
+        if (this.validationTier.isAlpineBits() && this.schema != null) {
+            // Validate against given AlpineBits schema
+            ValidatorHandler alpineBitsValidatorHandler = this.schema.newValidatorHandler();
+            alpineBitsValidatorHandler.setErrorHandler(new RecordingErrorHandler());
+            handlers.add(alpineBitsValidatorHandler);
+        }
+        if (handlers.isEmpty()) {
+            return unmarshallerHandler;
+        }
+        handlers.add(unmarshallerHandler);
+        return new TeeContentHandler(handlers.toArray(new ContentHandler[0]));
+    }
+
+    private static SAXParserFactory buildSaxParserFactory() {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return factory;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("Unable to configure SAX parser factory", e);
+        }
+    }
+}
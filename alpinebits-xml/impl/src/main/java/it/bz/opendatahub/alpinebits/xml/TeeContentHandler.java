@@ -0,0 +1,112 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+/**
+ * A {@link ContentHandler} that forwards every SAX event to a fixed
+ * list of delegates, in the order they were given.
+ * <p>
+ * This allows e.g. multiple validators and an unmarshaller to consume
+ * the same event stream, such that the XML needs to be parsed only once.
+ */
+final class TeeContentHandler implements ContentHandler {
+
+    private final ContentHandler[] delegates;
+
+    TeeContentHandler(ContentHandler... delegates) {
+        if (delegates == null) {
+            throw new IllegalArgumentException("The delegates must not be null");
+        }
+        this.delegates = delegates.clone();
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.setDocumentLocator(locator);
+        }
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.startDocument();
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.endDocument();
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(String prefix, String uri) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.startPrefixMapping(prefix, uri);
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(String prefix) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.endPrefixMapping(prefix);
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.startElement(uri, localName, qName, atts);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.endElement(uri, localName, qName);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.characters(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.ignorableWhitespace(ch, start, length);
+        }
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.processingInstruction(target, data);
+        }
+    }
+
+    @Override
+    public void skippedEntity(String name) throws SAXException {
+        for (ContentHandler delegate : this.delegates) {
+            delegate.skippedEntity(name);
+        }
+    }
+}
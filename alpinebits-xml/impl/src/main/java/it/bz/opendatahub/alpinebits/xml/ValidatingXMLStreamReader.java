@@ -0,0 +1,191 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * {@link XMLStreamReader} that reports every event read from it as SAX
+ * event to a {@link ContentHandler}, e.g. a
+ * {@link javax.xml.validation.ValidatorHandler}.
+ * <p>
+ * This allows to validate the XML while it is read, such that it needs
+ * to be parsed only once. Events are reported when the reader advances
+ * to them, i.e. before the caller gets to see them. If the
+ * {@link ContentHandler} throws an exception, it is rethrown wrapped
+ * in a {@link XMLStreamException}.
+ */
+final class ValidatingXMLStreamReader extends StreamReaderDelegate {
+
+    private static final String CDATA = "CDATA";
+
+    private final ContentHandler handler;
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    ValidatingXMLStreamReader(XMLStreamReader reader, ContentHandler handler) throws XMLStreamException {
+        super(reader);
+        if (handler == null) {
+            throw new IllegalArgumentException("The handler must not be null");
+        }
+        this.handler = handler;
+        this.handler.setDocumentLocator(new StaxLocator(reader));
+        this.forward(reader.getEventType());
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        this.forward(event);
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = this.next();
+        while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            if (event != XMLStreamConstants.COMMENT
+                    && event != XMLStreamConstants.PROCESSING_INSTRUCTION
+                    && event != XMLStreamConstants.SPACE
+                    && !this.isWhiteSpace()) {
+                throw new XMLStreamException("Expected start or end tag", this.getLocation());
+            }
+            event = this.next();
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        int event = this.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("Element text must not contain elements", this.getLocation());
+            }
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                sb.append(this.getTextCharacters(), this.getTextStart(), this.getTextLength());
+            }
+            event = this.next();
+        }
+        return sb.toString();
+    }
+
+    private void forward(int event) throws XMLStreamException {
+        try {
+            switch (event) {
+                case XMLStreamConstants.START_DOCUMENT:
+                    this.handler.startDocument();
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    this.handler.endDocument();
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    this.startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    this.endElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    this.handler.characters(this.getTextCharacters(), this.getTextStart(), this.getTextLength());
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    this.handler.processingInstruction(this.getPITarget(), this.getPIData());
+                    break;
+                default:
+                    break;
+            }
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), this.getLocation(), e);
+        }
+    }
+
+    private void startElement() throws SAXException {
+        for (int i = 0; i < this.getNamespaceCount(); i++) {
+            this.handler.startPrefixMapping(nonNull(this.getNamespacePrefix(i)), nonNull(this.getNamespaceURI(i)));
+        }
+        this.attributes.clear();
+        for (int i = 0; i < this.getAttributeCount(); i++) {
+            String localName = this.getAttributeLocalName(i);
+            this.attributes.addAttribute(
+                    nonNull(this.getAttributeNamespace(i)),
+                    localName,
+                    qName(this.getAttributePrefix(i), localName),
+                    CDATA,
+                    this.getAttributeValue(i)
+            );
+        }
+        String localName = this.getLocalName();
+        this.handler.startElement(nonNull(this.getNamespaceURI()), localName, qName(this.getPrefix(), localName), this.attributes);
+    }
+
+    private void endElement() throws SAXException {
+        String localName = this.getLocalName();
+        this.handler.endElement(nonNull(this.getNamespaceURI()), localName, qName(this.getPrefix(), localName));
+        for (int i = 0; i < this.getNamespaceCount(); i++) {
+            this.handler.endPrefixMapping(nonNull(this.getNamespacePrefix(i)));
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * {@link Locator} reporting the current location of an {@link XMLStreamReader}.
+     */
+    private static final class StaxLocator implements Locator {
+
+        private final XMLStreamReader reader;
+
+        StaxLocator(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String getPublicId() {
+            Location location = this.reader.getLocation();
+            return location == null ? null : location.getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            Location location = this.reader.getLocation();
+            return location == null ? null : location.getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            Location location = this.reader.getLocation();
+            return location == null ? -1 : location.getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            Location location = this.reader.getLocation();
+            return location == null ? -1 : location.getColumnNumber();
+        }
+    }
+}
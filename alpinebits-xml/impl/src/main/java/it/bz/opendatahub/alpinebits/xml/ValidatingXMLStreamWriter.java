@@ -0,0 +1,261 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * {@link XMLStreamWriter} that reports everything written to it as SAX
+ * events to a {@link ContentHandler}, e.g. a
+ * {@link javax.xml.validation.ValidatorHandler}.
+ * <p>
+ * A SAX start element event needs the attributes of the element, that
+ * are written after the start tag with StAX. The start element event is
+ * therefore reported as soon as the first call, that is not related to
+ * attributes or namespaces, is made.
+ * <p>
+ * If the {@link ContentHandler} throws an exception, it is rethrown
+ * wrapped in a {@link XMLStreamException}.
+ */
+final class ValidatingXMLStreamWriter extends DelegatingXMLStreamWriter {
+
+    private static final String CDATA = "CDATA";
+
+    private final ContentHandler handler;
+    private final Deque<Element> openElements = new ArrayDeque<>();
+
+    private Element pending;
+    private boolean pendingIsEmpty;
+
+    ValidatingXMLStreamWriter(XMLStreamWriter delegate, ContentHandler handler) throws XMLStreamException {
+        super(delegate);
+        if (handler == null) {
+            throw new IllegalArgumentException("The handler must not be null");
+        }
+        this.handler = handler;
+        try {
+            handler.startDocument();
+        } catch (SAXException e) {
+            throw toXMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        this.startElement(null, localName, this.defaultNamespace(), false);
+        super.writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.startElement(super.getPrefix(namespaceURI), localName, namespaceURI, false);
+        super.writeStartElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.startElement(prefix, localName, namespaceURI, false);
+        super.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.startElement(super.getPrefix(namespaceURI), localName, namespaceURI, true);
+        super.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.startElement(prefix, localName, namespaceURI, true);
+        super.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        this.startElement(null, localName, this.defaultNamespace(), true);
+        super.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        this.flushPending();
+        Element element = this.openElements.pop();
+        this.endElement(element);
+        super.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        this.flushPending();
+        while (!this.openElements.isEmpty()) {
+            this.endElement(this.openElements.pop());
+        }
+        try {
+            this.handler.endDocument();
+        } catch (SAXException e) {
+            throw toXMLStreamException(e);
+        }
+        super.writeEndDocument();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        this.addAttribute(null, "", localName, value);
+        super.writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        this.addAttribute(prefix, namespaceURI, localName, value);
+        super.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        this.addAttribute(super.getPrefix(namespaceURI), namespaceURI, localName, value);
+        super.writeAttribute(namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (prefix == null || prefix.isEmpty() || XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+            this.writeDefaultNamespace(namespaceURI);
+            return;
+        }
+        this.addPrefixMapping(prefix, namespaceURI);
+        super.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        this.addPrefixMapping(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+        super.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        this.characters(data.toCharArray(), 0, data.length());
+        super.writeCData(data);
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        this.characters(text.toCharArray(), 0, text.length());
+        super.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        this.characters(text, start, len);
+        super.writeCharacters(text, start, len);
+    }
+
+    private void startElement(String prefix, String localName, String namespaceURI, boolean empty) throws XMLStreamException {
+        this.flushPending();
+        this.pending = new Element(prefix, localName, namespaceURI);
+        this.pendingIsEmpty = empty;
+    }
+
+    private void addAttribute(String prefix, String namespaceURI, String localName, String value) {
+        if (this.pending != null) {
+            String uri = namespaceURI == null ? "" : namespaceURI;
+            this.pending.attributes.addAttribute(uri, localName, qName(prefix, localName), CDATA, value);
+        }
+    }
+
+    private void addPrefixMapping(String prefix, String namespaceURI) {
+        if (this.pending != null) {
+            this.pending.prefixMappings.add(new String[]{prefix, namespaceURI == null ? "" : namespaceURI});
+        }
+    }
+
+    private void characters(char[] text, int start, int len) throws XMLStreamException {
+        this.flushPending();
+        try {
+            this.handler.characters(text, start, len);
+        } catch (SAXException e) {
+            throw toXMLStreamException(e);
+        }
+    }
+
+    private void flushPending() throws XMLStreamException {
+        if (this.pending == null) {
+            return;
+        }
+        Element element = this.pending;
+        this.pending = null;
+        try {
+            for (String[] mapping : element.prefixMappings) {
+                this.handler.startPrefixMapping(mapping[0], mapping[1]);
+            }
+            this.handler.startElement(element.namespaceURI, element.localName, element.qName, element.attributes);
+        } catch (SAXException e) {
+            throw toXMLStreamException(e);
+        }
+        if (this.pendingIsEmpty) {
+            this.endElement(element);
+        } else {
+            this.openElements.push(element);
+        }
+    }
+
+    private void endElement(Element element) throws XMLStreamException {
+        try {
+            this.handler.endElement(element.namespaceURI, element.localName, element.qName);
+            for (String[] mapping : element.prefixMappings) {
+                this.handler.endPrefixMapping(mapping[0]);
+            }
+        } catch (SAXException e) {
+            throw toXMLStreamException(e);
+        }
+    }
+
+    private String defaultNamespace() {
+        String namespaceURI = super.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+        return namespaceURI == null ? "" : namespaceURI;
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static XMLStreamException toXMLStreamException(SAXException e) {
+        return new XMLStreamException(e.getMessage(), e);
+    }
+
+    /**
+     * Start tag data collected until the SAX start element event is reported.
+     */
+    private static final class Element {
+
+        private final String localName;
+        private final String namespaceURI;
+        private final String qName;
+        private final AttributesImpl attributes = new AttributesImpl();
+        private final List<String[]> prefixMappings = new ArrayList<>(1);
+
+        Element(String prefix, String localName, String namespaceURI) {
+            this.localName = localName;
+            this.namespaceURI = namespaceURI == null ? "" : namespaceURI;
+            this.qName = qName(prefix, localName);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the documents converted by an {@link ObjectToXmlConverter}
+ * under a {@link ValidationPolicy}.
+ * <p>
+ * Validation runs interleaved with marshalling, therefore the time is recorded
+ * per conversion, separately for validated and skipped documents. The difference
+ * of the average times is the validation overhead. Failed conversions are
+ * only counted as failed, without time.
+ * <p>
+ * Instances of this class are thread-safe and may be shared between converters.
+ */
+public final class ValidationMetrics {
+
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder validatedTimeNanos = new LongAdder();
+    private final LongAdder skippedTimeNanos = new LongAdder();
+
+    /**
+     * Get the number of validated documents.
+     *
+     * @return number of validated documents
+     */
+    public long getValidatedCount() {
+        return this.validated.sum();
+    }
+
+    /**
+     * Get the number of documents, whose validation was skipped.
+     *
+     * @return number of skipped documents
+     */
+    public long getSkippedCount() {
+        return this.skipped.sum();
+    }
+
+    /**
+     * Get the number of documents, whose conversion failed (e.g. because they were invalid).
+     *
+     * @return number of failed documents
+     */
+    public long getFailedCount() {
+        return this.failed.sum();
+    }
+
+    /**
+     * Get the total conversion time of the validated documents.
+     *
+     * @return total time in nanoseconds
+     */
+    public long getValidatedTimeNanos() {
+        return this.validatedTimeNanos.sum();
+    }
+
+    /**
+     * Get the total conversion time of the documents, whose validation was skipped.
+     *
+     * @return total time in nanoseconds
+     */
+    public long getSkippedTimeNanos() {
+        return this.skippedTimeNanos.sum();
+    }
+
+    void record(boolean validated, long nanos) {
+        if (validated) {
+            this.validated.increment();
+            this.validatedTimeNanos.add(nanos);
+        } else {
+            this.skipped.increment();
+            this.skippedTimeNanos.add(nanos);
+        }
+    }
+
+    void recordFailure() {
+        this.failed.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationMetrics{"
+                + "validated=" + this.getValidatedCount()
+                + ", skipped=" + this.getSkippedCount()
+                + ", failed=" + this.getFailedCount()
+                + ", validatedTimeNanos=" + this.getValidatedTimeNanos()
+                + ", skippedTimeNanos=" + this.getSkippedTimeNanos()
+                + '}';
+    }
+}
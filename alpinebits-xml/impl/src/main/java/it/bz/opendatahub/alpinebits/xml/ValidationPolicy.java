@@ -0,0 +1,171 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy that decides, if a document converted by an {@link ObjectToXmlConverter}
+ * is validated.
+ * <p>
+ * Validation covers the AlpineBits schema of the converter and the OTA 2015a
+ * schema. Responses built by the server itself (e.g. acknowledgements or cached
+ * pull responses) are usually valid by construction, therefore validating
+ * only a sample of them, or none at all, removes that overhead. Documents
+ * that are not validated may reach the client even if they are invalid.
+ * <p>
+ * The policy used by the converter builders defaults to the value of the
+ * system property {@value #SYSTEM_PROPERTY}, such that the policy can be
+ * switched by configuration, e.g. <code>-Dalpinebits.xml.responseValidation=sampled:0.01</code>.
+ */
+public final class ValidationPolicy {
+
+    /**
+     * Name of the system property that configures the default policy.
+     */
+    public static final String SYSTEM_PROPERTY = "alpinebits.xml.responseValidation";
+
+    private static final ValidationPolicy ALWAYS = new ValidationPolicy(Mode.ALWAYS, 1.0);
+    private static final ValidationPolicy NEVER = new ValidationPolicy(Mode.NEVER, 0.0);
+
+    private static final String SAMPLED_PREFIX = "sampled:";
+
+    /**
+     * The validation modes.
+     */
+    public enum Mode {
+        /**
+         * Every document is validated.
+         */
+        ALWAYS,
+        /**
+         * A random sample of the documents is validated.
+         */
+        SAMPLED,
+        /**
+         * No document is validated.
+         */
+        NEVER
+    }
+
+    private final Mode mode;
+    private final double sampleRate;
+
+    private ValidationPolicy(Mode mode, double sampleRate) {
+        this.mode = mode;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Get the policy that validates every document.
+     *
+     * @return the {@link ValidationPolicy}
+     */
+    public static ValidationPolicy always() {
+        return ALWAYS;
+    }
+
+    /**
+     * Get the policy that doesn't validate any document.
+     *
+     * @return the {@link ValidationPolicy}
+     */
+    public static ValidationPolicy never() {
+        return NEVER;
+    }
+
+    /**
+     * Get a policy that validates a random sample of the documents.
+     *
+     * @param sampleRate fraction of the documents to validate, from 0.0 (none) to 1.0 (all)
+     * @return the {@link ValidationPolicy}
+     * @throws IllegalArgumentException if sampleRate is not in the range [0.0, 1.0]
+     */
+    public static ValidationPolicy sampled(double sampleRate) {
+        if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("The sample rate must be between 0.0 and 1.0, but was " + sampleRate);
+        }
+        return new ValidationPolicy(Mode.SAMPLED, sampleRate);
+    }
+
+    /**
+     * Parse a policy from its textual representation, i.e. <code>always</code>,
+     * <code>never</code> or <code>sampled:RATE</code> (e.g. <code>sampled:0.05</code>).
+     *
+     * @param value the textual representation
+     * @return the {@link ValidationPolicy}
+     * @throws IllegalArgumentException if value is null or not a valid policy
+     */
+    public static ValidationPolicy parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The validation policy must not be null");
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if ("always".equals(normalized)) {
+            return ALWAYS;
+        }
+        if ("never".equals(normalized)) {
+            return NEVER;
+        }
+        if (normalized.startsWith(SAMPLED_PREFIX)) {
+            try {
+                return sampled(Double.parseDouble(normalized.substring(SAMPLED_PREFIX.length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sample rate in validation policy \"" + value + "\"", e);
+            }
+        }
+        throw new IllegalArgumentException("Unknown validation policy \"" + value + "\", expected always, never or sampled:RATE");
+    }
+
+    /**
+     * Get the policy configured with the system property {@value #SYSTEM_PROPERTY}.
+     *
+     * @return the configured policy, {@link #always()} if the property is not set
+     * @throws IllegalArgumentException if the property value is not a valid policy
+     */
+    public static ValidationPolicy configured() {
+        String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return ALWAYS;
+        }
+        return parse(value);
+    }
+
+    /**
+     * Decide if the next document is validated.
+     *
+     * @return true if the document should be validated
+     */
+    public boolean shouldValidate() {
+        switch (this.mode) {
+            case ALWAYS:
+                return true;
+            case NEVER:
+                return false;
+            default:
+                return ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+        }
+    }
+
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    public double getSampleRate() {
+        return this.sampleRate;
+    }
+
+    @Override
+    public String toString() {
+        return this.mode == Mode.SAMPLED ? SAMPLED_PREFIX + this.sampleRate : this.mode.name().toLowerCase(Locale.ROOT);
+    }
+}
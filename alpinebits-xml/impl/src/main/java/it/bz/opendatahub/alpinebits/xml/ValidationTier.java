@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+/**
+ * The validation passes applied to inbound XML documents by an
+ * {@link XmlToObjectConverter}.
+ * <p>
+ * By default, documents are validated against the OTA 2015a schema and against
+ * the AlpineBits schema. The AlpineBits schema is stricter than the OTA schema
+ * for most elements, such that a single pass may be sufficient. Documents of
+ * trusted senders may skip validation completely.
+ */
+public enum ValidationTier {
+
+    /**
+     * Validate against the OTA 2015a schema and the AlpineBits schema.
+     */
+    OTA_AND_ALPINEBITS(true, true),
+
+    /**
+     * Validate against the OTA 2015a schema only.
+     */
+    OTA(true, false),
+
+    /**
+     * Validate against the AlpineBits schema only. If the converter has
+     * no AlpineBits schema, no validation is performed.
+     */
+    ALPINEBITS(false, true),
+
+    /**
+     * Don't validate, e.g. for trusted internal senders.
+     */
+    NONE(false, false);
+
+    private final boolean ota;
+    private final boolean alpineBits;
+
+    ValidationTier(boolean ota, boolean alpineBits) {
+        this.ota = ota;
+        this.alpineBits = alpineBits;
+    }
+
+    /**
+     * Check if documents are validated against the OTA 2015a schema.
+     *
+     * @return true if the OTA 2015a schema is used
+     */
+    public boolean isOta() {
+        return this.ota;
+    }
+
+    /**
+     * Check if documents are validated against the AlpineBits schema.
+     *
+     * @return true if the AlpineBits schema is used
+     */
+    public boolean isAlpineBits() {
+        return this.alpineBits;
+    }
+}
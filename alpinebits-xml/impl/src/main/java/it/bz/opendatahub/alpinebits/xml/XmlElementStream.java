@@ -0,0 +1,187 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.middleware.Key;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxSupport;
+import jakarta.xml.bind.JAXBException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull based stream of the repeated elements of an XML document, e.g. the
+ * <code>Inventory</code> elements of an <code>OTA_HotelInvCountNotifRQ</code>.
+ * <p>
+ * The elements are unmarshalled one at a time while the XML is read, such that
+ * only a single element needs to be held in memory. The document is validated
+ * while it is read, i.e. a validation error is thrown as
+ * {@link XmlConversionException} by {@link #hasNext()} or {@link #next()} as
+ * soon as it is encountered. The document is completely validated when
+ * {@link #hasNext()} returned false.
+ * <p>
+ * Instances must be closed after use. The underlying {@link java.io.InputStream}
+ * is not closed.
+ *
+ * @param <T> envelope type, i.e. type of the root element
+ * @param <E> element type
+ */
+public final class XmlElementStream<T, E> implements Iterator<E>, AutoCloseable {
+
+    private final XMLStreamReader reader;
+    private final StaxSupport support;
+    private final RecordingErrorHandler otaErrorHandler;
+    private final RecordingErrorHandler alpineBitsErrorHandler;
+    private final String elementNamespace;
+    private final String elementName;
+    private final Class<E> elementType;
+
+    private T envelope;
+    private boolean inContainer;
+    private boolean elementAvailable;
+    private boolean finished;
+
+    XmlElementStream(
+            XMLStreamReader reader,
+            StaxSupport support,
+            RecordingErrorHandler otaErrorHandler,
+            RecordingErrorHandler alpineBitsErrorHandler,
+            String elementNamespace,
+            String elementName,
+            Class<E> elementType
+    ) {
+        this.reader = reader;
+        this.support = support;
+        this.otaErrorHandler = otaErrorHandler;
+        this.alpineBitsErrorHandler = alpineBitsErrorHandler;
+        this.elementNamespace = elementNamespace;
+        this.elementName = elementName;
+        this.elementType = elementType;
+    }
+
+    /**
+     * Build a context {@link Key} for an {@link XmlElementStream}.
+     *
+     * @param identifier key identifier
+     * @param <T>        envelope type
+     * @param <E>        element type
+     * @return the key
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, E> Key<XmlElementStream<T, E>> key(String identifier) {
+        return Key.key(identifier, (Class<XmlElementStream<T, E>>) (Class<?>) XmlElementStream.class);
+    }
+
+    /**
+     * Get the envelope, i.e. the root element with all content that precedes
+     * the first streamed element. The streamed elements are not part of the
+     * envelope, neither is any content that follows them.
+     *
+     * @return the envelope
+     */
+    public T getEnvelope() {
+        return this.envelope;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.elementAvailable) {
+            return true;
+        }
+        if (this.finished) {
+            return false;
+        }
+        try {
+            this.advance();
+        } catch (XMLStreamException e) {
+            throw this.conversionException(e);
+        }
+        return this.elementAvailable;
+    }
+
+    @Override
+    public E next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No more elements " + this.elementName + " available");
+        }
+        this.elementAvailable = false;
+        try {
+            return this.support.unmarshal(this.reader, this.elementType);
+        } catch (JAXBException e) {
+            throw this.conversionException(e);
+        }
+    }
+
+    /**
+     * Release the resources held by this stream.
+     */
+    @Override
+    public void close() {
+        this.finished = true;
+        this.elementAvailable = false;
+        this.support.close();
+        try {
+            this.reader.close();
+        } catch (XMLStreamException e) {
+            // Nothing to do, the underlying stream is closed by the caller
+        }
+    }
+
+    void setEnvelope(T envelope) {
+        this.envelope = envelope;
+    }
+
+    void setInContainer(boolean inContainer) {
+        this.inContainer = inContainer;
+        this.elementAvailable = inContainer && this.isElementStart();
+        this.finished = this.reader.getEventType() == XMLStreamConstants.END_DOCUMENT;
+    }
+
+    <R> R unmarshalEnvelope(XMLStreamReader envelopeReader, Class<R> rootType) throws JAXBException {
+        return this.support.unmarshal(envelopeReader, rootType);
+    }
+
+    XmlConversionException conversionException(Exception e) {
+        String message = StaxXmlToObjectConverter.buildErrorMessage(e, this.otaErrorHandler, this.alpineBitsErrorHandler);
+        this.close();
+        return new XmlConversionException(message, 400, e);
+    }
+
+    private void advance() throws XMLStreamException {
+        int event = this.reader.getEventType();
+        while (event != XMLStreamConstants.END_DOCUMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (this.inContainer && this.isElementStart()) {
+                    this.elementAvailable = true;
+                    return;
+                }
+                // Other content is validated, but not returned
+                this.support.skipElement(this.reader);
+            } else {
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    this.inContainer = false;
+                }
+                this.reader.next();
+            }
+            event = this.reader.getEventType();
+        }
+        this.finished = true;
+    }
+
+    private boolean isElementStart() {
+        return this.reader.getEventType() == XMLStreamConstants.START_ELEMENT
+                && this.elementName.equals(this.reader.getLocalName())
+                && StaxSupport.inNamespace(this.reader.getNamespaceURI(), this.elementNamespace);
+    }
+}
@@ -0,0 +1,263 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.stax.StaxSupport;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSchema;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.Schema;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class converts XML documents with many repeated elements into an
+ * {@link XmlElementStream}, that returns the elements one at a time while
+ * the XML is read.
+ * <p>
+ * The repeated elements are addressed by a path of local names, starting
+ * below the root element, e.g. <code>Inventories/Inventory</code> for the
+ * <code>Inventory</code> elements of an <code>OTA_HotelInvCountNotifRQ</code>.
+ * All path elements are expected in the namespace of the root element.
+ * <p>
+ * The XML is validated against the OTA 2015a schema and the (optional)
+ * AlpineBits schema while it is read, as selected by the {@link ValidationTier}. Memory consumption is bound by the
+ * size of a single element, not by the size of the document.
+ *
+ * @param <T> envelope type, i.e. type of the root element
+ * @param <E> element type
+ */
+public final class XmlElementStreamConverter<T, E> {
+
+    private final Class<T> rootType;
+    private final QName rootElement;
+    private final List<String> path;
+    private final Class<E> elementType;
+    private final Schema schema;
+    private final Schema otaSchema;
+    private final XmlObjectPool pool;
+    private final ValidationTier validationTier;
+
+    private XmlElementStreamConverter(Builder<T, E> builder) {
+        this.rootType = builder.rootType;
+        this.rootElement = rootElement(builder.rootType);
+        this.path = builder.path;
+        this.elementType = builder.elementType;
+        this.schema = builder.schema;
+        this.otaSchema = OtaSchemaSingleton.getInstance();
+        this.pool = builder.pool;
+        this.validationTier = builder.validationTier;
+    }
+
+    /**
+     * Get a {@link Builder} for the <code>Inventory</code> elements of
+     * <code>OTA_HotelInvCountNotifRQ</code> documents (FreeRooms).
+     *
+     * @return the {@link Builder}
+     */
+    public static Builder<OTAHotelInvCountNotifRQ, BaseInvCountType> inventories() {
+        return new Builder<>(OTAHotelInvCountNotifRQ.class, BaseInvCountType.class, "Inventories", "Inventory");
+    }
+
+    /**
+     * Open an {@link XmlElementStream} for the XML read from the given
+     * {@link InputStream}. The envelope is read before this method returns.
+     *
+     * @param is XML source
+     * @return the {@link XmlElementStream}, that must be closed after use
+     * @throws XmlConversionException if the envelope could not be read
+     */
+    public XmlElementStream<T, E> open(InputStream is) {
+        RecordingErrorHandler otaErrorHandler = new RecordingErrorHandler();
+        RecordingErrorHandler alpineBitsErrorHandler = new RecordingErrorHandler();
+        XMLStreamReader reader;
+        try {
+            reader = StaxXmlToObjectConverter.buildReader(is, this.otaSchema, this.schema, this.validationTier,
+                    otaErrorHandler, alpineBitsErrorHandler);
+        } catch (XMLStreamException e) {
+            String message = StaxXmlToObjectConverter.buildErrorMessage(e, otaErrorHandler, alpineBitsErrorHandler);
+            throw new XmlConversionException(message, 400, e);
+        }
+
+        String elementName = this.path.get(this.path.size() - 1);
+        XmlElementStream<T, E> stream = new XmlElementStream<>(reader, new StaxSupport(this.pool), otaErrorHandler,
+                alpineBitsErrorHandler, this.rootElement.getNamespaceURI(), elementName, this.elementType);
+        try {
+            this.readEnvelope(reader, stream);
+        } catch (XMLStreamException | JAXBException | IllegalArgumentException e) {
+            throw stream.conversionException(e);
+        }
+        return stream;
+    }
+
+    private void readEnvelope(XMLStreamReader reader, XmlElementStream<T, E> stream) throws XMLStreamException, JAXBException {
+        reader.nextTag();
+        if (!this.rootElement.equals(reader.getName())) {
+            throw new XMLStreamException("Expected root element " + this.rootElement
+                    + " but found " + reader.getName(), reader.getLocation());
+        }
+
+        EnvelopeWriter envelopeWriter = new EnvelopeWriter();
+        envelopeWriter.copyStartElement(reader);
+        reader.next();
+
+        // Copy everything up to the first streamed element into the envelope
+        int depth = 0;
+        boolean atElement = false;
+        int event = reader.getEventType();
+        while (!atElement && event != XMLStreamConstants.END_DOCUMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT && this.isPathElement(reader, depth)) {
+                atElement = depth == this.path.size() - 1;
+                if (!atElement) {
+                    envelopeWriter.copyStartElement(reader);
+                    depth++;
+                    reader.next();
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                envelopeWriter.copyElement(reader);
+            } else {
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    envelopeWriter.writeEndElement();
+                    depth--;
+                }
+                reader.next();
+            }
+            event = reader.getEventType();
+        }
+
+        stream.setEnvelope(stream.unmarshalEnvelope(envelopeWriter.toReader(), this.rootType));
+        stream.setInContainer(atElement);
+    }
+
+    private boolean isPathElement(XMLStreamReader reader, int depth) {
+        return depth >= 0
+                && depth < this.path.size()
+                && this.path.get(depth).equals(reader.getLocalName())
+                && StaxSupport.inNamespace(reader.getNamespaceURI(), this.rootElement.getNamespaceURI());
+    }
+
+    private static QName rootElement(Class<?> rootType) {
+        XmlRootElement xmlRootElement = rootType.getAnnotation(XmlRootElement.class);
+        if (xmlRootElement == null) {
+            throw new IllegalArgumentException("The root type " + rootType.getName() + " must be annotated with @XmlRootElement");
+        }
+        String namespace = xmlRootElement.namespace();
+        if ("##default".equals(namespace)) {
+            XmlSchema xmlSchema = rootType.getPackage().getAnnotation(XmlSchema.class);
+            namespace = xmlSchema == null ? "" : xmlSchema.namespace();
+        }
+        return new QName(namespace, xmlRootElement.name());
+    }
+
+    /**
+     * Builder to create instances of {@link XmlElementStreamConverter}.
+     *
+     * @param <T> envelope type
+     * @param <E> element type
+     */
+    public static class Builder<T, E> {
+
+        private final Class<T> rootType;
+        private final Class<E> elementType;
+        private final List<String> path;
+
+        private Schema schema;
+        private XmlObjectPool pool = XmlObjectPool.unpooled();
+        private ValidationTier validationTier = ValidationTier.OTA_AND_ALPINEBITS;
+
+        /**
+         * Create a builder for the elements found at the given path.
+         *
+         * @param rootType    type of the root element, annotated with {@link XmlRootElement}
+         * @param elementType type of the streamed elements
+         * @param path        local names of the elements from below the root element
+         *                    down to the streamed element
+         */
+        public Builder(Class<T> rootType, Class<E> elementType, String... path) {
+            if (rootType == null) {
+                throw new IllegalArgumentException("The root type must not be null");
+            }
+            if (elementType == null) {
+                throw new IllegalArgumentException("The element type must not be null");
+            }
+            if (path == null || path.length == 0) {
+                throw new IllegalArgumentException("The path must not be empty");
+            }
+            this.rootType = rootType;
+            this.elementType = elementType;
+            this.path = Arrays.asList(path.clone());
+        }
+
+        /**
+         * The {@link Schema} is used for XML validation, in addition to
+         * the OTA 2015a schema.
+         * <p>
+         * If the schema is null (default: null), only the OTA validation
+         * will be performed.
+         *
+         * @param schema the {@link Schema} used for XML validation
+         * @return the current Builder
+         */
+        public Builder<T, E> schema(Schema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Set the {@link XmlObjectPool} that provides the unmarshallers
+         * (default: {@link XmlObjectPool#unpooled()}).
+         *
+         * @param pool the {@link XmlObjectPool} to use
+         * @return the current Builder
+         */
+        public Builder<T, E> pool(XmlObjectPool pool) {
+            if (pool == null) {
+                throw new IllegalArgumentException("The pool must not be null");
+            }
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Set the {@link ValidationTier}, i.e. the schemas used to validate
+         * the XML (default: {@link ValidationTier#OTA_AND_ALPINEBITS}).
+         *
+         * @param validationTier the {@link ValidationTier} to use
+         * @return the current Builder
+         */
+        public Builder<T, E> validationTier(ValidationTier validationTier) {
+            if (validationTier == null) {
+                throw new IllegalArgumentException("The validation tier must not be null");
+            }
+            this.validationTier = validationTier;
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link XmlElementStreamConverter} with
+         * the current configuration.
+         *
+         * @return instance of {@link XmlElementStreamConverter}
+         */
+        public XmlElementStreamConverter<T, E> build() {
+            return new XmlElementStreamConverter<>(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import java.util.Locale;
+
+/**
+ * The engines available to convert between XML and objects.
+ * <p>
+ * The engine used by the converter builders defaults to the value of the
+ * system property {@value #SYSTEM_PROPERTY}, such that the engine can
+ * be switched by configuration, e.g. <code>-Dalpinebits.xml.engine=stax</code>.
+ */
+public enum XmlEngine {
+
+    /**
+     * Reflection based binding with JAXB.
+     */
+    JAXB,
+
+    /**
+     * Generated StAX readers and writers for the OTA messages
+     * <code>OTA_HotelInvCountNotifRQ</code>, <code>OTA_HotelAvailNotifRQ</code>,
+     * <code>OTA_HotelDescriptiveContentNotifRQ</code> and their responses.
+     * All other messages are converted with {@link #JAXB}.
+     * <p>
+     * The generated bindings don't need the JAXBContext of {@link JAXBContextSingleton},
+     * that covers all OTA messages. A deployment, that only serves these messages
+     * (e.g. FreeRooms), never builds it.
+     */
+    STAX;
+
+    /**
+     * Name of the system property that configures the default engine.
+     */
+    public static final String SYSTEM_PROPERTY = "alpinebits.xml.engine";
+
+    /**
+     * Get the engine configured with the system property {@value #SYSTEM_PROPERTY}.
+     *
+     * @return the configured engine, {@link #JAXB} if the property is not set
+     * @throws IllegalArgumentException if the property value is not a known engine
+     */
+    public static XmlEngine configured() {
+        String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return JAXB;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown XML engine \"" + value + "\" configured in system property " + SYSTEM_PROPERTY, e);
+        }
+    }
+}
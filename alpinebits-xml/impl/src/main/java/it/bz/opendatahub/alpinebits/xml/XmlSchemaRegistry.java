@@ -0,0 +1,313 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.validation.Schema;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Registry of compiled AlpineBits validation schemas and of the converters using them.
+ * <p>
+ * Compiling a schema takes from hundreds of milliseconds up to seconds. The registry
+ * compiles each schema once per (version, format) and each converter once per
+ * (version, format, bound class), and returns the same instances afterwards.
+ * Concurrent requests for a schema, that is being compiled, wait for that compilation.
+ * <p>
+ * Use {@link #precompile(Collection, Collection)} at startup to compile all schemas
+ * needed by an application in parallel. The compile time of each schema is logged
+ * and available from {@link #getCompileTimes()}.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class XmlSchemaRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(XmlSchemaRegistry.class);
+
+    private final ConcurrentMap<RegistryKey, CompletableFuture<Schema>> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Duration> compileTimes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RegistryKey, XmlToObjectConverter<?>> xmlToObjectConverters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RegistryKey, ObjectToXmlConverter> objectToXmlConverters = new ConcurrentHashMap<>();
+    private final BiFunction<SchemaFormat, String, Schema> compiler;
+
+    public XmlSchemaRegistry() {
+        this(SchemaFormat::compile);
+    }
+
+    /**
+     * Create a registry, that compiles its schemas with the given function.
+     *
+     * @param compiler compiles the schema for a format and version
+     */
+    XmlSchemaRegistry(BiFunction<SchemaFormat, String, Schema> compiler) {
+        this.compiler = compiler;
+    }
+
+    /**
+     * Get the registry shared by the whole application.
+     *
+     * @return the shared {@link XmlSchemaRegistry}
+     */
+    public static XmlSchemaRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Get the schema for the given AlpineBits version and format, compiling it
+     * on the first call.
+     *
+     * @param version AlpineBits version, e.g. 2017-10
+     * @param format  the {@link SchemaFormat}
+     * @return the compiled {@link Schema}
+     * @throws IllegalArgumentException if version or format is null
+     * @throws InvalidSchemaException   if the schema could not be found or compiled,
+     *                                  the compilation is retried on the next call
+     */
+    public Schema getSchema(String version, SchemaFormat format) {
+        RegistryKey key = RegistryKey.of(version, format, null, false, null);
+        CompletableFuture<Schema> future = this.schemas.get(key);
+        if (future == null) {
+            CompletableFuture<Schema> compilation = new CompletableFuture<>();
+            future = this.schemas.putIfAbsent(key, compilation);
+            if (future == null) {
+                future = compilation;
+                this.compile(key, compilation);
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Get a converter from XML to objects of the given type, that validates
+     * against the schema for the given AlpineBits version and format.
+     *
+     * @param version AlpineBits version, e.g. 2017-10
+     * @param format  the {@link SchemaFormat}
+     * @param type    the bound class
+     * @param <T>     the bound type
+     * @return the {@link XmlToObjectConverter}, built by {@link JAXBXmlToObjectConverter.Builder}
+     * @throws IllegalArgumentException if an argument is null
+     * @throws InvalidSchemaException   if the schema could not be found or compiled
+     */
+    public <T> XmlToObjectConverter<T> getXmlToObjectConverter(String version, SchemaFormat format, Class<T> type) {
+        return this.getXmlToObjectConverter(version, format, type, ValidationTier.OTA_AND_ALPINEBITS);
+    }
+
+    /**
+     * Get a converter from XML to objects of the given type, that validates
+     * as defined by the given {@link ValidationTier}.
+     *
+     * @param version        AlpineBits version, e.g. 2017-10
+     * @param format         the {@link SchemaFormat}
+     * @param type           the bound class
+     * @param validationTier the {@link ValidationTier}
+     * @param <T>            the bound type
+     * @return the {@link XmlToObjectConverter}, built by {@link JAXBXmlToObjectConverter.Builder}
+     * @throws IllegalArgumentException if an argument is null
+     * @throws InvalidSchemaException   if the schema could not be found or compiled
+     */
+    @SuppressWarnings("unchecked")
+    public <T> XmlToObjectConverter<T> getXmlToObjectConverter(String version, SchemaFormat format, Class<T> type, ValidationTier validationTier) {
+        if (type == null) {
+            throw new IllegalArgumentException("The type must not be null");
+        }
+        if (validationTier == null) {
+            throw new IllegalArgumentException("The validation tier must not be null");
+        }
+        Schema schema = this.getSchema(version, format);
+        RegistryKey converterKey = RegistryKey.of(version, format, type, false, validationTier);
+        return (XmlToObjectConverter<T>) this.xmlToObjectConverters.computeIfAbsent(converterKey, key -> new JAXBXmlToObjectConverter.Builder<>(type)
+                .schema(schema)
+                .validationTier(validationTier)
+                .build());
+    }
+
+    /**
+     * Get a converter from objects to XML, that validates against the schema
+     * for the given AlpineBits version and format.
+     *
+     * @param version     AlpineBits version, e.g. 2017-10
+     * @param format      the {@link SchemaFormat}
+     * @param prettyPrint if <code>true</code>, the resulting XML is pretty printed
+     * @return the {@link ObjectToXmlConverter}, built by {@link JAXBObjectToXmlConverter.Builder}
+     * @throws IllegalArgumentException if version or format is null
+     * @throws InvalidSchemaException   if the schema could not be found or compiled
+     */
+    public ObjectToXmlConverter getObjectToXmlConverter(String version, SchemaFormat format, boolean prettyPrint) {
+        Schema schema = this.getSchema(version, format);
+        RegistryKey converterKey = RegistryKey.of(version, format, null, prettyPrint, null);
+        return this.objectToXmlConverters.computeIfAbsent(converterKey, key -> new JAXBObjectToXmlConverter.Builder()
+                .schema(schema)
+                .prettyPrint(prettyPrint)
+                .build());
+    }
+
+    /**
+     * Compile the schemas for all combinations of the given versions and formats
+     * in parallel. This method returns when all schemas are compiled.
+     *
+     * @param versions AlpineBits versions, e.g. 2017-10
+     * @param formats  the {@link SchemaFormat}s
+     * @throws IllegalArgumentException if versions or formats is null
+     * @throws InvalidSchemaException   if a schema could not be found or compiled
+     */
+    public void precompile(Collection<String> versions, Collection<SchemaFormat> formats) {
+        if (versions == null || formats == null) {
+            throw new IllegalArgumentException("The versions and formats must not be null");
+        }
+        long start = System.nanoTime();
+        int taskCount = versions.size() * formats.size();
+        int threads = Math.max(1, Math.min(taskCount, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CompilerThreadFactory());
+        try {
+            List<CompletableFuture<?>> compilations = new ArrayList<>();
+            for (String version : versions) {
+                for (SchemaFormat format : formats) {
+                    compilations.add(CompletableFuture.supplyAsync(() -> this.getSchema(version, format), executor));
+                }
+            }
+            join(CompletableFuture.allOf(compilations.toArray(new CompletableFuture<?>[0])));
+        } finally {
+            executor.shutdown();
+        }
+        LOG.info("Precompiled {} schemas with {} threads in {} ms", taskCount, threads, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Get the compile time of each schema compiled by this registry.
+     *
+     * @return unmodifiable map from schema filename (e.g. alpinebits-2017-10.rng) to compile time
+     */
+    public Map<String, Duration> getCompileTimes() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.compileTimes));
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private void compile(RegistryKey key, CompletableFuture<Schema> compilation) {
+        String filename = key.format.filename(key.version);
+        long start = System.nanoTime();
+        try {
+            Schema schema = this.compiler.apply(key.format, key.version);
+            Duration compileTime = Duration.ofNanos(System.nanoTime() - start);
+            this.compileTimes.put(filename, compileTime);
+            LOG.info("Compiled schema {} in {} ms", filename, compileTime.toMillis());
+            compilation.complete(schema);
+        } catch (Throwable e) {
+            // Allow the compilation to be retried. Errors (e.g. StackOverflowError)
+            // must complete the compilation too, otherwise waiting callers would block forever
+            this.schemas.remove(key, compilation);
+            compilation.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Key of the registered schemas and converters.
+     */
+    private static final class RegistryKey {
+
+        private final String version;
+        private final SchemaFormat format;
+        private final Class<?> type;
+        private final boolean prettyPrint;
+        private final ValidationTier validationTier;
+
+        private RegistryKey(String version, SchemaFormat format, Class<?> type, boolean prettyPrint, ValidationTier validationTier) {
+            this.version = version;
+            this.format = format;
+            this.type = type;
+            this.prettyPrint = prettyPrint;
+            this.validationTier = validationTier;
+        }
+
+        static RegistryKey of(String version, SchemaFormat format, Class<?> type, boolean prettyPrint, ValidationTier validationTier) {
+            if (version == null) {
+                throw new IllegalArgumentException("The version must not be null");
+            }
+            if (format == null) {
+                throw new IllegalArgumentException("The format must not be null");
+            }
+            return new RegistryKey(version, format, type, prettyPrint, validationTier);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            RegistryKey that = (RegistryKey) o;
+            return this.prettyPrint == that.prettyPrint
+                    && this.version.equals(that.version)
+                    && this.format == that.format
+                    && Objects.equals(this.type, that.type)
+                    && this.validationTier == that.validationTier;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.version, this.format, this.type, this.prettyPrint, this.validationTier);
+        }
+    }
+
+    /**
+     * Creates named daemon threads for the parallel schema compilation.
+     */
+    private static final class CompilerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "alpinebits-schema-compiler-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static class Holder {
+        static final XmlSchemaRegistry INSTANCE = new XmlSchemaRegistry();
+    }
+}
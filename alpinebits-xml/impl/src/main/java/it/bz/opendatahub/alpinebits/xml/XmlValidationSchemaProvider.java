@@ -124,12 +124,15 @@ public final class XmlValidationSchemaProvider {
     // Suppress "SchemaFactory.newInstance(String) is a security-sensitive method and should not be called with untrusted input"
     @SuppressWarnings("java:S2755")
     private static Schema buildKnownSchema(String filename, String schemaLanguage) throws SAXException {
-        URL xsdUrl = XmlValidationSchemaProvider.class.getClassLoader().getResource(filename);
+        ClasspathResourceResolver resolver = new ClasspathResourceResolver(XmlValidationSchemaProvider.class.getClassLoader());
+        URL xsdUrl = resolver.register(filename);
         SchemaFactory factory = SchemaFactory.newInstance(schemaLanguage);
         factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
         if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(schemaLanguage)) {
             factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
             factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
+            // Resolve includes and imports of the schema from the classpath
+            factory.setResourceResolver(resolver);
         }
         return factory.newSchema(xsdUrl);
     }
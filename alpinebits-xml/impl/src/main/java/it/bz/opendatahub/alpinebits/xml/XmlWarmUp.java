@@ -0,0 +1,87 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class provides tasks, that initialize the expensive XML resources
+ * before the first request, e.g. during a warm-up phase. The tasks are
+ * independent and may run in parallel.
+ */
+public final class XmlWarmUp {
+
+    private XmlWarmUp() {
+        // Empty
+    }
+
+    /**
+     * Build the preload tasks for the engine configured by {@link XmlEngine#configured()},
+     * see {@link #preloadTasks(XmlSchemaRegistry, Collection, Collection, XmlEngine)}.
+     *
+     * @param registry the {@link XmlSchemaRegistry}, that compiles the schemas
+     * @param versions AlpineBits versions, e.g. 2017-10
+     * @param formats  the {@link SchemaFormat}s
+     * @return the preload tasks
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static List<Runnable> preloadTasks(XmlSchemaRegistry registry, Collection<String> versions, Collection<SchemaFormat> formats) {
+        return preloadTasks(registry, versions, formats, XmlEngine.configured());
+    }
+
+    /**
+     * Build the tasks, that initialize the {@link OtaSchemaSingleton} and the schemas
+     * of the given versions and formats in the given {@link XmlSchemaRegistry}, one
+     * task per schema.
+     * <p>
+     * The {@link JAXBContextSingleton} is only initialized for {@link XmlEngine#JAXB}.
+     * The {@link XmlEngine#STAX} engine uses generated bindings per message and builds
+     * the JAXBContext on first use, only if a message without generated bindings is
+     * converted.
+     *
+     * @param registry the {@link XmlSchemaRegistry}, that compiles the schemas
+     * @param versions AlpineBits versions, e.g. 2017-10
+     * @param formats  the {@link SchemaFormat}s
+     * @param engine   the {@link XmlEngine} used by the converters
+     * @return the preload tasks
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static List<Runnable> preloadTasks(
+            XmlSchemaRegistry registry,
+            Collection<String> versions,
+            Collection<SchemaFormat> formats,
+            XmlEngine engine
+    ) {
+        if (registry == null) {
+            throw new IllegalArgumentException("The registry must not be null");
+        }
+        if (versions == null || formats == null) {
+            throw new IllegalArgumentException("The versions and formats must not be null");
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("The engine must not be null");
+        }
+        List<Runnable> tasks = new ArrayList<>();
+        if (engine == XmlEngine.JAXB) {
+            tasks.add(JAXBContextSingleton::getInstance);
+        }
+        tasks.add(OtaSchemaSingleton::getInstance);
+        for (String version : versions) {
+            for (SchemaFormat format : formats) {
+                tasks.add(() -> registry.getSchema(version, format));
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Key;
+import it.bz.opendatahub.alpinebits.middleware.Middleware;
+import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStream;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStreamConverter;
+
+import java.io.InputStream;
+
+/**
+ * This middleware uses the {@link RequestContextKey#REQUEST_CONTENT_STREAM}, taken
+ * from {@link Context}, and opens an {@link XmlElementStream} on it.
+ * <p>
+ * Contrary to {@link XmlRequestMappingMiddleware}, the request is not converted
+ * completely before the next middleware is invoked. Instead, the envelope is read
+ * and the stream is put into the context, such that subsequent middlewares can
+ * process the elements one at a time with bounded memory. The stream is closed
+ * after the subsequent middlewares have finished.
+ *
+ * @param <T> envelope type
+ * @param <E> element type
+ */
+public class XmlElementStreamMappingMiddleware<T, E> implements Middleware {
+
+    private final XmlElementStreamConverter<T, E> converter;
+    private final Key<XmlElementStream<T, E>> requestDataCtxKey;
+
+    public XmlElementStreamMappingMiddleware(
+            XmlElementStreamConverter<T, E> converter,
+            Key<XmlElementStream<T, E>> requestDataCtxKey
+    ) {
+        if (converter == null) {
+            throw new IllegalArgumentException("The XML element stream converter must not be null");
+        }
+        if (requestDataCtxKey == null) {
+            throw new IllegalArgumentException("The request data context key must not be null");
+        }
+
+        this.converter = converter;
+        this.requestDataCtxKey = requestDataCtxKey;
+    }
+
+    @Override
+    public void handleContext(Context ctx, MiddlewareChain chain) {
+        InputStream is = ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM);
+
+        try (XmlElementStream<T, E> stream = this.converter.open(is)) {
+            ctx.put(this.requestDataCtxKey, stream);
+
+            chain.next();
+        }
+    }
+
+}
@@ -18,6 +18,9 @@ import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
 import it.bz.opendatahub.alpinebits.xml.XmlToObjectConverter;
 
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * This middleware uses the {@link RequestContextKey#REQUEST_CONTENT_STREAM}, taken
@@ -25,6 +28,13 @@ import java.io.InputStream;
  * <p>
  * The converter as well as the context key used as identifier for the resulting POJO
  * inside the context, are defined by the constructor.
+ * <p>
+ * Requests of trusted senders can be converted with a separate converter, e.g. one
+ * that uses a lower {@link it.bz.opendatahub.alpinebits.xml.ValidationTier}. Trusted
+ * senders are identified by {@link RequestContextKey#REQUEST_AUTHENTICATED_USERNAME},
+ * that must be set by a middleware that verifies the credentials. The unverified
+ * {@link RequestContextKey#REQUEST_USERNAME} is never used to decide about trust.
+ * By default, no sender is trusted.
  *
  * @param <T> request data type
  */
@@ -32,10 +42,34 @@ public class XmlRequestMappingMiddleware<T> implements Middleware {
 
     private final XmlToObjectConverter<T> converter;
     private final Key<T> requestDataCtxKey;
+    private final XmlToObjectConverter<T> trustedConverter;
+    private final Set<String> trustedUsernames;
 
     public XmlRequestMappingMiddleware(
             XmlToObjectConverter<T> converter,
             Key<T> requestDataCtxKey
+    ) {
+        this(converter, requestDataCtxKey, converter, Collections.emptySet());
+    }
+
+    /**
+     * Create a middleware that converts the requests of the given trusted users with
+     * <code>trustedConverter</code> and all other requests with <code>converter</code>.
+     * <p>
+     * A user is trusted only if its name is found in the context with the
+     * {@link RequestContextKey#REQUEST_AUTHENTICATED_USERNAME} key. This is only safe,
+     * if a middleware that verifies the credentials runs before this middleware.
+     *
+     * @param converter         converter for requests of untrusted users
+     * @param requestDataCtxKey context key of the resulting POJO
+     * @param trustedConverter  converter for requests of trusted users
+     * @param trustedUsernames  usernames of the trusted users
+     */
+    public XmlRequestMappingMiddleware(
+            XmlToObjectConverter<T> converter,
+            Key<T> requestDataCtxKey,
+            XmlToObjectConverter<T> trustedConverter,
+            Set<String> trustedUsernames
     ) {
         if (converter == null) {
             throw new IllegalArgumentException("The XML-to-object converter must not be null");
@@ -43,20 +77,38 @@ public class XmlRequestMappingMiddleware<T> implements Middleware {
         if (requestDataCtxKey == null) {
             throw new IllegalArgumentException("The request data context key must not be null");
         }
+        if (trustedConverter == null) {
+            throw new IllegalArgumentException("The trusted XML-to-object converter must not be null");
+        }
+        if (trustedUsernames == null) {
+            throw new IllegalArgumentException("The trusted usernames must not be null");
+        }
 
         this.converter = converter;
         this.requestDataCtxKey = requestDataCtxKey;
+        this.trustedConverter = trustedConverter;
+        this.trustedUsernames = Collections.unmodifiableSet(new HashSet<>(trustedUsernames));
     }
 
     @Override
     public void handleContext(Context ctx, MiddlewareChain chain) {
         InputStream is = ctx.getOrThrow(RequestContextKey.REQUEST_CONTENT_STREAM);
 
-        T requestData = this.converter.toObject(is);
+        T requestData = this.converterFor(ctx).toObject(is);
 
         ctx.put(this.requestDataCtxKey, requestData);
 
         chain.next();
     }
 
+    private XmlToObjectConverter<T> converterFor(Context ctx) {
+        if (this.trustedUsernames.isEmpty()) {
+            return this.converter;
+        }
+        boolean trusted = ctx.get(RequestContextKey.REQUEST_AUTHENTICATED_USERNAME)
+                .map(this.trustedUsernames::contains)
+                .orElse(false);
+        return trusted ? this.trustedConverter : this.converter;
+    }
+
 }
@@ -0,0 +1,40 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+/**
+ * A pool of equally configured objects.
+ *
+ * @param <T> type of the pooled objects
+ */
+interface ObjectPool<T> {
+
+    /**
+     * Borrow an object from the pool.
+     *
+     * @return the borrowed object, never null
+     */
+    PooledObject<T> borrow();
+
+    /**
+     * Return a borrowed object to the pool.
+     *
+     * @param pooledObject the object to return
+     */
+    void release(PooledObject<T> pooledObject);
+
+    /**
+     * Drop all idle objects. Objects that are released afterwards are
+     * dropped as well.
+     */
+    void close();
+
+}
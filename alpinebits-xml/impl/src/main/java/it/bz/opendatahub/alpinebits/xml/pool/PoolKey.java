@@ -0,0 +1,87 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import javax.xml.validation.Schema;
+import java.util.Objects;
+
+/**
+ * Identifies a set of equally configured pooled objects.
+ * <p>
+ * Schemas are compared by identity, since {@link Schema} instances
+ * don't implement equals.
+ */
+public final class PoolKey {
+
+    private final Schema schema;
+    private final boolean prettyPrint;
+    private final Class<?> boundClass;
+    private final int hash;
+
+    private PoolKey(Schema schema, boolean prettyPrint, Class<?> boundClass) {
+        this.schema = schema;
+        this.prettyPrint = prettyPrint;
+        this.boundClass = boundClass;
+        this.hash = 31 * (31 * System.identityHashCode(schema) + Boolean.hashCode(prettyPrint)) + Objects.hashCode(boundClass);
+    }
+
+    /**
+     * Build a new {@link PoolKey}.
+     *
+     * @param schema      the schema used for validation, may be null
+     * @param prettyPrint true if the pooled objects pretty print their output
+     * @param boundClass  the class bound by the pooled objects, may be null
+     * @return the new key
+     */
+    public static PoolKey of(Schema schema, boolean prettyPrint, Class<?> boundClass) {
+        return new PoolKey(schema, prettyPrint, boundClass);
+    }
+
+    public Schema getSchema() {
+        return this.schema;
+    }
+
+    public boolean isPrettyPrint() {
+        return this.prettyPrint;
+    }
+
+    public Class<?> getBoundClass() {
+        return this.boundClass;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PoolKey poolKey = (PoolKey) o;
+        return this.schema == poolKey.schema
+                && this.prettyPrint == poolKey.prettyPrint
+                && this.boundClass == poolKey.boundClass;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolKey{"
+                + "schema=" + this.schema
+                + ", prettyPrint=" + this.prettyPrint
+                + ", boundClass=" + this.boundClass
+                + '}';
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the usage of a pool.
+ * <p>
+ * A hit is a borrow that was served by an idle pooled object, a miss
+ * is a borrow that needed a new object to be created.
+ */
+public final class PoolMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitTimeNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Get the number of borrows that had to wait for an object.
+     *
+     * @return number of borrows that had to wait
+     */
+    public long getWaits() {
+        return this.waits.sum();
+    }
+
+    /**
+     * Get the total time spent waiting for objects.
+     *
+     * @return total wait time in nanoseconds
+     */
+    public long getWaitTimeNanos() {
+        return this.waitTimeNanos.sum();
+    }
+
+    /**
+     * Get the number of borrows that gave up waiting and used an unpooled object.
+     *
+     * @return number of timed out borrows
+     */
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+    void recordHit() {
+        this.hits.increment();
+    }
+
+    void recordMiss() {
+        this.misses.increment();
+    }
+
+    void recordWait(long nanos) {
+        this.waits.increment();
+        this.waitTimeNanos.add(nanos);
+    }
+
+    void recordTimeout() {
+        this.timeouts.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{"
+                + "hits=" + this.getHits()
+                + ", misses=" + this.getMisses()
+                + ", waits=" + this.getWaits()
+                + ", waitTimeNanos=" + this.getWaitTimeNanos()
+                + ", timeouts=" + this.getTimeouts()
+                + '}';
+    }
+}
@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+/**
+ * Defines how an {@link XmlObjectPool} keeps its objects.
+ */
+public enum PoolMode {
+
+    /**
+     * Objects are not pooled, every borrow creates a new object.
+     */
+    NONE,
+
+    /**
+     * Each thread keeps one idle object per key. There is no contention
+     * between threads, but the number of objects grows with the number
+     * of threads. Virtual threads are not pooled, use {@link #STRIPED}
+     * if requests are processed on virtual threads.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * All threads share a bounded number of objects per key. Idle objects
+     * are spread over multiple stripes to reduce contention. If all objects
+     * are in use, a borrowing thread waits up to a configurable time.
+     */
+    STRIPED
+
+}
@@ -0,0 +1,49 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+/**
+ * An object borrowed from a pool. Closing it returns the object
+ * to its pool, such that it can be used with try-with-resources.
+ * <p>
+ * The object must not be used after close.
+ *
+ * @param <T> type of the pooled object
+ */
+public final class PooledObject<T> implements AutoCloseable {
+
+    private final T object;
+    private final ObjectPool<T> pool;
+    private final boolean permit;
+    private boolean released;
+
+    PooledObject(T object, ObjectPool<T> pool, boolean permit) {
+        this.object = object;
+        this.pool = pool;
+        this.permit = permit;
+    }
+
+    public T get() {
+        return this.object;
+    }
+
+    @Override
+    public void close() {
+        if (!this.released) {
+            this.released = true;
+            this.pool.release(this);
+        }
+    }
+
+    boolean hasPermit() {
+        return this.permit;
+    }
+}
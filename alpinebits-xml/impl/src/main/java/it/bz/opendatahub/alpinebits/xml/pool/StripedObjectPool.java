@@ -0,0 +1,137 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link ObjectPool} that shares a bounded number of objects between threads.
+ * <p>
+ * The number of objects in use is limited by a semaphore. Idle objects
+ * are kept in multiple stripes, the stripe is selected by the id of the
+ * current thread. If all objects are in use, a borrowing thread waits up
+ * to <code>maxWaitNanos</code>. If it still gets no object, a new unpooled
+ * object is created, such that the request can proceed.
+ *
+ * @param <T> type of the pooled objects
+ */
+final class StripedObjectPool<T> implements ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final Predicate<T> reset;
+    private final PoolMetrics metrics;
+    private final Semaphore permits;
+    private final Queue<T>[] stripes;
+    private final long maxWaitNanos;
+
+    private volatile boolean closed;
+
+    @SuppressWarnings("unchecked")
+    StripedObjectPool(Supplier<T> factory, Predicate<T> reset, PoolMetrics metrics, int maxSize, int stripeCount, long maxWaitNanos) {
+        this.factory = factory;
+        this.reset = reset;
+        this.metrics = metrics;
+        this.permits = new Semaphore(maxSize);
+        this.maxWaitNanos = maxWaitNanos;
+
+        int stripeCapacity = Math.max(1, (maxSize + stripeCount - 1) / stripeCount);
+        this.stripes = new Queue[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ArrayBlockingQueue<>(stripeCapacity);
+        }
+    }
+
+    @Override
+    public PooledObject<T> borrow() {
+        if (!this.acquirePermit()) {
+            this.metrics.recordMiss();
+            return new PooledObject<>(this.factory.get(), this, false);
+        }
+
+        int stripe = this.stripeIndex();
+        for (int i = 0; i < this.stripes.length; i++) {
+            T object = this.stripes[(stripe + i) % this.stripes.length].poll();
+            if (object != null) {
+                this.metrics.recordHit();
+                return new PooledObject<>(object, this, true);
+            }
+        }
+
+        this.metrics.recordMiss();
+        T object = null;
+        try {
+            object = this.factory.get();
+        } finally {
+            if (object == null) {
+                this.permits.release();
+            }
+        }
+        return new PooledObject<>(object, this, true);
+    }
+
+    @Override
+    public void release(PooledObject<T> pooledObject) {
+        if (!pooledObject.hasPermit()) {
+            return;
+        }
+        try {
+            T object = pooledObject.get();
+            if (!this.closed && this.reset.test(object)) {
+                int stripe = this.stripeIndex();
+                for (int i = 0; i < this.stripes.length; i++) {
+                    if (this.stripes[(stripe + i) % this.stripes.length].offer(object)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        for (Queue<T> stripe : this.stripes) {
+            stripe.clear();
+        }
+    }
+
+    private boolean acquirePermit() {
+        if (this.permits.tryAcquire()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = this.permits.tryAcquire(this.maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        this.metrics.recordWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            this.metrics.recordTimeout();
+        }
+        return acquired;
+    }
+
+    private int stripeIndex() {
+        return (int) (Thread.currentThread().getId() % this.stripes.length);
+    }
+}
@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import it.bz.opendatahub.alpinebits.common.utils.concurrent.VirtualThreads;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link ObjectPool} that keeps one idle object per thread.
+ * <p>
+ * If the idle object of the current thread is already in use
+ * (e.g. nested borrows), a new object is created.
+ * <p>
+ * Virtual threads are short-lived and usually created per task, an idle
+ * object kept for them would hardly ever be reused. Therefore, virtual
+ * threads bypass the pool and always get a new object.
+ * <p>
+ * The idle objects are held by the threads, e.g. by the worker threads of
+ * a servlet container, that outlive a web application. {@link #close()}
+ * drops the idle objects of all threads. The remaining per-thread slots
+ * are plain {@link AtomicReference}s, that don't retain the class loader
+ * of the application.
+ *
+ * @param <T> type of the pooled objects
+ */
+final class ThreadLocalObjectPool<T> implements ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final Predicate<T> reset;
+    private final PoolMetrics metrics;
+    private final ThreadLocal<AtomicReference<T>> slots = ThreadLocal.withInitial(this::newSlot);
+
+    // Slots of all threads, such that close() can reach them. The slots of
+    // terminated threads are only weakly referenced and dropped by the GC
+    private final Set<AtomicReference<T>> allSlots = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private volatile boolean closed;
+
+    ThreadLocalObjectPool(Supplier<T> factory, Predicate<T> reset, PoolMetrics metrics) {
+        this.factory = factory;
+        this.reset = reset;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public PooledObject<T> borrow() {
+        if (VirtualThreads.isVirtual(Thread.currentThread())) {
+            this.metrics.recordMiss();
+            return new PooledObject<>(this.factory.get(), this, true);
+        }
+        T object = this.slots.get().getAndSet(null);
+        if (object != null) {
+            this.metrics.recordHit();
+        } else {
+            object = this.factory.get();
+            this.metrics.recordMiss();
+        }
+        return new PooledObject<>(object, this, true);
+    }
+
+    @Override
+    public void release(PooledObject<T> pooledObject) {
+        if (this.closed || VirtualThreads.isVirtual(Thread.currentThread())) {
+            return;
+        }
+        AtomicReference<T> slot = this.slots.get();
+        if (slot.get() == null && this.reset.test(pooledObject.get()) && slot.compareAndSet(null, pooledObject.get()) && this.closed) {
+            // Closed concurrently, don't retain the object
+            slot.set(null);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        synchronized (this.allSlots) {
+            for (AtomicReference<T> slot : this.allSlots) {
+                slot.set(null);
+            }
+        }
+        this.slots.remove();
+    }
+
+    private AtomicReference<T> newSlot() {
+        AtomicReference<T> slot = new AtomicReference<>();
+        this.allSlots.add(slot);
+        return slot;
+    }
+}
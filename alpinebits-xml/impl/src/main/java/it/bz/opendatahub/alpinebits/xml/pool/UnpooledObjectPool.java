@@ -0,0 +1,46 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link ObjectPool} that creates a new object on every borrow
+ * and drops it on release.
+ *
+ * @param <T> type of the pooled objects
+ */
+final class UnpooledObjectPool<T> implements ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final PoolMetrics metrics;
+
+    UnpooledObjectPool(Supplier<T> factory, PoolMetrics metrics) {
+        this.factory = factory;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public PooledObject<T> borrow() {
+        this.metrics.recordMiss();
+        return new PooledObject<>(this.factory.get(), this, false);
+    }
+
+    @Override
+    public void release(PooledObject<T> pooledObject) {
+        // Nothing to do, the object is dropped
+    }
+
+    @Override
+    public void close() {
+        // Nothing to do, there are no idle objects
+    }
+}
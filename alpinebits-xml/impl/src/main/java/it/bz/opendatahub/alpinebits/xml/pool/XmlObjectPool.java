@@ -0,0 +1,316 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import it.bz.opendatahub.alpinebits.xml.JAXBContextSingleton;
+import it.bz.opendatahub.alpinebits.xml.XmlConversionException;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+
+import javax.xml.validation.Validator;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pool of ready-to-use {@link Marshaller}, {@link Unmarshaller} and
+ * {@link Validator} instances.
+ * <p>
+ * The objects are kept per {@link PoolKey}, i.e. per schema, pretty-print
+ * setting and bound class, and are configured accordingly when created.
+ * When an object is returned to the pool, it is reset to that configuration.
+ * Objects that can not be reset are dropped.
+ * <p>
+ * Instances of this class are thread-safe and are meant to be shared
+ * between converters.
+ * <p>
+ * Pooled objects reference the JAXB context and thereby the classes of the
+ * application. Call {@link #clear()} when the application shuts down (e.g.
+ * when its servlet is destroyed), such that threads that outlive the
+ * application (e.g. container threads) don't retain them.
+ */
+public final class XmlObjectPool {
+
+    private static final XmlObjectPool UNPOOLED = new XmlObjectPool.Builder().mode(PoolMode.NONE).build();
+
+    private final PoolMode mode;
+    private final int maxSizePerKey;
+    private final int stripes;
+    private final long maxWaitNanos;
+
+    private final ConcurrentMap<PoolKey, ObjectPool<Marshaller>> marshallerPools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PoolKey, ObjectPool<Unmarshaller>> unmarshallerPools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PoolKey, ObjectPool<Validator>> validatorPools = new ConcurrentHashMap<>();
+
+    private final PoolMetrics marshallerMetrics = new PoolMetrics();
+    private final PoolMetrics unmarshallerMetrics = new PoolMetrics();
+    private final PoolMetrics validatorMetrics = new PoolMetrics();
+
+    private XmlObjectPool(PoolMode mode, int maxSizePerKey, int stripes, long maxWaitNanos) {
+        this.mode = mode;
+        this.maxSizePerKey = maxSizePerKey;
+        this.stripes = stripes;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * Get a shared {@link XmlObjectPool} that doesn't pool at all,
+     * i.e. creates a new object on every borrow.
+     *
+     * @return the {@link XmlObjectPool} with {@link PoolMode#NONE}
+     */
+    public static XmlObjectPool unpooled() {
+        return UNPOOLED;
+    }
+
+    /**
+     * Borrow a {@link Marshaller} that validates against the schema of the
+     * given key and pretty prints its output if requested by the key.
+     *
+     * @param key defines the configuration of the {@link Marshaller}
+     * @return the borrowed {@link Marshaller}, must be closed after use
+     */
+    public PooledObject<Marshaller> marshaller(PoolKey key) {
+        return this.marshallerPools
+                .computeIfAbsent(key, k -> this.newPool(() -> createMarshaller(k), m -> resetMarshaller(m, k), this.marshallerMetrics))
+                .borrow();
+    }
+
+    /**
+     * Borrow an {@link Unmarshaller} that validates against the schema of the given key.
+     *
+     * @param key defines the configuration of the {@link Unmarshaller}
+     * @return the borrowed {@link Unmarshaller}, must be closed after use
+     */
+    public PooledObject<Unmarshaller> unmarshaller(PoolKey key) {
+        return this.unmarshallerPools
+                .computeIfAbsent(key, k -> this.newPool(() -> createUnmarshaller(k), u -> resetUnmarshaller(u, k), this.unmarshallerMetrics))
+                .borrow();
+    }
+
+    /**
+     * Borrow a {@link Validator} for the schema of the given key.
+     *
+     * @param key defines the schema of the {@link Validator}
+     * @return the borrowed {@link Validator}, must be closed after use
+     */
+    public PooledObject<Validator> validator(PoolKey key) {
+        if (key.getSchema() == null) {
+            throw new IllegalArgumentException("The schema of the key must not be null");
+        }
+        return this.validatorPools
+                .computeIfAbsent(key, k -> this.newPool(() -> k.getSchema().newValidator(), XmlObjectPool::resetValidator, this.validatorMetrics))
+                .borrow();
+    }
+
+    /**
+     * Drop all idle objects of this pool, including the objects kept
+     * per thread by {@link PoolMode#THREAD_LOCAL}. Borrowed objects are
+     * dropped on release. The pool can still be used afterwards.
+     */
+    public void clear() {
+        clear(this.marshallerPools);
+        clear(this.unmarshallerPools);
+        clear(this.validatorPools);
+    }
+
+    public PoolMode getMode() {
+        return this.mode;
+    }
+
+    public PoolMetrics getMarshallerMetrics() {
+        return this.marshallerMetrics;
+    }
+
+    public PoolMetrics getUnmarshallerMetrics() {
+        return this.unmarshallerMetrics;
+    }
+
+    public PoolMetrics getValidatorMetrics() {
+        return this.validatorMetrics;
+    }
+
+    private <T> ObjectPool<T> newPool(Supplier<T> factory, Predicate<T> reset, PoolMetrics metrics) {
+        switch (this.mode) {
+            case THREAD_LOCAL:
+                return new ThreadLocalObjectPool<>(factory, reset, metrics);
+            case STRIPED:
+                return new StripedObjectPool<>(factory, reset, metrics, this.maxSizePerKey, this.stripes, this.maxWaitNanos);
+            default:
+                return new UnpooledObjectPool<>(factory, metrics);
+        }
+    }
+
+    private static <T> void clear(ConcurrentMap<PoolKey, ObjectPool<T>> pools) {
+        // Closed pools are replaced by new ones on the next borrow
+        for (PoolKey key : pools.keySet()) {
+            ObjectPool<T> pool = pools.remove(key);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    private static Marshaller createMarshaller(PoolKey key) {
+        return create(key, k -> {
+            Marshaller marshaller = JAXBContextSingleton.getInstance().createMarshaller();
+            marshaller.setSchema(k.getSchema());
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, k.isPrettyPrint());
+            return marshaller;
+        });
+    }
+
+    private static Unmarshaller createUnmarshaller(PoolKey key) {
+        return create(key, k -> {
+            Unmarshaller unmarshaller = JAXBContextSingleton.getInstance().createUnmarshaller();
+            unmarshaller.setSchema(k.getSchema());
+            return unmarshaller;
+        });
+    }
+
+    private static boolean resetMarshaller(Marshaller marshaller, PoolKey key) {
+        try {
+            marshaller.setSchema(key.getSchema());
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, key.isPrettyPrint());
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+            marshaller.setEventHandler(null);
+            marshaller.setListener(null);
+            marshaller.setAttachmentMarshaller(null);
+            return true;
+        } catch (JAXBException e) {
+            return false;
+        }
+    }
+
+    private static boolean resetUnmarshaller(Unmarshaller unmarshaller, PoolKey key) {
+        try {
+            unmarshaller.setSchema(key.getSchema());
+            unmarshaller.setEventHandler(null);
+            unmarshaller.setListener(null);
+            unmarshaller.setAttachmentUnmarshaller(null);
+            return true;
+        } catch (JAXBException e) {
+            return false;
+        }
+    }
+
+    private static boolean resetValidator(Validator validator) {
+        validator.reset();
+        // Validator#reset() doesn't guarantee to drop the handlers set by the borrower
+        validator.setErrorHandler(null);
+        validator.setResourceResolver(null);
+        return true;
+    }
+
+    private static <T> T create(PoolKey key, JaxbFactory<T> factory) {
+        try {
+            return factory.create(key);
+        } catch (JAXBException e) {
+            throw new XmlConversionException("Unable to create pooled JAXB object for " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Factory for JAXB objects, that may throw a {@link JAXBException}.
+     *
+     * @param <T> type of the created objects
+     */
+    private interface JaxbFactory<T> {
+        T create(PoolKey key) throws JAXBException;
+    }
+
+    /**
+     * Builder to create instances of {@link XmlObjectPool}.
+     */
+    public static class Builder {
+
+        private static final int DEFAULT_MAX_SIZE_PER_KEY = 256;
+        private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(1);
+
+        private PoolMode mode = PoolMode.THREAD_LOCAL;
+        private int maxSizePerKey = DEFAULT_MAX_SIZE_PER_KEY;
+        private int stripes = Runtime.getRuntime().availableProcessors();
+        private Duration maxWait = DEFAULT_MAX_WAIT;
+
+        /**
+         * Set the {@link PoolMode} (default: {@link PoolMode#THREAD_LOCAL}).
+         *
+         * @param mode the pool mode
+         * @return the current Builder
+         */
+        public Builder mode(PoolMode mode) {
+            if (mode == null) {
+                throw new IllegalArgumentException("The pool mode must not be null");
+            }
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Set the max number of objects per key, that may be in use at
+         * the same time (default: 256). Only used by {@link PoolMode#STRIPED}.
+         *
+         * @param maxSizePerKey max number of objects per key
+         * @return the current Builder
+         */
+        public Builder maxSizePerKey(int maxSizePerKey) {
+            if (maxSizePerKey < 1) {
+                throw new IllegalArgumentException("The max size per key must be greater than 0");
+            }
+            this.maxSizePerKey = maxSizePerKey;
+            return this;
+        }
+
+        /**
+         * Set the number of stripes (default: number of available processors).
+         * Only used by {@link PoolMode#STRIPED}.
+         *
+         * @param stripes number of stripes
+         * @return the current Builder
+         */
+        public Builder stripes(int stripes) {
+            if (stripes < 1) {
+                throw new IllegalArgumentException("The number of stripes must be greater than 0");
+            }
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Set the max time to wait for an object if all objects are in use
+         * (default: 1 second). If the time elapses, a new unpooled object is
+         * used instead. Only used by {@link PoolMode#STRIPED}.
+         *
+         * @param maxWait max time to wait for an object
+         * @return the current Builder
+         */
+        public Builder maxWait(Duration maxWait) {
+            if (maxWait == null || maxWait.isNegative()) {
+                throw new IllegalArgumentException("The max wait duration must not be null or negative");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Build an instance of {@link XmlObjectPool} with
+         * the current configuration.
+         *
+         * @return instance of {@link XmlObjectPool}
+         */
+        public XmlObjectPool build() {
+            return new XmlObjectPool(this.mode, this.maxSizePerKey, this.stripes, this.maxWait.toNanos());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax;
+
+import jakarta.xml.bind.JAXBException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads an object of type <code>T</code> from an {@link XMLStreamReader}.
+ * <p>
+ * Implementations are generated at build time for selected OTA root
+ * elements, see the alpinebits-xml-stax-generator module.
+ *
+ * @param <T> the type of the root element
+ */
+public interface StaxReader<T> {
+
+    /**
+     * Get the type read by this instance.
+     *
+     * @return the type of the root element
+     */
+    Class<T> getType();
+
+    /**
+     * Get the name of the root element read by this instance.
+     *
+     * @return the root element name
+     */
+    QName getRootElement();
+
+    /**
+     * Read the element the reader is positioned on. After this method
+     * returns, the reader is positioned on the event following the
+     * END_ELEMENT event of the root element.
+     *
+     * @param reader  {@link XMLStreamReader} positioned on the START_ELEMENT
+     *                event of the root element
+     * @param support {@link StaxSupport} used for JAXB fallbacks
+     * @return the object read from the XML
+     * @throws XMLStreamException if the XML could not be read
+     * @throws JAXBException      if a JAXB fallback failed
+     */
+    T read(XMLStreamReader reader, StaxSupport support) throws XMLStreamException, JAXBException;
+}
@@ -0,0 +1,468 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax;
+
+import it.bz.opendatahub.alpinebits.xml.pool.PoolKey;
+import it.bz.opendatahub.alpinebits.xml.pool.PooledObject;
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.MarshalException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+
+import javax.xml.XMLConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runtime support for the generated {@link StaxReader} and {@link StaxWriter}
+ * implementations.
+ * <p>
+ * The static methods convert between lexical XML values and Java values,
+ * following the semantics of the JAXB reference implementation. The instance
+ * methods provide the JAXB fallback for types that are not handled by
+ * generated code, as well as some helpers for common StAX tasks.
+ * <p>
+ * Instances are not thread-safe and are meant to be used for a single
+ * conversion. The JAXB objects needed by the fallback are taken from the
+ * given {@link XmlObjectPool} on first use and returned on {@link #close()}.
+ */
+public final class StaxSupport implements AutoCloseable {
+
+    private static final DatatypeFactory DATATYPE_FACTORY = DatatypeFactory.newDefaultInstance();
+    private static final PoolKey FALLBACK_KEY = PoolKey.of(null, false, null);
+    private static final String XSI_TYPE = "type";
+    private static final String NAMESPACE_PREFIX = "ns";
+
+    private final XmlObjectPool pool;
+
+    private PooledObject<Unmarshaller> unmarshaller;
+    private PooledObject<Marshaller> marshaller;
+    private int prefixCounter;
+
+    public StaxSupport(XmlObjectPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool must not be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Check if the current element declares its type with <code>xsi:type</code>.
+     * Such elements may be bound to subclasses and are left to JAXB.
+     *
+     * @param reader {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @return true if the element has an <code>xsi:type</code> attribute
+     */
+    public boolean hasXsiType(XMLStreamReader reader) {
+        return reader.getAttributeValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, XSI_TYPE) != null;
+    }
+
+    /**
+     * Unmarshal the current element with JAXB. After this method returns,
+     * the reader is positioned on the event following the END_ELEMENT event.
+     *
+     * @param reader       {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @param declaredType the type bound to the element
+     * @param <T>          the type bound to the element
+     * @return the unmarshalled value
+     * @throws JAXBException if the element could not be unmarshalled
+     */
+    public <T> T unmarshal(XMLStreamReader reader, Class<T> declaredType) throws JAXBException {
+        if (this.unmarshaller == null) {
+            this.unmarshaller = this.pool.unmarshaller(FALLBACK_KEY);
+        }
+        return this.unmarshaller.get().unmarshal(reader, declaredType).getValue();
+    }
+
+    /**
+     * Skip the current element including all its descendants. After this
+     * method returns, the reader is positioned on the event following the
+     * END_ELEMENT event.
+     *
+     * @param reader {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @throws XMLStreamException if the XML could not be read
+     */
+    public void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        int event = reader.next();
+        while (depth > 0 || event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+            event = reader.next();
+        }
+        reader.next();
+    }
+
+    /**
+     * Read the text content of the current element. Text of nested elements
+     * is ignored. After this method returns, the reader is positioned on the
+     * event following the END_ELEMENT event.
+     *
+     * @param reader {@link XMLStreamReader} positioned on a START_ELEMENT event
+     * @return the text content, never null
+     * @throws XMLStreamException if the XML could not be read
+     */
+    public String readText(XMLStreamReader reader) throws XMLStreamException {
+        String text = "";
+        StringBuilder sb = null;
+        int depth = 0;
+        int event = reader.next();
+        while (depth > 0 || event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 0 && isText(event)) {
+                // Most elements have a single text event, avoid the StringBuilder in that case
+                if (sb == null && text.isEmpty()) {
+                    text = reader.getText();
+                } else {
+                    sb = appendText(reader, text, sb);
+                }
+            }
+            event = reader.next();
+        }
+        reader.next();
+        return sb == null ? text : sb.toString();
+    }
+
+    private static StringBuilder appendText(XMLStreamReader reader, String text, StringBuilder sb) {
+        StringBuilder result = sb == null ? new StringBuilder(text) : sb;
+        return result.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+    }
+
+    /**
+     * Marshal the given value as element with JAXB.
+     *
+     * @param writer       the {@link XMLStreamWriter} to write to
+     * @param namespace    the namespace of the element
+     * @param localName    the local name of the element
+     * @param value        the value to marshal
+     * @param declaredType the type bound to the element
+     * @param <T>          the type bound to the element
+     * @throws JAXBException if the value could not be marshalled
+     */
+    public <T> void marshal(XMLStreamWriter writer, String namespace, String localName, T value, Class<T> declaredType)
+            throws JAXBException {
+        if (this.marshaller == null) {
+            this.marshaller = this.pool.marshaller(FALLBACK_KEY);
+            this.marshaller.get().setProperty(Marshaller.JAXB_FRAGMENT, true);
+        }
+        JAXBElement<T> element = new JAXBElement<>(new QName(namespace, localName), declaredType, value);
+        this.marshaller.get().marshal(element, writer);
+    }
+
+    /**
+     * Write a start tag. If the namespace of the element differs from the
+     * current default namespace, the element declares it as default namespace.
+     *
+     * @param writer    the {@link XMLStreamWriter} to write to
+     * @param namespace the namespace of the element
+     * @param localName the local name of the element
+     * @throws XMLStreamException if the XML could not be written
+     */
+    public void writeStartElement(XMLStreamWriter writer, String namespace, String localName) throws XMLStreamException {
+        // The default namespace in scope must be looked up before the start tag is written
+        String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, localName, namespace);
+        if (!inNamespace(defaultNamespace, namespace)) {
+            writer.writeDefaultNamespace(namespace);
+            writer.setDefaultNamespace(namespace);
+        }
+    }
+
+    /**
+     * Write an attribute. Nothing is written if the value is null.
+     *
+     * @param writer    the {@link XMLStreamWriter} to write to
+     * @param namespace the namespace of the attribute
+     * @param localName the local name of the attribute
+     * @param value     the lexical value of the attribute
+     * @throws XMLStreamException if the XML could not be written
+     */
+    public void writeAttribute(XMLStreamWriter writer, String namespace, String localName, String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        if (namespace.isEmpty()) {
+            writer.writeAttribute(localName, value);
+            return;
+        }
+        String prefix = XMLConstants.XML_NS_URI.equals(namespace) ? XMLConstants.XML_NS_PREFIX : writer.getPrefix(namespace);
+        if (prefix == null || prefix.isEmpty()) {
+            prefix = NAMESPACE_PREFIX + ++this.prefixCounter;
+            writer.writeNamespace(prefix, namespace);
+            writer.setPrefix(prefix, namespace);
+        }
+        writer.writeAttribute(prefix, namespace, localName, value);
+    }
+
+    /**
+     * Write an element with text content. Nothing is written if the value is null.
+     *
+     * @param writer    the {@link XMLStreamWriter} to write to
+     * @param namespace the namespace of the element
+     * @param localName the local name of the element
+     * @param value     the lexical value of the element
+     * @throws XMLStreamException if the XML could not be written
+     */
+    public void writeSimpleElement(XMLStreamWriter writer, String namespace, String localName, String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        this.writeStartElement(writer, namespace, localName);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Write text content. Nothing is written if the value is null.
+     *
+     * @param writer the {@link XMLStreamWriter} to write to
+     * @param value  the text
+     * @throws XMLStreamException if the XML could not be written
+     */
+    public void writeText(XMLStreamWriter writer, String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeCharacters(value);
+        }
+    }
+
+    /**
+     * Return the JAXB objects taken from the pool.
+     */
+    @Override
+    public void close() {
+        if (this.unmarshaller != null) {
+            this.unmarshaller.close();
+            this.unmarshaller = null;
+        }
+        if (this.marshaller != null) {
+            this.marshaller.close();
+            this.marshaller = null;
+        }
+    }
+
+    /**
+     * Check if a namespace as reported by StAX matches the expected
+     * namespace. A null namespace is treated as empty namespace.
+     *
+     * @param actual   the namespace reported by StAX, may be null
+     * @param expected the expected namespace
+     * @return true if the namespaces match
+     */
+    public static boolean inNamespace(String actual, String expected) {
+        return actual == null ? expected.isEmpty() : actual.equals(expected);
+    }
+
+    /**
+     * Check if the given StAX event carries text.
+     *
+     * @param event the StAX event type
+     * @return true for character, CDATA and whitespace events
+     */
+    public static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS
+                || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    /**
+     * Split the lexical value of an <code>xs:list</code> into its items.
+     *
+     * @param value the whitespace separated list
+     * @return the list items
+     */
+    public static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean separator = i == value.length() || isWhitespace(value.charAt(i));
+            if (separator && start >= 0) {
+                items.add(value.substring(start, i));
+                start = -1;
+            } else if (!separator && start < 0) {
+                start = i;
+            }
+        }
+        return items;
+    }
+
+    public static BigInteger parseInteger(String value) {
+        return new BigInteger(removeOptionalPlus(trim(value)));
+    }
+
+    public static BigDecimal parseDecimal(String value) {
+        return new BigDecimal(removeOptionalPlus(trim(value)));
+    }
+
+    public static String printDecimal(BigDecimal value) {
+        return value.toPlainString();
+    }
+
+    public static int parseInt(String value) {
+        return Integer.parseInt(trim(value));
+    }
+
+    public static long parseLong(String value) {
+        return Long.parseLong(trim(value));
+    }
+
+    public static short parseShort(String value) {
+        return Short.parseShort(trim(value));
+    }
+
+    public static byte parseByte(String value) {
+        return Byte.parseByte(trim(value));
+    }
+
+    /**
+     * Parse an <code>xs:boolean</code> value.
+     *
+     * @param value the lexical value
+     * @return the parsed value, or null if the value is not a valid boolean
+     */
+    public static Boolean parseBoolean(String value) {
+        String trimmed = trim(value);
+        if ("true".equals(trimmed) || "1".equals(trimmed)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(trimmed) || "0".equals(trimmed)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    public static double parseDouble(String value) {
+        String trimmed = trim(value);
+        if ("INF".equals(trimmed)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("-INF".equals(trimmed)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.parseDouble(trimmed);
+    }
+
+    public static String printDouble(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "INF" : "-INF";
+        }
+        return String.valueOf(value);
+    }
+
+    public static float parseFloat(String value) {
+        return (float) parseDouble(value);
+    }
+
+    public static String printFloat(float value) {
+        return Float.isInfinite(value) ? printDouble(value) : String.valueOf(value);
+    }
+
+    public static XMLGregorianCalendar parseCalendar(String value) {
+        return DATATYPE_FACTORY.newXMLGregorianCalendar(trim(value));
+    }
+
+    public static Duration parseDuration(String value) {
+        return DATATYPE_FACTORY.newDuration(trim(value));
+    }
+
+    /**
+     * Parse an enum value using the <code>fromValue</code> method
+     * generated by xjc.
+     *
+     * @param fromValue the <code>fromValue</code> method of the enum
+     * @param value     the lexical value
+     * @param <E>       the enum type
+     * @return the enum constant, or null if the value is unknown
+     */
+    public static <E extends Enum<E>> E parseEnum(Function<String, E> fromValue, String value) {
+        try {
+            return fromValue.apply(trim(value));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convert a lexical value with an {@link XmlAdapter}.
+     *
+     * @param adapter the adapter
+     * @param value   the lexical value
+     * @param <T>     the bound type
+     * @return the converted value
+     * @throws UnmarshalException if the adapter failed
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public static <T> T unmarshalAdapted(XmlAdapter<String, T> adapter, String value) throws UnmarshalException {
+        try {
+            return adapter.unmarshal(value);
+        } catch (Exception e) {
+            throw new UnmarshalException(e);
+        }
+    }
+
+    /**
+     * Convert a value to its lexical representation with an {@link XmlAdapter}.
+     *
+     * @param adapter the adapter
+     * @param value   the value
+     * @param <T>     the bound type
+     * @return the lexical value
+     * @throws MarshalException if the adapter failed
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public static <T> String marshalAdapted(XmlAdapter<String, T> adapter, T value) throws MarshalException {
+        try {
+            return adapter.marshal(value);
+        } catch (Exception e) {
+            throw new MarshalException(e);
+        }
+    }
+
+    private static String trim(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return start == 0 && end == value.length() ? value : value.substring(start, end);
+    }
+
+    private static String removeOptionalPlus(String value) {
+        return !value.isEmpty() && value.charAt(0) == '+' ? value.substring(1) : value;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
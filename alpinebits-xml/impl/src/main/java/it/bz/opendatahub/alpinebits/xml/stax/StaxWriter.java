@@ -0,0 +1,54 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax;
+
+import jakarta.xml.bind.JAXBException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes an object of type <code>T</code> to an {@link XMLStreamWriter}.
+ * <p>
+ * Implementations are generated at build time for selected OTA root
+ * elements, see the alpinebits-xml-stax-generator module.
+ *
+ * @param <T> the type of the root element
+ */
+public interface StaxWriter<T> {
+
+    /**
+     * Get the type written by this instance.
+     *
+     * @return the type of the root element
+     */
+    Class<T> getType();
+
+    /**
+     * Get the name of the root element written by this instance.
+     *
+     * @return the root element name
+     */
+    QName getRootElement();
+
+    /**
+     * Write the given value as root element. The XML declaration
+     * is not written by this method.
+     *
+     * @param writer  the {@link XMLStreamWriter} to write to
+     * @param value   the value to write
+     * @param support {@link StaxSupport} used for JAXB fallbacks
+     * @throws XMLStreamException if the XML could not be written
+     * @throws JAXBException      if a JAXB fallback failed
+     */
+    void write(XMLStreamWriter writer, T value, StaxSupport support) throws XMLStreamException, JAXBException;
+}
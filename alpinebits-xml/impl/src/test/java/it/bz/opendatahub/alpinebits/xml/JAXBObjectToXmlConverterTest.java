@@ -10,11 +10,13 @@
 
 package it.bz.opendatahub.alpinebits.xml;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.MessageAcknowledgementType;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRS;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.ObjectFactory;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.SuccessType;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
@@ -22,6 +24,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -45,6 +50,19 @@ public class JAXBObjectToXmlConverterTest {
         converter.toXml(pingRQ, os);
     }
 
+    @Test
+    public void testToXml_ShouldReleaseBuffer_OnError() {
+        OTAPingRQ pingRQ = new OTAPingRQ();
+        pingRQ.setEchoData("Some echo data");
+        ByteChunkPool bufferPool = new ByteChunkPool(64, 1024);
+
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder().bufferPool(bufferPool).build();
+        assertThrows(XmlConversionException.class, () -> converter.toXml(pingRQ, new ByteArrayOutputStream()));
+
+        assertTrue(bufferPool.getAcquisitionCount() > 0);
+        assertEquals(bufferPool.getInUseCount(), 0);
+    }
+
     @Test
     public void testToXml_Ok() {
         OTAPingRQ pingRQ = new OTAPingRQ();
@@ -74,4 +92,119 @@ public class JAXBObjectToXmlConverterTest {
 
         assertTrue(os.size() > 0);
     }
-}
\ No newline at end of file
+
+    @DataProvider(name = "builders")
+    public static Object[][] builders() {
+        return new Object[][]{
+                {new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.JAXB)},
+                {new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.JAXB).streaming(true)},
+                {new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.STAX)},
+        };
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testValidationPolicy_ThrowsOnNull() {
+        new JAXBObjectToXmlConverter.Builder().validationPolicy(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testValidationMetrics_ThrowsOnNull() {
+        new JAXBObjectToXmlConverter.Builder().validationMetrics(null);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToXml_ShouldCountValidatedDocuments(JAXBObjectToXmlConverter.Builder builder) {
+        ValidationMetrics metrics = new ValidationMetrics();
+        ObjectToXmlConverter converter = builder.validationPolicy(ValidationPolicy.always()).validationMetrics(metrics).build();
+
+        converter.toXml(this.validAvailNotifRS(), new ByteArrayOutputStream());
+        assertThrows(XmlConversionException.class, () -> converter.toXml(this.invalidAvailNotifRS(), new ByteArrayOutputStream()));
+
+        assertEquals(metrics.getValidatedCount(), 1);
+        assertEquals(metrics.getSkippedCount(), 0);
+        assertEquals(metrics.getFailedCount(), 1);
+        assertTrue(metrics.getValidatedTimeNanos() > 0);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToXml_ShouldOnlyCountFailure_WhenConversionFails(JAXBObjectToXmlConverter.Builder builder) {
+        ValidationMetrics metrics = new ValidationMetrics();
+        ObjectToXmlConverter converter = builder.validationPolicy(ValidationPolicy.always()).validationMetrics(metrics).build();
+
+        assertThrows(XmlConversionException.class, () -> converter.toXml(this.invalidAvailNotifRS(), new ByteArrayOutputStream()));
+
+        assertEquals(metrics.getValidatedCount(), 0);
+        assertEquals(metrics.getSkippedCount(), 0);
+        assertEquals(metrics.getFailedCount(), 1);
+        assertEquals(metrics.getValidatedTimeNanos(), 0);
+        assertEquals(metrics.getSkippedTimeNanos(), 0);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToXml_ShouldThrow_WhenObjectIsNull(JAXBObjectToXmlConverter.Builder builder) {
+        ValidationMetrics metrics = new ValidationMetrics();
+        ObjectToXmlConverter converter = builder.validationMetrics(metrics).build();
+
+        assertThrows(IllegalArgumentException.class, () -> converter.toXml(null, new ByteArrayOutputStream()));
+
+        assertEquals(metrics.getValidatedCount() + metrics.getSkippedCount() + metrics.getFailedCount(), 0);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToXml_ShouldSkipValidation_WhenPolicyIsNever(JAXBObjectToXmlConverter.Builder builder) {
+        ValidationMetrics metrics = new ValidationMetrics();
+        ObjectToXmlConverter converter = builder.validationPolicy(ValidationPolicy.never()).validationMetrics(metrics).build();
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        converter.toXml(this.invalidAvailNotifRS(), os);
+
+        assertTrue(os.size() > 0);
+        assertEquals(metrics.getValidatedCount(), 0);
+        assertEquals(metrics.getSkippedCount(), 1);
+        assertEquals(metrics.getFailedCount(), 0);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToXml_ShouldWriteSameXml_WithAndWithoutValidation(JAXBObjectToXmlConverter.Builder builder) {
+        ObjectToXmlConverter validating = builder.validationPolicy(ValidationPolicy.always()).build();
+        ObjectToXmlConverter skipping = builder.validationPolicy(ValidationPolicy.never()).build();
+
+        ByteArrayOutputStream validated = new ByteArrayOutputStream();
+        validating.toXml(this.validAvailNotifRS(), validated);
+        ByteArrayOutputStream skipped = new ByteArrayOutputStream();
+        skipping.toXml(this.validAvailNotifRS(), skipped);
+
+        assertNotEquals(validated.size(), 0);
+        assertEquals(skipped.toString(), validated.toString());
+    }
+
+    @Test
+    public void testToXml_ShouldValidateSample() {
+        ValidationMetrics metrics = new ValidationMetrics();
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder()
+                .validationPolicy(ValidationPolicy.sampled(0.5))
+                .validationMetrics(metrics)
+                .build();
+
+        for (int i = 0; i < 200; i++) {
+            converter.toXml(this.validAvailNotifRS(), new ByteArrayOutputStream());
+        }
+
+        assertEquals(metrics.getValidatedCount() + metrics.getSkippedCount(), 200);
+        assertTrue(metrics.getValidatedCount() > 0);
+        assertTrue(metrics.getSkippedCount() > 0);
+    }
+
+    private OTAHotelAvailNotifRS validAvailNotifRS() {
+        OTAHotelAvailNotifRS data = this.invalidAvailNotifRS();
+        data.getValue().setVersion(BigDecimal.ONE);
+        return data;
+    }
+
+    private OTAHotelAvailNotifRS invalidAvailNotifRS() {
+        // The required Version attribute is missing
+        MessageAcknowledgementType mat = new MessageAcknowledgementType();
+        mat.setSuccess(new SuccessType());
+        return new ObjectFactory().createOTAHotelAvailNotifRS(mat);
+    }
+}
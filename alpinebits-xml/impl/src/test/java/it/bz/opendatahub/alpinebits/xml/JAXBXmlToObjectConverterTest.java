@@ -10,21 +10,39 @@
 
 package it.bz.opendatahub.alpinebits.xml;
 
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
 import it.bz.opendatahub.alpinebits.xml.entity.TestEntity;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import javax.xml.validation.Schema;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Test cases for {@link JAXBXmlToObjectConverter} class.
  */
 public class JAXBXmlToObjectConverterTest {
 
+    // Valid against the OTA schema, but the AlpineBits schema requires HotelCode or HotelName
+    private static final String OTA_VALID_READ_RQ = "<OTA_ReadRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"1.001\">"
+            + "<ReadRequests><HotelReadRequest/></ReadRequests></OTA_ReadRQ>";
+
+    // Valid against the AlpineBits schema, but the OTA schema requires TimeStamp to be a dateTime
+    private static final String ALPINEBITS_VALID_READ_RQ = "<OTA_ReadRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"1.001\" "
+            + "TimeStamp=\"yesterday\"><ReadRequests><HotelReadRequest HotelCode=\"123\"/></ReadRequests></OTA_ReadRQ>";
+
+    private static final Schema SCHEMA = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
+
     @Test(expectedExceptions = XmlConversionException.class)
     public void testToObject_Error() {
         InputStream is = new InputStream() {
@@ -60,4 +78,82 @@ public class JAXBXmlToObjectConverterTest {
 
         assertNotNull(otaReadRQ);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testToObject_ShouldReleaseBuffer() {
+        ByteChunkPool bufferPool = new ByteChunkPool(64, 1024);
+        XmlToObjectConverter<OTAReadRQ> converter = new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class)
+                .bufferPool(bufferPool)
+                .build();
+
+        converter.toObject(this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ.xml"));
+        assertThrows(XmlConversionException.class, () -> converter.toObject(new ByteArrayInputStream("NOT AN XML".getBytes())));
+
+        assertEquals(bufferPool.getInUseCount(), 0);
+        assertTrue(bufferPool.getAcquisitionCount() > 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBufferPool_ShouldThrow_WhenPoolIsNull() {
+        new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).bufferPool(null);
+    }
+
+    @DataProvider(name = "builders")
+    public static Object[][] builders() {
+        return new Object[][]{
+                {new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).engine(XmlEngine.JAXB)},
+                {new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).engine(XmlEngine.JAXB).streaming(true)},
+                {new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).engine(XmlEngine.STAX)},
+        };
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testValidationTier_ShouldThrow_WhenTierIsNull() {
+        new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).validationTier(null);
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToObject_ShouldValidateBothSchemas_ByDefault(JAXBXmlToObjectConverter.Builder<OTAReadRQ> builder) {
+        XmlToObjectConverter<OTAReadRQ> converter = builder.schema(SCHEMA).build();
+
+        assertThrows(XmlConversionException.class, () -> converter.toObject(toStream(OTA_VALID_READ_RQ)));
+        assertThrows(XmlConversionException.class, () -> converter.toObject(toStream(ALPINEBITS_VALID_READ_RQ)));
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToObject_ShouldValidateOtaOnly(JAXBXmlToObjectConverter.Builder<OTAReadRQ> builder) {
+        XmlToObjectConverter<OTAReadRQ> converter = builder.schema(SCHEMA).validationTier(ValidationTier.OTA).build();
+
+        assertNotNull(converter.toObject(toStream(OTA_VALID_READ_RQ)));
+        assertThrows(XmlConversionException.class, () -> converter.toObject(toStream(ALPINEBITS_VALID_READ_RQ)));
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToObject_ShouldValidateAlpineBitsOnly(JAXBXmlToObjectConverter.Builder<OTAReadRQ> builder) {
+        XmlToObjectConverter<OTAReadRQ> converter = builder.schema(SCHEMA).validationTier(ValidationTier.ALPINEBITS).build();
+
+        assertThrows(XmlConversionException.class, () -> converter.toObject(toStream(OTA_VALID_READ_RQ)));
+        assertNotNull(converter.toObject(toStream(ALPINEBITS_VALID_READ_RQ)));
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToObject_ShouldNotValidate_WhenTierIsNone(JAXBXmlToObjectConverter.Builder<OTAReadRQ> builder) {
+        XmlToObjectConverter<OTAReadRQ> converter = builder.schema(SCHEMA).validationTier(ValidationTier.NONE).build();
+
+        assertNotNull(converter.toObject(toStream(OTA_VALID_READ_RQ)));
+        OTAReadRQ readRQ = converter.toObject(this.getClass().getClassLoader()
+                .getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ-invalid.xml"));
+        assertEquals(readRQ.getReadRequests().getHotelReadRequests().get(0).getHotelCode(), "123");
+    }
+
+    @Test(dataProvider = "builders")
+    public void testToObject_ShouldReportXmlErrors_WhenTierIsNone(JAXBXmlToObjectConverter.Builder<OTAReadRQ> builder) {
+        XmlToObjectConverter<OTAReadRQ> converter = builder.validationTier(ValidationTier.NONE).build();
+
+        assertThrows(XmlConversionException.class, () -> converter.toObject(toStream("NOT AN XML")));
+    }
+
+    private static InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
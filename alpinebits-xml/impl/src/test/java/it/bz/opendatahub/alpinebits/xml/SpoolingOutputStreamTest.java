@@ -0,0 +1,105 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link SpoolingOutputStream} class.
+ */
+public class SpoolingOutputStreamTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ThrowsIfThresholdIsNegative() {
+        new SpoolingOutputStream(-1);
+    }
+
+    @Test
+    public void testWriteTo_KeepsContentInMemory_WhenBelowThreshold() throws IOException {
+        SpoolingOutputStream spool = new SpoolingOutputStream(CONTENT.length);
+        spool.write(CONTENT);
+        spool.close();
+
+        assertTrue(spool.isInMemory());
+        assertEquals(this.readSpool(spool), CONTENT);
+        spool.discard();
+    }
+
+    @Test
+    public void testWriteTo_SpoolsContentToFile_WhenAboveThreshold() throws IOException {
+        SpoolingOutputStream spool = new SpoolingOutputStream(CONTENT.length - 1);
+        spool.write(CONTENT, 0, 5);
+        assertTrue(spool.isInMemory());
+        spool.write(CONTENT, 5, 5);
+        spool.close();
+
+        assertFalse(spool.isInMemory());
+        assertEquals(this.readSpool(spool), CONTENT);
+        spool.discard();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testWrite_ThrowsAfterDiscard() throws IOException {
+        SpoolingOutputStream spool = new SpoolingOutputStream(0);
+        spool.write(CONTENT);
+        spool.discard();
+        spool.write(CONTENT);
+    }
+
+    @Test
+    public void testDiscardQuietly_DeletesFile() throws IOException {
+        SpoolingOutputStream spool = new SpoolingOutputStream(0);
+        spool.write(CONTENT);
+        Path file = spool.getFile();
+        assertTrue(Files.exists(file));
+
+        spool.discardQuietly();
+
+        assertFalse(Files.exists(file));
+        assertNull(spool.getFile());
+    }
+
+    @Test
+    public void testDiscardQuietly_DoesNotThrow_WhenFileCannotBeDeleted() throws IOException {
+        SpoolingOutputStream spool = new SpoolingOutputStream(0);
+        spool.write(CONTENT);
+        // Replace the file by a non-empty directory, that can not be deleted
+        Path file = spool.getFile();
+        Files.delete(file);
+        Path child = Files.createFile(Files.createDirectory(file).resolve("child"));
+        try {
+            spool.discardQuietly();
+            assertTrue(Files.exists(file));
+        } finally {
+            Files.delete(child);
+            Files.delete(file);
+        }
+    }
+
+    private byte[] readSpool(SpoolingOutputStream spool) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        spool.writeTo(os);
+        return os.toByteArray();
+    }
+}
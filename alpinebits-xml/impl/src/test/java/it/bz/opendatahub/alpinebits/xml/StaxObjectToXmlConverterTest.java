@@ -0,0 +1,144 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link StaxObjectToXmlConverter} class.
+ */
+public class StaxObjectToXmlConverterTest {
+
+    private static final Schema XSD_2024_10 = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10");
+    private static final Schema RNG_2017_10 = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
+
+    @DataProvider(name = "validXml")
+    public static Object[][] validXml() {
+        return new Object[][]{
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", OTAHotelInvCountNotifRQ.class, XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-closing_seasons.xml", OTAHotelInvCountNotifRQ.class, XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-empty.xml", OTAHotelInvCountNotifRQ.class, null},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRQ.xml", OTAHotelAvailNotifRQ.class, RNG_2017_10},
+                {"examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRQ.xml", OTAHotelDescriptiveContentNotifRQ.class, RNG_2017_10},
+                {"examples/v_2024_10/Inventory-Push-OTA_HotelDescriptiveContentNotifRQ-hotelInfo-with-contact-infos.xml",
+                OTAHotelDescriptiveContentNotifRQ.class, XSD_2024_10},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRS-success.xml", OTAHotelAvailNotifRS.class, RNG_2017_10},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRS-error.xml", OTAHotelAvailNotifRS.class, RNG_2017_10},
+                {"examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRS-warning.xml", OTAHotelDescriptiveContentNotifRS.class, RNG_2017_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRS-advisory.xml", OTAHotelInvCountNotifRS.class, XSD_2024_10},
+        };
+    }
+
+    @Test(dataProvider = "validXml")
+    public void testToXml_OutputMatchesJaxbEngine(String filename, Class<?> classToBeBound, Schema schema) {
+        Object o = this.read(filename, classToBeBound);
+
+        assertEquals(this.toXml(o, schema, XmlEngine.STAX, false), this.toXml(o, schema, XmlEngine.JAXB, false));
+    }
+
+    @Test(dataProvider = "validXml")
+    public void testToXml_PrettyPrintedOutputMatchesJaxbEngine(String filename, Class<?> classToBeBound, Schema schema) {
+        Object o = this.read(filename, classToBeBound);
+        String actual = this.toXml(o, schema, XmlEngine.STAX, true);
+        String expected = this.toXml(o, schema, XmlEngine.JAXB, true);
+
+        // JAXB restarts the indentation inside some subtrees, therefore only the
+        // line breaks are compared and not the exact indentation
+        assertEquals(actual.replaceAll(">\\s+<", "><"), expected.replaceAll(">\\s+<", "><"));
+        assertEquals(actual.split("\n").length, expected.split("\n").length);
+    }
+
+    @Test(dataProvider = "validXml")
+    public void testToXml_RoundTrip(String filename, Class<?> classToBeBound, Schema schema) {
+        Object o = this.read(filename, classToBeBound);
+        String xml = this.toXml(o, schema, XmlEngine.STAX, false);
+
+        Object roundTrip = new JAXBXmlToObjectConverter.Builder<>(classToBeBound)
+                .engine(XmlEngine.STAX)
+                .build()
+                .toObject(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(this.toXml(roundTrip, null, XmlEngine.JAXB, false), this.toXml(o, null, XmlEngine.JAXB, false));
+    }
+
+    @Test
+    public void testToXml_ErrorMessageMatchesJaxbEngine() {
+        OTAHotelInvCountNotifRQ invalid = new OTAHotelInvCountNotifRQ();
+
+        assertEquals(this.toXmlExpectingError(invalid, XmlEngine.STAX), this.toXmlExpectingError(invalid, XmlEngine.JAXB));
+    }
+
+    @Test
+    public void testToXml_FallsBackWithoutGeneratedWriter() {
+        OTAPingRQ ping = new OTAPingRQ();
+        ping.setEchoData("hello");
+        ping.setVersion(BigDecimal.ONE);
+
+        assertEquals(this.toXml(ping, null, XmlEngine.STAX, false), this.toXml(ping, null, XmlEngine.JAXB, false));
+    }
+
+    @Test
+    public void testBuild_StaxEngineWrapsConverter() {
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.STAX).build();
+        assertTrue(converter instanceof StaxObjectToXmlConverter);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuild_ThrowsOnNullEngine() {
+        new JAXBObjectToXmlConverter.Builder().engine(null);
+    }
+
+    private Object read(String filename, Class<?> classToBeBound) {
+        return new JAXBXmlToObjectConverter.Builder<>(classToBeBound)
+                .engine(XmlEngine.JAXB)
+                .build()
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+    }
+
+    private String toXml(Object o, Schema schema, XmlEngine engine, boolean prettyPrint) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new JAXBObjectToXmlConverter.Builder()
+                .schema(schema)
+                .prettyPrint(prettyPrint)
+                .engine(engine)
+                .build()
+                .toXml(o, os);
+        return os.toString(StandardCharsets.UTF_8);
+    }
+
+    private String toXmlExpectingError(Object o, XmlEngine engine) {
+        try {
+            new JAXBObjectToXmlConverter.Builder().engine(engine).build().toXml(o, new ByteArrayOutputStream());
+        } catch (XmlConversionException e) {
+            return e.getMessage();
+        }
+        fail("Expected XmlConversionException");
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link StaxXmlToObjectConverter} class.
+ */
+public class StaxXmlToObjectConverterTest {
+
+    private static final String INV_COUNT_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<OTA_HotelInvCountNotifRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"1.002\">\n";
+
+    private static final Schema RNG_2017_10 = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
+    private static final Schema XSD_2024_10 = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10");
+
+    @DataProvider(name = "validXml")
+    public static Object[][] validXml() {
+        return new Object[][]{
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", OTAHotelInvCountNotifRQ.class, XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-closing_seasons.xml", OTAHotelInvCountNotifRQ.class, null},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-delta.xml", OTAHotelInvCountNotifRQ.class, null},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-empty.xml", OTAHotelInvCountNotifRQ.class, null},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRQ.xml", OTAHotelAvailNotifRQ.class, RNG_2017_10},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRQ-empty.xml", OTAHotelAvailNotifRQ.class, null},
+                {"examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRQ.xml", OTAHotelDescriptiveContentNotifRQ.class, RNG_2017_10},
+                {"examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRQ-hotelinfo.xml", OTAHotelDescriptiveContentNotifRQ.class, null},
+                {"examples/v_2020_10/Inventory-OTA_HotelDescriptiveContentNotifRQ-with-roomtype.xml", OTAHotelDescriptiveContentNotifRQ.class, null},
+                {"examples/v_2024_10/Inventory-Push-OTA_HotelDescriptiveContentNotifRQ-hotelInfo-with-contact-infos.xml",
+                OTAHotelDescriptiveContentNotifRQ.class, XSD_2024_10},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRS-success.xml", OTAHotelAvailNotifRS.class, RNG_2017_10},
+                {"examples/v_2017_10/FreeRooms-OTA_HotelAvailNotifRS-error.xml", OTAHotelAvailNotifRS.class, RNG_2017_10},
+                {"examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRS-warning.xml", OTAHotelDescriptiveContentNotifRS.class, RNG_2017_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRS-advisory.xml", OTAHotelInvCountNotifRS.class, XSD_2024_10},
+        };
+    }
+
+    @DataProvider(name = "invalidXml")
+    public static Object[][] invalidXml() {
+        return new Object[][]{
+                // Not well-formed
+                {"NOT AN XML", null},
+                // Invalid according to OTA schema
+                {"<?xml version=\"1.0\" encoding=\"UTF-8\"?><some></some>", null},
+                {INV_COUNT_START + "<InvalidElement/></OTA_HotelInvCountNotifRQ>", null},
+                // Invalid according to AlpineBits schema
+                {INV_COUNT_START + "<UniqueID Type=\"99\" ID=\"1\"/><Inventories HotelCode=\"123\"><Inventory>"
+                        + "<StatusApplicationControl Start=\"2022-08-01\" End=\"2022-08-10\" InvTypeCode=\"DZ\"/>"
+                        + "</Inventory></Inventories></OTA_HotelInvCountNotifRQ>", XSD_2024_10},
+        };
+    }
+
+    @Test(dataProvider = "validXml")
+    public <T> void testToObject_ResultMatchesJaxbEngine(String filename, Class<T> classToBeBound, Schema schema) {
+        T expected = this.converter(classToBeBound, schema, XmlEngine.JAXB)
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+        T actual = this.converter(classToBeBound, schema, XmlEngine.STAX)
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+
+        assertEquals(this.toXml(actual), this.toXml(expected));
+    }
+
+    @Test(dataProvider = "invalidXml")
+    public void testToObject_ErrorMessageMatchesJaxbEngine(String xml, Schema schema) {
+        XmlConversionException expected = this.convertExpectingError(
+                this.converter(OTAHotelInvCountNotifRQ.class, schema, XmlEngine.JAXB), xml
+        );
+        XmlConversionException actual = this.convertExpectingError(
+                this.converter(OTAHotelInvCountNotifRQ.class, schema, XmlEngine.STAX), xml
+        );
+
+        assertEquals(actual.getMessage(), expected.getMessage());
+        assertEquals(actual.getCode(), expected.getCode());
+    }
+
+    @Test
+    public void testBuild_StaxEngineUsesGeneratedReader() {
+        XmlToObjectConverter<OTAHotelInvCountNotifRQ> converter = this.converter(OTAHotelInvCountNotifRQ.class, null, XmlEngine.STAX);
+        assertTrue(converter instanceof StaxXmlToObjectConverter);
+    }
+
+    @Test
+    public void testBuild_StaxEngineFallsBackToJaxbWithoutGeneratedReader() {
+        XmlToObjectConverter<OTAReadRQ> converter = this.converter(OTAReadRQ.class, null, XmlEngine.STAX);
+        assertTrue(converter instanceof JAXBXmlToObjectConverter);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuild_ThrowsOnNullEngine() {
+        new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class).engine(null);
+    }
+
+    private <T> XmlToObjectConverter<T> converter(Class<T> classToBeBound, Schema schema, XmlEngine engine) {
+        return new JAXBXmlToObjectConverter.Builder<>(classToBeBound)
+                .schema(schema)
+                .engine(engine)
+                .build();
+    }
+
+    private XmlConversionException convertExpectingError(XmlToObjectConverter<?> converter, String xml) {
+        try {
+            converter.toObject(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        } catch (XmlConversionException e) {
+            return e;
+        }
+        fail("Expected XmlConversionException");
+        return null;
+    }
+
+    private String toXml(Object o) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.JAXB).build().toXml(o, os);
+        return os.toString(StandardCharsets.UTF_8);
+    }
+}
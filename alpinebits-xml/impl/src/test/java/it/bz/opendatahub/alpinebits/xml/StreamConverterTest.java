@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ByteChunkPool;
+import it.bz.opendatahub.alpinebits.common.utils.buffer.ChunkedBuffer;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test cases for {@link StreamConverter} class.
+ */
+public class StreamConverterTest {
+
+    private static final String CONTENT = "<?xml version=\"1.0\"?><OTA_PingRQ>Grüße</OTA_PingRQ>";
+
+    @Test
+    public void testReadToString() throws IOException {
+        assertEquals(StreamConverter.readToString(toInputStream(CONTENT)), CONTENT);
+    }
+
+    @Test
+    public void testReadToBuffer() throws IOException {
+        ByteChunkPool pool = new ByteChunkPool(8, 16);
+
+        ChunkedBuffer buffer = StreamConverter.readToBuffer(toInputStream(CONTENT), pool);
+        try {
+            assertEquals(buffer.size(), CONTENT.getBytes(StandardCharsets.UTF_8).length);
+            assertEquals(new String(buffer.newInputStream().readAllBytes(), StandardCharsets.UTF_8), CONTENT);
+        } finally {
+            buffer.release();
+        }
+        assertEquals(pool.getInUseCount(), 0);
+    }
+
+    @Test
+    public void testReadToBuffer_ShouldReleaseBuffer_OnError() {
+        ByteChunkPool pool = new ByteChunkPool(8, 16);
+        InputStream is = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Throw error while reading");
+            }
+        };
+
+        try {
+            StreamConverter.readToBuffer(is, pool);
+        } catch (IOException e) {
+            // Expected
+        }
+        assertEquals(pool.getAcquisitionCount(), 1);
+        assertEquals(pool.getInUseCount(), 0);
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,152 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelRatePlanRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAResRetrieveRS;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.xmlunit.builder.DiffBuilder;
+import org.xmlunit.diff.Diff;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link StreamingJAXBObjectToXmlConverter} class.
+ */
+public class StreamingJAXBObjectToXmlConverterTest {
+
+    private static final Schema XSD_2024_10 = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10");
+
+    @DataProvider(name = "examples")
+    public static Object[][] examples() {
+        return new Object[][]{
+                {"BaseRates-OTA_HotelRatePlanRS.xml", OTAHotelRatePlanRS.class, true},
+                {"BaseRates-OTA_HotelRatePlanRS.xml", OTAHotelRatePlanRS.class, false},
+                {"FreeRooms-OTA_HotelInvCountNotifRQ.xml", OTAHotelInvCountNotifRQ.class, true},
+                {"GuestRequests-OTA_ResRetrieveRS-reservation.xml", OTAResRetrieveRS.class, true},
+                {"GuestRequests-OTA_ResRetrieveRS-reservation.xml", OTAResRetrieveRS.class, false},
+                {"Inventory-Pull-OTA_HotelDescriptiveInfoRS-hotelinfo.xml", OTAHotelDescriptiveInfoRS.class, true},
+        };
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testToXml_Error() {
+        OTAPingRQ pingRQ = new OTAPingRQ();
+        pingRQ.setVersion(BigDecimal.ONE);
+        pingRQ.setEchoData("Some echo data");
+
+        OutputStream os = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Throw error while writing");
+            }
+        };
+
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder().streaming(true).build();
+        converter.toXml(pingRQ, os);
+    }
+
+    @Test
+    public void testToXml_Ok() {
+        OTAPingRQ pingRQ = new OTAPingRQ();
+        pingRQ.setVersion(BigDecimal.ONE);
+        pingRQ.setEchoData("Some echo data");
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder().prettyPrint(true).streaming(true).build();
+        converter.toXml(pingRQ, os);
+
+        assertTrue(os.toString(StandardCharsets.UTF_8).contains("Some echo data"));
+    }
+
+    @Test
+    public void testToXml_ShouldNotWriteAnything_WhenOtaValidationFails() {
+        // The Version attribute is required by the OTA schema
+        OTAPingRQ pingRQ = new OTAPingRQ();
+        pingRQ.setEchoData("Some echo data");
+
+        XmlConversionException expected = this.convertExpectingError(new JAXBObjectToXmlConverter.Builder().build(), pingRQ);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder().streaming(true).spoolThreshold(0).build();
+        try {
+            converter.toXml(pingRQ, os);
+            fail("Expected XmlConversionException");
+        } catch (XmlConversionException e) {
+            assertEquals(e.getMessage(), expected.getMessage());
+        }
+
+        assertEquals(os.size(), 0);
+    }
+
+    @Test(dataProvider = "examples")
+    public void testToXml_ResultMatchesNonStreamingConverter(String filename, Class<?> classToBeBound, boolean prettyPrint) {
+        Object data = new JAXBXmlToObjectConverter.Builder<>(classToBeBound)
+                .schema(XSD_2024_10)
+                .build()
+                .toObject(this.getClass().getClassLoader().getResourceAsStream("examples/v_2024_10/" + filename));
+
+        String expected = this.toXml(new JAXBObjectToXmlConverter.Builder().schema(XSD_2024_10).prettyPrint(prettyPrint).build(), data);
+        String inMemory = this.toXml(
+                new JAXBObjectToXmlConverter.Builder().schema(XSD_2024_10).prettyPrint(prettyPrint).streaming(true).build(), data
+        );
+        String spooledToFile = this.toXml(
+                new JAXBObjectToXmlConverter.Builder().schema(XSD_2024_10).prettyPrint(prettyPrint).streaming(true).spoolThreshold(0).build(), data
+        );
+
+        this.assertIdentical(inMemory, expected);
+        this.assertIdentical(spooledToFile, expected);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsIfSpoolThresholdIsNegative() {
+        new JAXBObjectToXmlConverter.Builder().spoolThreshold(-1);
+    }
+
+    private String toXml(ObjectToXmlConverter converter, Object data) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        converter.toXml(data, os);
+        return os.toString(StandardCharsets.UTF_8);
+    }
+
+    private XmlConversionException convertExpectingError(ObjectToXmlConverter converter, Object data) {
+        try {
+            converter.toXml(data, new ByteArrayOutputStream());
+        } catch (XmlConversionException e) {
+            return e;
+        }
+        fail("Expected XmlConversionException");
+        return null;
+    }
+
+    private void assertIdentical(String actual, String expected) {
+        Diff xmlDiff = DiffBuilder.compare(expected).withTest(actual)
+                .checkForIdentical()
+                .ignoreWhitespace()
+                .build();
+        assertFalse(xmlDiff.hasDifferences(), xmlDiff.toString());
+    }
+}
@@ -0,0 +1,148 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.entity.TestEntity;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link StreamingJAXBXmlToObjectConverter} class.
+ */
+public class StreamingJAXBXmlToObjectConverterTest {
+
+    private static final String OTA_READ_RQ_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<OTA_ReadRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"1.001\">\n";
+
+    private static final Schema RNG_2017_10 = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
+    private static final Schema XSD_2017_10 = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2017-10");
+
+    @DataProvider(name = "invalidXml")
+    public static Object[][] invalidXml() {
+        return new Object[][]{
+                // Not well-formed
+                {"NOT AN XML", null},
+                // Invalid according to OTA schema
+                {"<?xml version=\"1.0\" encoding=\"UTF-8\"?><some></some>", null},
+                {OTA_READ_RQ_START + "<InvalidElement/></OTA_ReadRQ>", RNG_2017_10},
+                // Invalid according to AlpineBits schema
+                {OTA_READ_RQ_START + "<ReadRequests><HotelReadRequest HotelCode=\"123\">"
+                        + "<SelectionCriteria End=\"2012-03-21\"/></HotelReadRequest></ReadRequests></OTA_ReadRQ>", RNG_2017_10},
+                {OTA_READ_RQ_START + "<ReadRequests><HotelReadRequest HotelCode=\"123\">"
+                        + "<SelectionCriteria Start=\"2012-03-21\"/></HotelReadRequest></ReadRequests></OTA_ReadRQ>", XSD_2017_10},
+        };
+    }
+
+    @DataProvider(name = "validXml")
+    public static Object[][] validXml() {
+        return new Object[][]{
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10")},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-closing_seasons.xml", null},
+                {"examples/v_2022_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2022-10")},
+                {"examples/v_2020_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2020-10")},
+        };
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testToObject_Error() {
+        InputStream is = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Throw error while reading");
+            }
+        };
+
+        XmlToObjectConverter<TestEntity> converter = this.streamingConverter(TestEntity.class, null);
+        converter.toObject(is);
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testToObject_Error_WhenXmlIsInvalid() {
+        InputStream is = new ByteArrayInputStream("NOT AN XML".getBytes());
+        XmlToObjectConverter<TestEntity> converter = this.streamingConverter(TestEntity.class, null);
+        converter.toObject(is);
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testToObject_Error_OnXmlMappingError() {
+        InputStream is = new ByteArrayInputStream("<?xml version=\"1.0\" encoding=\"UTF-8\"?><some></some>".getBytes());
+        XmlToObjectConverter<TestEntity> converter = this.streamingConverter(TestEntity.class, null);
+        converter.toObject(is);
+    }
+
+    @Test
+    public void testToObject_Ok() {
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ.xml");
+        XmlToObjectConverter<OTAReadRQ> converter = this.streamingConverter(OTAReadRQ.class, null);
+        OTAReadRQ otaReadRQ = converter.toObject(is);
+
+        assertNotNull(otaReadRQ);
+    }
+
+    @Test(dataProvider = "invalidXml")
+    public void testToObject_ErrorMessageMatchesNonStreamingConverter(String xml, Schema schema) {
+        XmlConversionException expected = this.convertExpectingError(
+                new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).schema(schema).build(), xml
+        );
+        XmlConversionException actual = this.convertExpectingError(this.streamingConverter(OTAReadRQ.class, schema), xml);
+
+        assertEquals(actual.getMessage(), expected.getMessage());
+        assertEquals(actual.getCode(), expected.getCode());
+    }
+
+    @Test(dataProvider = "validXml")
+    public void testToObject_ResultMatchesNonStreamingConverter(String filename, Schema schema) {
+        OTAHotelInvCountNotifRQ expected = new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class)
+                .schema(schema)
+                .build()
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+        OTAHotelInvCountNotifRQ actual = this.streamingConverter(OTAHotelInvCountNotifRQ.class, schema)
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+
+        assertEquals(this.toXml(actual), this.toXml(expected));
+    }
+
+    private <T> XmlToObjectConverter<T> streamingConverter(Class<T> classToBeBound, Schema schema) {
+        return new JAXBXmlToObjectConverter.Builder<>(classToBeBound)
+                .schema(schema)
+                .streaming(true)
+                .build();
+    }
+
+    private XmlConversionException convertExpectingError(XmlToObjectConverter<?> converter, String xml) {
+        try {
+            converter.toObject(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        } catch (XmlConversionException e) {
+            return e;
+        }
+        fail("Expected XmlConversionException");
+        return null;
+    }
+
+    private String toXml(Object o) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new JAXBObjectToXmlConverter.Builder().build().toXml(o, os);
+        return os.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link ValidationPolicy} class.
+ */
+public class ValidationPolicyTest {
+
+    @AfterMethod
+    public void clearSystemProperty() {
+        System.clearProperty(ValidationPolicy.SYSTEM_PROPERTY);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSampled_ThrowsIfRateIsNegative() {
+        ValidationPolicy.sampled(-0.1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSampled_ThrowsIfRateIsGreaterThanOne() {
+        ValidationPolicy.sampled(1.1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSampled_ThrowsIfRateIsNaN() {
+        ValidationPolicy.sampled(Double.NaN);
+    }
+
+    @Test
+    public void testShouldValidate() {
+        assertTrue(ValidationPolicy.always().shouldValidate());
+        assertFalse(ValidationPolicy.never().shouldValidate());
+        assertTrue(ValidationPolicy.sampled(1.0).shouldValidate());
+        assertFalse(ValidationPolicy.sampled(0.0).shouldValidate());
+    }
+
+    @Test
+    public void testParse() {
+        assertSame(ValidationPolicy.parse("always"), ValidationPolicy.always());
+        assertSame(ValidationPolicy.parse(" NEVER "), ValidationPolicy.never());
+
+        ValidationPolicy sampled = ValidationPolicy.parse("sampled:0.25");
+        assertEquals(sampled.getMode(), ValidationPolicy.Mode.SAMPLED);
+        assertEquals(sampled.getSampleRate(), 0.25);
+        assertEquals(sampled.toString(), "sampled:0.25");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParse_ThrowsOnUnknownPolicy() {
+        ValidationPolicy.parse("sometimes");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParse_ThrowsOnInvalidRate() {
+        ValidationPolicy.parse("sampled:abc");
+    }
+
+    @Test
+    public void testConfigured_DefaultsToAlways() {
+        assertSame(ValidationPolicy.configured(), ValidationPolicy.always());
+    }
+
+    @Test
+    public void testConfigured_UsesSystemProperty() {
+        System.setProperty(ValidationPolicy.SYSTEM_PROPERTY, "never");
+        assertSame(ValidationPolicy.configured(), ValidationPolicy.never());
+    }
+}
@@ -0,0 +1,124 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.pool.XmlObjectPool;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelPostEventNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelRatePlanNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelRatePlanRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelResNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTANotifReportRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark that compares the throughput of the {@link ValidationTier}s
+ * for the AlpineBits 2024-10 request samples, validated with the AlpineBits XSD.
+ * <p>
+ * One operation converts every request of the corpus once. Unmarshallers and
+ * validators are pooled, such that only the validation passes are compared.
+ * <p>
+ * Run with <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="ValidationTierBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationTierBenchmark {
+
+    private static final String VERSION = "2024-10";
+    private static final String EXAMPLES = "examples/v_2024_10/";
+
+    @Param({"OTA_AND_ALPINEBITS", "OTA", "ALPINEBITS", "NONE"})
+    private ValidationTier tier;
+
+    @Param({"JAXB", "STAX"})
+    private XmlEngine engine;
+
+    private final XmlObjectPool pool = new XmlObjectPool.Builder().build();
+    private final List<byte[]> documents = new ArrayList<>();
+    private final List<XmlToObjectConverter<?>> converters = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        Schema schema = XmlSchemaRegistry.getInstance().getSchema(VERSION, SchemaFormat.XSD);
+
+        this.add(schema, "Activities-OTA_HotelPostEventNotifRQ.xml", OTAHotelPostEventNotifRQ.class);
+        this.add(schema, "BaseRates-OTA_HotelRatePlanRQ.xml", OTAHotelRatePlanRQ.class);
+        this.add(schema, "FreeRooms-OTA_HotelInvCountNotifRQ.xml", OTAHotelInvCountNotifRQ.class);
+        this.add(schema, "FreeRooms-OTA_HotelInvCountNotifRQ-delta.xml", OTAHotelInvCountNotifRQ.class);
+        this.add(schema, "GuestRequests-Acknowledgments-OTA_NotifReportRQ.xml", OTANotifReportRQ.class);
+        this.add(schema, "GuestRequests-OTA_ReadRQ.xml", OTAReadRQ.class);
+        this.add(schema, "GuestRequests-Push-OTA_HotelResNotifRQ.xml", OTAHotelResNotifRQ.class);
+        this.add(schema, "Handshake-OTA_PingRQ.xml", OTAPingRQ.class);
+        this.add(schema, "Inventory-Pull-OTA_HotelDescriptiveInfoRQ-basic.xml", OTAHotelDescriptiveInfoRQ.class);
+        this.add(schema, "Inventory-Push-OTA_HotelDescriptiveContentNotifRQ-basic.xml", OTAHotelDescriptiveContentNotifRQ.class);
+        this.add(schema, "Inventory-Push-OTA_HotelDescriptiveContentNotifRQ-hotelInfo.xml", OTAHotelDescriptiveContentNotifRQ.class);
+        this.add(schema, "RatePlans-OTA_HotelRatePlanNotifRQ.xml", OTAHotelRatePlanNotifRQ.class);
+
+        // Fail early, if a document of the corpus is invalid
+        this.convertCorpus();
+    }
+
+    @Benchmark
+    public int convertCorpus() {
+        int converted = 0;
+        for (int i = 0; i < this.documents.size(); i++) {
+            if (this.converters.get(i).toObject(new ByteArrayInputStream(this.documents.get(i))) != null) {
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    private void add(Schema schema, String name, Class<?> type) throws IOException {
+        this.documents.add(readResource(EXAMPLES + name));
+        this.converters.add(new JAXBXmlToObjectConverter.Builder<>(type)
+                .schema(schema)
+                .engine(this.engine)
+                .pool(this.pool)
+                .validationTier(this.tier)
+                .build());
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream is = ValidationTierBenchmark.class.getClassLoader().getResourceAsStream(name)) {
+            if (is == null) {
+                throw new IOException("Resource " + name + " not found");
+            }
+            return is.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.xmladapter.XmlDateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark that compares {@link XmlDateParser} with the JDK parsers
+ * previously used by the date adapters.
+ * <p>
+ * The input mimics FreeRooms documents, that repeat a few hundred dates.
+ * The texts are distinct String instances, as created by the XML parser.
+ * <p>
+ * Run with <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="XmlDateParserBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlDateParserBenchmark {
+
+    private static final int TEXT_COUNT = 4096;
+    private static final int DISTINCT_DATES = 365;
+
+    private final String[] dates = new String[TEXT_COUNT];
+    private final String[] dateTimes = new String[TEXT_COUNT];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.of(2024, 10, 1);
+        for (int i = 0; i < TEXT_COUNT; i++) {
+            LocalDate date = first.plusDays(random.nextInt(DISTINCT_DATES));
+            this.dates[i] = new String(date.toString());
+            ZonedDateTime dateTime = date.atTime(random.nextInt(24), random.nextInt(60), random.nextInt(60)).atZone(ZoneOffset.ofHours(2));
+            this.dateTimes[i] = dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_COUNT)
+    public void dateJdk(Blackhole blackhole) {
+        for (String date : this.dates) {
+            blackhole.consume(LocalDate.parse(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_COUNT)
+    public void dateFast(Blackhole blackhole) {
+        for (String date : this.dates) {
+            blackhole.consume(XmlDateParser.parseDateUncached(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_COUNT)
+    public void dateFastCached(Blackhole blackhole) {
+        for (String date : this.dates) {
+            blackhole.consume(XmlDateParser.parseDate(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_COUNT)
+    public void dateTimeJdk(Blackhole blackhole) {
+        for (String dateTime : this.dateTimes) {
+            blackhole.consume(jdkDateTime(dateTime));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_COUNT)
+    public void dateTimeFast(Blackhole blackhole) {
+        for (String dateTime : this.dateTimes) {
+            blackhole.consume(XmlDateParser.parseDateTime(dateTime));
+        }
+    }
+
+    /**
+     * The parsing previously done by the ZonedDateTimeAdapter.
+     */
+    private static ZonedDateTime jdkDateTime(String text) {
+        ParsePosition pos = new ParsePosition(0);
+        TemporalAccessor temporalAccessor = DateTimeFormatter.ISO_ZONED_DATE_TIME.parseUnresolved(text, pos);
+        if (temporalAccessor != null && pos.getErrorIndex() < 0 && pos.getIndex() >= text.length()) {
+            return ZonedDateTime.parse(text, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        }
+        return LocalDateTime.parse(text).atZone(ZoneId.systemDefault());
+    }
+}
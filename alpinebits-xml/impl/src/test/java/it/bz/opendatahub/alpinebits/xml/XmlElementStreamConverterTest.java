@@ -0,0 +1,215 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link XmlElementStreamConverter} class.
+ */
+public class XmlElementStreamConverterTest {
+
+    private static final Schema XSD_2024_10 = XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10");
+
+    private static final String INV_COUNT_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<OTA_HotelInvCountNotifRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"4\">"
+            + "<UniqueID Type=\"16\" ID=\"1\" Instance=\"CompleteSet\"/>"
+            + "<Inventories HotelCode=\"123\" HotelName=\"Frangart Inn\">";
+    private static final String INV_COUNT_END = "</Inventories></OTA_HotelInvCountNotifRQ>";
+    private static final String INVENTORY = "<Inventory><StatusApplicationControl Start=\"2022-08-01\" End=\"2022-08-10\" InvTypeCode=\"DOUBLE\"/>"
+            + "<InvCounts><InvCount CountType=\"2\" Count=\"3\"/></InvCounts></Inventory>";
+
+    @DataProvider(name = "validXml")
+    public static Object[][] validXml() {
+        return new Object[][]{
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-closing_seasons.xml", XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-delta.xml", XSD_2024_10},
+                {"examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ-empty.xml", XSD_2024_10},
+                {"examples/v_2022_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", null},
+                {"examples/v_2020_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml", null},
+        };
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsOnNullRootType() {
+        new XmlElementStreamConverter.Builder<>(null, BaseInvCountType.class, "Inventories", "Inventory");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsOnNullElementType() {
+        new XmlElementStreamConverter.Builder<>(OTAHotelInvCountNotifRQ.class, null, "Inventories", "Inventory");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsOnEmptyPath() {
+        new XmlElementStreamConverter.Builder<>(OTAHotelInvCountNotifRQ.class, BaseInvCountType.class);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsOnNullPool() {
+        XmlElementStreamConverter.inventories().pool(null);
+    }
+
+    @Test(dataProvider = "validXml")
+    public void testOpen_ResultMatchesJaxbConverter(String filename, Schema schema) {
+        OTAHotelInvCountNotifRQ expected = new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class)
+                .schema(schema)
+                .build()
+                .toObject(this.getClass().getClassLoader().getResourceAsStream(filename));
+
+        XmlElementStreamConverter<OTAHotelInvCountNotifRQ, BaseInvCountType> converter = XmlElementStreamConverter.inventories()
+                .schema(schema)
+                .build();
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = converter.open(
+                this.getClass().getClassLoader().getResourceAsStream(filename))) {
+            OTAHotelInvCountNotifRQ actual = stream.getEnvelope();
+            assertTrue(actual.getInventories().getInventories().isEmpty());
+
+            stream.forEachRemaining(inventory -> actual.getInventories().getInventories().add(inventory));
+            assertEquals(this.toXml(actual), this.toXml(expected));
+        }
+    }
+
+    @Test
+    public void testOpen_EnvelopeContainsContentBeforeFirstElement() {
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = this.open(INVENTORY + INVENTORY)) {
+            OTAHotelInvCountNotifRQ envelope = stream.getEnvelope();
+            assertEquals(envelope.getVersion().toPlainString(), "4");
+            assertEquals(envelope.getUniqueID().getInstance(), "CompleteSet");
+            assertEquals(envelope.getInventories().getHotelCode(), "123");
+            assertEquals(envelope.getInventories().getHotelName(), "Frangart Inn");
+        }
+    }
+
+    @Test
+    public void testNext_ThrowsAfterLastElement() {
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = this.open(INVENTORY)) {
+            assertTrue(stream.hasNext());
+            assertEquals(stream.next().getStatusApplicationControl().getInvTypeCode(), "DOUBLE");
+            assertFalse(stream.hasNext());
+            stream.next();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testNext_ValidationErrorIsThrownWhenEncountered() {
+        String invalidInventory = "<Inventory><StatusApplicationControl Start=\"2022-08-01\" End=\"2022-08-10\" InvTypeCode=\"DOUBLE\"/>"
+                + "<InvCounts><InvCount CountType=\"not a number\" Count=\"3\"/></InvCounts></Inventory>";
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = this.open(INVENTORY + INVENTORY + invalidInventory)) {
+            stream.next();
+            stream.next();
+            try {
+                stream.next();
+                fail("Expected XmlConversionException");
+            } catch (XmlConversionException e) {
+                assertEquals(e.getCode(), 400);
+                assertTrue(e.getMessage().startsWith("XML validation error: cvc-pattern-valid"), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testNext_ErrorMessageMatchesJaxbConverter() {
+        String xml = INV_COUNT_START + "<Inventory><InvalidElement/></Inventory>" + INV_COUNT_END;
+        XmlConversionException expected = null;
+        try {
+            new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class).build().toObject(toInputStream(xml));
+        } catch (XmlConversionException e) {
+            expected = e;
+        }
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = XmlElementStreamConverter.inventories()
+                .build()
+                .open(toInputStream(xml))) {
+            stream.next();
+            fail("Expected XmlConversionException");
+        } catch (XmlConversionException e) {
+            assertEquals(e.getMessage(), expected.getMessage());
+        }
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testOpen_ThrowsOnUnexpectedRootElement() {
+        XmlElementStreamConverter.inventories().build().open(toInputStream(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><OTA_PingRQ xmlns=\"http://www.opentravel.org/OTA/2003/05\" Version=\"1\">"
+                        + "<EchoData>x</EchoData></OTA_PingRQ>"
+        ));
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testOpen_ThrowsOnNotWellFormedXml() {
+        XmlElementStreamConverter.inventories().build().open(toInputStream("NOT AN XML"));
+    }
+
+    @Test
+    public void testOpen_StreamsLargeDocument() {
+        int count = 20_000;
+        List<InputStream> parts = new ArrayList<>();
+        parts.add(toInputStream(INV_COUNT_START));
+        for (int i = 0; i < count; i++) {
+            parts.add(toInputStream(INVENTORY));
+        }
+        parts.add(toInputStream(INV_COUNT_END));
+        Enumeration<InputStream> enumeration = Collections.enumeration(parts);
+
+        int read = 0;
+        try (XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = XmlElementStreamConverter.inventories()
+                .schema(XSD_2024_10)
+                .build()
+                .open(new SequenceInputStream(enumeration))) {
+            while (stream.hasNext()) {
+                stream.next();
+                read++;
+            }
+        }
+        assertEquals(read, count);
+    }
+
+    private XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> open(String inventories) {
+        return XmlElementStreamConverter.inventories()
+                .schema(XSD_2024_10)
+                .build()
+                .open(toInputStream(INV_COUNT_START + inventories + INV_COUNT_END));
+    }
+
+    private static InputStream toInputStream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toXml(Object o) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new JAXBObjectToXmlConverter.Builder().engine(XmlEngine.JAXB).build().toXml(o, os);
+        return os.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,113 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark that compares the {@link XmlEngine#JAXB} and {@link XmlEngine#STAX}
+ * engines for the OTA messages with generated StAX bindings.
+ * <p>
+ * Run with <code>mvn verify -Pbenchmark -DskipTests -Djmh.args="XmlEngineBenchmark"</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlEngineBenchmark {
+
+    private static final String INV_COUNT_EXAMPLE = "examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml";
+    private static final String DESCRIPTIVE_CONTENT_EXAMPLE = "examples/v_2017_10/Inventory-OTA_HotelDescriptiveContentNotifRQ.xml";
+
+    @Param({"JAXB", "STAX"})
+    private XmlEngine engine;
+
+    private byte[] invCountXml;
+    private byte[] descriptiveContentXml;
+    private OTAHotelInvCountNotifRQ invCount;
+    private OTAHotelDescriptiveContentNotifRQ descriptiveContent;
+
+    private XmlToObjectConverter<OTAHotelInvCountNotifRQ> invCountReader;
+    private XmlToObjectConverter<OTAHotelDescriptiveContentNotifRQ> descriptiveContentReader;
+    private ObjectToXmlConverter writer;
+
+    @Setup
+    public void setup() throws IOException {
+        this.invCountXml = readResource(INV_COUNT_EXAMPLE);
+        this.descriptiveContentXml = readResource(DESCRIPTIVE_CONTENT_EXAMPLE);
+
+        this.invCountReader = new JAXBXmlToObjectConverter.Builder<>(OTAHotelInvCountNotifRQ.class)
+                .engine(this.engine)
+                .build();
+        this.descriptiveContentReader = new JAXBXmlToObjectConverter.Builder<>(OTAHotelDescriptiveContentNotifRQ.class)
+                .engine(this.engine)
+                .build();
+        this.writer = new JAXBObjectToXmlConverter.Builder()
+                .engine(this.engine)
+                .build();
+
+        this.invCount = this.invCountReader.toObject(new ByteArrayInputStream(this.invCountXml));
+        this.descriptiveContent = this.descriptiveContentReader.toObject(new ByteArrayInputStream(this.descriptiveContentXml));
+    }
+
+    @Benchmark
+    public OTAHotelInvCountNotifRQ invCountToObject() {
+        return this.invCountReader.toObject(new ByteArrayInputStream(this.invCountXml));
+    }
+
+    @Benchmark
+    public OTAHotelDescriptiveContentNotifRQ descriptiveContentToObject() {
+        return this.descriptiveContentReader.toObject(new ByteArrayInputStream(this.descriptiveContentXml));
+    }
+
+    @Benchmark
+    public int invCountToXml() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream(this.invCountXml.length);
+        this.writer.toXml(this.invCount, os);
+        return os.size();
+    }
+
+    @Benchmark
+    public int descriptiveContentToXml() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream(this.descriptiveContentXml.length);
+        this.writer.toXml(this.descriptiveContent, os);
+        return os.size();
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream is = XmlEngineBenchmark.class.getClassLoader().getResourceAsStream(name)) {
+            if (is == null) {
+                throw new IOException("Resource " + name + " not found");
+            }
+            return is.readAllBytes();
+        }
+    }
+}
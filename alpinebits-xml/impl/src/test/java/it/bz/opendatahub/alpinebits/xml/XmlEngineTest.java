@@ -0,0 +1,44 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test cases for {@link XmlEngine} class.
+ */
+public class XmlEngineTest {
+
+    @AfterMethod
+    public void clearSystemProperty() {
+        System.clearProperty(XmlEngine.SYSTEM_PROPERTY);
+    }
+
+    @Test
+    public void testConfigured_DefaultsToJaxb() {
+        assertEquals(XmlEngine.configured(), XmlEngine.JAXB);
+    }
+
+    @Test
+    public void testConfigured_IgnoresCase() {
+        System.setProperty(XmlEngine.SYSTEM_PROPERTY, " stax ");
+        assertEquals(XmlEngine.configured(), XmlEngine.STAX);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConfigured_ThrowsOnUnknownEngine() {
+        System.setProperty(XmlEngine.SYSTEM_PROPERTY, "unknown");
+        XmlEngine.configured();
+    }
+}
@@ -0,0 +1,174 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import org.testng.annotations.Test;
+
+import javax.xml.validation.Schema;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for {@link XmlSchemaRegistry} class.
+ */
+public class XmlSchemaRegistryTest {
+
+    private static final String VERSION = "2017-10";
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetSchema_ShouldThrow_WhenVersionIsNull() {
+        new XmlSchemaRegistry().getSchema(null, SchemaFormat.RNG);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetSchema_ShouldThrow_WhenFormatIsNull() {
+        new XmlSchemaRegistry().getSchema(VERSION, null);
+    }
+
+    @Test
+    public void testGetSchema_ShouldThrowAgain_WhenVersionIsUnknown() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        for (int i = 0; i < 2; i++) {
+            try {
+                registry.getSchema("unknown", SchemaFormat.RNG);
+                fail("Expected InvalidSchemaException");
+            } catch (InvalidSchemaException e) {
+                // Expected, the second call retries the compilation
+            }
+        }
+        assertTrue(registry.getCompileTimes().isEmpty());
+    }
+
+    @Test
+    public void testGetSchema_ShouldThrowAgain_WhenCompilationThrowsError() {
+        Schema schema = SchemaFormat.RNG.compile(VERSION);
+        AtomicInteger compilations = new AtomicInteger();
+        XmlSchemaRegistry registry = new XmlSchemaRegistry((format, version) -> {
+            if (compilations.incrementAndGet() == 1) {
+                throw new StackOverflowError("expected");
+            }
+            return schema;
+        });
+        try {
+            registry.getSchema(VERSION, SchemaFormat.RNG);
+            fail("Expected StackOverflowError");
+        } catch (StackOverflowError e) {
+            // Expected, the second call retries the compilation
+        }
+        assertSame(registry.getSchema(VERSION, SchemaFormat.RNG), schema);
+        assertEquals(compilations.get(), 2);
+    }
+
+    @Test
+    public void testGetSchema_ShouldNotBlockWaitingCallers_WhenCompilationThrowsError() throws Exception {
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch failing = new CountDownLatch(1);
+        XmlSchemaRegistry registry = new XmlSchemaRegistry((format, version) -> {
+            compiling.countDown();
+            try {
+                failing.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new NoClassDefFoundError("expected");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Schema> compiler = executor.submit(() -> registry.getSchema(VERSION, SchemaFormat.RNG));
+            assertTrue(compiling.await(5, TimeUnit.SECONDS));
+            Future<Schema> waiter = executor.submit(() -> registry.getSchema(VERSION, SchemaFormat.RNG));
+            failing.countDown();
+            for (Future<Schema> future : Arrays.asList(compiler, waiter)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("Expected NoClassDefFoundError");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof NoClassDefFoundError);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetSchema_ShouldReturnSameSchema() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        Schema schema = registry.getSchema(VERSION, SchemaFormat.RNG);
+        assertSame(registry.getSchema(VERSION, SchemaFormat.RNG), schema);
+        assertNotSame(registry.getSchema(VERSION, SchemaFormat.XSD), schema);
+        assertTrue(registry.getCompileTimes().containsKey("alpinebits-2017-10.rng"));
+        assertTrue(registry.getCompileTimes().containsKey("alpinebits-2017-10.xsd"));
+    }
+
+    @Test
+    public void testGetXmlToObjectConverter_ShouldReturnSameConverter() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        XmlToObjectConverter<OTAPingRQ> converter = registry.getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class);
+        assertSame(registry.getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class), converter);
+        assertNotSame(registry.getXmlToObjectConverter(VERSION, SchemaFormat.XSD, OTAPingRQ.class), converter);
+    }
+
+    @Test
+    public void testGetXmlToObjectConverter_ShouldReturnConverterPerValidationTier() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        XmlToObjectConverter<OTAPingRQ> converter = registry.getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class);
+        assertSame(registry.getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class, ValidationTier.OTA_AND_ALPINEBITS), converter);
+        assertNotSame(registry.getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class, ValidationTier.NONE), converter);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetXmlToObjectConverter_ShouldThrow_WhenValidationTierIsNull() {
+        new XmlSchemaRegistry().getXmlToObjectConverter(VERSION, SchemaFormat.RNG, OTAPingRQ.class, null);
+    }
+
+    @Test
+    public void testGetObjectToXmlConverter_ShouldReturnSameConverter() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        ObjectToXmlConverter converter = registry.getObjectToXmlConverter(VERSION, SchemaFormat.RNG, false);
+        assertSame(registry.getObjectToXmlConverter(VERSION, SchemaFormat.RNG, false), converter);
+        assertNotSame(registry.getObjectToXmlConverter(VERSION, SchemaFormat.RNG, true), converter);
+    }
+
+    @Test
+    public void testPrecompile() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        registry.precompile(Arrays.asList("2017-10", "2018-10"), Arrays.asList(SchemaFormat.values()));
+        assertTrue(registry.getCompileTimes().keySet().containsAll(Arrays.asList(
+                "alpinebits-2017-10.rng", "alpinebits-2017-10.xsd", "alpinebits-2018-10.rng", "alpinebits-2018-10.xsd"
+        )));
+    }
+
+    @Test(expectedExceptions = InvalidSchemaException.class)
+    public void testPrecompile_ShouldThrow_WhenVersionIsUnknown() {
+        new XmlSchemaRegistry().precompile(Collections.singletonList("unknown"), Collections.singletonList(SchemaFormat.XSD));
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertSame(XmlSchemaRegistry.getInstance(), XmlSchemaRegistry.getInstance());
+    }
+}
@@ -0,0 +1,55 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+
+package it.bz.opendatahub.alpinebits.xml;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link XmlWarmUp} class.
+ */
+public class XmlWarmUpTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPreloadTasks_ShouldThrow_WhenRegistryIsNull() {
+        XmlWarmUp.preloadTasks(null, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Test
+    public void testPreloadTasks_ShouldCompileSchemas() {
+        XmlSchemaRegistry registry = new XmlSchemaRegistry();
+        List<Runnable> tasks = XmlWarmUp.preloadTasks(registry, Collections.singletonList("2017-10"), Arrays.asList(SchemaFormat.values()), XmlEngine.JAXB);
+
+        assertEquals(tasks.size(), 4);
+        tasks.forEach(Runnable::run);
+        assertTrue(registry.getCompileTimes().keySet().containsAll(Arrays.asList("alpinebits-2017-10.rng", "alpinebits-2017-10.xsd")));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPreloadTasks_ShouldThrow_WhenEngineIsNull() {
+        XmlWarmUp.preloadTasks(new XmlSchemaRegistry(), Collections.emptyList(), Collections.emptyList(), null);
+    }
+
+    @Test
+    public void testPreloadTasks_ShouldSkipJaxbContext_WhenEngineIsStax() {
+        List<Runnable> tasks = XmlWarmUp.preloadTasks(new XmlSchemaRegistry(), Collections.singletonList("2017-10"),
+                Collections.singletonList(SchemaFormat.RNG), XmlEngine.STAX);
+
+        assertEquals(tasks.size(), 2);
+    }
+}
@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.middleware;
+
+import it.bz.opendatahub.alpinebits.common.context.RequestContextKey;
+import it.bz.opendatahub.alpinebits.middleware.Context;
+import it.bz.opendatahub.alpinebits.middleware.Key;
+import it.bz.opendatahub.alpinebits.middleware.RequiredContextKeyMissingException;
+import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
+import it.bz.opendatahub.alpinebits.xml.XmlConversionException;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStream;
+import it.bz.opendatahub.alpinebits.xml.XmlElementStreamConverter;
+import it.bz.opendatahub.alpinebits.xml.XmlValidationSchemaProvider;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.BaseInvCountType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelInvCountNotifRQ;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Test cases for {@link XmlElementStreamMappingMiddleware} class.
+ */
+public class XmlElementStreamMappingMiddlewareTest {
+
+    private static final Key<XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType>> DEFAULT_CTX_KEY =
+            XmlElementStream.key("test");
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_ConverterIsNull() {
+        new XmlElementStreamMappingMiddleware<>(null, DEFAULT_CTX_KEY);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_BusinessContextKeyIsNull() {
+        new XmlElementStreamMappingMiddleware<>(XmlElementStreamConverter.inventories().build(), null);
+    }
+
+    @Test(expectedExceptions = RequiredContextKeyMissingException.class)
+    public void testHandleContext_RequestContentStreamIsNull() {
+        Context ctx = new SimpleContext();
+        this.middleware().handleContext(ctx, null);
+    }
+
+    @Test
+    public void testHandleContext_StreamsElementsToNextMiddleware() {
+        Context ctx = this.getDefaultCtx("examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml");
+        AtomicInteger count = new AtomicInteger();
+
+        this.middleware().handleContext(ctx, () -> {
+            XmlElementStream<OTAHotelInvCountNotifRQ, BaseInvCountType> stream = ctx.getOrThrow(DEFAULT_CTX_KEY);
+            assertEquals(stream.getEnvelope().getInventories().getHotelCode(), "123");
+            stream.forEachRemaining(inventory -> count.incrementAndGet());
+        });
+
+        assertEquals(count.get(), 3);
+    }
+
+    @Test
+    public void testHandleContext_StreamIsClosedAfterChain() {
+        Context ctx = this.getDefaultCtx("examples/v_2024_10/FreeRooms-OTA_HotelInvCountNotifRQ.xml");
+
+        this.middleware().handleContext(ctx, () -> {
+        });
+
+        assertFalse(ctx.getOrThrow(DEFAULT_CTX_KEY).hasNext());
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testHandleContext_ValidationError() {
+        Context ctx = this.getDefaultCtx("examples/v_2017_10/GuestRequests-OTA_ReadRQ.xml");
+        this.middleware().handleContext(ctx, () -> {
+        });
+    }
+
+    private Context getDefaultCtx(String filename) {
+        Context ctx = new SimpleContext();
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream(filename);
+        ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, is);
+        return ctx;
+    }
+
+    private XmlElementStreamMappingMiddleware<OTAHotelInvCountNotifRQ, BaseInvCountType> middleware() {
+        XmlElementStreamConverter<OTAHotelInvCountNotifRQ, BaseInvCountType> converter = XmlElementStreamConverter.inventories()
+                .schema(XmlValidationSchemaProvider.buildXsdSchemaForAlpineBitsVersion("2024-10"))
+                .build();
+        return new XmlElementStreamMappingMiddleware<>(converter, DEFAULT_CTX_KEY);
+    }
+}
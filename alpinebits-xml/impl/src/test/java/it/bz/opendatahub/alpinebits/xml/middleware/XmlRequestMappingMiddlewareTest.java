@@ -19,12 +19,14 @@ import it.bz.opendatahub.alpinebits.middleware.impl.SimpleContext;
 import it.bz.opendatahub.alpinebits.xml.JAXBXmlToObjectConverter;
 import it.bz.opendatahub.alpinebits.xml.XmlConversionException;
 import it.bz.opendatahub.alpinebits.xml.XmlToObjectConverter;
+import it.bz.opendatahub.alpinebits.xml.ValidationTier;
 import it.bz.opendatahub.alpinebits.xml.XmlValidationSchemaProvider;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
 import org.testng.annotations.Test;
 
 import javax.xml.validation.Schema;
 import java.io.InputStream;
+import java.util.Collections;
 
 import static org.testng.Assert.assertNotNull;
 
@@ -120,6 +122,58 @@ public class XmlRequestMappingMiddlewareTest {
         assertNotNull(businessData);
     }
 
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_TrustedConverterIsNull() {
+        XmlToObjectConverter<Object> converter = this.notValidatingConverter(Object.class);
+        new XmlRequestMappingMiddleware<>(converter, Key.key("test", Object.class), null, Collections.emptySet());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_TrustedUsernamesIsNull() {
+        XmlToObjectConverter<Object> converter = this.notValidatingConverter(Object.class);
+        new XmlRequestMappingMiddleware<>(converter, Key.key("test", Object.class), converter, null);
+    }
+
+    @Test
+    public void testHandleContext_TrustedUserSkipsValidation() {
+        Context ctx = this.getDefaultCtx();
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ-invalid.xml");
+        ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, is);
+        ctx.put(RequestContextKey.REQUEST_AUTHENTICATED_USERNAME, "internal");
+
+        XmlRequestMappingMiddleware<OTAReadRQ> middleware = this.trustingMiddleware("internal");
+        middleware.handleContext(ctx, () -> {
+        });
+
+        OTAReadRQ businessData = ctx.getOrThrow(DEFAULT_CTX_KEY);
+        assertNotNull(businessData);
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testHandleContext_UntrustedUserIsValidated() {
+        Context ctx = this.getDefaultCtx();
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ-invalid.xml");
+        ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, is);
+        ctx.put(RequestContextKey.REQUEST_AUTHENTICATED_USERNAME, "external");
+
+        XmlRequestMappingMiddleware<OTAReadRQ> middleware = this.trustingMiddleware("internal");
+        middleware.handleContext(ctx, () -> {
+        });
+    }
+
+    @Test(expectedExceptions = XmlConversionException.class)
+    public void testHandleContext_UnverifiedUsernameIsNotTrusted() {
+        Context ctx = this.getDefaultCtx();
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ-invalid.xml");
+        ctx.put(RequestContextKey.REQUEST_CONTENT_STREAM, is);
+        // Set e.g. by BasicAuthenticationMiddleware, that doesn't verify the credentials
+        ctx.put(RequestContextKey.REQUEST_USERNAME, "internal");
+
+        XmlRequestMappingMiddleware<OTAReadRQ> middleware = this.trustingMiddleware("internal");
+        middleware.handleContext(ctx, () -> {
+        });
+    }
+
     private Context getDefaultCtx() {
         Context ctx = new SimpleContext();
         InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ.xml");
@@ -137,6 +191,16 @@ public class XmlRequestMappingMiddlewareTest {
         return new XmlRequestMappingMiddleware<>(converter, DEFAULT_CTX_KEY);
     }
 
+    private XmlRequestMappingMiddleware<OTAReadRQ> trustingMiddleware(String trustedUsername) {
+        Schema schema = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
+        XmlToObjectConverter<OTAReadRQ> converter = this.validatingConverter(OTAReadRQ.class, schema);
+        XmlToObjectConverter<OTAReadRQ> trustedConverter = new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class)
+                .schema(schema)
+                .validationTier(ValidationTier.NONE)
+                .build();
+        return new XmlRequestMappingMiddleware<>(converter, DEFAULT_CTX_KEY, trustedConverter, Collections.singleton(trustedUsername));
+    }
+
     private <T> XmlToObjectConverter<T> notValidatingConverter(Class<T> classToBeBound) {
         return new JAXBXmlToObjectConverter.Builder<>(classToBeBound).build();
     }
@@ -0,0 +1,239 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.pool;
+
+import it.bz.opendatahub.alpinebits.xml.JAXBObjectToXmlConverter;
+import it.bz.opendatahub.alpinebits.xml.JAXBXmlToObjectConverter;
+import it.bz.opendatahub.alpinebits.xml.ObjectToXmlConverter;
+import it.bz.opendatahub.alpinebits.xml.OtaSchemaSingleton;
+import it.bz.opendatahub.alpinebits.xml.XmlToObjectConverter;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAReadRQ;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.PropertyException;
+import jakarta.xml.bind.Unmarshaller;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link XmlObjectPool} class.
+ */
+public class XmlObjectPoolTest {
+
+    private static final Schema OTA_SCHEMA = OtaSchemaSingleton.getInstance();
+    private static final PoolKey OTA_KEY = PoolKey.of(OTA_SCHEMA, false, null);
+
+    @DataProvider(name = "pooledModes")
+    public static Object[][] pooledModes() {
+        return new Object[][]{
+                {PoolMode.THREAD_LOCAL},
+                {PoolMode.STRIPED},
+        };
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsIfModeIsNull() {
+        new XmlObjectPool.Builder().mode(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsIfMaxSizePerKeyIsLowerThanOne() {
+        new XmlObjectPool.Builder().maxSizePerKey(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsIfStripesIsLowerThanOne() {
+        new XmlObjectPool.Builder().stripes(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilder_ThrowsIfMaxWaitIsNegative() {
+        new XmlObjectPool.Builder().maxWait(Duration.ofMillis(-1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testValidator_ThrowsIfSchemaIsNull() {
+        new XmlObjectPool.Builder().build().validator(PoolKey.of(null, false, null));
+    }
+
+    @Test
+    public void testUnpooled_CreatesNewObjectOnEveryBorrow() {
+        XmlObjectPool pool = XmlObjectPool.unpooled();
+        Validator first = this.borrowAndRelease(pool);
+        Validator second = this.borrowAndRelease(pool);
+
+        assertNotSame(first, second);
+        assertEquals(pool.getMode(), PoolMode.NONE);
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testPooledModes_ReuseReleasedObject(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        Validator first = this.borrowAndRelease(pool);
+        Validator second = this.borrowAndRelease(pool);
+
+        assertSame(first, second);
+        assertEquals(pool.getValidatorMetrics().getMisses(), 1);
+        assertEquals(pool.getValidatorMetrics().getHits(), 1);
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testPooledModes_CreateNewObject_WhenPooledObjectIsInUse(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        try (PooledObject<Validator> first = pool.validator(OTA_KEY);
+             PooledObject<Validator> second = pool.validator(OTA_KEY)) {
+            assertNotSame(first.get(), second.get());
+        }
+        assertEquals(pool.getValidatorMetrics().getMisses(), 2);
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testPooledModes_KeepObjectsPerKey(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        PoolKey prettyKey = PoolKey.of(null, true, OTAPingRQ.class);
+        PoolKey compactKey = PoolKey.of(null, false, OTAPingRQ.class);
+
+        try (PooledObject<Marshaller> pretty = pool.marshaller(prettyKey);
+             PooledObject<Marshaller> compact = pool.marshaller(compactKey)) {
+            assertEquals(pretty.get().getProperty(Marshaller.JAXB_FORMATTED_OUTPUT), Boolean.TRUE);
+            assertEquals(compact.get().getProperty(Marshaller.JAXB_FORMATTED_OUTPUT), Boolean.FALSE);
+        } catch (PropertyException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testPooledModes_ResetObjectsOnRelease(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        PoolKey key = PoolKey.of(OTA_SCHEMA, false, OTAReadRQ.class);
+
+        try (PooledObject<Unmarshaller> unmarshaller = pool.unmarshaller(key)) {
+            unmarshaller.get().setSchema(null);
+        }
+        try (PooledObject<Unmarshaller> unmarshaller = pool.unmarshaller(key)) {
+            assertSame(unmarshaller.get().getSchema(), OTA_SCHEMA);
+        }
+    }
+
+    @Test
+    public void testStriped_UsesUnpooledObject_WhenWaitTimesOut() {
+        XmlObjectPool pool = new XmlObjectPool.Builder()
+                .mode(PoolMode.STRIPED)
+                .maxSizePerKey(1)
+                .stripes(1)
+                .maxWait(Duration.ofMillis(1))
+                .build();
+
+        Validator unpooled;
+        try (PooledObject<Validator> first = pool.validator(OTA_KEY)) {
+            try (PooledObject<Validator> second = pool.validator(OTA_KEY)) {
+                unpooled = second.get();
+                assertNotSame(first.get(), unpooled);
+            }
+        }
+        assertNotSame(this.borrowAndRelease(pool), unpooled);
+
+        PoolMetrics metrics = pool.getValidatorMetrics();
+        assertEquals(metrics.getWaits(), 1);
+        assertEquals(metrics.getTimeouts(), 1);
+        assertTrue(metrics.getWaitTimeNanos() > 0);
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testConverters_UsePool(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        XmlToObjectConverter<OTAReadRQ> xmlToObject = new JAXBXmlToObjectConverter.Builder<>(OTAReadRQ.class).pool(pool).build();
+        ObjectToXmlConverter objectToXml = new JAXBObjectToXmlConverter.Builder().pool(pool).build();
+
+        for (int i = 0; i < 3; i++) {
+            InputStream is = this.getClass().getClassLoader().getResourceAsStream("examples/v_2017_10/GuestRequests-OTA_ReadRQ.xml");
+            OTAReadRQ otaReadRQ = xmlToObject.toObject(is);
+            assertNotNull(otaReadRQ);
+
+            OTAPingRQ pingRQ = new OTAPingRQ();
+            pingRQ.setVersion(BigDecimal.ONE);
+            pingRQ.setEchoData("Some echo data");
+            objectToXml.toXml(pingRQ, new ByteArrayOutputStream());
+        }
+
+        assertEquals(pool.getUnmarshallerMetrics().getMisses(), 1);
+        assertEquals(pool.getUnmarshallerMetrics().getHits(), 2);
+        assertEquals(pool.getMarshallerMetrics().getMisses(), 1);
+        assertEquals(pool.getMarshallerMetrics().getHits(), 2);
+        assertEquals(pool.getValidatorMetrics().getMisses(), 1);
+        assertEquals(pool.getValidatorMetrics().getHits(), 5);
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testPooledModes_ResetValidatorErrorHandlerOnRelease(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+
+        try (PooledObject<Validator> validator = pool.validator(OTA_KEY)) {
+            validator.get().setErrorHandler(new DefaultHandler());
+        }
+        try (PooledObject<Validator> validator = pool.validator(OTA_KEY)) {
+            assertNull(validator.get().getErrorHandler());
+        }
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testClear_DropsIdleObjectsOfAllThreads(PoolMode mode) throws Exception {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Validator otherThread = executor.submit(() -> this.borrowAndRelease(pool)).get();
+            Validator currentThread = this.borrowAndRelease(pool);
+
+            pool.clear();
+
+            assertNotSame(executor.submit(() -> this.borrowAndRelease(pool)).get(), otherThread);
+            assertNotSame(this.borrowAndRelease(pool), currentThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(dataProvider = "pooledModes")
+    public void testClear_DropsObjectsReleasedAfterwards(PoolMode mode) {
+        XmlObjectPool pool = new XmlObjectPool.Builder().mode(mode).build();
+
+        Validator borrowed;
+        try (PooledObject<Validator> validator = pool.validator(OTA_KEY)) {
+            borrowed = validator.get();
+            pool.clear();
+        }
+
+        assertNotSame(this.borrowAndRelease(pool), borrowed);
+    }
+
+    private Validator borrowAndRelease(XmlObjectPool pool) {
+        try (PooledObject<Validator> validator = pool.validator(OTA_KEY)) {
+            return validator.get();
+        }
+    }
+}
@@ -0,0 +1,476 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAnyAttribute;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlAttachmentRef;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementRef;
+import jakarta.xml.bind.annotation.XmlElementRefs;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlElements;
+import jakarta.xml.bind.annotation.XmlEnum;
+import jakarta.xml.bind.annotation.XmlID;
+import jakarta.xml.bind.annotation.XmlIDREF;
+import jakarta.xml.bind.annotation.XmlInlineBinaryData;
+import jakarta.xml.bind.annotation.XmlList;
+import jakarta.xml.bind.annotation.XmlMimeType;
+import jakarta.xml.bind.annotation.XmlMixed;
+import jakarta.xml.bind.annotation.XmlNsForm;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSchema;
+import jakarta.xml.bind.annotation.XmlTransient;
+import jakarta.xml.bind.annotation.XmlType;
+import jakarta.xml.bind.annotation.XmlValue;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import javax.xml.namespace.QName;
+import java.beans.Introspector;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Derives {@link TypeBinding}s from the JAXB annotations of classes
+ * generated by xjc.
+ * <p>
+ * The annotations are the compiled form of the XSDs and xjb bindings
+ * used by xjc, so the derived bindings match the ones JAXB uses at runtime.
+ * Only the subset of JAXB features used by the OTA 2015a classes for
+ * plain elements, attributes and text values is supported. Classes using
+ * other features are reported as unsupported and are left to JAXB.
+ */
+final class BindingIntrospector {
+
+    private static final String DEFAULT_NAME = "##default";
+
+    private static final List<Class<? extends Annotation>> UNSUPPORTED_FIELD_ANNOTATIONS = Arrays.asList(
+            XmlAnyAttribute.class,
+            XmlAnyElement.class,
+            XmlAttachmentRef.class,
+            XmlElementRef.class,
+            XmlElementRefs.class,
+            XmlElements.class,
+            XmlElementWrapper.class,
+            XmlID.class,
+            XmlIDREF.class,
+            XmlInlineBinaryData.class,
+            XmlList.class,
+            XmlMimeType.class,
+            XmlMixed.class
+    );
+
+    private final Map<Class<?>, TypeBinding> bindings = new HashMap<>();
+    private final String packageName;
+
+    /**
+     * Create an introspector for classes of the given package. Classes
+     * of other packages are reported as unsupported, because the generated
+     * code accesses the protected fields directly.
+     *
+     * @param packageName the package of the generated code
+     */
+    BindingIntrospector(String packageName) {
+        this.packageName = packageName;
+    }
+
+    /**
+     * Collect the {@link TypeBinding}s of the given root classes and
+     * of all classes reachable from supported classes.
+     *
+     * @param rootClasses the classes to start from
+     * @return the bindings in the order they were found
+     */
+    Map<Class<?>, TypeBinding> reachableBindings(List<Class<?>> rootClasses) {
+        Map<Class<?>, TypeBinding> result = new LinkedHashMap<>();
+        Deque<Class<?>> queue = new ArrayDeque<>(rootClasses);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (result.containsKey(type)) {
+                continue;
+            }
+            TypeBinding binding = this.introspect(type);
+            result.put(type, binding);
+            for (PropertyBinding element : binding.getElements()) {
+                if (!element.isSimple()) {
+                    queue.add(element.getItemType());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Derive the {@link TypeBinding} for the given class.
+     *
+     * @param type the class to inspect
+     * @return the {@link TypeBinding}, never null
+     */
+    TypeBinding introspect(Class<?> type) {
+        return this.bindings.computeIfAbsent(type, this::doIntrospect);
+    }
+
+    /**
+     * Get the namespace of the given root element class.
+     *
+     * @param type class annotated with {@link XmlRootElement}, or {@link JAXBElement} subclass
+     * @return the namespace of the root element
+     */
+    String rootNamespace(Class<?> type) {
+        if (isElementClass(type)) {
+            return elementName(type).getNamespaceURI();
+        }
+        XmlRootElement rootElement = requireRootElement(type);
+        return DEFAULT_NAME.equals(rootElement.namespace()) ? packageNamespace(type) : rootElement.namespace();
+    }
+
+    /**
+     * Get the local name of the given root element class.
+     *
+     * @param type class annotated with {@link XmlRootElement}, or {@link JAXBElement} subclass
+     * @return the local name of the root element
+     */
+    String rootLocalName(Class<?> type) {
+        if (isElementClass(type)) {
+            return elementName(type).getLocalPart();
+        }
+        XmlRootElement rootElement = requireRootElement(type);
+        return DEFAULT_NAME.equals(rootElement.name()) ? Introspector.decapitalize(type.getSimpleName()) : rootElement.name();
+    }
+
+    /**
+     * Check if the given root class is a {@link JAXBElement} subclass, as
+     * generated by xjc for global elements with a named type, e.g.
+     * <code>OTAHotelAvailNotifRS</code>.
+     *
+     * @param type the root class
+     * @return true if the root class is a {@link JAXBElement} subclass
+     */
+    static boolean isElementClass(Class<?> type) {
+        return JAXBElement.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Get the class bound to the content of the given root class. That is the
+     * root class itself, or the value type of a {@link JAXBElement} subclass.
+     *
+     * @param type the root class
+     * @return the class bound to the content of the root element
+     */
+    static Class<?> contentType(Class<?> type) {
+        if (!isElementClass(type)) {
+            return type;
+        }
+        Type superclass = type.getGenericSuperclass();
+        if (superclass instanceof ParameterizedType) {
+            Type valueType = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+            if (valueType instanceof Class) {
+                return (Class<?>) valueType;
+            }
+        }
+        throw new IllegalArgumentException("The value type of " + type.getName() + " could not be determined");
+    }
+
+    private TypeBinding doIntrospect(Class<?> type) {
+        Optional<String> reason = this.checkClass(type);
+        if (reason.isPresent()) {
+            return TypeBinding.unsupported(type, reason.get());
+        }
+
+        List<PropertyBinding> attributes = new ArrayList<>();
+        List<PropertyBinding> elements = new ArrayList<>();
+        List<PropertyBinding> values = new ArrayList<>();
+        try {
+            for (Class<?> current : hierarchy(type)) {
+                for (Field field : orderedFields(current)) {
+                    PropertyBinding property = this.toProperty(field);
+                    if (property.getKind() == PropertyBinding.Kind.ATTRIBUTE) {
+                        attributes.add(property);
+                    } else if (property.getKind() == PropertyBinding.Kind.VALUE) {
+                        values.add(property);
+                    } else {
+                        elements.add(property);
+                    }
+                }
+            }
+        } catch (UnsupportedBindingException e) {
+            return TypeBinding.unsupported(type, e.getMessage());
+        }
+
+        if (!values.isEmpty() && !elements.isEmpty()) {
+            return TypeBinding.unsupported(type, "text value combined with child elements");
+        }
+
+        return TypeBinding.supported(type, attributes, elements, values.isEmpty() ? null : values.get(0));
+    }
+
+    private PropertyBinding toProperty(Field field) throws UnsupportedBindingException {
+        checkField(field);
+
+        XmlAttribute attribute = field.getAnnotation(XmlAttribute.class);
+        if (attribute != null) {
+            String namespace = DEFAULT_NAME.equals(attribute.namespace()) ? attributeNamespace(field) : attribute.namespace();
+            return simpleProperty(PropertyBinding.Kind.ATTRIBUTE, field, namespace, nameOf(attribute.name(), field));
+        }
+
+        if (field.isAnnotationPresent(XmlValue.class)) {
+            return simpleProperty(PropertyBinding.Kind.VALUE, field, "", "");
+        }
+
+        return toElement(field, field.getAnnotation(XmlElement.class));
+    }
+
+    private static PropertyBinding toElement(Field field, XmlElement element) throws UnsupportedBindingException {
+        String namespace = elementNamespace(field);
+        String localName = field.getName();
+        if (element != null) {
+            if (element.type() != XmlElement.DEFAULT.class) {
+                throw new UnsupportedBindingException(field, "declares an explicit element type");
+            }
+            namespace = DEFAULT_NAME.equals(element.namespace()) ? namespace : element.namespace();
+            localName = nameOf(element.name(), field);
+        }
+
+        boolean list = List.class.isAssignableFrom(field.getType());
+        Class<?> itemType = list ? listItemType(field) : field.getType();
+        Class<?> adapterType = adapterType(field, itemType);
+        Optional<SimpleType> simpleType = simpleType(itemType, adapterType);
+        if (simpleType.isPresent()) {
+            return new PropertyBinding(PropertyBinding.Kind.ELEMENT, field, namespace, localName, list, itemType, simpleType.get(), adapterType);
+        }
+        if (!itemType.isAnnotationPresent(XmlType.class) || itemType.isEnum()) {
+            throw new UnsupportedBindingException(field, "has unsupported type " + itemType.getName());
+        }
+        return new PropertyBinding(PropertyBinding.Kind.ELEMENT, field, namespace, localName, list, itemType, null, null);
+    }
+
+    private static PropertyBinding simpleProperty(PropertyBinding.Kind kind, Field field, String namespace, String localName)
+            throws UnsupportedBindingException {
+        // Attributes of list type are bound to whitespace separated lists (xs:list)
+        boolean list = List.class.isAssignableFrom(field.getType());
+        if (list && kind != PropertyBinding.Kind.ATTRIBUTE) {
+            throw new UnsupportedBindingException(field, "is a list of text values");
+        }
+        Class<?> itemType = list ? listItemType(field) : field.getType();
+        Class<?> adapterType = adapterType(field, itemType);
+        Optional<SimpleType> simpleType = simpleType(itemType, adapterType);
+        if (!simpleType.isPresent()) {
+            throw new UnsupportedBindingException(field, "has unsupported simple type " + itemType.getName());
+        }
+        return new PropertyBinding(kind, field, namespace, localName, list, itemType, simpleType.get(), adapterType);
+    }
+
+    private Optional<String> checkClass(Class<?> type) {
+        if (!type.isAnnotationPresent(XmlType.class)) {
+            return Optional.of("not annotated with @XmlType");
+        }
+        Optional<String> reason = checkInstantiable(type);
+        if (reason.isPresent()) {
+            return reason;
+        }
+        for (Class<?> current : hierarchy(type)) {
+            if (accessType(current) != XmlAccessType.FIELD) {
+                return Optional.of("access type of " + current.getName() + " is not FIELD");
+            }
+            if (!current.getPackage().getName().equals(this.packageName)) {
+                return Optional.of(current.getName() + " is declared outside of package " + this.packageName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> checkInstantiable(Class<?> type) {
+        int modifiers = type.getModifiers();
+        if (Modifier.isAbstract(modifiers) || !Modifier.isPublic(modifiers)) {
+            return Optional.of("not a public concrete class");
+        }
+        if (type.getEnclosingClass() != null && !Modifier.isStatic(modifiers)) {
+            return Optional.of("inner class");
+        }
+        try {
+            type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return Optional.of("no public no-arg constructor");
+        }
+        return Optional.empty();
+    }
+
+    private static void checkField(Field field) throws UnsupportedBindingException {
+        for (Class<? extends Annotation> annotation : UNSUPPORTED_FIELD_ANNOTATIONS) {
+            if (field.isAnnotationPresent(annotation)) {
+                throw new UnsupportedBindingException(field, "uses @" + annotation.getSimpleName());
+            }
+        }
+        if (JAXBElement.class.isAssignableFrom(field.getType())) {
+            throw new UnsupportedBindingException(field, "is a JAXBElement");
+        }
+    }
+
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        Deque<Class<?>> classes = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            classes.addFirst(current);
+        }
+        return new ArrayList<>(classes);
+    }
+
+    /**
+     * Get the bound fields of a class. Elements are ordered by
+     * {@link XmlType#propOrder()}, attributes by declaration.
+     */
+    private static List<Field> orderedFields(Class<?> type) {
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                    || field.isAnnotationPresent(XmlTransient.class)) {
+                continue;
+            }
+            fields.put(field.getName(), field);
+        }
+
+        List<Field> ordered = new ArrayList<>();
+        XmlType xmlType = type.getAnnotation(XmlType.class);
+        if (xmlType != null) {
+            for (String name : xmlType.propOrder()) {
+                Field field = fields.remove(name);
+                if (field != null) {
+                    ordered.add(field);
+                }
+            }
+        }
+        ordered.addAll(fields.values());
+        return ordered;
+    }
+
+    private static XmlAccessType accessType(Class<?> type) {
+        XmlAccessorType accessorType = type.getAnnotation(XmlAccessorType.class);
+        if (accessorType == null) {
+            accessorType = type.getPackage().getAnnotation(XmlAccessorType.class);
+        }
+        return accessorType == null ? XmlAccessType.PUBLIC_MEMBER : accessorType.value();
+    }
+
+    private static Class<?> listItemType(Field field) throws UnsupportedBindingException {
+        Type genericType = field.getGenericType();
+        if (genericType instanceof ParameterizedType) {
+            Type itemType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (itemType instanceof Class && !JAXBElement.class.isAssignableFrom((Class<?>) itemType)) {
+                return (Class<?>) itemType;
+            }
+        }
+        throw new UnsupportedBindingException(field, "has unsupported list type " + genericType);
+    }
+
+    private static Class<?> adapterType(Field field, Class<?> boundType) throws UnsupportedBindingException {
+        XmlJavaTypeAdapter annotation = field.getAnnotation(XmlJavaTypeAdapter.class);
+        if (annotation == null) {
+            return null;
+        }
+        Class<?> adapterType = annotation.value();
+        Type adapterSuperType = adapterType.getGenericSuperclass();
+        if (adapterSuperType instanceof ParameterizedType
+                && ((ParameterizedType) adapterSuperType).getRawType() == XmlAdapter.class) {
+            Type[] arguments = ((ParameterizedType) adapterSuperType).getActualTypeArguments();
+            if (arguments[0] == String.class && arguments[1] == boundType) {
+                return adapterType;
+            }
+        }
+        throw new UnsupportedBindingException(field, "uses unsupported adapter " + adapterType.getName());
+    }
+
+    private static Optional<SimpleType> simpleType(Class<?> type, Class<?> adapterType) {
+        if (adapterType != null) {
+            return Optional.of(SimpleType.ADAPTED);
+        }
+        if (type.isEnum()) {
+            return isSupportedEnum(type) ? Optional.of(SimpleType.ENUM) : Optional.empty();
+        }
+        return SimpleType.forJavaType(type);
+    }
+
+    private static boolean isSupportedEnum(Class<?> type) {
+        if (!type.isAnnotationPresent(XmlEnum.class)) {
+            return false;
+        }
+        try {
+            return Modifier.isStatic(type.getMethod("fromValue", String.class).getModifiers())
+                    && type.getMethod("value").getReturnType() == String.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static String nameOf(String annotatedName, Field field) {
+        return DEFAULT_NAME.equals(annotatedName) ? field.getName() : annotatedName;
+    }
+
+    private static String elementNamespace(Field field) {
+        XmlSchema schema = field.getDeclaringClass().getPackage().getAnnotation(XmlSchema.class);
+        return schema != null && schema.elementFormDefault() == XmlNsForm.QUALIFIED ? schema.namespace() : "";
+    }
+
+    private static String attributeNamespace(Field field) {
+        XmlSchema schema = field.getDeclaringClass().getPackage().getAnnotation(XmlSchema.class);
+        return schema != null && schema.attributeFormDefault() == XmlNsForm.QUALIFIED ? schema.namespace() : "";
+    }
+
+    private static String packageNamespace(Class<?> type) {
+        XmlSchema schema = type.getPackage().getAnnotation(XmlSchema.class);
+        return schema == null ? "" : schema.namespace();
+    }
+
+    private static XmlRootElement requireRootElement(Class<?> type) {
+        XmlRootElement rootElement = type.getAnnotation(XmlRootElement.class);
+        if (rootElement == null) {
+            throw new IllegalArgumentException("The class " + type.getName()
+                    + " is neither annotated with @XmlRootElement nor a subclass of JAXBElement");
+        }
+        return rootElement;
+    }
+
+    private static QName elementName(Class<?> type) {
+        try {
+            return ((JAXBElement<?>) type.getConstructor().newInstance()).getName();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("The element name of " + type.getName() + " could not be determined", e);
+        }
+    }
+
+    /**
+     * Thrown if a field can not be handled by generated code.
+     */
+    private static final class UnsupportedBindingException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedBindingException(Field field, String message) {
+            super("field " + field.getName() + " " + message);
+        }
+    }
+}
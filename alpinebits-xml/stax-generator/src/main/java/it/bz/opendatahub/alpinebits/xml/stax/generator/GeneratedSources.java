@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Source fragments shared by the emitters.
+ */
+final class GeneratedSources {
+
+    private GeneratedSources() {
+        // Empty
+    }
+
+    /**
+     * Append the class comment, listing the types that are left to JAXB.
+     *
+     * @param sb       the {@link SourceBuilder} to append to
+     * @param summary  first sentence of the comment
+     * @param bindings the bindings handled by the class
+     */
+    static void classComment(SourceBuilder sb, String summary, Collection<TypeBinding> bindings) {
+        Set<String> unsupported = new TreeSet<>();
+        for (TypeBinding binding : bindings) {
+            if (!binding.isSupported()) {
+                unsupported.add(binding.getType().getCanonicalName());
+            }
+        }
+
+        sb.line("/**")
+                .line(" * %s", summary)
+                .line(" * <p>")
+                .line(" * This class was generated by %s, do not edit.", StaxCodeGenerator.class.getName());
+        if (!unsupported.isEmpty()) {
+            sb.line(" * <p>")
+                    .line(" * The following types are handled by the JAXB fallback:")
+                    .line(" * <ul>");
+            for (String name : unsupported) {
+                sb.line(" *     <li>%s</li>", name);
+            }
+            sb.line(" * </ul>");
+        }
+        sb.line(" */");
+    }
+
+    /**
+     * Append the {@link javax.annotation.processing.Generated} annotation.
+     *
+     * @param sb the {@link SourceBuilder} to append to
+     */
+    static void generatedAnnotation(SourceBuilder sb) {
+        sb.line("@Generated(%s)", SourceBuilder.literal(StaxCodeGenerator.class.getName()));
+    }
+
+    /**
+     * Append a constant for every adapter used by the given bindings.
+     *
+     * @param sb          the {@link SourceBuilder} to append to
+     * @param bindings    the bindings to inspect
+     * @param packageName the package of the generated code
+     */
+    static void adapterConstants(SourceBuilder sb, Collection<TypeBinding> bindings, String packageName) {
+        TreeMap<String, Class<?>> adapters = new TreeMap<>();
+        for (TypeBinding binding : bindings) {
+            addAdapters(adapters, binding.getAttributes());
+            addAdapters(adapters, binding.getElements());
+            if (binding.getValue() != null) {
+                addAdapters(adapters, Collections.singletonList(binding.getValue()));
+            }
+        }
+        for (Class<?> adapterType : adapters.values()) {
+            String typeName = Names.typeName(adapterType, packageName);
+            sb.line("private static final %s %s = new %s();", typeName, Names.adapterConstant(adapterType), typeName);
+        }
+        if (!adapters.isEmpty()) {
+            sb.blank();
+        }
+    }
+
+    /**
+     * Build the qualifier used by the parse and print expressions of
+     * {@link SimpleType#ENUM} and {@link SimpleType#ADAPTED}.
+     *
+     * @param property    the property
+     * @param packageName the package of the generated code
+     * @return the qualifier, or null if the property does not need one
+     */
+    static String qualifier(PropertyBinding property, String packageName) {
+        if (property.getAdapterType() != null) {
+            return Names.adapterConstant(property.getAdapterType());
+        }
+        if (property.getSimpleType() == SimpleType.ENUM) {
+            return Names.typeName(property.getItemType(), packageName);
+        }
+        return null;
+    }
+
+    private static void addAdapters(TreeMap<String, Class<?>> adapters, Collection<PropertyBinding> properties) {
+        for (PropertyBinding property : properties) {
+            if (property.getAdapterType() != null) {
+                adapters.put(property.getAdapterType().getName(), property.getAdapterType());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.util.Locale;
+
+/**
+ * Naming rules for the generated code.
+ */
+final class Names {
+
+    /**
+     * Package of the runtime classes used by the generated code.
+     */
+    static final String RUNTIME_PACKAGE = "it.bz.opendatahub.alpinebits.xml.stax";
+
+    /**
+     * Simple name of the class holding the generated read methods.
+     */
+    static final String READERS_CLASS = "StaxReaders";
+
+    /**
+     * Simple name of the class holding the generated write methods.
+     */
+    static final String WRITERS_CLASS = "StaxWriters";
+
+    /**
+     * Suffix of the generated per-root reader classes.
+     */
+    static final String READER_SUFFIX = "StaxReader";
+
+    /**
+     * Suffix of the generated per-root writer classes.
+     */
+    static final String WRITER_SUFFIX = "StaxWriter";
+
+    private Names() {
+        // Empty
+    }
+
+    /**
+     * Build the name used to reference the given type from code in the given package.
+     *
+     * @param type        the type to reference
+     * @param packageName the package of the referencing code
+     * @return the simple name (including enclosing classes) if the type
+     * is declared in the given package, the canonical name otherwise
+     */
+    static String typeName(Class<?> type, String packageName) {
+        String canonicalName = type.getCanonicalName();
+        String prefix = packageName + ".";
+        return canonicalName.startsWith(prefix) ? canonicalName.substring(prefix.length()) : canonicalName;
+    }
+
+    /**
+     * Build a unique method name suffix for the given type, e.g.
+     * <code>OTAHotelAvailNotifRQ_AvailStatusMessages</code>.
+     *
+     * @param type the type
+     * @return the method name suffix
+     */
+    static String methodSuffix(Class<?> type) {
+        String name = type.getName();
+        return name.substring(name.lastIndexOf('.') + 1).replace('$', '_');
+    }
+
+    /**
+     * Build the name of the constant holding an adapter instance, e.g.
+     * <code>LOCAL_DATE_ADAPTER</code>.
+     *
+     * @param adapterType the adapter type
+     * @return the constant name
+     */
+    static String adapterConstant(Class<?> adapterType) {
+        return adapterType.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Build the name of the generated reader for the given root class.
+     *
+     * @param rootClass the root class
+     * @return the simple name of the reader class
+     */
+    static String readerClass(Class<?> rootClass) {
+        return rootClass.getSimpleName() + READER_SUFFIX;
+    }
+
+    /**
+     * Build the name of the generated writer for the given root class.
+     *
+     * @param rootClass the root class
+     * @return the simple name of the writer class
+     */
+    static String writerClass(Class<?> rootClass) {
+        return rootClass.getSimpleName() + WRITER_SUFFIX;
+    }
+}
@@ -0,0 +1,112 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.lang.reflect.Field;
+
+/**
+ * Describes how a single field of a JAXB bound class maps to XML.
+ */
+final class PropertyBinding {
+
+    /**
+     * The XML representation of a property.
+     */
+    enum Kind {
+        ATTRIBUTE,
+        ELEMENT,
+        VALUE
+    }
+
+    private final Kind kind;
+    private final Field field;
+    private final String namespace;
+    private final String localName;
+    private final boolean list;
+    private final Class<?> itemType;
+    private final SimpleType simpleType;
+    private final Class<?> adapterType;
+
+    PropertyBinding(
+            Kind kind,
+            Field field,
+            String namespace,
+            String localName,
+            boolean list,
+            Class<?> itemType,
+            SimpleType simpleType,
+            Class<?> adapterType
+    ) {
+        this.kind = kind;
+        this.field = field;
+        this.namespace = namespace;
+        this.localName = localName;
+        this.list = list;
+        this.itemType = itemType;
+        this.simpleType = simpleType;
+        this.adapterType = adapterType;
+    }
+
+    Kind getKind() {
+        return this.kind;
+    }
+
+    String getFieldName() {
+        return this.field.getName();
+    }
+
+    /**
+     * Check if the field has a primitive type, i.e. can never be null.
+     *
+     * @return true if the field type is primitive
+     */
+    boolean isPrimitive() {
+        return this.field.getType().isPrimitive();
+    }
+
+    String getNamespace() {
+        return this.namespace;
+    }
+
+    String getLocalName() {
+        return this.localName;
+    }
+
+    boolean isList() {
+        return this.list;
+    }
+
+    Class<?> getItemType() {
+        return this.itemType;
+    }
+
+    /**
+     * Get the {@link SimpleType} of the property.
+     *
+     * @return the {@link SimpleType}, or null if the property has a complex type
+     */
+    SimpleType getSimpleType() {
+        return this.simpleType;
+    }
+
+    /**
+     * Get the type of the XmlAdapter used to convert the value.
+     *
+     * @return the adapter type, or null if no adapter is used
+     */
+    Class<?> getAdapterType() {
+        return this.adapterType;
+    }
+
+    boolean isSimple() {
+        return this.simpleType != null;
+    }
+}
@@ -0,0 +1,209 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits the source of the class holding the generated read methods.
+ * <p>
+ * Every read method expects the {@link javax.xml.stream.XMLStreamReader}
+ * to be positioned on the START_ELEMENT of the element to read and leaves
+ * it positioned on the event following the matching END_ELEMENT. This
+ * is the same contract as for JAXB's StAX unmarshalling, which allows
+ * to mix generated methods with the JAXB fallback.
+ */
+final class ReaderEmitter {
+
+    private final String packageName;
+    private final Collection<TypeBinding> bindings;
+
+    ReaderEmitter(String packageName, Collection<TypeBinding> bindings) {
+        this.packageName = packageName;
+        this.bindings = bindings;
+    }
+
+    /**
+     * Emit the Java source.
+     *
+     * @return the Java source
+     */
+    String emit() {
+        SourceBuilder sb = new SourceBuilder();
+        sb.line("package %s;", this.packageName)
+                .blank()
+                .line("import %s.StaxSupport;", Names.RUNTIME_PACKAGE)
+                .line("import jakarta.xml.bind.JAXBException;")
+                .blank()
+                .line("import javax.annotation.processing.Generated;")
+                .line("import javax.xml.stream.XMLStreamConstants;")
+                .line("import javax.xml.stream.XMLStreamException;")
+                .line("import javax.xml.stream.XMLStreamReader;")
+                .blank();
+
+        GeneratedSources.classComment(sb, "Generated StAX read methods.", this.bindings);
+        GeneratedSources.generatedAnnotation(sb);
+        sb.open("final class %s", Names.READERS_CLASS);
+
+        GeneratedSources.adapterConstants(sb, this.bindings, this.packageName);
+
+        sb.open("private %s()", Names.READERS_CLASS)
+                .line("// Empty")
+                .close();
+
+        for (TypeBinding binding : this.bindings) {
+            sb.blank();
+            this.emitReadMethod(sb, binding);
+        }
+
+        sb.close();
+        return sb.toString();
+    }
+
+    private void emitReadMethod(SourceBuilder sb, TypeBinding binding) {
+        String typeName = Names.typeName(binding.getType(), this.packageName);
+        sb.open("static %s read%s(XMLStreamReader r, StaxSupport s) throws XMLStreamException, JAXBException",
+                typeName, Names.methodSuffix(binding.getType()));
+
+        if (!binding.isSupported()) {
+            sb.line("// Unsupported: %s", binding.getUnsupportedReason())
+                    .line("return s.unmarshal(r, %s.class);", typeName)
+                    .close();
+            return;
+        }
+
+        sb.open("if (s.hasXsiType(r))")
+                .line("return s.unmarshal(r, %s.class);", typeName)
+                .close()
+                .line("%s o = new %s();", typeName, typeName);
+
+        if (!binding.getAttributes().isEmpty()) {
+            this.emitAttributes(sb, binding.getAttributes());
+        }
+
+        PropertyBinding value = binding.getValue();
+        if (value != null) {
+            sb.line("StringBuilder text = new StringBuilder();");
+        }
+
+        sb.line("int event = r.next();")
+                .open("while (event != XMLStreamConstants.END_ELEMENT)")
+                .open("if (event == XMLStreamConstants.START_ELEMENT)");
+        if (binding.getElements().isEmpty()) {
+            sb.line("s.skipElement(r);");
+        } else {
+            this.emitElements(sb, binding.getElements());
+        }
+        sb.line("event = r.getEventType();")
+                .close(" else {");
+        if (value != null) {
+            sb.open("if (StaxSupport.isText(event))")
+                    .line("text.append(r.getTextCharacters(), r.getTextStart(), r.getTextLength());")
+                    .close();
+        }
+        sb.line("event = r.next();")
+                .close()
+                .close()
+                .line("r.next();");
+
+        if (value != null) {
+            sb.line("o.%s = %s;", value.getFieldName(), this.parseExpression(value, "text.toString()"));
+        }
+
+        sb.line("return o;")
+                .close();
+    }
+
+    private void emitAttributes(SourceBuilder sb, List<PropertyBinding> attributes) {
+        sb.open("for (int i = 0, n = r.getAttributeCount(); i < n; i++)")
+                .open("switch (r.getAttributeLocalName(i))");
+        for (Map.Entry<String, List<PropertyBinding>> entry : byLocalName(attributes).entrySet()) {
+            sb.line("case %s:", SourceBuilder.literal(entry.getKey())).indent();
+            String prefix = "";
+            for (PropertyBinding attribute : entry.getValue()) {
+                sb.open("%sif (StaxSupport.inNamespace(r.getAttributeNamespace(i), %s))",
+                        prefix, SourceBuilder.literal(attribute.getNamespace()));
+                if (attribute.isList()) {
+                    sb.line("o.%s = new java.util.ArrayList<>();", attribute.getFieldName())
+                            .open("for (String item : StaxSupport.splitList(r.getAttributeValue(i)))")
+                            .line("o.%s.add(%s);", attribute.getFieldName(), this.parseExpression(attribute, "item"))
+                            .close();
+                } else {
+                    sb.line("o.%s = %s;", attribute.getFieldName(), this.parseExpression(attribute, "r.getAttributeValue(i)"));
+                }
+                sb.outdent();
+                prefix = "} else ";
+            }
+            sb.line("}")
+                    .line("break;")
+                    .outdent();
+        }
+        sb.line("default:")
+                .indent()
+                .line("break;")
+                .outdent()
+                .close()
+                .close();
+    }
+
+    private void emitElements(SourceBuilder sb, List<PropertyBinding> elements) {
+        sb.open("switch (r.getLocalName())");
+        for (Map.Entry<String, List<PropertyBinding>> entry : byLocalName(elements).entrySet()) {
+            sb.line("case %s:", SourceBuilder.literal(entry.getKey())).indent();
+            String prefix = "";
+            for (PropertyBinding element : entry.getValue()) {
+                sb.open("%sif (StaxSupport.inNamespace(r.getNamespaceURI(), %s))", prefix, SourceBuilder.literal(element.getNamespace()));
+                String read = element.isSimple()
+                        ? this.parseExpression(element, "s.readText(r)")
+                        : "read" + Names.methodSuffix(element.getItemType()) + "(r, s)";
+                if (element.isList()) {
+                    sb.open("if (o.%s == null)", element.getFieldName())
+                            .line("o.%s = new java.util.ArrayList<>();", element.getFieldName())
+                            .close()
+                            .line("o.%s.add(%s);", element.getFieldName(), read);
+                } else {
+                    sb.line("o.%s = %s;", element.getFieldName(), read);
+                }
+                sb.outdent();
+                prefix = "} else ";
+            }
+            sb.line("} else {")
+                    .indent()
+                    .line("s.skipElement(r);")
+                    .outdent()
+                    .line("}")
+                    .line("break;")
+                    .outdent();
+        }
+        sb.line("default:")
+                .indent()
+                .line("s.skipElement(r);")
+                .line("break;")
+                .outdent()
+                .close();
+    }
+
+    private String parseExpression(PropertyBinding property, String value) {
+        return property.getSimpleType().parse(value, GeneratedSources.qualifier(property, this.packageName));
+    }
+
+    private static Map<String, List<PropertyBinding>> byLocalName(List<PropertyBinding> properties) {
+        Map<String, List<PropertyBinding>> result = new LinkedHashMap<>();
+        for (PropertyBinding property : properties) {
+            result.computeIfAbsent(property.getLocalName(), k -> new ArrayList<>()).add(property);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+/**
+ * Emits the public reader and writer classes of a root element. They
+ * delegate to the methods generated by {@link ReaderEmitter} and
+ * {@link WriterEmitter}.
+ */
+final class RootEmitter {
+
+    private final String packageName;
+    private final BindingIntrospector introspector;
+
+    RootEmitter(String packageName, BindingIntrospector introspector) {
+        this.packageName = packageName;
+        this.introspector = introspector;
+    }
+
+    /**
+     * Emit the Java source of the reader for the given root class.
+     *
+     * @param rootClass the root class
+     * @return the Java source
+     */
+    String emitReader(Class<?> rootClass) {
+        String typeName = Names.typeName(rootClass, this.packageName);
+        SourceBuilder sb = this.header(rootClass, "StaxReader", "javax.xml.stream.XMLStreamReader");
+        sb.open("public final class %s implements StaxReader<%s>", Names.readerClass(rootClass), typeName);
+        this.commonMembers(sb, rootClass);
+        sb.blank()
+                .line("@Override")
+                .open("public %s read(XMLStreamReader reader, StaxSupport support) throws XMLStreamException, JAXBException", typeName);
+        if (BindingIntrospector.isElementClass(rootClass)) {
+            // JAXBElement subclass, the content is bound to its value type
+            sb.line("return new %s(%s.read%s(reader, support));",
+                    typeName, Names.READERS_CLASS, Names.methodSuffix(BindingIntrospector.contentType(rootClass)));
+        } else {
+            sb.line("return %s.read%s(reader, support);", Names.READERS_CLASS, Names.methodSuffix(rootClass));
+        }
+        sb.close()
+                .close();
+        return sb.toString();
+    }
+
+    /**
+     * Emit the Java source of the writer for the given root class.
+     *
+     * @param rootClass the root class
+     * @return the Java source
+     */
+    String emitWriter(Class<?> rootClass) {
+        String typeName = Names.typeName(rootClass, this.packageName);
+        SourceBuilder sb = this.header(rootClass, "StaxWriter", "javax.xml.stream.XMLStreamWriter");
+        sb.open("public final class %s implements StaxWriter<%s>", Names.writerClass(rootClass), typeName);
+        this.commonMembers(sb, rootClass);
+        sb.blank()
+                .line("@Override")
+                .open("public void write(XMLStreamWriter writer, %s value, StaxSupport support) throws XMLStreamException, JAXBException", typeName);
+        if (BindingIntrospector.isElementClass(rootClass)) {
+            // JAXBElement subclass, nil elements are left to JAXB
+            String contentTypeName = Names.typeName(BindingIntrospector.contentType(rootClass), this.packageName);
+            sb.open("if (value.isNil())")
+                    .line("support.marshal(writer, ROOT_ELEMENT.getNamespaceURI(), ROOT_ELEMENT.getLocalPart(), null, %s.class);", contentTypeName)
+                    .line("return;")
+                    .close()
+                    .line("%s.write%s(writer, ROOT_ELEMENT.getNamespaceURI(), ROOT_ELEMENT.getLocalPart(), value.getValue(), support);",
+                            Names.WRITERS_CLASS, Names.methodSuffix(BindingIntrospector.contentType(rootClass)));
+        } else {
+            sb.line("%s.write%s(writer, ROOT_ELEMENT.getNamespaceURI(), ROOT_ELEMENT.getLocalPart(), value, support);",
+                    Names.WRITERS_CLASS, Names.methodSuffix(rootClass));
+        }
+        sb.close()
+                .close();
+        return sb.toString();
+    }
+
+    private SourceBuilder header(Class<?> rootClass, String interfaceName, String streamType) {
+        SourceBuilder sb = new SourceBuilder();
+        sb.line("package %s;", this.packageName)
+                .blank()
+                .line("import %s.%s;", Names.RUNTIME_PACKAGE, interfaceName)
+                .line("import %s.StaxSupport;", Names.RUNTIME_PACKAGE)
+                .line("import jakarta.xml.bind.JAXBException;")
+                .blank()
+                .line("import javax.annotation.processing.Generated;")
+                .line("import javax.xml.namespace.QName;")
+                .line("import javax.xml.stream.XMLStreamException;")
+                .line("import %s;", streamType)
+                .blank()
+                .line("/**")
+                .line(" * Generated {@link %s} for {@link %s}.", interfaceName, Names.typeName(rootClass, this.packageName))
+                .line(" * <p>")
+                .line(" * This class was generated by %s, do not edit.", StaxCodeGenerator.class.getName())
+                .line(" */");
+        GeneratedSources.generatedAnnotation(sb);
+        return sb;
+    }
+
+    private void commonMembers(SourceBuilder sb, Class<?> rootClass) {
+        String typeName = Names.typeName(rootClass, this.packageName);
+        sb.line("private static final QName ROOT_ELEMENT = new QName(%s, %s);",
+                SourceBuilder.literal(this.introspector.rootNamespace(rootClass)),
+                SourceBuilder.literal(this.introspector.rootLocalName(rootClass)))
+                .blank()
+                .line("@Override")
+                .open("public Class<%s> getType()", typeName)
+                .line("return %s.class;", typeName)
+                .close()
+                .blank()
+                .line("@Override")
+                .open("public QName getRootElement()")
+                .line("return ROOT_ELEMENT;")
+                .close();
+    }
+}
@@ -0,0 +1,92 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Simple (text-only) Java types supported by the generated code, together
+ * with the expressions used to parse and print their values.
+ * <p>
+ * The expressions are format strings, where <code>%s</code> is replaced
+ * by the value to parse or print. The semantics follow the JAXB reference
+ * implementation.
+ */
+enum SimpleType {
+
+    STRING("%s", "%s", String.class),
+    BIG_INTEGER("StaxSupport.parseInteger(%s)", "%s.toString()", BigInteger.class),
+    BIG_DECIMAL("StaxSupport.parseDecimal(%s)", "StaxSupport.printDecimal(%s)", BigDecimal.class),
+    INT("StaxSupport.parseInt(%s)", "String.valueOf(%s)", int.class, Integer.class),
+    LONG("StaxSupport.parseLong(%s)", "String.valueOf(%s)", long.class, Long.class),
+    SHORT("StaxSupport.parseShort(%s)", "String.valueOf(%s)", short.class, Short.class),
+    BYTE("StaxSupport.parseByte(%s)", "String.valueOf(%s)", byte.class, Byte.class),
+    BOOLEAN("StaxSupport.parseBoolean(%s)", "String.valueOf(%s)", boolean.class, Boolean.class),
+    DOUBLE("StaxSupport.parseDouble(%s)", "StaxSupport.printDouble(%s)", double.class, Double.class),
+    FLOAT("StaxSupport.parseFloat(%s)", "StaxSupport.printFloat(%s)", float.class, Float.class),
+    CALENDAR("StaxSupport.parseCalendar(%s)", "%s.toXMLFormat()", javax.xml.datatype.XMLGregorianCalendar.class),
+    DURATION("StaxSupport.parseDuration(%s)", "%s.toString()", javax.xml.datatype.Duration.class),
+    ENUM("StaxSupport.parseEnum(%2$s::fromValue, %1$s)", "%s.value()"),
+    ADAPTED("StaxSupport.unmarshalAdapted(%2$s, %1$s)", "StaxSupport.marshalAdapted(%2$s, %1$s)");
+
+    private final String parseExpression;
+    private final String printExpression;
+    private final List<Class<?>> javaTypes;
+
+    SimpleType(String parseExpression, String printExpression, Class<?>... javaTypes) {
+        this.parseExpression = parseExpression;
+        this.printExpression = printExpression;
+        this.javaTypes = Collections.unmodifiableList(Arrays.asList(javaTypes));
+    }
+
+    /**
+     * Find the {@link SimpleType} for a plain Java type. Enums and
+     * adapted types are not covered by this method.
+     *
+     * @param type the Java type
+     * @return the matching {@link SimpleType}, or empty if there is none
+     */
+    static Optional<SimpleType> forJavaType(Class<?> type) {
+        for (SimpleType simpleType : values()) {
+            if (simpleType.javaTypes.contains(type)) {
+                return Optional.of(simpleType);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Build the expression that parses the given String expression.
+     *
+     * @param value     expression of the lexical value
+     * @param qualifier enum type for {@link #ENUM}, adapter constant for {@link #ADAPTED}
+     * @return the parse expression
+     */
+    String parse(String value, String qualifier) {
+        return String.format(this.parseExpression, value, qualifier);
+    }
+
+    /**
+     * Build the expression that prints the given value expression.
+     *
+     * @param value     expression of the value
+     * @param qualifier enum type for {@link #ENUM}, adapter constant for {@link #ADAPTED}
+     * @return the print expression
+     */
+    String print(String value, String qualifier) {
+        return String.format(this.printExpression, value, qualifier);
+    }
+}
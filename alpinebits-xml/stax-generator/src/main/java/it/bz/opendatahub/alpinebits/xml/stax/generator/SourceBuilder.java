@@ -0,0 +1,127 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+/**
+ * Minimal helper to build indented Java source code line by line.
+ */
+final class SourceBuilder {
+
+    private static final String INDENT = "    ";
+
+    private final StringBuilder sb = new StringBuilder();
+    private int level;
+
+    /**
+     * Append a line at the current indentation level.
+     *
+     * @param format format string of the line, see {@link String#format(String, Object...)}
+     * @param args   arguments referenced by the format string
+     * @return this instance
+     */
+    SourceBuilder line(String format, Object... args) {
+        for (int i = 0; i < this.level; i++) {
+            this.sb.append(INDENT);
+        }
+        this.sb.append(args.length == 0 ? format : String.format(format, args)).append('\n');
+        return this;
+    }
+
+    /**
+     * Append a line that opens a block, i.e. appends <code>" {"</code>
+     * to the line and increases the indentation level.
+     *
+     * @param format format string of the line, see {@link String#format(String, Object...)}
+     * @param args   arguments referenced by the format string
+     * @return this instance
+     */
+    SourceBuilder open(String format, Object... args) {
+        this.line((args.length == 0 ? format : String.format(format, args)) + " {");
+        this.level++;
+        return this;
+    }
+
+    /**
+     * Close the current block.
+     *
+     * @return this instance
+     */
+    SourceBuilder close() {
+        return this.close("");
+    }
+
+    /**
+     * Close the current block, continuing the closing line with the given
+     * suffix, e.g. <code>" else {"</code>. If the suffix ends with a
+     * <code>{</code>, a new block is opened.
+     *
+     * @param suffix text appended to the closing brace
+     * @return this instance
+     */
+    SourceBuilder close(String suffix) {
+        this.level--;
+        this.line("}" + suffix);
+        if (suffix.endsWith("{")) {
+            this.level++;
+        }
+        return this;
+    }
+
+    /**
+     * Increase the indentation level without opening a block.
+     *
+     * @return this instance
+     */
+    SourceBuilder indent() {
+        this.level++;
+        return this;
+    }
+
+    /**
+     * Decrease the indentation level without closing a block.
+     *
+     * @return this instance
+     */
+    SourceBuilder outdent() {
+        this.level--;
+        return this;
+    }
+
+    SourceBuilder blank() {
+        this.sb.append('\n');
+        return this;
+    }
+
+    /**
+     * Build a Java String literal for the given value.
+     *
+     * @param value the value
+     * @return the quoted and escaped literal
+     */
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < ' ') {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build-time generator for StAX readers and writers of JAXB bound classes.
+ * <p>
+ * The generator derives the XML mapping from the JAXB annotations of the
+ * classes generated by xjc (see {@link BindingIntrospector}) and emits
+ * the following sources into the package of the root classes:
+ * <ul>
+ *     <li><code>StaxReaders</code> and <code>StaxWriters</code>, holding
+ *     a read and write method for every class reachable from the root classes</li>
+ *     <li><code>&lt;Root&gt;StaxReader</code> and <code>&lt;Root&gt;StaxWriter</code>
+ *     for every root class, implementing the <code>StaxReader</code> and
+ *     <code>StaxWriter</code> interfaces of the runtime module</li>
+ * </ul>
+ * Classes that use JAXB features not supported by the generator are
+ * delegated to JAXB by the generated code.
+ */
+public final class StaxCodeGenerator {
+
+    private StaxCodeGenerator() {
+        // Empty
+    }
+
+    /**
+     * Entry point used by the build.
+     *
+     * @param args the output directory, followed by the fully qualified names of the root classes
+     * @throws IOException            if the sources could not be written
+     * @throws ClassNotFoundException if a root class could not be found
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: StaxCodeGenerator <output directory> <root class>...");
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> rootClasses = new ArrayList<>();
+        for (String className : Arrays.asList(args).subList(1, args.length)) {
+            rootClasses.add(Class.forName(className, false, classLoader));
+        }
+        generate(Paths.get(args[0]), rootClasses);
+    }
+
+    /**
+     * Generate the StAX readers and writers for the given root classes.
+     * Files whose content did not change are not rewritten.
+     *
+     * @param outputDirectory the source root to write to
+     * @param rootClasses     the root classes, all annotated with
+     *                        {@link jakarta.xml.bind.annotation.XmlRootElement}
+     *                        or subclasses of {@link jakarta.xml.bind.JAXBElement},
+     *                        and declared in the same package
+     * @return the generated files
+     * @throws IOException if the sources could not be written
+     */
+    public static List<Path> generate(Path outputDirectory, List<Class<?>> rootClasses) throws IOException {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException("The output directory must not be null");
+        }
+        if (rootClasses == null || rootClasses.isEmpty()) {
+            throw new IllegalArgumentException("The root classes must not be null or empty");
+        }
+        String packageName = rootClasses.get(0).getPackage().getName();
+        for (Class<?> rootClass : rootClasses) {
+            if (!rootClass.getPackage().getName().equals(packageName)) {
+                throw new IllegalArgumentException("All root classes must be declared in package " + packageName
+                        + ", but " + rootClass.getName() + " is not");
+            }
+        }
+
+        BindingIntrospector introspector = new BindingIntrospector(packageName);
+        List<Class<?>> contentTypes = new ArrayList<>();
+        for (Class<?> rootClass : rootClasses) {
+            contentTypes.add(BindingIntrospector.contentType(rootClass));
+        }
+        Map<Class<?>, TypeBinding> bindings = introspector.reachableBindings(contentTypes);
+        Collection<TypeBinding> allBindings = bindings.values();
+
+        Path packageDirectory = outputDirectory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(packageDirectory);
+
+        List<Path> files = new ArrayList<>();
+        files.add(write(packageDirectory, Names.READERS_CLASS, new ReaderEmitter(packageName, allBindings).emit()));
+        files.add(write(packageDirectory, Names.WRITERS_CLASS, new WriterEmitter(packageName, allBindings).emit()));
+
+        RootEmitter rootEmitter = new RootEmitter(packageName, introspector);
+        for (Class<?> rootClass : rootClasses) {
+            files.add(write(packageDirectory, Names.readerClass(rootClass), rootEmitter.emitReader(rootClass)));
+            files.add(write(packageDirectory, Names.writerClass(rootClass), rootEmitter.emitWriter(rootClass)));
+        }
+        return files;
+    }
+
+    private static Path write(Path packageDirectory, String className, String source) throws IOException {
+        Path file = packageDirectory.resolve(className + ".java");
+        byte[] content = source.getBytes(StandardCharsets.UTF_8);
+        if (!Files.exists(file) || !Arrays.equals(Files.readAllBytes(file), content)) {
+            Files.write(file, content);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes how a JAXB bound class maps to XML.
+ * <p>
+ * A class is supported, if all its fields can be read and written by
+ * generated code. Unsupported classes are left to JAXB.
+ */
+final class TypeBinding {
+
+    private final Class<?> type;
+    private final List<PropertyBinding> attributes;
+    private final List<PropertyBinding> elements;
+    private final PropertyBinding value;
+    private final String unsupportedReason;
+
+    private TypeBinding(
+            Class<?> type,
+            List<PropertyBinding> attributes,
+            List<PropertyBinding> elements,
+            PropertyBinding value,
+            String unsupportedReason
+    ) {
+        this.type = type;
+        this.attributes = attributes;
+        this.elements = elements;
+        this.value = value;
+        this.unsupportedReason = unsupportedReason;
+    }
+
+    static TypeBinding supported(Class<?> type, List<PropertyBinding> attributes, List<PropertyBinding> elements, PropertyBinding value) {
+        return new TypeBinding(type, Collections.unmodifiableList(attributes), Collections.unmodifiableList(elements), value, null);
+    }
+
+    static TypeBinding unsupported(Class<?> type, String reason) {
+        return new TypeBinding(type, Collections.emptyList(), Collections.emptyList(), null, reason);
+    }
+
+    Class<?> getType() {
+        return this.type;
+    }
+
+    List<PropertyBinding> getAttributes() {
+        return this.attributes;
+    }
+
+    List<PropertyBinding> getElements() {
+        return this.elements;
+    }
+
+    /**
+     * Get the property bound to the text content of the element.
+     *
+     * @return the value property, or null if there is none
+     */
+    PropertyBinding getValue() {
+        return this.value;
+    }
+
+    boolean isSupported() {
+        return this.unsupportedReason == null;
+    }
+
+    /**
+     * Get the reason, why the class is not supported.
+     *
+     * @return the reason, or null if the class is supported
+     */
+    String getUnsupportedReason() {
+        return this.unsupportedReason;
+    }
+}
@@ -0,0 +1,180 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import java.util.Collection;
+
+/**
+ * Emits the source of the class holding the generated write methods.
+ * <p>
+ * Every write method writes a complete element, including its start and
+ * end tag. Attributes and child elements are written in the order defined
+ * by the JAXB annotations.
+ */
+final class WriterEmitter {
+
+    private final String packageName;
+    private final Collection<TypeBinding> bindings;
+
+    WriterEmitter(String packageName, Collection<TypeBinding> bindings) {
+        this.packageName = packageName;
+        this.bindings = bindings;
+    }
+
+    /**
+     * Emit the Java source.
+     *
+     * @return the Java source
+     */
+    String emit() {
+        SourceBuilder sb = new SourceBuilder();
+        sb.line("package %s;", this.packageName)
+                .blank()
+                .line("import %s.StaxSupport;", Names.RUNTIME_PACKAGE)
+                .line("import jakarta.xml.bind.JAXBException;")
+                .blank()
+                .line("import javax.annotation.processing.Generated;")
+                .line("import javax.xml.stream.XMLStreamException;")
+                .line("import javax.xml.stream.XMLStreamWriter;")
+                .blank();
+
+        GeneratedSources.classComment(sb, "Generated StAX write methods.", this.bindings);
+        GeneratedSources.generatedAnnotation(sb);
+        sb.open("final class %s", Names.WRITERS_CLASS);
+
+        GeneratedSources.adapterConstants(sb, this.bindings, this.packageName);
+
+        sb.open("private %s()", Names.WRITERS_CLASS)
+                .line("// Empty")
+                .close();
+
+        for (TypeBinding binding : this.bindings) {
+            sb.blank();
+            this.emitWriteMethod(sb, binding);
+        }
+
+        sb.close();
+        return sb.toString();
+    }
+
+    private void emitWriteMethod(SourceBuilder sb, TypeBinding binding) {
+        String typeName = Names.typeName(binding.getType(), this.packageName);
+        sb.open("static void write%s(XMLStreamWriter w, String namespace, String localName, %s o, StaxSupport s)"
+                        + " throws XMLStreamException, JAXBException",
+                Names.methodSuffix(binding.getType()), typeName);
+
+        if (!binding.isSupported()) {
+            sb.line("// Unsupported: %s", binding.getUnsupportedReason())
+                    .line("s.marshal(w, namespace, localName, o, %s.class);", typeName)
+                    .close();
+            return;
+        }
+
+        sb.open("if (o.getClass() != %s.class)", typeName)
+                .line("s.marshal(w, namespace, localName, o, %s.class);", typeName)
+                .line("return;")
+                .close()
+                .line("s.writeStartElement(w, namespace, localName);");
+
+        for (PropertyBinding attribute : binding.getAttributes()) {
+            this.emitAttribute(sb, attribute);
+        }
+
+        for (PropertyBinding element : binding.getElements()) {
+            this.emitElement(sb, element);
+        }
+
+        PropertyBinding value = binding.getValue();
+        if (value != null) {
+            this.guarded(sb, value, "o." + value.getFieldName(), v ->
+                    sb.line("s.writeText(w, %s);", this.printExpression(value, v)));
+        }
+
+        sb.line("w.writeEndElement();")
+                .close();
+    }
+
+    private void emitAttribute(SourceBuilder sb, PropertyBinding attribute) {
+        String field = "o." + attribute.getFieldName();
+        String namespace = SourceBuilder.literal(attribute.getNamespace());
+        String localName = SourceBuilder.literal(attribute.getLocalName());
+
+        if (!attribute.isList()) {
+            this.guarded(sb, attribute, field, value ->
+                    sb.line("s.writeAttribute(w, %s, %s, %s);", namespace, localName, this.printExpression(attribute, value)));
+            return;
+        }
+
+        String itemType = Names.typeName(attribute.getItemType(), this.packageName);
+        sb.open("if (%s != null)", field)
+                .line("StringBuilder list = new StringBuilder();")
+                .open("for (%s item : %s)", itemType, field)
+                .open("if (item != null)")
+                .open("if (list.length() > 0)")
+                .line("list.append(' ');")
+                .close()
+                .line("list.append(%s);", this.printExpression(attribute, "item"))
+                .close()
+                .close()
+                .line("s.writeAttribute(w, %s, %s, list.toString());", namespace, localName)
+                .close();
+    }
+
+    private void emitElement(SourceBuilder sb, PropertyBinding element) {
+        String field = "o." + element.getFieldName();
+        String namespace = SourceBuilder.literal(element.getNamespace());
+        String localName = SourceBuilder.literal(element.getLocalName());
+
+        ValueWriter writeValue = value -> {
+            if (element.isSimple()) {
+                sb.line("s.writeSimpleElement(w, %s, %s, %s);", namespace, localName, this.printExpression(element, value));
+            } else {
+                sb.line("write%s(w, %s, %s, %s, s);", Names.methodSuffix(element.getItemType()), namespace, localName, value);
+            }
+        };
+
+        if (!element.isList()) {
+            this.guarded(sb, element, field, writeValue);
+            return;
+        }
+
+        String itemType = Names.typeName(element.getItemType(), this.packageName);
+        sb.open("if (%s != null)", field)
+                .open("for (%s item : %s)", itemType, field)
+                .open("if (item != null)");
+        writeValue.write("item");
+        sb.close()
+                .close()
+                .close();
+    }
+
+    private void guarded(SourceBuilder sb, PropertyBinding property, String value, ValueWriter writeValue) {
+        if (property.isPrimitive()) {
+            writeValue.write(value);
+            return;
+        }
+        sb.open("if (%s != null)", value);
+        writeValue.write(value);
+        sb.close();
+    }
+
+    private String printExpression(PropertyBinding property, String value) {
+        return property.getSimpleType().print(value, GeneratedSources.qualifier(property, this.packageName));
+    }
+
+    /**
+     * Emits the statement that writes a single, non-null value.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(String value);
+    }
+}
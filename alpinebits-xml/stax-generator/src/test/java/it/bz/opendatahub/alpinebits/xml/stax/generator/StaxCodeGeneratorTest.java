@@ -0,0 +1,142 @@
+// SPDX-FileCopyrightText: NOI Techpark <digital@noi.bz.it>
+//
+// SPDX-License-Identifier: MPL-2.0
+
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package it.bz.opendatahub.alpinebits.xml.stax.generator;
+
+import it.bz.opendatahub.alpinebits.xml.schema.ota.MessageAcknowledgementType;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRS;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAPingRQ;
+import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAResRetrieveRS;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test cases for {@link StaxCodeGenerator} class.
+ */
+public class StaxCodeGeneratorTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGenerate_ThrowsIfOutputDirectoryIsNull() throws IOException {
+        StaxCodeGenerator.generate(null, Collections.singletonList(OTAPingRQ.class));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGenerate_ThrowsIfRootClassesAreEmpty() throws IOException {
+        StaxCodeGenerator.generate(Files.createTempDirectory("stax"), Collections.emptyList());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGenerate_ThrowsIfRootClassesAreInDifferentPackages() throws IOException {
+        StaxCodeGenerator.generate(Files.createTempDirectory("stax"), Arrays.asList(OTAPingRQ.class, String.class));
+    }
+
+    @Test
+    public void testGenerate_WritesSharedAndRootClasses() throws IOException {
+        Path outputDirectory = Files.createTempDirectory("stax");
+        List<Path> files = StaxCodeGenerator.generate(outputDirectory, Arrays.asList(OTAPingRQ.class, OTAHotelAvailNotifRQ.class));
+
+        assertEquals(files.size(), 6);
+        for (Path file : files) {
+            assertTrue(Files.exists(file));
+        }
+
+        String readers = read(outputDirectory, "StaxReaders");
+        assertTrue(readers.contains("static OTAHotelAvailNotifRQ readOTAHotelAvailNotifRQ(XMLStreamReader r, StaxSupport s)"));
+        assertTrue(readers.contains("static OTAHotelAvailNotifRQ.AvailStatusMessages readOTAHotelAvailNotifRQ_AvailStatusMessages("));
+        assertTrue(readers.contains("private static final jakarta.xml.bind.annotation.adapters.CollapsedStringAdapter COLLAPSED_STRING_ADAPTER"));
+
+        String writers = read(outputDirectory, "StaxWriters");
+        assertTrue(writers.contains("static void writeOTAPingRQ(XMLStreamWriter w, String namespace, String localName, OTAPingRQ o, StaxSupport s)"));
+
+        String rootReader = read(outputDirectory, "OTAPingRQStaxReader");
+        assertTrue(rootReader.contains("public final class OTAPingRQStaxReader implements StaxReader<OTAPingRQ>"));
+        assertTrue(rootReader.contains("new QName(\"http://www.opentravel.org/OTA/2003/05\", \"OTA_PingRQ\")"));
+    }
+
+    @Test
+    public void testGenerate_WritesElementRootClasses() throws IOException {
+        Path outputDirectory = Files.createTempDirectory("stax");
+        StaxCodeGenerator.generate(outputDirectory, Collections.singletonList(OTAHotelAvailNotifRS.class));
+
+        String readers = read(outputDirectory, "StaxReaders");
+        assertTrue(readers.contains("static MessageAcknowledgementType readMessageAcknowledgementType(XMLStreamReader r, StaxSupport s)"));
+
+        String rootReader = read(outputDirectory, "OTAHotelAvailNotifRSStaxReader");
+        assertTrue(rootReader.contains("public final class OTAHotelAvailNotifRSStaxReader implements StaxReader<OTAHotelAvailNotifRS>"));
+        assertTrue(rootReader.contains("new QName(\"http://www.opentravel.org/OTA/2003/05\", \"OTA_HotelAvailNotifRS\")"));
+        assertTrue(rootReader.contains("return new OTAHotelAvailNotifRS(StaxReaders.readMessageAcknowledgementType(reader, support));"));
+
+        String rootWriter = read(outputDirectory, "OTAHotelAvailNotifRSStaxWriter");
+        assertTrue(rootWriter.contains("StaxWriters.writeMessageAcknowledgementType(writer, ROOT_ELEMENT.getNamespaceURI(), "
+                + "ROOT_ELEMENT.getLocalPart(), value.getValue(), support);"));
+    }
+
+    @Test
+    public void testIntrospect_ContentTypeOfElementRootClass() {
+        assertEquals(BindingIntrospector.contentType(OTAHotelAvailNotifRS.class), MessageAcknowledgementType.class);
+        assertEquals(BindingIntrospector.contentType(OTAPingRQ.class), OTAPingRQ.class);
+    }
+
+    @Test
+    public void testGenerate_DoesNotRewriteUnchangedFiles() throws IOException {
+        Path outputDirectory = Files.createTempDirectory("stax");
+        List<Path> files = StaxCodeGenerator.generate(outputDirectory, Collections.singletonList(OTAPingRQ.class));
+        Path file = files.get(0);
+        Files.setLastModifiedTime(file, java.nio.file.attribute.FileTime.fromMillis(0));
+
+        StaxCodeGenerator.generate(outputDirectory, Collections.singletonList(OTAPingRQ.class));
+
+        assertEquals(Files.getLastModifiedTime(file).toMillis(), 0);
+    }
+
+    @Test
+    public void testIntrospect_UnsupportedFeaturesFallBackToJaxb() {
+        BindingIntrospector introspector = new BindingIntrospector(OTAPingRQ.class.getPackage().getName());
+
+        List<TypeBinding> unsupported = introspector.reachableBindings(Collections.singletonList(OTAResRetrieveRS.class))
+                .values()
+                .stream()
+                .filter(binding -> !binding.isSupported())
+                .collect(java.util.stream.Collectors.toList());
+
+        assertFalse(unsupported.isEmpty());
+        for (TypeBinding binding : unsupported) {
+            assertFalse(binding.getUnsupportedReason().isEmpty());
+        }
+    }
+
+    @Test
+    public void testIntrospect_ElementsFollowPropOrder() {
+        BindingIntrospector introspector = new BindingIntrospector(OTAPingRQ.class.getPackage().getName());
+
+        TypeBinding binding = introspector.introspect(OTAPingRQ.class);
+
+        assertTrue(binding.isSupported());
+        assertEquals(binding.getElements().get(0).getLocalName(), "EchoData");
+        assertTrue(binding.getElements().get(0).isSimple());
+    }
+
+    private static String read(Path outputDirectory, String className) throws IOException {
+        Path file = outputDirectory.resolve("it/bz/opendatahub/alpinebits/xml/schema/ota/" + className + ".java");
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
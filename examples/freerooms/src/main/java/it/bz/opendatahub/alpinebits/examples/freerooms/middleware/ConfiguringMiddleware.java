@@ -14,21 +14,34 @@ import it.bz.opendatahub.alpinebits.common.constants.AlpineBitsCapability;
 import it.bz.opendatahub.alpinebits.common.constants.AlpineBitsVersion;
 import it.bz.opendatahub.alpinebits.common.utils.middleware.ComposingMiddlewareBuilder;
 import it.bz.opendatahub.alpinebits.examples.freerooms.middleware.configuration.FreeRoomsMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.examples.freerooms.middleware.configuration.XmlMiddlewareBuilder;
 import it.bz.opendatahub.alpinebits.housekeeping.middleware.HousekeepingGetCapabilitiesMiddleware;
 import it.bz.opendatahub.alpinebits.housekeeping.middleware.HousekeepingGetVersionMiddleware;
 import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
 import it.bz.opendatahub.alpinebits.routing.DefaultRouter;
+import it.bz.opendatahub.alpinebits.routing.RouterWarmUpRequests;
 import it.bz.opendatahub.alpinebits.routing.Router;
 import it.bz.opendatahub.alpinebits.routing.constants.Action;
 import it.bz.opendatahub.alpinebits.routing.middleware.RoutingMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpProvider;
+import it.bz.opendatahub.alpinebits.servlet.WarmUpRequest;
 import it.bz.opendatahub.alpinebits.servlet.middleware.AlpineBitsClientProtocolMiddleware;
 import it.bz.opendatahub.alpinebits.servlet.middleware.BasicAuthenticationMiddleware;
-import it.bz.opendatahub.alpinebits.servlet.middleware.GzipUnsupportedMiddleware;
+import it.bz.opendatahub.alpinebits.servlet.middleware.GzipDecompressionMiddleware;
 import it.bz.opendatahub.alpinebits.servlet.middleware.MultipartFormDataParserMiddleware;
+import it.bz.opendatahub.alpinebits.xml.SchemaFormat;
+import it.bz.opendatahub.alpinebits.xml.XmlSchemaRegistry;
+import it.bz.opendatahub.alpinebits.xml.XmlWarmUp;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This {@link Middleware} configures a set of middlewares, such that
@@ -41,18 +54,29 @@ import java.util.Arrays;
  * password combination is valid. In other words: a request MUST contain
  * basic authentication information, but that information is not checked
  * any further.
+ * <p>
+ * Gzip compressed requests are accepted, see {@link GzipDecompressionMiddleware}.
+ * <p>
+ * As a {@link WarmUpProvider}, this middleware preloads the XML schemas and
+ * provides a warm-up request for each route. The request XML is read from
+ * the <code>warm-up</code> classpath folder, e.g. <code>warm-up/OTA_HotelAvailNotif_FreeRooms.xml</code>
+ * for the <code>OTA_HotelAvailNotif:FreeRooms</code> action.
  */
-public class ConfiguringMiddleware implements Middleware {
+public class ConfiguringMiddleware implements Middleware, WarmUpProvider {
+
+    private static final String WARM_UP_FOLDER = "warm-up/";
 
+    private final Router router;
     private final Middleware middleware;
 
     public ConfiguringMiddleware() {
+        this.router = this.buildRouter();
         this.middleware = ComposingMiddlewareBuilder.compose(Arrays.asList(
                 new AlpineBitsClientProtocolMiddleware(),
                 new BasicAuthenticationMiddleware(),
-                new GzipUnsupportedMiddleware(),
+                new GzipDecompressionMiddleware(),
                 new MultipartFormDataParserMiddleware(),
-                this.buildRoutingMiddleware()
+                new RoutingMiddleware(this.router)
         ));
     }
 
@@ -61,8 +85,22 @@ public class ConfiguringMiddleware implements Middleware {
         this.middleware.handleContext(ctx, chain);
     }
 
-    private Middleware buildRoutingMiddleware() {
-        Router router = new DefaultRouter.Builder()
+    @Override
+    public List<Runnable> getPreloadTasks() {
+        return XmlWarmUp.preloadTasks(
+                XmlSchemaRegistry.getInstance(),
+                Collections.singletonList(XmlMiddlewareBuilder.ALPINEBITS_VERSION),
+                Collections.singletonList(SchemaFormat.RNG)
+        );
+    }
+
+    @Override
+    public List<WarmUpRequest> getWarmUpRequests() {
+        return RouterWarmUpRequests.fromRouter(this.router, (version, action) -> readWarmUpRequest(action));
+    }
+
+    private Router buildRouter() {
+        return new DefaultRouter.Builder()
                 .version(AlpineBitsVersion.V_2017_10)
                 .supportsAction(Action.GET_VERSION)
                 .withCapabilities(AlpineBitsCapability.GET_VERSION)
@@ -82,7 +120,15 @@ public class ConfiguringMiddleware implements Middleware {
                 .using(FreeRoomsMiddlewareBuilder.buildFreeRoomsMiddleware())
                 .versionComplete()
                 .buildRouter();
-        return new RoutingMiddleware(router);
+    }
+
+    private static String readWarmUpRequest(String action) {
+        String resource = WARM_UP_FOLDER + action.replace(':', '_') + ".xml";
+        try (InputStream is = ConfiguringMiddleware.class.getClassLoader().getResourceAsStream(resource)) {
+            return is == null ? null : new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read warm-up request " + resource, e);
+        }
     }
 
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Key;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.servlet.middleware.WarmUpSkippingMiddleware;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRQ;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelAvailNotifRS;
 
@@ -35,8 +36,10 @@ public class FreeRoomsMiddleware implements Middleware {
         // Get necessary objects from middleware context
         OTAHotelAvailNotifRQ otaHotelAvailNotifRQ = ctx.getOrThrow(OTA_FREE_ROOMS_REQUEST);
 
-        // Use a service to invoke the business logic
-        OTAHotelAvailNotifRS otaHotelAvailNotifRS = freeRoomsService.logFreeRooms(otaHotelAvailNotifRQ);
+        // Use a service to invoke the business logic, warm-up requests must not be persisted
+        OTAHotelAvailNotifRS otaHotelAvailNotifRS = WarmUpSkippingMiddleware.isWarmUp(ctx)
+                ? freeRoomsService.acknowledge()
+                : freeRoomsService.logFreeRooms(otaHotelAvailNotifRQ);
 
         // Put result back into middleware context
         ctx.put(OTA_FREE_ROOMS_RESPONSE, otaHotelAvailNotifRS);
@@ -65,6 +65,16 @@ public class FreeRoomsService {
         }
     }
 
+    /**
+     * Build a success response without logging anything. This method
+     * is used for warm-up requests, that must not be persisted.
+     *
+     * @return A {@link OTAHotelAvailNotifRS} instance containing a success message.
+     */
+    public OTAHotelAvailNotifRS acknowledge() {
+        return buildSuccess();
+    }
+
     private OTAHotelAvailNotifRS buildSuccess() {
         MessageAcknowledgementType mat = new MessageAcknowledgementType();
         mat.setSuccess(new SuccessType());
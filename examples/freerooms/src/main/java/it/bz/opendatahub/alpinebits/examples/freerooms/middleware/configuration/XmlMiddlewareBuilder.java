@@ -12,37 +12,33 @@ package it.bz.opendatahub.alpinebits.examples.freerooms.middleware.configuration
 
 import it.bz.opendatahub.alpinebits.middleware.Key;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
-import it.bz.opendatahub.alpinebits.xml.JAXBObjectToXmlConverter;
-import it.bz.opendatahub.alpinebits.xml.JAXBXmlToObjectConverter;
 import it.bz.opendatahub.alpinebits.xml.ObjectToXmlConverter;
+import it.bz.opendatahub.alpinebits.xml.SchemaFormat;
+import it.bz.opendatahub.alpinebits.xml.XmlSchemaRegistry;
 import it.bz.opendatahub.alpinebits.xml.XmlToObjectConverter;
-import it.bz.opendatahub.alpinebits.xml.XmlValidationSchemaProvider;
 import it.bz.opendatahub.alpinebits.xml.middleware.XmlRequestMappingMiddleware;
 import it.bz.opendatahub.alpinebits.xml.middleware.XmlResponseMappingMiddleware;
 
-import javax.xml.validation.Schema;
-
 /**
  * Utility class to build XML middlewares.
  */
 public final class XmlMiddlewareBuilder {
 
+    public static final String ALPINEBITS_VERSION = "2017-10";
+
     private XmlMiddlewareBuilder() {
         // Empty
     }
 
     public static <T> Middleware buildXmlToObjectConvertingMiddleware(Key<T> key) {
-        Schema schema = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
-        XmlToObjectConverter<T> converter = new JAXBXmlToObjectConverter.Builder<>(key.getType()).schema(schema).build();
+        XmlToObjectConverter<T> converter = XmlSchemaRegistry.getInstance()
+                .getXmlToObjectConverter(ALPINEBITS_VERSION, SchemaFormat.RNG, key.getType());
         return new XmlRequestMappingMiddleware<>(converter, key);
     }
 
     public static <T> Middleware buildObjectToXmlConvertingMiddleware(Key<T> key) {
-        Schema schema = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
-        ObjectToXmlConverter converter = new JAXBObjectToXmlConverter.Builder()
-                .schema(schema)
-                .prettyPrint(true)
-                .build();
+        ObjectToXmlConverter converter = XmlSchemaRegistry.getInstance()
+                .getObjectToXmlConverter(ALPINEBITS_VERSION, SchemaFormat.RNG, true);
         return new XmlResponseMappingMiddleware<>(converter, key);
     }
 
@@ -11,15 +11,15 @@
 package it.bz.opendatahub.alpinebits.examples.inventory.middleware;
 
 import it.bz.opendatahub.alpinebits.common.exception.AlpineBitsException;
-import it.bz.opendatahub.alpinebits.xml.JAXBXmlToObjectConverter;
+import it.bz.opendatahub.alpinebits.examples.inventory.middleware.configuration.XmlMiddlewareBuilder;
+import it.bz.opendatahub.alpinebits.xml.SchemaFormat;
+import it.bz.opendatahub.alpinebits.xml.XmlSchemaRegistry;
 import it.bz.opendatahub.alpinebits.xml.XmlToObjectConverter;
-import it.bz.opendatahub.alpinebits.xml.XmlValidationSchemaProvider;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRQ;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRQ.HotelDescriptiveInfos.HotelDescriptiveInfo;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRS;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveInfoRS.HotelDescriptiveContents.HotelDescriptiveContent;
 
-import javax.xml.validation.Schema;
 import java.io.InputStream;
 
 /**
@@ -31,8 +31,9 @@ public class InventoryPullService {
     private final XmlToObjectConverter<OTAHotelDescriptiveInfoRS> converter;
 
     public InventoryPullService() {
-        Schema schema = XmlValidationSchemaProvider.buildRngSchemaForAlpineBitsVersion("2017-10");
-        converter = new JAXBXmlToObjectConverter.Builder<>(OTAHotelDescriptiveInfoRS.class).schema(schema).build();
+        // The converter is shared, since this service is created per request
+        converter = XmlSchemaRegistry.getInstance()
+                .getXmlToObjectConverter(XmlMiddlewareBuilder.ALPINEBITS_VERSION, SchemaFormat.RNG, OTAHotelDescriptiveInfoRS.class);
     }
 
     /**
@@ -17,6 +17,7 @@ import it.bz.opendatahub.alpinebits.middleware.Context;
 import it.bz.opendatahub.alpinebits.middleware.Key;
 import it.bz.opendatahub.alpinebits.middleware.Middleware;
 import it.bz.opendatahub.alpinebits.middleware.MiddlewareChain;
+import it.bz.opendatahub.alpinebits.servlet.middleware.WarmUpSkippingMiddleware;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRQ;
 import it.bz.opendatahub.alpinebits.xml.schema.ota.OTAHotelDescriptiveContentNotifRS;
 
@@ -45,8 +46,11 @@ public class InventoryPushMiddleware implements Middleware {
         String action = ctx.getOrThrow(RequestContextKey.REQUEST_ACTION);
         OTAHotelDescriptiveContentNotifRQ otaHotelDescriptiveContentNotifRQ = ctx.getOrThrow(OTA_INVENTORY_PUSH_REQUEST);
 
-        // Call service for persistence
+        // Call service for persistence, warm-up requests must not be persisted
         InventoryPushService service = new InventoryPushService();
+        if (WarmUpSkippingMiddleware.isWarmUp(ctx)) {
+            return service.acknowledge();
+        }
         if (AlpineBitsAction.INVENTORY_BASIC_PUSH.equals(action)) {
             return service.logInventoryBasic(otaHotelDescriptiveContentNotifRQ);
         } else if (AlpineBitsAction.INVENTORY_HOTEL_INFO_PUSH.equals(action)) {
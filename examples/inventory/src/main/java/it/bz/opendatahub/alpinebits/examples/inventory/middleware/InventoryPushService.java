@@ -90,6 +90,16 @@ public class InventoryPushService {
         }
     }
 
+    /**
+     * Build a success response without logging anything. This method
+     * is used for warm-up requests, that must not be persisted.
+     *
+     * @return A {@link OTAHotelDescriptiveContentNotifRS} instance containing a success message.
+     */
+    public OTAHotelDescriptiveContentNotifRS acknowledge() {
+        return buildSuccess();
+    }
+
     private OTAHotelDescriptiveContentNotifRS buildSuccess() {
         MessageAcknowledgementType mat = new MessageAcknowledgementType();
         mat.setSuccess(new SuccessType());